@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.analysis.core.tests.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.os.linux.core.model.ProcessStatus;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.ProcessStatusInterval;
+import org.eclipse.tracecompass.incubator.analysis.core.model.IHostModel;
+import org.eclipse.tracecompass.incubator.analysis.core.model.ThreadStatusCursor;
+import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Test the {@link ThreadStatusCursor} class
+ */
+public class ThreadStatusCursorTest {
+
+    private static final int TID = 42;
+
+    /**
+     * Host model stub returning the statuses of one thread, and counting the
+     * queries and the intervals read
+     */
+    private static class StubHostModel implements IHostModel {
+
+        private final List<ProcessStatusInterval> fIntervals;
+        private int fQueries = 0;
+        private int fRead = 0;
+
+        public StubHostModel(List<ProcessStatusInterval> intervals) {
+            fIntervals = intervals;
+        }
+
+        @Override
+        public Iterable<ProcessStatusInterval> getThreadStatusIntervals(int tid, long start, long end, long resolution) {
+            assertEquals(TID, tid);
+            fQueries++;
+            return () -> {
+                Iterator<ProcessStatusInterval> iterator = fIntervals.stream()
+                        .filter(interval -> interval.getEnd() >= start && interval.getStart() <= end)
+                        .iterator();
+                return new Iterator<ProcessStatusInterval>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public ProcessStatusInterval next() {
+                        fRead++;
+                        return iterator.next();
+                    }
+                };
+            };
+        }
+
+        @Override
+        public int getThreadOnCpu(int cpu, long t, boolean block) {
+            return -1;
+        }
+
+        @Override
+        public int getProcessId(int tid, long t) {
+            return -1;
+        }
+
+        @Override
+        public @Nullable String getExecName(int tid, long t) {
+            return null;
+        }
+
+        @Override
+        public long getCpuTime(int tid, long start, long end) {
+            return -1;
+        }
+
+        @Override
+        public Collection<AggregatedCallSite> getSamplingData(int tid, long start, long end) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isSamplingDataAvailable() {
+            return false;
+        }
+
+        @Override
+        public boolean isThreadStatusAvailable() {
+            return true;
+        }
+
+        @Override
+        public Collection<IAnalysisModule> getRequiredModules(EnumSet<ModelDataType> requiredData) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void dispose() {
+            // Nothing to do
+        }
+    }
+
+    private static final List<ProcessStatusInterval> INTERVALS = ImmutableList.of(
+            new ProcessStatusInterval(0, 9, ProcessStatus.RUN),
+            new ProcessStatusInterval(10, 29, ProcessStatus.WAIT_CPU),
+            new ProcessStatusInterval(30, 34, ProcessStatus.RUN),
+            new ProcessStatusInterval(35, 99, ProcessStatus.WAIT_BLOCKED));
+
+    /**
+     * Test the statuses of successive ranges in time order, each interval
+     * should be read once
+     */
+    @Test
+    public void testSuccessiveRanges() {
+        StubHostModel model = new StubHostModel(INTERVALS);
+        ThreadStatusCursor cursor = new ThreadStatusCursor(model, TID);
+
+        assertStatuses(ImmutableList.of(
+                new ProcessStatusInterval(5, 9, ProcessStatus.RUN),
+                new ProcessStatusInterval(10, 15, ProcessStatus.WAIT_CPU)),
+                cursor.getStatuses(5, 15));
+        // A range inside the interval read last
+        assertStatuses(ImmutableList.of(
+                new ProcessStatusInterval(18, 20, ProcessStatus.WAIT_CPU)),
+                cursor.getStatuses(18, 20));
+        // A range skipping an interval
+        assertStatuses(ImmutableList.of(
+                new ProcessStatusInterval(40, 50, ProcessStatus.WAIT_BLOCKED)),
+                cursor.getStatuses(40, 50));
+        // A range after the last interval
+        assertStatuses(Collections.emptyList(), cursor.getStatuses(150, 200));
+
+        assertEquals(1, model.fQueries);
+        assertEquals(INTERVALS.size(), model.fRead);
+    }
+
+    /**
+     * Test that a range starting before the previous one restarts the cursor
+     */
+    @Test
+    public void testBackwardRange() {
+        StubHostModel model = new StubHostModel(INTERVALS);
+        ThreadStatusCursor cursor = new ThreadStatusCursor(model, TID);
+
+        assertStatuses(ImmutableList.of(
+                new ProcessStatusInterval(30, 34, ProcessStatus.RUN)),
+                cursor.getStatuses(30, 34));
+        assertStatuses(ImmutableList.of(
+                new ProcessStatusInterval(0, 9, ProcessStatus.RUN),
+                new ProcessStatusInterval(10, 12, ProcessStatus.WAIT_CPU)),
+                cursor.getStatuses(0, 12));
+        assertEquals(2, model.fQueries);
+    }
+
+    private static void assertStatuses(List<ProcessStatusInterval> expected, List<ProcessStatusInterval> actual) {
+        assertEquals(toString(expected), toString(actual));
+    }
+
+    private static List<String> toString(List<ProcessStatusInterval> intervals) {
+        List<String> list = new ArrayList<>();
+        for (ProcessStatusInterval interval : intervals) {
+            list.add(interval.getStart() + "-" + interval.getEnd() + ":" + interval.getProcessStatus());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.analysis.core.tests.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.tracecompass.incubator.internal.analysis.core.util.LongMap;
+import org.junit.Test;
+
+/**
+ * Test the {@link LongMap}
+ */
+public class LongMapTest {
+
+    /**
+     * Test that the map has the same content as a {@link HashMap} after many
+     * writes, including replaced and null values
+     */
+    @Test
+    public void testSameAsHashMap() {
+        LongMap<String> map = new LongMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // Keys that only differ in their high bits
+            long key = ((long) (random.nextInt(20000) - 10000) << 32) | 0xabcd;
+            String value = random.nextInt(10) == 0 ? null : "name" + i;
+            map.put(key, value);
+            expected.put(key, value);
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = -15000; key < 15000; key++) {
+            long highKey = (key << 32) | 0xabcd;
+            assertEquals(expected.get(highKey), map.get(highKey));
+            assertNull(map.get(key));
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(0));
+    }
+
+    /**
+     * Test that readers always see the values written, while the map grows
+     *
+     * @throws InterruptedException
+     *             should not happen
+     */
+    @Test
+    public void testConcurrentReads() throws InterruptedException {
+        int nbKeys = 100000;
+        LongMap<String> map = new LongMap<>();
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                int key = 0;
+                while (key < nbKeys) {
+                    String value = map.get(key);
+                    if (value != null) {
+                        if (!value.equals("name" + key)) {
+                            error.set(key + " is " + value);
+                            return;
+                        }
+                        key++;
+                    }
+                }
+            });
+            readers[i].start();
+        }
+        for (int key = 0; key < nbKeys; key++) {
+            map.put(key, "name" + key);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(error.get());
+        assertEquals(nbKeys, map.size());
+    }
+}
@@ -178,6 +178,25 @@ public interface IHostModel {
      */
     boolean isThreadStatusAvailable();
 
+    /**
+     * Get whether the data of this host is final up to a time, ie the analyses
+     * it comes from were built past this time. The data queried for a later
+     * time may still change.
+     *
+     * @param time
+     *            The time up to which the data is queried
+     * @return <code>true</code> if the data up to this time will not change,
+     *         <code>false</code> otherwise
+     */
+    default boolean isQueryable(long time) {
+        for (IAnalysisModule module : getRequiredModules(EnumSet.allOf(ModelDataType.class))) {
+            if (!module.isQueryable(time)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Get the analyses modules required to get the data requested
      *
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.analysis.core.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.ProcessStatusInterval;
+
+/**
+ * Cursor over the status intervals of a thread, to get the statuses of
+ * successive time ranges. While the ranges are requested in time order, the
+ * cursor advances over one iterator of the host model, so each status interval
+ * is read once instead of once per range. A range starting before the previous
+ * one restarts the cursor.
+ *
+ * This class is not thread-safe.
+ */
+public final class ThreadStatusCursor {
+
+    private final IHostModel fModel;
+    private final int fTid;
+    private @Nullable Iterator<ProcessStatusInterval> fIterator = null;
+    /** The interval read last, which may span the next ranges */
+    private @Nullable ProcessStatusInterval fCurrent = null;
+    private long fLastStart = Long.MIN_VALUE;
+
+    /**
+     * Constructor
+     *
+     * @param model
+     *            The host model of the thread
+     * @param tid
+     *            The ID of the thread
+     */
+    public ThreadStatusCursor(IHostModel model, int tid) {
+        fModel = model;
+        fTid = tid;
+    }
+
+    /**
+     * Get the status intervals intersecting a time range, clipped to the range
+     *
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range
+     * @return The status intervals of the thread in the range
+     */
+    public List<ProcessStatusInterval> getStatuses(long start, long end) {
+        Iterator<ProcessStatusInterval> iterator = fIterator;
+        if (iterator == null || start < fLastStart) {
+            iterator = fModel.getThreadStatusIntervals(fTid, start, Long.MAX_VALUE, 1).iterator();
+            fIterator = iterator;
+            fCurrent = null;
+        }
+        fLastStart = start;
+        List<ProcessStatusInterval> statuses = new ArrayList<>();
+        while (true) {
+            ProcessStatusInterval current = fCurrent;
+            if (current == null) {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                current = iterator.next();
+                fCurrent = current;
+            }
+            if (current.getEnd() < start) {
+                // This interval is before the range
+                fCurrent = null;
+                continue;
+            }
+            if (current.getStart() > end) {
+                // This interval is after the range, keep it for the next one
+                break;
+            }
+            statuses.add(new ProcessStatusInterval(Math.max(start, current.getStart()), Math.min(end, current.getEnd()), current.getProcessStatus()));
+            if (current.getEnd() >= end) {
+                // This interval may also intersect the next range
+                break;
+            }
+            fCurrent = null;
+        }
+        return statuses;
+    }
+}
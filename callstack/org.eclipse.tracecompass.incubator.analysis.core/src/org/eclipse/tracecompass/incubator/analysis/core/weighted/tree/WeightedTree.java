@@ -75,7 +75,7 @@ public class WeightedTree<@NonNull T> implements Comparable<WeightedTree<T>> {
      */
     protected WeightedTree(WeightedTree<T> copy) {
         fObject = copy.fObject;
-        for (WeightedTree<T> entry : copy.fChildren.values()) {
+        for (WeightedTree<T> entry : copy.getChildren()) {
             fChildren.put(entry.getObject(), entry.copyOf());
         }
         fParent = copy.fParent;
@@ -212,7 +212,7 @@ public class WeightedTree<@NonNull T> implements Comparable<WeightedTree<T>> {
      *            The call site to merge to this one
      */
     private void mergeChildren(WeightedTree<T> other) {
-        for (WeightedTree<T> otherChildSite : other.fChildren.values()) {
+        for (WeightedTree<T> otherChildSite : other.getChildren()) {
             T childSymbol = otherChildSite.getObject();
             WeightedTree<T> childSite = fChildren.get(childSymbol);
             if (childSite == null) {
@@ -57,10 +57,15 @@ import com.google.common.collect.Multimap;
 public class CompositeHostModel implements IHostModel {
 
     private final Multimap<ITmfTrace, Object> fTraceObjectMap = HashMultimap.create();
-    private final Set<ICpuTimeProvider> fCpuTimeProviders = NonNullUtils.checkNotNull(Collections.newSetFromMap(new WeakHashMap<ICpuTimeProvider, Boolean>()));
-    private final Set<IThreadOnCpuProvider> fThreadOnCpuProviders = NonNullUtils.checkNotNull(Collections.newSetFromMap(new WeakHashMap<IThreadOnCpuProvider, Boolean>()));
-    private final Set<ISamplingDataProvider> fSamplingDataProviders = NonNullUtils.checkNotNull(Collections.newSetFromMap(new WeakHashMap<ISamplingDataProvider, Boolean>()));
-    private final Set<KernelAnalysisModule> fKernelModules = NonNullUtils.checkNotNull(Collections.newSetFromMap(new WeakHashMap<KernelAnalysisModule, Boolean>()));
+    /*
+     * The providers are read by the analyses from many threads. The sets are
+     * synchronized and iterated over snapshots, as even reading a WeakHashMap
+     * removes its stale entries.
+     */
+    private final Set<ICpuTimeProvider> fCpuTimeProviders = NonNullUtils.checkNotNull(Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<ICpuTimeProvider, Boolean>())));
+    private final Set<IThreadOnCpuProvider> fThreadOnCpuProviders = NonNullUtils.checkNotNull(Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<IThreadOnCpuProvider, Boolean>())));
+    private final Set<ISamplingDataProvider> fSamplingDataProviders = NonNullUtils.checkNotNull(Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<ISamplingDataProvider, Boolean>())));
+    private final Set<KernelAnalysisModule> fKernelModules = NonNullUtils.checkNotNull(Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<KernelAnalysisModule, Boolean>())));
     private final String fHostId;
 
     /**
@@ -76,7 +81,7 @@ public class CompositeHostModel implements IHostModel {
 
     @Override
     public int getThreadOnCpu(int cpu, long t, boolean block) {
-        for (IThreadOnCpuProvider provider : fThreadOnCpuProviders) {
+        for (IThreadOnCpuProvider provider : snapshot(fThreadOnCpuProviders)) {
             Integer tid = provider.getThreadOnCpuAtTime(cpu, t, block);
             if (tid != null && tid != IHostModel.UNKNOWN_TID) {
                 return tid;
@@ -87,7 +92,7 @@ public class CompositeHostModel implements IHostModel {
 
     @Override
     public long getCpuTime(int tid, long start, long end) {
-        for (ICpuTimeProvider provider : fCpuTimeProviders) {
+        for (ICpuTimeProvider provider : snapshot(fCpuTimeProviders)) {
             long cpuTime = provider.getCpuTime(tid, start, end);
             if (cpuTime != IHostModel.TIME_UNKNOWN) {
                 return cpuTime;
@@ -98,7 +103,7 @@ public class CompositeHostModel implements IHostModel {
 
     @Override
     public Collection<AggregatedCallSite> getSamplingData(int tid, long start, long end) {
-        for (ISamplingDataProvider provider : fSamplingDataProviders) {
+        for (ISamplingDataProvider provider : snapshot(fSamplingDataProviders)) {
             Collection<AggregatedCallSite> samples = provider.getSamplingData(tid, start, end);
             if (!samples.isEmpty()) {
                 return samples;
@@ -109,7 +114,7 @@ public class CompositeHostModel implements IHostModel {
 
     @Override
     public int getProcessId(int tid, long t) {
-        Integer pid = fKernelModules.stream()
+        Integer pid = snapshot(fKernelModules).stream()
                 .map(module -> KernelThreadInformationProvider.getProcessId(module, tid, t))
                 .filter(Objects::nonNull)
                 .findFirst().orElse(null);
@@ -118,7 +123,7 @@ public class CompositeHostModel implements IHostModel {
 
     @Override
     public @Nullable String getExecName(int tid, long t) {
-        return fKernelModules.stream()
+        return snapshot(fKernelModules).stream()
                 .map(module -> KernelThreadInformationProvider.getExecutableName(module, tid))
                 .filter(Objects::nonNull)
                 .findFirst().orElse(null);
@@ -335,20 +340,26 @@ public class CompositeHostModel implements IHostModel {
         if (requiredData.contains(ModelDataType.PID) || requiredData.contains(ModelDataType.EXEC_NAME) ||
                 requiredData.contains(ModelDataType.KERNEL_STATES)) {
             // Add the kernel modules
-            list.addAll(fKernelModules);
+            list.addAll(snapshot(fKernelModules));
         }
         if (requiredData.contains(ModelDataType.TID)) {
-            list.addAll(getModulesFrom(fThreadOnCpuProviders));
+            list.addAll(getModulesFrom(snapshot(fThreadOnCpuProviders)));
         }
         if (requiredData.contains(ModelDataType.CPU_TIME)) {
-            list.addAll(getModulesFrom(fCpuTimeProviders));
+            list.addAll(getModulesFrom(snapshot(fCpuTimeProviders)));
         }
         if (requiredData.contains(ModelDataType.SAMPLING_DATA)) {
-            list.addAll(getModulesFrom(fSamplingDataProviders));
+            list.addAll(getModulesFrom(snapshot(fSamplingDataProviders)));
         }
         return list;
     }
 
+    private static <T> List<T> snapshot(Set<T> set) {
+        synchronized (set) {
+            return new ArrayList<>(set);
+        }
+    }
+
     private static Collection<IAnalysisModule> getModulesFrom(Collection<?> set) {
         List<IAnalysisModule> list = new ArrayList<>();
         for (Object obj : set) {
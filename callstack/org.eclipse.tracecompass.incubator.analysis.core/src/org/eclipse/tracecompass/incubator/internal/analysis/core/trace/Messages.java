@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.analysis.core.trace;
+
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Messages
+ */
+public class Messages extends NLS {
+    private static final String BUNDLE_NAME = "org.eclipse.tracecompass.incubator.internal.analysis.core.trace.messages"; //$NON-NLS-1$
+    /**
+     * Sorting job name
+     */
+    public static String ParallelSortingJob_Description;
+    /**
+     * Sorting job subtask: merging the sorted chunks
+     */
+    public static String ParallelSortingJob_Merging;
+    /**
+     * Sorting job subtask: splitting and sorting chunks
+     */
+    public static String ParallelSortingJob_Splitting;
+    static {
+        // initialize resource bundle
+        NLS.initializeMessages(BUNDLE_NAME, Messages.class);
+    }
+
+    private Messages() {
+    }
+}
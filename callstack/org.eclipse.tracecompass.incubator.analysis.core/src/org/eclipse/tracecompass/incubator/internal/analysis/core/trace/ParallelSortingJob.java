@@ -0,0 +1,702 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.analysis.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.Activator;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+
+/**
+ * Multi-core external merge sort for JSON traces. The events of the input file
+ * are split in chunks that fit in a memory budget, each chunk is sorted and
+ * written to a temporary run file by a {@link ForkJoinPool} while the next
+ * chunk is being read, then the runs are k-way merged in the supplementary
+ * file of the trace.
+ *
+ * Events are kept as their raw bytes, only the timestamp is parsed, as a fixed
+ * point number with 3 decimals. Events with the same timestamp keep the order
+ * they have in the input file.
+ *
+ * The memory budget and the number of sorting threads default to the values
+ * of the {@link #MEMORY_BUDGET_PROPERTY} and {@link #PARALLELISM_PROPERTY}
+ * system properties.
+ */
+public abstract class ParallelSortingJob extends Job {
+
+    /**
+     * System property for the memory budget of the sort, in bytes
+     */
+    public static final String MEMORY_BUDGET_PROPERTY = "org.eclipse.tracecompass.incubator.json.sort.memory"; //$NON-NLS-1$
+    /**
+     * System property for the number of threads sorting chunks
+     */
+    public static final String PARALLELISM_PROPERTY = "org.eclipse.tracecompass.incubator.json.sort.parallelism"; //$NON-NLS-1$
+
+    private static final long DEFAULT_MEMORY_BUDGET = Math.min(Runtime.getRuntime().maxMemory() / 4, 512L * 1024 * 1024);
+    private static final long MIN_CHUNK_SIZE = 1024L * 1024;
+    /** Estimated memory used by an event on top of its bytes */
+    private static final int EVENT_OVERHEAD = 64;
+    /** Maximum number of runs merged at once */
+    private static final int MAX_FAN_IN = 64;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_SCALE = 1024;
+    private static final long NANOS_PER_MICRO = 1000L;
+    private static final int FRACTION_DIGITS = 3;
+
+    private static final byte[] EVENT_SEPARATOR = ",\n".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+    private static final byte[] LIST_START = "[\n".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+    private static final byte[] LIST_END = "]\n".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+
+    private final ITmfTrace fTrace;
+    private final String fPath;
+    private final byte[] fTsKey;
+    private final int fBracketsToSkip;
+    private long fMemoryBudget = Long.getLong(MEMORY_BUDGET_PROPERTY, DEFAULT_MEMORY_BUDGET);
+    private int fParallelism = Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            the trace to be sort
+     * @param path
+     *            the path to the trace file
+     * @param tsKey
+     *            the timestamp key, e.g. <code>"ts":</code>
+     * @param bracketsToSkip
+     *            the number of '[' to skip before the list of events
+     */
+    public ParallelSortingJob(ITmfTrace trace, String path, String tsKey, int bracketsToSkip) {
+        super(Messages.ParallelSortingJob_Description);
+        fTrace = trace;
+        fPath = path;
+        fTsKey = tsKey.getBytes(StandardCharsets.UTF_8);
+        fBracketsToSkip = bracketsToSkip;
+    }
+
+    /**
+     * Getter for the trace path
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return fPath;
+    }
+
+    /**
+     * Set the memory budget of the sort. The events held by the chunks being
+     * read and sorted at the same time stay below this budget.
+     *
+     * @param memoryBudget
+     *            the budget, in bytes
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        fMemoryBudget = memoryBudget;
+    }
+
+    /**
+     * Set the number of threads sorting and merging chunks
+     *
+     * @param parallelism
+     *            the number of threads, 1 sorts the chunks one after the
+     *            other
+     */
+    public void setParallelism(int parallelism) {
+        fParallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Process whatever metadata that can be found after the event list in the
+     * trace file
+     *
+     * @param trace
+     *            the trace to be sort
+     * @param dir
+     *            the path to the trace file
+     * @throws IOException
+     *             Exceptions reading the metadata
+     */
+    protected abstract void processMetadata(ITmfTrace trace, String dir) throws IOException;
+
+    /**
+     * Process an event read by the sort, in the order of the input file. It
+     * is called by the thread of the job, the default implementation does
+     * nothing.
+     *
+     * @param ts
+     *            the timestamp the event is sorted by, in thousandths of the
+     *            trace unit
+     * @param data
+     *            the bytes of the event object, which must not be modified
+     */
+    protected void processEvent(long ts, byte[] data) {
+        // Do nothing
+    }
+
+    @Override
+    protected IStatus run(@Nullable IProgressMonitor monitor) {
+        String dir = TmfTraceManager.getSupplementaryFileDir(fTrace);
+        File input = new File(fPath);
+        File output = new File(dir + input.getName());
+        File tempDir = new File(dir + input.getName() + ".sort"); //$NON-NLS-1$
+        if (!tempDir.isDirectory() && !tempDir.mkdirs()) {
+            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Cannot create temporary directory " + tempDir); //$NON-NLS-1$
+        }
+        SubMonitor subMonitor = SubMonitor.convert(monitor, Messages.ParallelSortingJob_Description, 2);
+        ForkJoinPool pool = new ForkJoinPool(fParallelism);
+        try {
+            File sorted = new File(tempDir, "sorted.json"); //$NON-NLS-1$
+            List<File> runs = split(input, tempDir, sorted, pool, subMonitor.split(1));
+            if (runs == null) {
+                return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Missing symbol '[' in " + fPath); //$NON-NLS-1$
+            }
+            if (!runs.isEmpty()) {
+                merge(runs, tempDir, sorted, pool, subMonitor.split(1));
+            }
+            Files.move(sorted.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            processMetadata(fTrace, dir);
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Status.CANCEL_STATUS;
+        } catch (IOException | ExecutionException e) {
+            Activator.getInstance().logError("Error sorting trace " + fPath, e); //$NON-NLS-1$
+            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Error sorting trace " + fPath, e); //$NON-NLS-1$
+        } finally {
+            /* The tasks still running write in the temporary directory */
+            pool.shutdownNow();
+            awaitTermination(pool);
+            deleteDirectory(tempDir);
+            if (monitor != null) {
+                monitor.done();
+            }
+        }
+        return Status.OK_STATUS;
+    }
+
+    private static void awaitTermination(ForkJoinPool pool) {
+        boolean interrupted = false;
+        while (!pool.isTerminated()) {
+            try {
+                pool.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Split phase
+    // ------------------------------------------------------------------------
+
+    /**
+     * Read the input file in chunks and sort them in parallel. If the whole
+     * file fits in one chunk, it is written directly to the sorted file.
+     *
+     * @return the sorted run files, empty if the sorted file was written, or
+     *         <code>null</code> if the event list was not found
+     */
+    private @Nullable List<File> split(File input, File tempDir, File sorted, ForkJoinPool pool, SubMonitor monitor) throws IOException, InterruptedException, ExecutionException {
+        long chunkBudget = Math.max(MIN_CHUNK_SIZE, fMemoryBudget / (fParallelism + 1));
+        SubMonitor progress = SubMonitor.convert(monitor, Messages.ParallelSortingJob_Splitting, (int) Math.max(1, input.length() / PROGRESS_SCALE));
+        List<File> runs = new ArrayList<>();
+        Deque<ForkJoinTask<File>> pending = new ArrayDeque<>();
+        try (EventReader reader = new EventReader(new FileInputStream(input))) {
+            if (!reader.skipBrackets(fBracketsToSkip)) {
+                return null;
+            }
+            long seq = 0;
+            long reported = 0;
+            List<SortableEvent> chunk = new ArrayList<>();
+            long chunkSize = 0;
+            byte[] data = reader.next();
+            while (data != null) {
+                long ts = parseTimestamp(data);
+                processEvent(ts, data);
+                chunk.add(new SortableEvent(ts, seq++, data));
+                chunkSize += data.length + EVENT_OVERHEAD;
+                data = reader.next();
+                if (chunkSize >= chunkBudget && data != null) {
+                    /* Bound the number of chunks held in memory */
+                    while (pending.size() >= fParallelism) {
+                        runs.add(pending.removeFirst().get());
+                    }
+                    pending.addLast(pool.submit(new ChunkSorter(chunk, File.createTempFile("run", ".bin", tempDir)))); //$NON-NLS-1$ //$NON-NLS-2$
+                    chunk = new ArrayList<>();
+                    chunkSize = 0;
+                }
+                long read = reader.getBytesRead() / PROGRESS_SCALE;
+                if (read > reported) {
+                    progress.worked((int) (read - reported));
+                    reported = read;
+                    if (progress.isCanceled()) {
+                        throw new OperationCanceledException();
+                    }
+                }
+            }
+            if (pending.isEmpty()) {
+                /* Everything fits in memory, no need for run files */
+                SortableEvent[] events = chunk.toArray(new SortableEvent[chunk.size()]);
+                Arrays.parallelSort(events);
+                try (TextSink sink = new TextSink(sorted)) {
+                    for (SortableEvent event : events) {
+                        sink.write(event.fTs, event.fSeq, event.fData);
+                    }
+                }
+                return runs;
+            }
+            if (!chunk.isEmpty()) {
+                pending.addLast(pool.submit(new ChunkSorter(chunk, File.createTempFile("run", ".bin", tempDir)))); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            while (!pending.isEmpty()) {
+                runs.add(pending.removeFirst().get());
+            }
+        } finally {
+            for (ForkJoinTask<File> task : pending) {
+                task.cancel(true);
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Parse the timestamp following the timestamp key, in thousandths of the
+     * trace unit.
+     */
+    private long parseTimestamp(byte[] data) {
+        int pos = indexOfKey(data, fTsKey);
+        if (pos < 0) {
+            return Long.MIN_VALUE;
+        }
+        pos += fTsKey.length;
+        while (pos < data.length && (data[pos] == ' ' || data[pos] == '"' || data[pos] == '\t')) {
+            pos++;
+        }
+        boolean negative = pos < data.length && data[pos] == '-';
+        if (negative) {
+            pos++;
+        }
+        long value = 0;
+        while (pos < data.length && data[pos] >= '0' && data[pos] <= '9') {
+            value = value * 10 + (data[pos++] - '0');
+        }
+        value *= NANOS_PER_MICRO;
+        if (pos < data.length && data[pos] == '.') {
+            pos++;
+            long scale = NANOS_PER_MICRO;
+            for (int i = 0; i < FRACTION_DIGITS && pos < data.length && data[pos] >= '0' && data[pos] <= '9'; i++) {
+                scale /= 10;
+                value += (data[pos++] - '0') * scale;
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Find a key of the event object itself. The strings and the nested
+     * objects, like "args", are skipped as they can have the same key.
+     */
+    private static int indexOfKey(byte[] data, byte[] key) {
+        int depth = 0;
+        for (int i = 0; i < data.length; i++) {
+            byte b = data[i];
+            if (b == '"') {
+                if (depth == 1 && startsWith(data, i, key)) {
+                    return i;
+                }
+                i = skipString(data, i + 1);
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] key) {
+        if (data.length - offset < key.length) {
+            return false;
+        }
+        for (int j = 0; j < key.length; j++) {
+            if (data[offset + j] != key[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skip the content of a string, from after its opening quote
+     *
+     * @return the position of the closing quote
+     */
+    private static int skipString(byte[] data, int start) {
+        int i = start;
+        while (i < data.length && data[i] != '"') {
+            i += data[i] == '\\' ? 2 : 1;
+        }
+        return i;
+    }
+
+    // ------------------------------------------------------------------------
+    // Merge phase
+    // ------------------------------------------------------------------------
+
+    private static void merge(List<File> initialRuns, File tempDir, File sorted, ForkJoinPool pool, SubMonitor monitor) throws IOException, InterruptedException, ExecutionException {
+        SubMonitor progress = SubMonitor.convert(monitor, Messages.ParallelSortingJob_Merging, 2);
+        List<File> runs = initialRuns;
+        /* Merge groups of runs in parallel until a single k-way merge is enough */
+        while (runs.size() > MAX_FAN_IN) {
+            List<ForkJoinTask<File>> tasks = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                List<File> group = runs.subList(i, Math.min(runs.size(), i + MAX_FAN_IN));
+                File target = File.createTempFile("run", ".bin", tempDir); //$NON-NLS-1$ //$NON-NLS-2$
+                tasks.add(pool.submit(() -> {
+                    try (RunSink sink = new RunSink(target)) {
+                        mergeRuns(group, sink, progress);
+                    }
+                    return target;
+                }));
+            }
+            List<File> merged = new ArrayList<>();
+            for (ForkJoinTask<File> task : tasks) {
+                merged.add(task.get());
+            }
+            for (File run : runs) {
+                Files.deleteIfExists(run.toPath());
+            }
+            runs = merged;
+        }
+        progress.worked(1);
+        try (TextSink sink = new TextSink(sorted)) {
+            mergeRuns(runs, sink, progress);
+        }
+        progress.worked(1);
+    }
+
+    private static void mergeRuns(List<File> runs, EventSink sink, SubMonitor monitor) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(runs.size());
+        try {
+            for (File run : runs) {
+                RunReader reader = new RunReader(run);
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            long count = 0;
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                sink.write(reader.fTs, reader.fSeq, reader.fData);
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+                if ((++count & 0xffff) == 0 && monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+            }
+        } finally {
+            for (RunReader reader : queue) {
+                reader.close();
+            }
+        }
+    }
+
+    private static void deleteDirectory(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+        }
+        if (!dir.delete()) {
+            dir.deleteOnExit();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Helper classes
+    // ------------------------------------------------------------------------
+
+    private static final class SortableEvent implements Comparable<SortableEvent> {
+        private final long fTs;
+        private final long fSeq;
+        private final byte[] fData;
+
+        public SortableEvent(long ts, long seq, byte[] data) {
+            fTs = ts;
+            fSeq = seq;
+            fData = data;
+        }
+
+        @Override
+        public int compareTo(SortableEvent o) {
+            int cmp = Long.compare(fTs, o.fTs);
+            return cmp != 0 ? cmp : Long.compare(fSeq, o.fSeq);
+        }
+    }
+
+    /**
+     * Sort a chunk and write it to a run file
+     */
+    private static final class ChunkSorter implements Callable<File> {
+        private final List<SortableEvent> fChunk;
+        private final File fTarget;
+
+        public ChunkSorter(List<SortableEvent> chunk, File target) {
+            fChunk = chunk;
+            fTarget = target;
+        }
+
+        @Override
+        public File call() throws IOException {
+            SortableEvent[] events = fChunk.toArray(new SortableEvent[fChunk.size()]);
+            fChunk.clear();
+            Arrays.sort(events);
+            try (RunSink sink = new RunSink(fTarget)) {
+                for (int i = 0; i < events.length; i++) {
+                    /* The pool is shut down when the sort is cancelled */
+                    if ((i & 0xffff) == 0 && Thread.currentThread().isInterrupted()) {
+                        throw new OperationCanceledException();
+                    }
+                    SortableEvent event = events[i];
+                    sink.write(event.fTs, event.fSeq, event.fData);
+                }
+            }
+            return fTarget;
+        }
+    }
+
+    private interface EventSink extends AutoCloseable {
+        void write(long ts, long seq, byte[] data) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Binary run file: timestamp, sequence number, length and bytes of each
+     * event
+     */
+    private static final class RunSink implements EventSink {
+        private final DataOutputStream fOut;
+
+        public RunSink(File file) throws IOException {
+            fOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), IO_BUFFER_SIZE));
+        }
+
+        @Override
+        public void write(long ts, long seq, byte[] data) throws IOException {
+            fOut.writeLong(ts);
+            fOut.writeLong(seq);
+            fOut.writeInt(data.length);
+            fOut.write(data);
+        }
+
+        @Override
+        public void close() throws IOException {
+            fOut.close();
+        }
+    }
+
+    /**
+     * The sorted JSON list of events, as read by the traces
+     */
+    private static final class TextSink implements EventSink {
+        private final OutputStream fOut;
+
+        public TextSink(File file) throws IOException {
+            fOut = new BufferedOutputStream(new FileOutputStream(file), IO_BUFFER_SIZE);
+            fOut.write(LIST_START);
+        }
+
+        @Override
+        public void write(long ts, long seq, byte[] data) throws IOException {
+            fOut.write(data);
+            fOut.write(EVENT_SEPARATOR);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                fOut.write(LIST_END);
+            } finally {
+                fOut.close();
+            }
+        }
+    }
+
+    private static final class RunReader implements Comparable<RunReader>, AutoCloseable {
+        private final DataInputStream fIn;
+        private long fTs;
+        private long fSeq;
+        private byte[] fData = new byte[0];
+
+        public RunReader(File file) throws IOException {
+            fIn = new DataInputStream(new BufferedInputStream(new FileInputStream(file), IO_BUFFER_SIZE));
+        }
+
+        public boolean advance() throws IOException {
+            try {
+                fTs = fIn.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+            fSeq = fIn.readLong();
+            fData = new byte[fIn.readInt()];
+            fIn.readFully(fData);
+            return true;
+        }
+
+        @Override
+        public int compareTo(RunReader o) {
+            int cmp = Long.compare(fTs, o.fTs);
+            return cmp != 0 ? cmp : Long.compare(fSeq, o.fSeq);
+        }
+
+        @Override
+        public void close() throws IOException {
+            fIn.close();
+        }
+    }
+
+    /**
+     * Reads the JSON objects of a list of events, byte by byte, from a
+     * buffered stream
+     */
+    private static final class EventReader implements AutoCloseable {
+        private final InputStream fIn;
+        private long fBytesRead = 0;
+        private byte[] fBuffer = new byte[1024];
+
+        public EventReader(InputStream in) {
+            fIn = new BufferedInputStream(in, IO_BUFFER_SIZE);
+        }
+
+        private int read() throws IOException {
+            int val = fIn.read();
+            if (val != -1) {
+                fBytesRead++;
+            }
+            return val;
+        }
+
+        public boolean skipBrackets(int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                int val = read();
+                while (val != '[') {
+                    if (val == -1) {
+                        return false;
+                    }
+                    val = read();
+                }
+            }
+            return true;
+        }
+
+        public long getBytesRead() {
+            return fBytesRead;
+        }
+
+        /**
+         * Read the next event
+         *
+         * @return the bytes of the event object, or <code>null</code> at the
+         *         end of the list
+         */
+        public byte @Nullable [] next() throws IOException {
+            int length = 0;
+            int depth = 0;
+            boolean inString = false;
+            boolean escaped = false;
+            int val = read();
+            while (val != -1) {
+                if (depth == 0 && !inString) {
+                    if (val == ']') {
+                        return null;
+                    }
+                    if (val != '{') {
+                        val = read();
+                        continue;
+                    }
+                }
+                if (length == fBuffer.length) {
+                    fBuffer = Arrays.copyOf(fBuffer, length * 2);
+                }
+                fBuffer[length++] = (byte) val;
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (val == '\\') {
+                        escaped = true;
+                    } else if (val == '"') {
+                        inString = false;
+                    }
+                } else if (val == '"') {
+                    inString = true;
+                } else if (val == '{' || val == '[') {
+                    depth++;
+                } else if ((val == '}' || val == ']') && --depth == 0) {
+                    return Arrays.copyOf(fBuffer, length);
+                }
+                val = read();
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            fIn.close();
+        }
+    }
+}
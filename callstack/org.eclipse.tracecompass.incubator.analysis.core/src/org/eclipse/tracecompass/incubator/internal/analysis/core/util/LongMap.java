@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.analysis.core.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Open addressing hash map of primitive long keys, like pids, tids, addresses
+ * or packed IDs, to values. It does not box the keys and does not support
+ * removal.
+ *
+ * Reads do not lock and may run concurrently with a write, writes are
+ * serialized. The keys of the occupied slots never change, and a key is
+ * written before the value that marks its slot as occupied, so a reader that
+ * sees a value also sees its key. A table that grows is filled before it is
+ * published.
+ *
+ * @param <V>
+ *            The type of values, <code>null</code> values are allowed
+ */
+public final class LongMap<V> {
+
+    private static final int INITIAL_SIZE = 16;
+
+    /** Value of the slots whose key is mapped to <code>null</code> */
+    private static final Object NULL_VALUE = new Object();
+
+    private static final class Table {
+        private final long[] fKeys;
+        private final AtomicReferenceArray<@Nullable Object> fValues;
+
+        private Table(int size) {
+            fKeys = new long[size];
+            fValues = new AtomicReferenceArray<>(size);
+        }
+    }
+
+    private volatile Table fTable = new Table(INITIAL_SIZE);
+    private int fSize = 0;
+
+    /**
+     * Mix the bits of a key, so that keys that differ only in their high bits,
+     * or that are multiples of a power of 2, are spread over the table
+     *
+     * @param key
+     *            The key
+     * @return The hash of the key
+     */
+    public static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Get the value of a key
+     *
+     * @param key
+     *            The key
+     * @return The value, or <code>null</code> if the key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(long key) {
+        Table table = fTable;
+        int mask = table.fKeys.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            Object value = table.fValues.get(i);
+            if (value == null) {
+                return null;
+            }
+            if (table.fKeys[i] == key) {
+                return value == NULL_VALUE ? null : (V) value;
+            }
+        }
+    }
+
+    /**
+     * Put the value of a key, replacing the previous value if any
+     *
+     * @param key
+     *            The key
+     * @param value
+     *            The value
+     */
+    public synchronized void put(long key, @Nullable V value) {
+        Table table = fTable;
+        if (2 * (fSize + 1) > table.fKeys.length) {
+            table = grow(table);
+        }
+        if (insert(table, key, value == null ? NULL_VALUE : value)) {
+            fSize++;
+        }
+    }
+
+    /**
+     * Get the number of keys in the map
+     *
+     * @return The size of the map
+     */
+    public synchronized int size() {
+        return fSize;
+    }
+
+    /**
+     * Remove all the keys
+     */
+    public synchronized void clear() {
+        fTable = new Table(INITIAL_SIZE);
+        fSize = 0;
+    }
+
+    /**
+     * Insert a key in a table
+     *
+     * @return Whether the key was not in the table
+     */
+    private static boolean insert(Table table, long key, Object value) {
+        int mask = table.fKeys.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            Object current = table.fValues.get(i);
+            if (current == null) {
+                table.fKeys[i] = key;
+                table.fValues.set(i, value);
+                return true;
+            }
+            if (table.fKeys[i] == key) {
+                table.fValues.set(i, value);
+                return false;
+            }
+        }
+    }
+
+    private Table grow(Table table) {
+        Table newTable = new Table(table.fKeys.length * 2);
+        for (int i = 0; i < table.fKeys.length; i++) {
+            Object value = table.fValues.get(i);
+            if (value != null) {
+                insert(newTable, table.fKeys[i], value);
+            }
+        }
+        fTable = newTable;
+        return newTable;
+    }
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.callstack.core.tests.perf.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.analysis.core.model.IHostModel;
+import org.eclipse.tracecompass.incubator.analysis.core.model.ModelManager;
+import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
+import org.eclipse.tracecompass.incubator.callstack.core.flamechart.CallStack;
+import org.eclipse.tracecompass.incubator.callstack.core.flamechart.CallStackIntervals;
+import org.eclipse.tracecompass.incubator.callstack.core.instrumented.ICalledFunction;
+import org.eclipse.tracecompass.incubator.callstack.core.instrumented.statesystem.CallStackSeries;
+import org.eclipse.tracecompass.incubator.callstack.core.tests.stubs.CallGraphAnalysisStub;
+import org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.InstrumentedCallStackElement;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.junit.Test;
+
+/**
+ * Benchmarks the depth-first traversal of call stacks, by querying the state
+ * system for each function with
+ * {@link CallStack#getNextFunction(long, int, ICalledFunction, IHostModel, long, long)}
+ * and by navigating the intervals of all depths read at once with
+ * {@link CallStack#queryIntervals(long, long)}. It also benchmarks the call
+ * graph built from those intervals.
+ */
+public class CallStackTraversalBenchmark {
+
+    private static final String TEST_ID = CallStackAndGraphBenchmark.TEST_ID;
+    private static final String TEST_SINGLE_QUERIES = "Call Stack Traversal (Single queries)";
+    private static final String TEST_BULK_QUERY = "Call Stack Traversal (Bulk query)";
+    private static final String TEST_CALLGRAPH = "Call Stack Traversal (CallGraph)";
+
+    private static final int LOOP_COUNT = 10;
+    private static final int NB_THREADS = 4;
+    private static final int NB_ROOT_CALLS = 500;
+    private static final int MAX_DEPTH = 6;
+    private static final int NB_CHILDREN = 3;
+    private static final long ROOT_LENGTH = 4000L;
+    private static final long END_TIME = NB_ROOT_CALLS * ROOT_LENGTH + 2;
+
+    private static @NonNull ITmfStateSystemBuilder createFixture() {
+        ITmfStateSystemBuilder fixture = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("Test", 0L));
+        for (int thread = 0; thread < NB_THREADS; thread++) {
+            int threadQuark = fixture.getQuarkAbsoluteAndAdd(CallGraphAnalysisStub.PROCESS_PATH, Integer.toString(100 + thread));
+            int parentQuark = fixture.getQuarkRelativeAndAdd(threadQuark, CallGraphAnalysisStub.CALLSTACK_PATH);
+            int[] quarks = new int[MAX_DEPTH];
+            for (int depth = 0; depth < MAX_DEPTH; depth++) {
+                quarks[depth] = fixture.getQuarkRelativeAndAdd(parentQuark, Integer.toString(depth));
+            }
+            for (int i = 0; i < NB_ROOT_CALLS; i++) {
+                addFunction(fixture, quarks, 0, i * ROOT_LENGTH + 1, (i + 1) * ROOT_LENGTH);
+            }
+        }
+        fixture.closeHistory(END_TIME);
+        return fixture;
+    }
+
+    /**
+     * Add a function and its children, which split the function in equal
+     * parts
+     */
+    private static void addFunction(ITmfStateSystemBuilder fixture, int[] quarks, int depth, long start, long end) {
+        fixture.modifyAttribute(start, (long) (depth * NB_CHILDREN + start % NB_CHILDREN), quarks[depth]);
+        fixture.modifyAttribute(end, (Object) null, quarks[depth]);
+        if (depth + 1 >= MAX_DEPTH) {
+            return;
+        }
+        long width = (end - start) / NB_CHILDREN;
+        for (int i = 0; i < NB_CHILDREN; i++) {
+            addFunction(fixture, quarks, depth + 1, start + i * width + 1, start + (i + 1) * width - 1);
+        }
+    }
+
+    private static List<CallStack> getCallStacks(CallGraphAnalysisStub cga) {
+        CallStackSeries series = cga.getSeries();
+        assertNotNull(series);
+        List<CallStack> callStacks = new ArrayList<>();
+        for (ICallStackElement process : series.getRootElements()) {
+            for (ICallStackElement thread : process.getChildrenElements()) {
+                assertTrue(thread instanceof InstrumentedCallStackElement);
+                callStacks.add(((InstrumentedCallStackElement) thread).getCallStack());
+            }
+        }
+        return callStacks;
+    }
+
+    /**
+     * Count the functions of a call stack, querying the state system for each
+     */
+    private static int walkSingleQueries(CallStack callStack, IHostModel model, @Nullable ICalledFunction parent, int depth, long start, long end) {
+        if (depth > callStack.getMaxDepth()) {
+            return 0;
+        }
+        int count = 0;
+        ICalledFunction function = callStack.getNextFunction(start, depth, parent, model, start, end);
+        while (function != null) {
+            count += 1 + walkSingleQueries(callStack, model, function, depth + 1, function.getStart(), function.getEnd());
+            function = callStack.getNextFunction(function.getEnd(), depth, parent, model, start, end);
+        }
+        return count;
+    }
+
+    /**
+     * Count the functions of a call stack, from the intervals read at once
+     */
+    private static int walkIntervals(CallStackIntervals intervals, IHostModel model, @Nullable ICalledFunction parent, int depth, long start, long end) {
+        if (depth > intervals.getMaxDepth()) {
+            return 0;
+        }
+        int count = 0;
+        ICalledFunction function = intervals.getNextFunction(start, depth, parent, model, start, end);
+        while (function != null) {
+            count += 1 + walkIntervals(intervals, model, function, depth + 1, function.getStart(), function.getEnd());
+            function = intervals.getNextFunction(function.getEnd(), depth, parent, model, start, end);
+        }
+        return count;
+    }
+
+    /**
+     * Run the benchmark
+     */
+    @Test
+    public void runBenchmark() {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter singlePm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + TEST_SINGLE_QUERIES));
+        perf.tagAsSummary(singlePm, TEST_SINGLE_QUERIES, Dimension.CPU_TIME);
+        PerformanceMeter bulkPm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + TEST_BULK_QUERY));
+        perf.tagAsSummary(bulkPm, TEST_BULK_QUERY, Dimension.CPU_TIME);
+        PerformanceMeter callgraphPm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + TEST_CALLGRAPH));
+        perf.tagAsSummary(callgraphPm, TEST_CALLGRAPH, Dimension.CPU_TIME);
+
+        IHostModel model = ModelManager.getModelFor("");
+        int expected = 0;
+        int nbFunctions = 1;
+        for (int depth = 0; depth < MAX_DEPTH; depth++) {
+            expected += nbFunctions;
+            nbFunctions *= NB_CHILDREN;
+        }
+        expected *= NB_ROOT_CALLS;
+
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            CallGraphAnalysisStub cga = new CallGraphAnalysisStub(createFixture());
+            try {
+                List<CallStack> callStacks = getCallStacks(cga);
+                assertEquals(NB_THREADS, callStacks.size());
+
+                singlePm.start();
+                for (CallStack callStack : callStacks) {
+                    assertEquals(expected, walkSingleQueries(callStack, model, null, 1, callStack.getStartTime(), callStack.getEndTime() + 1));
+                }
+                singlePm.stop();
+
+                bulkPm.start();
+                for (CallStack callStack : callStacks) {
+                    CallStackIntervals intervals = callStack.queryIntervals(callStack.getStartTime(), callStack.getEndTime());
+                    assertEquals(expected, walkIntervals(intervals, model, null, 1, callStack.getStartTime(), callStack.getEndTime() + 1));
+                }
+                bulkPm.stop();
+
+                callgraphPm.start();
+                assertTrue(cga.iterate());
+                callgraphPm.stop();
+            } finally {
+                cga.dispose();
+            }
+        }
+        singlePm.commit();
+        bulkPm.commit();
+        callgraphPm.commit();
+    }
+
+}
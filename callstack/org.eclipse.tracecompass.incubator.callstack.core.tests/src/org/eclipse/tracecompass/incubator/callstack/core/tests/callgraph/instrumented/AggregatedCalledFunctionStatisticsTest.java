@@ -19,12 +19,17 @@ import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
+import org.eclipse.tracecompass.incubator.analysis.core.model.IHostModel;
+import org.eclipse.tracecompass.incubator.analysis.core.model.ModelManager;
 import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
 import org.eclipse.tracecompass.incubator.callstack.core.callgraph.ICallGraphProvider;
+import org.eclipse.tracecompass.incubator.callstack.core.instrumented.ICalledFunction;
 import org.eclipse.tracecompass.incubator.callstack.core.tests.flamechart.CallStackTestBase;
 import org.eclipse.tracecompass.incubator.callstack.core.tests.stubs.CallGraphAnalysisStub;
 import org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.callgraph.AggregatedCalledFunction;
 import org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.callgraph.AggregatedCalledFunctionStatistics;
+import org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.callgraph.CalledFunctionFactory;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
@@ -156,6 +161,8 @@ public class AggregatedCalledFunctionStatisticsTest {
         assertEquals("Test first function's average self time", 25, functionStatistics1.getSelfTimeStatistics().getMean(), ERROR);
         assertEquals("Test first function's standard deviation", Double.NaN, functionStatistics1.getDurationStatistics().getStdDev(), ERROR);
         assertEquals("Test first function's self time standard deviation", Double.NaN, functionStatistics1.getSelfTimeStatistics().getStdDev(), ERROR);
+        assertEquals("Test first function's median duration", 30, functionStatistics1.getDurationQuantile(0.5), 3);
+        assertEquals("Test first function's maximum duration quantile", 50, functionStatistics1.getDurationQuantile(1), 5);
         // Test the third function statistics
         @NonNull
         AggregatedCalledFunctionStatistics functionStatistics2 = ThirdFunction.getFunctionStatistics();
@@ -502,6 +509,40 @@ public class AggregatedCalledFunctionStatisticsTest {
         assertEquals("Test fourth function's self time deviation", Double.NaN, fourthFunctionStatistics4.getSelfTimeStatistics().getStdDev(), ERROR);
     }
 
+    /**
+     * Test that updating and merging the statistics of a metric do not modify
+     * the aggregated statistics they were obtained from
+     */
+    @Test
+    public void metricStatisticsCopyOnWriteTest() {
+        IHostModel model = ModelManager.getModelFor("");
+        AggregatedCalledFunctionStatistics statistics = new AggregatedCalledFunctionStatistics();
+        statistics.update(CalledFunctionFactory.create(0L, 10L, "op1", 1, 2, null, model));
+        statistics.update(CalledFunctionFactory.create(20L, 40L, "op1", 1, 2, null, model));
+
+        IStatistics<ICalledFunction> durations = statistics.getDurationStatistics();
+        durations.update(CalledFunctionFactory.create(50L, 80L, "op1", 1, 2, null, model));
+        assertEquals(3, durations.getNbElements());
+        assertEquals(30, durations.getMax());
+        assertEquals(20, durations.getMean(), ERROR);
+        assertEquals(10, durations.getStdDev(), ERROR);
+
+        IStatistics<ICalledFunction> otherDurations = statistics.getDurationStatistics();
+        otherDurations.merge(durations);
+        assertEquals(5, otherDurations.getNbElements());
+        assertEquals(10, otherDurations.getMin());
+        assertEquals(30, otherDurations.getMax());
+        assertEquals(90, otherDurations.getTotal());
+
+        // The aggregated statistics are unchanged
+        IStatistics<ICalledFunction> original = statistics.getDurationStatistics();
+        assertEquals(2, original.getNbElements());
+        assertEquals(20, original.getMax());
+        assertEquals(15, original.getMean(), ERROR);
+        assertEquals(30, original.getTotal());
+        assertEquals(3, durations.getNbElements());
+    }
+
     private void setCga(CallGraphAnalysisStub cga) {
         fCga = cga;
     }
@@ -11,14 +11,21 @@ package org.eclipse.tracecompass.incubator.callstack.core.tests.callgraph.instru
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Random;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.ProcessStatusInterval;
+import org.eclipse.tracecompass.incubator.analysis.core.model.IHostModel;
 import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
 import org.eclipse.tracecompass.incubator.callstack.core.callgraph.CallGraph;
 import org.eclipse.tracecompass.incubator.callstack.core.callgraph.ICallGraphProvider;
@@ -30,6 +37,7 @@ import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
 import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
+import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
 import org.junit.After;
 import org.junit.Test;
 
@@ -58,6 +66,34 @@ public class AggregationTreeTest {
         return fixture;
     }
 
+    /**
+     * Create a state system with 16 threads under the process level, each
+     * running 50 functions with their callees
+     */
+    private static @NonNull ITmfStateSystemBuilder createThreadsFixture() {
+        ITmfStateSystemBuilder fixture = createFixture();
+        for (int thread = 0; thread < 16; thread++) {
+            int threadQuark = fixture.getQuarkAbsoluteAndAdd(CallGraphAnalysisStub.PROCESS_PATH, Integer.toString(100 + thread));
+            int parentQuark = fixture.getQuarkRelativeAndAdd(threadQuark, CallGraphAnalysisStub.CALLSTACK_PATH);
+            int quark0 = fixture.getQuarkRelativeAndAdd(parentQuark, QUARK_0);
+            int quark1 = fixture.getQuarkRelativeAndAdd(parentQuark, QUARK_1);
+            int quark2 = fixture.getQuarkRelativeAndAdd(parentQuark, QUARK_2);
+            for (int i = 0; i < 50; i++) {
+                long start = i * 100L;
+                fixture.modifyAttribute(start, (long) (i % 3), quark0);
+                fixture.modifyAttribute(start + 90, (Object) null, quark0);
+                fixture.modifyAttribute(start + 10, (long) (10 + (i + thread) % 2), quark1);
+                fixture.modifyAttribute(start + 50, (Object) null, quark1);
+                if ((i + thread) % 4 != 0) {
+                    fixture.modifyAttribute(start + 20, 20L, quark2);
+                    fixture.modifyAttribute(start + 20 + thread, (Object) null, quark2);
+                }
+            }
+        }
+        fixture.closeHistory(5002);
+        return fixture;
+    }
+
     private CallGraphAnalysisStub fCga;
 
     private List<ICallStackElement> getLeafElements(ICallStackElement group) {
@@ -70,7 +106,11 @@ public class AggregationTreeTest {
     }
 
     private @NonNull List<ICallStackElement> getLeafElements(ICallGraphProvider cga) {
-        Collection<ICallStackElement> elements = cga.getCallGraph().getElements();
+        return getLeafElements(cga.getCallGraph());
+    }
+
+    private @NonNull List<ICallStackElement> getLeafElements(CallGraph cg) {
+        Collection<ICallStackElement> elements = cg.getElements();
         List<ICallStackElement> leafGroups = new ArrayList<>();
         for (ICallStackElement group : elements) {
             leafGroups.addAll(getLeafElements(group));
@@ -620,6 +660,303 @@ public class AggregationTreeTest {
         assertEquals("Test third function's number of calls", 1, function4.getNbCalls());
     }
 
+    /**
+     * Test that the call graph built from the threads in parallel is the same
+     * as the one built sequentially
+     */
+    @Test
+    public void parallelTest() {
+        ITmfStateSystemBuilder fixture = createThreadsFixture();
+        String @NonNull [] tp = { "*" };
+        String @NonNull [] pp = { CallGraphAnalysisStub.PROCESS_PATH };
+        CallGraphAnalysisStub sequential = new CallGraphAnalysisStub(fixture, ImmutableList.of(pp, tp));
+        setCga(sequential);
+        sequential.setParallelism(1);
+        assertTrue(sequential.iterate());
+        CallGraphAnalysisStub parallel = new CallGraphAnalysisStub(fixture, ImmutableList.of(pp, tp));
+        try {
+            parallel.setParallelism(4);
+            assertTrue(parallel.iterate());
+            List<ICallStackElement> expectedThreads = getLeafElements(sequential);
+            List<ICallStackElement> actualThreads = getLeafElements(parallel);
+            assertEquals("Number of threads", 16, expectedThreads.size());
+            assertEquals(toString(sequential.getCallGraph(), expectedThreads), toString(parallel.getCallGraph(), actualThreads));
+        } finally {
+            parallel.dispose();
+        }
+    }
+
+    /**
+     * Test that the call graphs of time ranges obtained from the pre-aggregated
+     * buckets of the analysis are the same as the ones iterated over the call
+     * stacks
+     */
+    @Test
+    public void bucketIndexTest() {
+        ITmfStateSystemBuilder fixture = createThreadsFixture();
+
+        String @NonNull [] tp = { "*" };
+        String @NonNull [] pp = { CallGraphAnalysisStub.PROCESS_PATH };
+        CallGraphAnalysisStub indexed = new CallGraphAnalysisStub(fixture, ImmutableList.of(pp, tp));
+        setCga(indexed);
+        assertTrue(indexed.iterate());
+        CallGraphAnalysisStub direct = new CallGraphAnalysisStub(fixture, ImmutableList.of(pp, tp));
+        try {
+            List<ICallStackElement> indexedThreads = getLeafElements(indexed);
+            List<ICallStackElement> directThreads = getLeafElements(direct.iterate(0, Long.MAX_VALUE));
+            assertEquals("Number of threads", 16, indexedThreads.size());
+            List<long[]> ranges = new ArrayList<>();
+            ranges.add(new long[] { 0, 5002 });
+            ranges.add(new long[] { 0, 100 });
+            ranges.add(new long[] { 15, 16 });
+            ranges.add(new long[] { 100, 4900 });
+            ranges.add(new long[] { 1234, 3456 });
+            ranges.add(new long[] { 4990, 6000 });
+            Random random = new Random(7);
+            for (int i = 0; i < 50; i++) {
+                long start = random.nextInt(5100);
+                ranges.add(new long[] { start, start + random.nextInt(5100) });
+            }
+            for (long[] range : ranges) {
+                String message = "Range " + range[0] + "-" + range[1];
+                assertEquals(message, toString(direct.iterate(range[0], range[1]), directThreads), toString(indexed.iterate(range[0], range[1]), indexedThreads));
+            }
+        } finally {
+            direct.dispose();
+        }
+    }
+
+    /**
+     * Test that the call graph is the same when the intervals read at once are
+     * limited, so the windows are split and the long functions are queried
+     * one by one
+     */
+    @Test
+    public void maxIntervalsTest() {
+        ITmfStateSystemBuilder fixture = createThreadsFixture();
+
+        String @NonNull [] tp = { "*" };
+        String @NonNull [] pp = { CallGraphAnalysisStub.PROCESS_PATH };
+        CallGraphAnalysisStub expected = new CallGraphAnalysisStub(fixture, ImmutableList.of(pp, tp));
+        setCga(expected);
+        assertTrue(expected.iterate());
+        CallGraphAnalysisStub limited = new CallGraphAnalysisStub(fixture, ImmutableList.of(pp, tp));
+        try {
+            limited.setMaxIntervals(2);
+            assertTrue(limited.iterate());
+            List<ICallStackElement> expectedThreads = getLeafElements(expected);
+            List<ICallStackElement> actualThreads = getLeafElements(limited);
+            assertEquals("Number of threads", 16, expectedThreads.size());
+            assertEquals(toString(expected.getCallGraph(), expectedThreads), toString(limited.getCallGraph(), actualThreads));
+            for (long[] range : ImmutableList.of(new long[] { 0, 5002 }, new long[] { 15, 16 }, new long[] { 1234, 3456 })) {
+                String message = "Range " + range[0] + "-" + range[1];
+                assertEquals(message, toString(expected.iterate(range[0], range[1]), expectedThreads), toString(limited.iterate(range[0], range[1]), actualThreads));
+            }
+        } finally {
+            limited.dispose();
+        }
+    }
+
+    /**
+     * Test that the partial call graphs published while the call stacks are
+     * built are included in the call graph of the analysis, which is the same
+     * as the one built at once, and that they are not modified afterwards
+     */
+    @Test
+    public void partialCallGraphTest() {
+        ITmfStateSystemBuilder fixture = createThreadsFixture();
+
+        String @NonNull [] tp = { "*" };
+        String @NonNull [] pp = { CallGraphAnalysisStub.PROCESS_PATH };
+        CallGraphAnalysisStub seeded = new CallGraphAnalysisStub(fixture, ImmutableList.of(pp, tp));
+        setCga(seeded);
+        CallGraphAnalysisStub direct = new CallGraphAnalysisStub(fixture, ImmutableList.of(pp, tp));
+        try {
+            CallGraph first = seeded.iteratePartially(1234);
+            assertNotNull(first);
+            List<ICallStackElement> partialThreads = getLeafElements(first);
+            assertEquals("Number of threads", 16, partialThreads.size());
+            String firstString = toString(first, partialThreads);
+            // Nothing new was aggregated, the same call graph is published
+            assertSame(first, seeded.iteratePartially(1234));
+            CallGraph second = seeded.iteratePartially(3456);
+            assertNotNull(second);
+            String secondString = toString(second, partialThreads);
+            assertTrue(seeded.iterate());
+            assertTrue(direct.iterate());
+
+            List<ICallStackElement> seededThreads = getLeafElements(seeded);
+            List<ICallStackElement> directThreads = getLeafElements(direct);
+            assertEquals(toString(direct.getCallGraph(), directThreads), toString(seeded.getCallGraph(), seededThreads));
+            for (ICallStackElement thread : partialThreads) {
+                assertIncluded(first.getCallingContextTree(thread), second.getCallingContextTree(thread));
+                assertIncluded(second.getCallingContextTree(thread), seeded.getCallGraph().getCallingContextTree(thread));
+            }
+            assertEquals(firstString, toString(first, partialThreads));
+            assertEquals(secondString, toString(second, partialThreads));
+
+            // The bucket index is also built from the partial aggregation
+            for (long[] range : ImmutableList.of(new long[] { 0, 5002 }, new long[] { 100, 4900 }, new long[] { 1234, 3456 }, new long[] { 3000, 4000 })) {
+                String message = "Range " + range[0] + "-" + range[1];
+                assertEquals(message, toString(direct.iterate(range[0], range[1]), directThreads), toString(seeded.iterate(range[0], range[1]), seededThreads));
+            }
+        } finally {
+            direct.dispose();
+        }
+    }
+
+    /**
+     * Test that the root functions are not aggregated while the call stacks
+     * are built if the kernel model of the host is not built up to their end,
+     * so the call graph of the analysis starting from the partial call graph
+     * has the CPU times of the complete kernel model
+     */
+    @Test
+    public void partialCallGraphKernelTest() {
+        ITmfStateSystemBuilder fixture = createThreadsFixture();
+
+        String @NonNull [] tp = { "*" };
+        String @NonNull [] pp = { CallGraphAnalysisStub.PROCESS_PATH };
+        CallGraphAnalysisStub seeded = new CallGraphAnalysisStub(fixture, ImmutableList.of(pp, tp));
+        setCga(seeded);
+        CallGraphAnalysisStub direct = new CallGraphAnalysisStub(fixture, ImmutableList.of(pp, tp));
+        KernelModelStub model = new KernelModelStub(1234);
+        try {
+            // The call stacks are built further than the kernel model
+            CallGraph partial = seeded.iteratePartially(3456, model);
+            assertNotNull(partial);
+            List<ICallStackElement> partialThreads = getLeafElements(partial);
+            assertEquals("Number of threads", 16, partialThreads.size());
+            for (ICallStackElement thread : partialThreads) {
+                long nbCalls = 0;
+                for (AggregatedCallSite callsite : partial.getCallingContextTree(thread)) {
+                    nbCalls += ((AggregatedCalledFunction) callsite).getNbCalls();
+                }
+                // Only the root functions ending before 1234
+                assertEquals(thread.getName(), 12, nbCalls);
+            }
+
+            // The kernel model completes after the partial call graph is published
+            model.setEnd(Long.MAX_VALUE);
+            assertTrue(seeded.iterate(model));
+            assertTrue(direct.iterate(new KernelModelStub(Long.MAX_VALUE)));
+            List<ICallStackElement> seededThreads = getLeafElements(seeded);
+            List<ICallStackElement> directThreads = getLeafElements(direct);
+            assertEquals(toString(direct.getCallGraph(), directThreads), toString(seeded.getCallGraph(), seededThreads));
+        } finally {
+            direct.dispose();
+        }
+    }
+
+    /**
+     * Host model stub whose kernel analysis is built up to a time. The CPU
+     * time of a thread is its time in the range known by the kernel model.
+     */
+    private static class KernelModelStub implements IHostModel {
+
+        private volatile long fEnd;
+
+        public KernelModelStub(long end) {
+            fEnd = end;
+        }
+
+        public void setEnd(long end) {
+            fEnd = end;
+        }
+
+        @Override
+        public boolean isQueryable(long time) {
+            return time <= fEnd;
+        }
+
+        @Override
+        public long getCpuTime(int tid, long start, long end) {
+            return Math.max(0, Math.min(end, fEnd) - start);
+        }
+
+        @Override
+        public int getThreadOnCpu(int cpu, long t, boolean block) {
+            return IHostModel.UNKNOWN_TID;
+        }
+
+        @Override
+        public int getProcessId(int tid, long t) {
+            return IHostModel.UNKNOWN_TID;
+        }
+
+        @Override
+        public @Nullable String getExecName(int tid, long t) {
+            return null;
+        }
+
+        @Override
+        public Collection<AggregatedCallSite> getSamplingData(int tid, long start, long end) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Iterable<ProcessStatusInterval> getThreadStatusIntervals(int tid, long start, long end, long resolution) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isSamplingDataAvailable() {
+            return false;
+        }
+
+        @Override
+        public boolean isThreadStatusAvailable() {
+            return false;
+        }
+
+        @Override
+        public Collection<IAnalysisModule> getRequiredModules(EnumSet<ModelDataType> requiredData) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void dispose() {
+            // Nothing to do
+        }
+    }
+
+    private static void assertIncluded(Collection<AggregatedCallSite> partial, Collection<AggregatedCallSite> complete) {
+        for (AggregatedCallSite callsite : partial) {
+            AggregatedCalledFunction function = (AggregatedCalledFunction) callsite;
+            AggregatedCalledFunction other = (AggregatedCalledFunction) complete.stream()
+                    .filter(c -> c.getObject().equals(callsite.getObject()))
+                    .findFirst().orElse(null);
+            assertNotNull(String.valueOf(callsite.getObject()), other);
+            assertTrue(function.getNbCalls() <= other.getNbCalls());
+            assertTrue(function.getDuration() <= other.getDuration());
+            assertIncluded(function.getCallees(), other.getCallees());
+        }
+    }
+
+    private static String toString(CallGraph cg, List<ICallStackElement> threads) {
+        List<String> strings = new ArrayList<>();
+        for (ICallStackElement thread : threads) {
+            strings.add(thread.getName() + toString(cg.getCallingContextTree(thread)));
+        }
+        Collections.sort(strings);
+        return String.valueOf(strings);
+    }
+
+    private static String toString(Collection<AggregatedCallSite> callsites) {
+        List<String> strings = new ArrayList<>();
+        for (AggregatedCallSite callsite : callsites) {
+            AggregatedCalledFunction function = (AggregatedCalledFunction) callsite;
+            strings.add(CallStackTestBase.getCallSiteSymbol(function).resolve(Collections.emptySet()) +
+                    " duration=" + function.getDuration() +
+                    " self=" + function.getSelfTime() +
+                    " calls=" + function.getNbCalls() +
+                    " cpu=" + function.getCpuTime() +
+                    toString(function.getCallees()));
+        }
+        Collections.sort(strings);
+        return String.valueOf(strings);
+    }
+
     /**
      * Gets the call graph analysis
      * @return the call graph analysis
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.callstack.core.tests.callgraph.instrumented;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.callgraph.QuantileSketch;
+import org.junit.Test;
+
+/**
+ * Test the {@link QuantileSketch} class
+ */
+public class QuantileSketchTest {
+
+    private static final double RELATIVE_ERROR = 0.1;
+
+    /**
+     * Test the quantiles of an empty sketch and of values lower than or equal
+     * to 0
+     */
+    @Test
+    public void testEmptyAndZero() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertEquals(Double.NaN, sketch.getQuantile(0.5), 0);
+
+        sketch.add(0);
+        sketch.add(-5);
+        sketch.add(100);
+        assertEquals(3, sketch.getCount());
+        assertEquals(0, sketch.getQuantile(0), 0);
+        assertEquals(0, sketch.getQuantile(0.5), 0);
+        assertEquals(100, sketch.getQuantile(1), 100 * RELATIVE_ERROR);
+    }
+
+    /**
+     * Test that the quantiles of merged sketches are close to the exact
+     * quantiles of all their values
+     */
+    @Test
+    public void testMerge() {
+        Random random = new Random(42);
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // Values spread over several orders of magnitude
+            long value = (long) Math.exp(random.nextDouble() * 15) + 1;
+            values.add(value);
+            if (i < 300) {
+                first.add(value);
+            } else {
+                second.add(value);
+            }
+        }
+        QuantileSketch copy = new QuantileSketch(first);
+        first.merge(second);
+        assertEquals(300, copy.getCount());
+        assertEquals(values.size(), first.getCount());
+
+        Collections.sort(values);
+        for (double quantile : new double[] { 0, 0.1, 0.5, 0.9, 0.99, 1 }) {
+            long expected = values.get((int) (quantile * (values.size() - 1)));
+            assertEquals("Quantile " + quantile, expected, first.getQuantile(quantile), expected * RELATIVE_ERROR);
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ import org.eclipse.tracecompass.incubator.analysis.core.model.IHostModel;
 import org.eclipse.tracecompass.incubator.analysis.core.model.ModelManager;
 import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
 import org.eclipse.tracecompass.incubator.callstack.core.flamechart.CallStack;
+import org.eclipse.tracecompass.incubator.callstack.core.flamechart.CallStackIntervals;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.ICalledFunction;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.statesystem.CallStackSeries;
 import org.eclipse.tracecompass.incubator.callstack.core.tests.stubs.CallStackAnalysisStub;
@@ -333,4 +334,64 @@ public class CallStackTest extends CallStackTestBase {
         assertNull(function);
 
     }
+
+    /**
+     * Test that the functions navigated in the intervals read with
+     * {@link CallStack#queryIntervals(long, long)} are the same as the ones
+     * read from the callstack
+     */
+    @Test
+    public void testQueryIntervals() {
+        CallStack element = getElementToTest();
+        IHostModel model = ModelManager.getModelFor("");
+
+        CallStackIntervals intervals = element.queryIntervals(START_TIME, END_TIME);
+        assertEquals(element.getMaxDepth(), intervals.getMaxDepth());
+        for (int depth = 1; depth <= element.getMaxDepth(); depth++) {
+            assertEquals(element.getCallListAtDepth(depth, START_TIME, END_TIME, 1, MONITOR), intervals.getCallListAtDepth(depth, START_TIME, END_TIME));
+            assertEquals(element.getCallListAtDepth(depth, 4L, 10L, 1, MONITOR), intervals.getCallListAtDepth(depth, 4L, 10L));
+        }
+
+        // Navigate the children of the root function
+        ICalledFunction root = intervals.getNextFunction(START_TIME, 1, null, model, START_TIME, END_TIME);
+        assertNotNull(root);
+        assertEquals(element.getNextFunction(START_TIME, 1, null, model, START_TIME, END_TIME), root);
+        ICalledFunction expected = element.getNextFunction(root.getStart(), 2, root, model, root.getStart(), root.getEnd());
+        ICalledFunction function = intervals.getNextFunction(root.getStart(), 2, root, model, root.getStart(), root.getEnd());
+        int count = 0;
+        while (expected != null) {
+            assertEquals(expected, function);
+            assertNotNull(function);
+            count++;
+            expected = element.getNextFunction(expected.getEnd(), 2, root, model, root.getStart(), root.getEnd());
+            function = intervals.getNextFunction(function.getEnd(), 2, root, model, root.getStart(), root.getEnd());
+        }
+        assertNull(function);
+        assertEquals(3, count);
+
+        // A function clipped to a smaller range
+        assertEquals(element.getNextFunction(10L, 2, root, model, 10L, 16L), intervals.getNextFunction(10L, 2, root, model, 10L, 16L));
+        assertEquals(element.getNextFunction(16L, 2, root, model, 10L, 16L), intervals.getNextFunction(16L, 2, root, model, 10L, 16L));
+    }
+
+    /**
+     * Test that {@link CallStack#queryIntervals(long, long, int)} does not
+     * read more than the maximum number of intervals
+     */
+    @Test
+    public void testQueryIntervalsMaximum() {
+        CallStack element = getElementToTest();
+        int count = 0;
+        for (int depth = 1; depth <= element.getMaxDepth(); depth++) {
+            count += element.getCallListAtDepth(depth, START_TIME, END_TIME, 1, MONITOR).size();
+        }
+        assertTrue(count > 1);
+        CallStackIntervals intervals = element.queryIntervals(START_TIME, END_TIME, count);
+        assertNotNull(intervals);
+        for (int depth = 1; depth <= element.getMaxDepth(); depth++) {
+            assertEquals(element.getCallListAtDepth(depth, START_TIME, END_TIME, 1, MONITOR), intervals.getCallListAtDepth(depth, START_TIME, END_TIME));
+        }
+        assertNull(element.queryIntervals(START_TIME, END_TIME, count - 1));
+        assertNull(element.queryIntervals(START_TIME, END_TIME, 1));
+    }
 }
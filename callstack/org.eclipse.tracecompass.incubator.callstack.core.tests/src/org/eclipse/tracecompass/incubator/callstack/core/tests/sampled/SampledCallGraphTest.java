@@ -14,6 +14,7 @@ import static org.junit.Assert.assertNotNull;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -25,6 +26,7 @@ import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackGroupDes
 import org.eclipse.tracecompass.incubator.callstack.core.callgraph.AllGroupDescriptor;
 import org.eclipse.tracecompass.incubator.callstack.core.callgraph.CallGraph;
 import org.eclipse.tracecompass.incubator.callstack.core.sampled.callgraph.ProfilingCallGraphAnalysisModule;
+import org.eclipse.tracecompass.incubator.callstack.core.sampled.callgraph.SampledCallGraph;
 import org.eclipse.tracecompass.incubator.callstack.core.tests.flamechart.CallStackTestBase;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.util.Pair;
@@ -148,4 +150,78 @@ public class SampledCallGraphTest {
 
     }
 
+    /**
+     * Test that the stack traces aggregated in a {@link SampledCallGraph} give
+     * the same calling context tree as the aggregated call sites, also when
+     * stack traces are added after the tree was read
+     */
+    @Test
+    public void testSampledCallGraph() {
+        TestProfilingAnalysis pg = new TestProfilingAnalysis();
+        try {
+            ICallStackElement element = pg.getElement();
+            long[][] stackTraces = { CALLSITE_1, CALLSITE_2, CALLSITE_3, CALLSITE_4, CALLSITE_5, CALLSITE_6, CALLSITE_7, CALLSITE_8, CALLSITE_9, CALLSITE_10 };
+
+            CallGraph expected = new CallGraph();
+            SampledCallGraph cg = new SampledCallGraph();
+            for (int i = 0; i < 5; i++) {
+                expected.addAggregatedCallSite(element, pg.getCallSite(element, stackTraces[i], i));
+                cg.addStackTrace(element, stackTraces[i], i);
+            }
+            assertEquals(toMap(expected.getCallingContextTree(element)), toMap(cg.getCallingContextTree(element)));
+
+            for (int i = 5; i < stackTraces.length; i++) {
+                expected.addAggregatedCallSite(element, pg.getCallSite(element, stackTraces[i], i));
+                cg.addStackTrace(element, stackTraces[i], i);
+            }
+            assertEquals(toMap(expected.getCallingContextTree(element)), toMap(cg.getCallingContextTree(element)));
+            assertEquals(Collections.singleton(element), cg.getElements());
+        } finally {
+            pg.dispose();
+        }
+    }
+
+    /**
+     * Test that the stack traces added to a {@link SampledCallGraph} after its
+     * calling context tree was read, but before the callees of its call sites
+     * were visited, are merged in the callees
+     */
+    @Test
+    public void testSampledCallGraphNotVisited() {
+        TestProfilingAnalysis pg = new TestProfilingAnalysis();
+        try {
+            ICallStackElement element = pg.getElement();
+            long[][] stackTraces = { CALLSITE_1, CALLSITE_2, CALLSITE_5, CALLSITE_7, CALLSITE_4, CALLSITE_6, CALLSITE_8, CALLSITE_10 };
+
+            CallGraph expected = new CallGraph();
+            SampledCallGraph cg = new SampledCallGraph();
+            for (int i = 0; i < 4; i++) {
+                expected.addAggregatedCallSite(element, pg.getCallSite(element, stackTraces[i], i));
+                cg.addStackTrace(element, stackTraces[i], i);
+            }
+            assertEquals(2, cg.getCallingContextTree(element).size());
+
+            for (int i = 4; i < stackTraces.length; i++) {
+                expected.addAggregatedCallSite(element, pg.getCallSite(element, stackTraces[i], i));
+                cg.addStackTrace(element, stackTraces[i], i);
+            }
+            assertEquals(toMap(expected.getCallingContextTree(element)), toMap(cg.getCallingContextTree(element)));
+        } finally {
+            pg.dispose();
+        }
+    }
+
+    /**
+     * Get a map of symbol to weight and children of call sites, to compare
+     * calling context trees
+     */
+    private static Map<String, Object> toMap(Collection<AggregatedCallSite> callsites) {
+        Map<String, Object> map = new HashMap<>();
+        for (AggregatedCallSite callsite : callsites) {
+            String symbol = CallStackTestBase.getCallSiteSymbol(callsite).resolve(Collections.emptySet());
+            map.put(symbol, new Pair<>(callsite.getWeight(), toMap(callsite.getCallees())));
+        }
+        return map;
+    }
+
 }
@@ -15,7 +15,9 @@ import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.analysis.core.model.IHostModel;
 import org.eclipse.tracecompass.incubator.analysis.core.model.ModelManager;
+import org.eclipse.tracecompass.incubator.callstack.core.callgraph.CallGraph;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.IFlameChartProvider;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.statesystem.CallStackHostUtils;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.statesystem.CallStackSeries;
@@ -59,6 +61,7 @@ public class CallGraphAnalysisStub extends CallGraphAnalysis {
 
         private final ITmfStateSystem fSs;
         private final @Nullable List<String[]> fPatterns;
+        private @Nullable CallStackSeries fSeries = null;
 
         public CSAnalysis(ITmfStateSystem fixture) {
             fSs = fixture;
@@ -77,8 +80,13 @@ public class CallGraphAnalysisStub extends CallGraphAnalysis {
 
         @Override
         public synchronized @Nullable CallStackSeries getCallStackSeries() {
-            List<String @NonNull []> patterns = fPatterns;
-            return new CallStackSeries(fSs, patterns == null ? PATTERNS : patterns, 0, "", new CallStackHostUtils.TraceHostIdResolver(getTrace()), new CallStackSeries.AttributeValueThreadResolver(1)); //$NON-NLS-1$
+            CallStackSeries series = fSeries;
+            if (series == null) {
+                List<String @NonNull []> patterns = fPatterns;
+                series = new CallStackSeries(fSs, patterns == null ? PATTERNS : patterns, 0, "", new CallStackHostUtils.TraceHostIdResolver(getTrace()), new CallStackSeries.AttributeValueThreadResolver(1)); //$NON-NLS-1$
+                fSeries = series;
+            }
+            return series;
         }
 
         @Override
@@ -128,11 +136,74 @@ public class CallGraphAnalysisStub extends CallGraphAnalysis {
      * @return The return value of the iteration
      */
     public boolean iterate() {
+        return iterate(ModelManager.getModelFor(""));
+    }
+
+    /**
+     * Will trigger the iteration over the callstack series with a host model
+     *
+     * @param model
+     *            The model of the host of the callstack
+     * @return The return value of the iteration
+     */
+    public boolean iterate(IHostModel model) {
+        CallStackSeries callStackSeries = fCsProvider.getCallStackSeries();
+        if (callStackSeries == null) {
+            throw new NullPointerException();
+        }
+        return iterateOverCallstackSerie(callStackSeries, model, getCallGraph(), 0, Long.MAX_VALUE, new NullProgressMonitor());
+    }
+
+    /**
+     * Will trigger the iteration over the callstack series for a time range,
+     * in a new call graph
+     *
+     * @param start
+     *            The start time of the range
+     * @param end
+     *            The end time of the range
+     * @return The call graph of the range
+     */
+    public CallGraph iterate(long start, long end) {
+        CallStackSeries callStackSeries = fCsProvider.getCallStackSeries();
+        if (callStackSeries == null) {
+            throw new NullPointerException();
+        }
+        CallGraph callGraph = new CallGraph();
+        iterateOverCallstackSerie(callStackSeries, ModelManager.getModelFor(""), callGraph, start, end, new NullProgressMonitor());
+        return callGraph;
+    }
+
+    /**
+     * Will aggregate the root functions of the callstack series ending before
+     * a time, as while the call stacks are being built. The next iteration in
+     * the call graph of this analysis starts from those functions.
+     *
+     * @param time
+     *            The time until which to aggregate the functions
+     * @return The partial call graph published
+     */
+    public @Nullable CallGraph iteratePartially(long time) {
+        return iteratePartially(time, ModelManager.getModelFor(""));
+    }
+
+    /**
+     * Will aggregate the root functions of the callstack series ending before
+     * a time with a host model, as while the call stacks and the host model
+     * are being built
+     *
+     * @param time
+     *            The time until which to aggregate the functions
+     * @param model
+     *            The model of the host of the callstack
+     * @return The partial call graph published
+     */
+    public @Nullable CallGraph iteratePartially(long time, IHostModel model) {
         CallStackSeries callStackSeries = fCsProvider.getCallStackSeries();
         if (callStackSeries == null) {
             throw new NullPointerException();
         }
-        return iterateOverCallstackSerie(callStackSeries, ModelManager.getModelFor(""), getCallGraph(), 0, Long.MAX_VALUE, new NullProgressMonitor());
+        return aggregatePartially(callStackSeries, model, time, new NullProgressMonitor());
     }
 
     @Override
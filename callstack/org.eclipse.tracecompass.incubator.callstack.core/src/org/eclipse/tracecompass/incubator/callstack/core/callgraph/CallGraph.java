@@ -65,14 +65,7 @@ public class CallGraph {
      * @param callsite the callsite to add
      */
     public void addAggregatedCallSite(ICallStackElement dstGroup, AggregatedCallSite callsite) {
-        // Make sure the root element is present
-        ICallStackElement root = dstGroup;
-        ICallStackElement parent = dstGroup.getParentElement();
-        while (parent != null) {
-            root = parent;
-            parent = parent.getParentElement();
-        }
-        fRootElements.add(root);
+        addElement(dstGroup);
         // Add the callsite to the appropriate group
         Collection<AggregatedCallSite> callsites = fCcts.get(dstGroup);
         for (AggregatedCallSite site : callsites) {
@@ -84,6 +77,24 @@ public class CallGraph {
         fCcts.put(dstGroup, callsite);
     }
 
+    /**
+     * Add the root element of an element containing call graph data to the
+     * elements of this call graph
+     *
+     * @param element
+     *            The element containing call graph data
+     */
+    protected void addElement(ICallStackElement element) {
+        // Make sure the root element is present
+        ICallStackElement root = element;
+        ICallStackElement parent = element.getParentElement();
+        while (parent != null) {
+            root = parent;
+            parent = parent.getParentElement();
+        }
+        fRootElements.add(root);
+    }
+
     /**
      * Get the root elements containing the call graph data.
      *
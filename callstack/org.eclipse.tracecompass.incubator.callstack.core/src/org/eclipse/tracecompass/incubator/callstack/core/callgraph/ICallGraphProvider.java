@@ -12,6 +12,7 @@ package org.eclipse.tracecompass.incubator.callstack.core.callgraph;
 import java.util.Collection;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.ICallStackSymbol;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.IWeightedTreeProvider;
@@ -62,6 +63,19 @@ public interface ICallGraphProvider extends IWeightedTreeProvider<@NonNull ICall
      */
     CallGraph getCallGraph();
 
+    /**
+     * Get the last partial call graph for the full range of the trace, while it
+     * is being built. The partial call graph only contains some of the calls,
+     * it is replaced by a new object as the analysis progresses, and once the
+     * analysis is complete, it is the same as {@link #getCallGraph()}.
+     *
+     * @return The partial call graph, or <code>null</code> if this provider
+     *         does not publish partial call graphs or none is available yet
+     */
+    default @Nullable CallGraph getPartialCallGraph() {
+        return null;
+    }
+
     @Override
     default Collection<AggregatedCallSite> getTreesFor(ICallStackElement element) {
         CallGraph callGraph = getCallGraph();
@@ -12,7 +12,10 @@ package org.eclipse.tracecompass.incubator.callstack.core.flamechart;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
 
@@ -22,6 +25,7 @@ import org.eclipse.tracecompass.analysis.os.linux.core.model.HostThread;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.ProcessStatusInterval;
 import org.eclipse.tracecompass.incubator.analysis.core.model.IHostModel;
 import org.eclipse.tracecompass.incubator.analysis.core.model.ModelManager;
+import org.eclipse.tracecompass.incubator.analysis.core.model.ThreadStatusCursor;
 import org.eclipse.tracecompass.incubator.callstack.core.base.CallStackElement;
 import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.ICalledFunction;
@@ -143,7 +147,7 @@ public class CallStack {
         return fQuarks.get(depth - 1);
     }
 
-    private String getHostId(long time) {
+    String getHostId(long time) {
         return fHostProvider.apply(time);
     }
 
@@ -225,6 +229,93 @@ public class CallStack {
         return null;
     }
 
+    /**
+     * Read the function calls of all the depths of this callstack that
+     * intersect a time range, with one query of the state system. The
+     * returned intervals can then be navigated in memory, to avoid querying
+     * the state system for each function of a range.
+     *
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range
+     * @return The function calls intersecting the range. The range is clipped
+     *         to the range of the callstack, and it is empty if the state
+     *         system cannot be queried.
+     */
+    public CallStackIntervals queryIntervals(long start, long end) {
+        return Objects.requireNonNull(queryIntervals(start, end, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Read the function calls of all the depths of this callstack that
+     * intersect a time range, like {@link #queryIntervals(long, long)}, unless
+     * there are more than a maximum number of them. The query stops as soon as
+     * the maximum is exceeded, so the memory used is bounded, and the caller
+     * can read a smaller range or query the functions one by one instead.
+     *
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range
+     * @param maxIntervals
+     *            The maximum number of function calls to read
+     * @return The function calls intersecting the range, or <code>null</code>
+     *         if there are more than the maximum
+     */
+    public @Nullable CallStackIntervals queryIntervals(long start, long end, int maxIntervals) {
+        long currentEnd = fStateSystem.getCurrentEndTime();
+        long qStart = Math.max(fStateSystem.getStartTime(), start);
+        long qEnd = Math.min(currentEnd, end);
+        List<Integer> quarks = new ArrayList<>(fQuarks);
+        int nbDepths = quarks.size();
+        List<List<ITmfStateInterval>> perDepth = new ArrayList<>(nbDepths);
+        Map<Integer, List<ITmfStateInterval>> byQuark = new HashMap<>();
+        for (Integer quark : quarks) {
+            List<ITmfStateInterval> intervals = new ArrayList<>();
+            perDepth.add(intervals);
+            byQuark.put(quark, intervals);
+        }
+        if (qStart <= qEnd && nbDepths > 0) {
+            int count = 0;
+            try {
+                for (ITmfStateInterval interval : fStateSystem.query2D(quarks, qStart, qEnd)) {
+                    if (interval.getValue() == null) {
+                        continue;
+                    }
+                    if (++count > maxIntervals) {
+                        return null;
+                    }
+                    List<ITmfStateInterval> intervals = byQuark.get(interval.getAttribute());
+                    if (intervals != null) {
+                        intervals.add(interval);
+                    }
+                }
+            } catch (StateSystemDisposedException | TimeRangeException | IndexOutOfBoundsException e) {
+                perDepth.forEach(List::clear);
+            }
+        }
+        long[][] starts = new long[nbDepths][];
+        long[][] ends = new long[nbDepths][];
+        Object[][] values = new Object[nbDepths][];
+        for (int i = 0; i < nbDepths; i++) {
+            List<ITmfStateInterval> intervals = perDepth.get(i);
+            // The 2D query does not return the intervals in time order
+            intervals.sort(Comparator.comparingLong(ITmfStateInterval::getStartTime));
+            int size = intervals.size();
+            starts[i] = new long[size];
+            ends[i] = new long[size];
+            values[i] = new Object[size];
+            for (int j = 0; j < size; j++) {
+                ITmfStateInterval interval = intervals.get(j);
+                starts[i][j] = interval.getStartTime();
+                ends[i][j] = interval.getEndTime();
+                values[i][j] = interval.getValue();
+            }
+        }
+        return new CallStackIntervals(this, qStart, Math.max(qStart, qEnd), currentEnd, starts, ends, values);
+    }
+
     /**
      * Get the next depth of this callstack, from the selected time. This function
      * is used to navigate the callstack forward or backward
@@ -507,6 +598,33 @@ public class CallStack {
         return model.getThreadStatusIntervals(function.getThreadId(), function.getStart(), function.getEnd(), resolution);
     }
 
+    /**
+     * Get the kernel statuses that span a given function, from cursors over
+     * the statuses of the threads. When the functions are visited in time
+     * order, each status interval of a thread is read once.
+     *
+     * @param function
+     *            The function for which to get the kernel statuses
+     * @param cursors
+     *            The cursors over the statuses of each thread, the cursor of
+     *            a thread is added the first time it is needed. The map and
+     *            cursors should only be used by one thread.
+     * @return The kernel statuses. It can be empty if statuses are not
+     *         available or if the function is outside the range of the
+     *         available data.
+     */
+    public List<ProcessStatusInterval> getKernelStatuses(ICalledFunction function, Map<HostThread, ThreadStatusCursor> cursors) {
+        String hostId = getHostId(function.getStart());
+        int threadId = function.getThreadId();
+        HostThread hostThread = new HostThread(hostId, threadId);
+        ThreadStatusCursor cursor = cursors.get(hostThread);
+        if (cursor == null) {
+            cursor = new ThreadStatusCursor(ModelManager.getModelFor(hostId), threadId);
+            cursors.put(hostThread, cursor);
+        }
+        return cursor.getStatuses(function.getStart(), function.getEnd());
+    }
+
     /**
      * Transforms a state interval from the state system into a
      * {@link ICalledFunction}. The function allows to retrieve data from this
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.callstack.core.flamechart;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.analysis.core.model.IHostModel;
+import org.eclipse.tracecompass.incubator.analysis.core.model.ModelManager;
+import org.eclipse.tracecompass.incubator.callstack.core.instrumented.ICalledFunction;
+import org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.callgraph.CalledFunctionFactory;
+
+/**
+ * The function calls of all the depths of a {@link CallStack} intersecting a
+ * time range, read with one query of the state system and sorted by depth and
+ * start time. The functions can then be navigated in memory with the same
+ * semantics as the methods of the call stack, instead of querying the state
+ * system for each function.
+ *
+ * Only the functions intersecting the range are available, so the navigation
+ * should stay inside the range. The children of a function are all available
+ * if the function is inside the range.
+ */
+public final class CallStackIntervals {
+
+    private static final int UNKNOWN_THREAD_ID = Integer.MIN_VALUE;
+
+    private final CallStack fCallStack;
+    private final long fStart;
+    private final long fEnd;
+    private final long fCurrentEnd;
+    private final long[][] fStarts;
+    private final long[][] fEnds;
+    private final Object[][] fValues;
+    /**
+     * The thread ID of the call stack if it does not vary in time, read with
+     * the first function
+     */
+    private int fThreadId = UNKNOWN_THREAD_ID;
+
+    /**
+     * Constructor
+     *
+     * @param callStack
+     *            The call stack of the intervals
+     * @param start
+     *            The start of the range that was queried
+     * @param end
+     *            The end of the range that was queried
+     * @param currentEnd
+     *            The end time of the call stack at the time of the query
+     * @param starts
+     *            The start times of the non-null intervals, by depth - 1,
+     *            sorted
+     * @param ends
+     *            The end times of the intervals, by depth - 1
+     * @param values
+     *            The values of the intervals, by depth - 1
+     */
+    CallStackIntervals(CallStack callStack, long start, long end, long currentEnd, long[][] starts, long[][] ends, Object[][] values) {
+        fCallStack = callStack;
+        fStart = start;
+        fEnd = end;
+        fCurrentEnd = currentEnd;
+        fStarts = starts;
+        fEnds = ends;
+        fValues = values;
+    }
+
+    /**
+     * Get the start of the range of these intervals
+     *
+     * @return The start time of the range
+     */
+    public long getStart() {
+        return fStart;
+    }
+
+    /**
+     * Get the end of the range of these intervals
+     *
+     * @return The end time of the range
+     */
+    public long getEnd() {
+        return fEnd;
+    }
+
+    /**
+     * Get the maximum depth of the call stack when the intervals were read
+     *
+     * @return The maximum depth
+     */
+    public int getMaxDepth() {
+        return fStarts.length;
+    }
+
+    /**
+     * Get the index of the first interval at a depth that ends at or after a
+     * time
+     */
+    private int firstEndingAfter(int depthIndex, long time) {
+        long[] ends = fEnds[depthIndex];
+        // The intervals of a depth do not overlap, so the ends are sorted too
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the ID of the thread running the call stack at a time, read only
+     * once if it does not vary in time
+     */
+    private int getThreadId(long time) {
+        if (fCallStack.isTidVariable()) {
+            return fCallStack.getThreadId(time);
+        }
+        int threadId = fThreadId;
+        if (threadId == UNKNOWN_THREAD_ID) {
+            threadId = fCallStack.getThreadId(time);
+            fThreadId = threadId;
+        }
+        return threadId;
+    }
+
+    /**
+     * Get the next function call after or including the requested time, like
+     * {@link CallStack#getNextFunction(long, int, ICalledFunction, IHostModel, long, long)},
+     * but from the intervals in memory.
+     *
+     * @param time
+     *            The time of the request
+     * @param depth
+     *            The depth of the requested function
+     * @param parent
+     *            The parent function call, from the same call stack. The
+     *            function gets the process and thread IDs of its parent.
+     * @param model
+     *            The operating system model to retrieve extra information.
+     * @param start
+     *            The time of the start of the function. If the function starts
+     *            earlier, this time will be used as start time.
+     * @param end
+     *            The time of the end of the function. If the function ends
+     *            later, this time will be used as end time.
+     * @return The next function call, or <code>null</code> if there is none in
+     *         the range of these intervals
+     */
+    public @Nullable ICalledFunction getNextFunction(long time, int depth, @Nullable ICalledFunction parent, IHostModel model, long start, long end) {
+        if (depth > fCallStack.getMaxDepth()) {
+            throw new ArrayIndexOutOfBoundsException("CallStack depth " + depth + " is too large"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (depth > getMaxDepth()) {
+            // This depth did not exist yet when the intervals were read
+            return null;
+        }
+        long endTime = (parent == null ? fCurrentEnd : parent.getEnd() - 1);
+        if (time > endTime || time >= end) {
+            return null;
+        }
+        int depthIndex = depth - 1;
+        int index = firstEndingAfter(depthIndex, Math.max(time, start));
+        if (index >= fStarts[depthIndex].length) {
+            return null;
+        }
+        long intervalStart = fStarts[depthIndex][index];
+        // The function either contains the time or starts before the end of
+        // the parent
+        if ((intervalStart > time && intervalStart >= endTime) || intervalStart >= end) {
+            return null;
+        }
+        // A function runs in the process and thread of its parent, only query
+        // them for the root functions
+        int processId = parent == null ? fCallStack.getSymbolKeyAt(intervalStart) : parent.getProcessId();
+        int threadId = parent == null ? getThreadId(intervalStart) : parent.getThreadId();
+        return CalledFunctionFactory.create(Math.max(start, intervalStart), Math.min(end, fEnds[depthIndex][index] + 1), fValues[depthIndex][index],
+                processId, threadId, parent, model);
+    }
+
+    /**
+     * Get the list of calls at a given depth, like
+     * {@link CallStack#getCallListAtDepth(int, long, long, long, org.eclipse.core.runtime.IProgressMonitor)}
+     * with a resolution of 1, but from the intervals in memory.
+     *
+     * @param depth
+     *            The requested depth
+     * @param startTime
+     *            The start of the period for which to get the call list
+     * @param endTime
+     *            The end of the period for which to get the call list
+     * @return The list of called functions at this depth
+     */
+    public List<ICalledFunction> getCallListAtDepth(int depth, long startTime, long endTime) {
+        if (depth > fCallStack.getMaxDepth()) {
+            throw new ArrayIndexOutOfBoundsException("CallStack depth " + depth + " is too large"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (depth > getMaxDepth()) {
+            return Collections.emptyList();
+        }
+        int depthIndex = depth - 1;
+        long[] starts = fStarts[depthIndex];
+        // Since functions in state system end at the time - 1, include the
+        // function that ends at 'start'
+        int index = firstEndingAfter(depthIndex, startTime - 1);
+        List<ICalledFunction> callList = new ArrayList<>();
+        for (; index < starts.length && starts[index] <= endTime; index++) {
+            long intervalStart = starts[index];
+            callList.add(CalledFunctionFactory.create(intervalStart, fEnds[depthIndex][index] + 1, fValues[depthIndex][index], fCallStack.getSymbolKeyAt(intervalStart),
+                    getThreadId(intervalStart), null, ModelManager.getModelFor(fCallStack.getHostId(intervalStart))));
+        }
+        return callList;
+    }
+
+}
@@ -228,6 +228,12 @@ public abstract class InstrumentedCallStackAnalysis extends TmfStateSystemAnalys
         return fCallGraph.getCallGraph();
     }
 
+    @Override
+    public @Nullable CallGraph getPartialCallGraph() {
+        fCallGraph.schedule();
+        return fCallGraph.getPartialCallGraph();
+    }
+
     @Override
     public Collection<ICallStackGroupDescriptor> getGroupDescriptors() {
         fCallGraph.schedule();
@@ -31,6 +31,19 @@ public class AggregatedStackTraces extends AggregatedCallSite {
         super(symbol, 1);
     }
 
+    /**
+     * Constructor with the weight of the frame pointer, for stack traces
+     * already aggregated
+     *
+     * @param symbol
+     *            The symbol for this frame pointer
+     * @param weight
+     *            The number of times this frame pointer was present
+     */
+    AggregatedStackTraces(ICallStackSymbol symbol, long weight) {
+        super(symbol, weight);
+    }
+
     private AggregatedStackTraces(AggregatedStackTraces toCopy) {
         super(toCopy);
     }
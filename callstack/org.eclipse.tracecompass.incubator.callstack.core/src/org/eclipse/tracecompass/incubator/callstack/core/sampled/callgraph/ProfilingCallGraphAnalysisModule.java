@@ -76,7 +76,11 @@ public abstract class ProfilingCallGraphAnalysisModule extends TmfAbstractAnalys
 
     @Override
     public CallGraph getCallGraph(ITmfTimestamp start, ITmfTimestamp end) {
-        CallGraph cg = executeForRange(new TmfTimeRange(start, end));
+        CallGraph cg = getIndexedCallGraph(start, end);
+        if (cg != null) {
+            return cg;
+        }
+        cg = executeForRange(new TmfTimeRange(start, end), false);
         if (cg == null) {
             return CallGraph.EMPTY_GRAPH;
         }
@@ -161,9 +165,82 @@ public abstract class ProfilingCallGraphAnalysisModule extends TmfAbstractAnalys
      */
     protected abstract @Nullable Pair<ICallStackElement, AggregatedCallSite> getProfiledStackTrace(ITmfEvent event);
 
+    /**
+     * Get the stack trace of an event as an array of addresses. Implementations
+     * that can provide the addresses should override this method, the stack
+     * traces are then aggregated in the compact storage of a
+     * {@link SampledCallGraph}, without creating call sites for each event.
+     * The default implementation returns <code>null</code>, so that
+     * {@link #getProfiledStackTrace(ITmfEvent)} is used.
+     *
+     * @param event
+     *            The trace event to process
+     * @return A pair of callstack element and the addresses of the stack
+     *         trace, the address at position 0 being the bottom of the stack,
+     *         or <code>null</code> to get the aggregated callsite of the event
+     *         instead
+     */
+    protected @Nullable Pair<ICallStackElement, long[]> getProfiledStackTraceAddresses(ITmfEvent event) {
+        return null;
+    }
+
+    /**
+     * Index a sample read by the analysis on the whole trace, so that the
+     * samples of a time range can later be obtained without reading the
+     * events again. It is called for each event for which
+     * {@link #getProfiledStackTrace(ITmfEvent)} returned a stack trace. The
+     * default implementation does nothing.
+     *
+     * @param event
+     *            The trace event of the sample
+     * @param element
+     *            The element of the sample
+     */
+    protected void indexSample(ITmfEvent event, ICallStackElement element) {
+        // Do nothing by default
+    }
+
+    /**
+     * Index a sample for which
+     * {@link #getProfiledStackTraceAddresses(ITmfEvent)} returned the
+     * addresses of the stack trace, so that implementations do not need to
+     * read them from the event again. The default implementation calls
+     * {@link #indexSample(ITmfEvent, ICallStackElement)}.
+     *
+     * @param event
+     *            The trace event of the sample
+     * @param element
+     *            The element of the sample
+     * @param stackTrace
+     *            The addresses of the stack trace of the sample, the address
+     *            at position 0 being the bottom of the stack
+     */
+    protected void indexSample(ITmfEvent event, ICallStackElement element, long[] stackTrace) {
+        indexSample(event, element);
+    }
+
+    /**
+     * Get the call graph of a time range from the samples indexed by the
+     * implementation, without reading the trace. The default implementation
+     * does not index samples and returns <code>null</code>.
+     *
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range
+     * @return The call graph of the range, or <code>null</code> if the samples
+     *         are not indexed and the events should be read
+     */
+    protected @Nullable CallGraph getIndexedCallGraph(ITmfTimestamp start, ITmfTimestamp end) {
+        return null;
+    }
+
     @Override
     protected boolean executeAnalysis(@NonNull IProgressMonitor monitor) throws TmfAnalysisException {
-        CallGraph callgraph = executeForRange(TmfTimeRange.ETERNITY);
+        CallGraph callgraph = getIndexedCallGraph(TmfTimeRange.ETERNITY.getStartTime(), TmfTimeRange.ETERNITY.getEndTime());
+        if (callgraph == null) {
+            callgraph = executeForRange(TmfTimeRange.ETERNITY, true);
+        }
         if (callgraph == null) {
             return false;
         }
@@ -171,7 +248,7 @@ public abstract class ProfilingCallGraphAnalysisModule extends TmfAbstractAnalys
         return true;
     }
 
-    private @Nullable CallGraph executeForRange(TmfTimeRange range) {
+    private @Nullable CallGraph executeForRange(TmfTimeRange range, boolean indexSamples) {
         ITmfTrace trace = getTrace();
         if (trace == null) {
             throw new NullPointerException("Trace has not been set, yet the analysis is being run!"); //$NON-NLS-1$
@@ -183,8 +260,8 @@ public abstract class ProfilingCallGraphAnalysisModule extends TmfAbstractAnalys
         }
 
         try {
-            CallGraph callGraph = new CallGraph();
-            request = new ProfilingEventRequest(trace, callGraph, range);
+            SampledCallGraph callGraph = new SampledCallGraph();
+            request = new ProfilingEventRequest(trace, callGraph, range, indexSamples);
             fRequest = request;
             trace.sendRequest(request);
 
@@ -210,7 +287,8 @@ public abstract class ProfilingCallGraphAnalysisModule extends TmfAbstractAnalys
     private class ProfilingEventRequest extends TmfEventRequest {
 
         private final ITmfTrace fTrace;
-        private final CallGraph fCallGraph;
+        private final SampledCallGraph fCallGraph;
+        private final boolean fIndexSamples;
 
         /**
          * Constructor
@@ -221,8 +299,10 @@ public abstract class ProfilingCallGraphAnalysisModule extends TmfAbstractAnalys
          *            The callgraph to fill
          * @param range
          *            The time range of this request
+         * @param indexSamples
+         *            Whether to index the samples read
          */
-        public ProfilingEventRequest(ITmfTrace trace, CallGraph callgraph, TmfTimeRange range) {
+        public ProfilingEventRequest(ITmfTrace trace, SampledCallGraph callgraph, TmfTimeRange range, boolean indexSamples) {
             super(TmfEvent.class,
                     range,
                     0,
@@ -230,6 +310,7 @@ public abstract class ProfilingCallGraphAnalysisModule extends TmfAbstractAnalys
                     ITmfEventRequest.ExecutionType.BACKGROUND);
             fTrace = trace;
             fCallGraph = callgraph;
+            fIndexSamples = indexSamples;
         }
 
         @Override
@@ -251,10 +332,21 @@ public abstract class ProfilingCallGraphAnalysisModule extends TmfAbstractAnalys
         }
 
         private void processEvent(ITmfEvent event) {
+            Pair<ICallStackElement, long[]> stackTrace = getProfiledStackTraceAddresses(event);
+            if (stackTrace != null) {
+                if (fIndexSamples) {
+                    indexSample(event, stackTrace.getFirst(), stackTrace.getSecond());
+                }
+                fCallGraph.addStackTrace(stackTrace.getFirst(), stackTrace.getSecond(), event.getTimestamp().getValue());
+                return;
+            }
             Pair<ICallStackElement, AggregatedCallSite> perfCallSite = getProfiledStackTrace(event);
             if (perfCallSite == null) {
                 return;
             }
+            if (fIndexSamples) {
+                indexSample(event, perfCallSite.getFirst());
+            }
             fCallGraph.addAggregatedCallSite(perfCallSite.getFirst(), perfCallSite.getSecond());
         }
     }
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.callstack.core.sampled.callgraph;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
+import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
+import org.eclipse.tracecompass.incubator.callstack.core.callgraph.CallGraph;
+
+/**
+ * A call graph of sampled stack traces. The stack traces of each element are
+ * aggregated in a compact calling context trie. The calling context tree of an
+ * element is made of views of the nodes of its trie, which create the call
+ * sites of their children when they are first visited. The stack traces added
+ * after the calling context tree of an element was requested go in a new trie,
+ * which is merged in the calling context tree at the next request.
+ */
+public class SampledCallGraph extends CallGraph {
+
+    private final Map<ICallStackElement, StackTraceTrie> fTries = new HashMap<>();
+
+    /**
+     * Add a stack trace to an element. The weight of each frame of the stack
+     * trace is incremented by one.
+     *
+     * @param dstGroup
+     *            The element to which to add this stack trace
+     * @param stackTrace
+     *            The addresses of the stack trace, the address at position 0 is
+     *            the bottom of the stack, ie the first function called. It is
+     *            not kept by the call graph.
+     * @param ts
+     *            The timestamp of the stack trace
+     */
+    public synchronized void addStackTrace(ICallStackElement dstGroup, long[] stackTrace, long ts) {
+        if (stackTrace.length == 0) {
+            return;
+        }
+        StackTraceTrie trie = fTries.get(dstGroup);
+        if (trie == null) {
+            addElement(dstGroup);
+            trie = new StackTraceTrie();
+            fTries.put(dstGroup, trie);
+        }
+        trie.add(stackTrace, dstGroup.getSymbolKeyAt(ts), ts);
+    }
+
+    @Override
+    public synchronized void addAggregatedCallSite(ICallStackElement dstGroup, AggregatedCallSite callsite) {
+        super.addAggregatedCallSite(dstGroup, callsite);
+    }
+
+    @Override
+    public synchronized Collection<AggregatedCallSite> getCallingContextTree(ICallStackElement element) {
+        StackTraceTrie trie = fTries.remove(element);
+        if (trie != null) {
+            for (AggregatedCallSite callsite : trie.getCallSites()) {
+                super.addAggregatedCallSite(element, callsite);
+            }
+        }
+        return super.getCallingContextTree(element);
+    }
+
+}
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.callstack.core.sampled.callgraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.ICallStackSymbol;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.util.LongMap;
+import org.eclipse.tracecompass.incubator.internal.callstack.core.symbol.ResolvableSymbol;
+
+/**
+ * Calling context trie of the stack traces sampled for one element. The frames
+ * are interned by address and symbol key, and the nodes of the trie are kept in
+ * primitive arrays, so adding a stack trace allocates nothing once its path is
+ * in the trie. The aggregated call sites of the nodes are only created by
+ * {@link #getCallSites()}, once all the stack traces are added.
+ *
+ * Node 0 is the root of the trie, it has no frame and its children are the
+ * bottoms of the stack traces.
+ */
+final class StackTraceTrie {
+
+    private static final int INITIAL_SIZE = 64;
+    private static final int NO_NODE = -1;
+
+    // Interned frames
+    /** The last frame interned for each address */
+    private final LongMap<Integer> fFrameIds = new LongMap<>();
+    private long[] fFrameAddresses = new long[INITIAL_SIZE];
+    private int[] fFrameKeys = new int[INITIAL_SIZE];
+    private long[] fFrameTimes = new long[INITIAL_SIZE];
+    /** The next frame with the same address, but another symbol key */
+    private int[] fFrameNext = new int[INITIAL_SIZE];
+    private int fNbFrames = 0;
+
+    // Nodes of the trie
+    /** The child nodes, by parent node and frame */
+    private final LongMap<Integer> fChildIds = new LongMap<>();
+    private int[] fNodeFrames = new int[INITIAL_SIZE];
+    private long[] fNodeWeights = new long[INITIAL_SIZE];
+    private int[] fFirstChildren = new int[INITIAL_SIZE];
+    private int[] fNextSiblings = new int[INITIAL_SIZE];
+    private int fNbNodes = 1;
+
+    /**
+     * Constructor
+     */
+    public StackTraceTrie() {
+        fNodeFrames[0] = NO_NODE;
+        fFirstChildren[0] = NO_NODE;
+        fNextSiblings[0] = NO_NODE;
+    }
+
+    /**
+     * Add a stack trace to the trie, the weight of each frame of the stack
+     * trace is incremented by one.
+     *
+     * @param stackTrace
+     *            The addresses of the stack trace, the address at position 0 is
+     *            the bottom of the stack
+     * @param symbolKey
+     *            The symbol key of the element at the time of the stack trace
+     * @param timestamp
+     *            The timestamp of the stack trace
+     */
+    public void add(long[] stackTrace, int symbolKey, long timestamp) {
+        int node = 0;
+        for (long address : stackTrace) {
+            int frame = getFrame(address, symbolKey, timestamp);
+            node = getChild(node, frame);
+            fNodeWeights[node]++;
+        }
+    }
+
+    private int getFrame(long address, int symbolKey, long timestamp) {
+        Integer firstFrame = fFrameIds.get(address);
+        int first = firstFrame == null ? NO_NODE : firstFrame;
+        for (int frame = first; frame != NO_NODE; frame = fFrameNext[frame]) {
+            if (fFrameKeys[frame] == symbolKey) {
+                return frame;
+            }
+        }
+        int frame = fNbFrames++;
+        if (frame == fFrameAddresses.length) {
+            int length = frame * 2;
+            fFrameAddresses = Arrays.copyOf(fFrameAddresses, length);
+            fFrameKeys = Arrays.copyOf(fFrameKeys, length);
+            fFrameTimes = Arrays.copyOf(fFrameTimes, length);
+            fFrameNext = Arrays.copyOf(fFrameNext, length);
+        }
+        fFrameAddresses[frame] = address;
+        fFrameKeys[frame] = symbolKey;
+        fFrameTimes[frame] = timestamp;
+        fFrameNext[frame] = first;
+        fFrameIds.put(address, frame);
+        return frame;
+    }
+
+    private int getChild(int parent, int frame) {
+        long key = ((long) parent << 32) | frame;
+        Integer existing = fChildIds.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int child = fNbNodes++;
+        if (child == fNodeFrames.length) {
+            int length = child * 2;
+            fNodeFrames = Arrays.copyOf(fNodeFrames, length);
+            fNodeWeights = Arrays.copyOf(fNodeWeights, length);
+            fFirstChildren = Arrays.copyOf(fFirstChildren, length);
+            fNextSiblings = Arrays.copyOf(fNextSiblings, length);
+        }
+        fNodeFrames[child] = frame;
+        fNodeWeights[child] = 0;
+        fFirstChildren[child] = NO_NODE;
+        fNextSiblings[child] = fFirstChildren[parent];
+        fFirstChildren[parent] = child;
+        fChildIds.put(key, child);
+        return child;
+    }
+
+    /**
+     * Get whether stack traces were added to this trie
+     *
+     * @return Whether the trie is empty
+     */
+    public boolean isEmpty() {
+        return fNbNodes == 1;
+    }
+
+    /**
+     * Get the aggregated call sites of the bottoms of the stack traces of this
+     * trie. The call sites of all the nodes are created before they are
+     * returned, so they can be read from any thread once published. The
+     * symbol of each frame is created once and shared by the call sites of
+     * this frame.
+     *
+     * Stack traces must not be added to the trie once its call sites are
+     * returned.
+     *
+     * @return The call sites of the bottoms of the stack traces
+     */
+    public List<AggregatedCallSite> getCallSites() {
+        /* A node is always created after its parent */
+        int[] parents = new int[fNbNodes];
+        for (int node = 0; node < fNbNodes; node++) {
+            for (int child = fFirstChildren[node]; child != NO_NODE; child = fNextSiblings[child]) {
+                parents[child] = node;
+            }
+        }
+        @Nullable ICallStackSymbol[] symbols = new ICallStackSymbol[fNbFrames];
+        AggregatedCallSite[] callSites = new AggregatedCallSite[fNbNodes];
+        List<AggregatedCallSite> roots = new ArrayList<>();
+        for (int node = 1; node < fNbNodes; node++) {
+            int frame = fNodeFrames[node];
+            ICallStackSymbol symbol = symbols[frame];
+            if (symbol == null) {
+                symbol = new ResolvableSymbol(fFrameAddresses[frame], fFrameKeys[frame], fFrameTimes[frame]);
+                symbols[frame] = symbol;
+            }
+            AggregatedCallSite callSite = new AggregatedStackTraces(symbol, fNodeWeights[node]);
+            callSites[node] = callSite;
+            if (parents[node] == 0) {
+                roots.add(callSite);
+            } else {
+                callSites[parents[node]].addChild(callSite);
+            }
+        }
+        return roots;
+    }
+}
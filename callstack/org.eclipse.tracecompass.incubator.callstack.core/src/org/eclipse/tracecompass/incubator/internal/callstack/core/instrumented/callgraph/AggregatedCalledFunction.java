@@ -9,12 +9,13 @@
 
 package org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.callgraph;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.os.linux.core.model.ProcessStatus;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
@@ -47,12 +48,25 @@ public class AggregatedCalledFunction extends AggregatedCallSite {
     // Attributes
     // ------------------------------------------------------------------------
 
+    private static final ProcessStatus[] STATUSES = ProcessStatus.values();
+    /** Time of a process status that was never added to this function */
+    private static final long NO_STATUS = -1;
+
     private final AggregatedCalledFunctionStatistics fStatistics;
     private long fDuration = 0;
     private long fSelfTime = 0;
     private long fCpuTime = IHostModel.TIME_UNKNOWN;
     private int fProcessId;
-    private Map<ProcessStatus, AggregatedThreadStatus> fProcessStatuses = new HashMap<>();
+    /**
+     * The time spent in each process status, indexed by the ordinal of the
+     * status, or <code>null</code> if no status was added
+     */
+    private long @Nullable [] fProcessStatuses = null;
+    /**
+     * The aggregated statuses created from the process statuses, or
+     * <code>null</code> if they changed since they were last created
+     */
+    private @Nullable Collection<AggregatedCallSite> fExtraChildren = null;
 
     /**
      * Constructor, parent is not null
@@ -107,17 +121,29 @@ public class AggregatedCalledFunction extends AggregatedCallSite {
     }
 
     private void mergeProcessStatuses(AggregatedCalledFunction other) {
-        Map<ProcessStatus, AggregatedThreadStatus> processStatuses = other.fProcessStatuses;
-        for (Entry<ProcessStatus, AggregatedThreadStatus> entry : processStatuses.entrySet()) {
-            AggregatedThreadStatus status = fProcessStatuses.get(entry.getKey());
-            if (status == null) {
-                status = new AggregatedThreadStatus(entry.getKey());
+        long[] otherStatuses = other.fProcessStatuses;
+        if (otherStatuses == null) {
+            return;
+        }
+        long[] statuses = getProcessStatuses();
+        fExtraChildren = null;
+        for (int i = 0; i < otherStatuses.length; i++) {
+            if (otherStatuses[i] != NO_STATUS) {
+                statuses[i] = Math.max(statuses[i], 0) + otherStatuses[i];
             }
-            status.merge(entry.getValue());
-            fProcessStatuses.put(entry.getKey(), status);
         }
     }
 
+    private long[] getProcessStatuses() {
+        long[] statuses = fProcessStatuses;
+        if (statuses == null) {
+            statuses = new long[STATUSES.length];
+            Arrays.fill(statuses, NO_STATUS);
+            fProcessStatuses = statuses;
+        }
+        return statuses;
+    }
+
     @Override
     public Map<String, IStatistics<?>> getStatistics() {
         ImmutableMap.Builder<String, IStatistics<?>> builder = new ImmutableMap.Builder<>();
@@ -293,18 +319,35 @@ public class AggregatedCalledFunction extends AggregatedCallSite {
      *            The process status interval
      */
     public void addKernelStatus(ProcessStatusInterval interval) {
-        ProcessStatus processStatus = interval.getProcessStatus();
-        AggregatedThreadStatus status = fProcessStatuses.get(processStatus);
-        if (status == null) {
-            status = new AggregatedThreadStatus(processStatus);
-            fProcessStatuses.put(processStatus, status);
-        }
-        status.update(interval);
+        long[] statuses = getProcessStatuses();
+        int index = interval.getProcessStatus().ordinal();
+        statuses[index] = Math.max(statuses[index], 0) + interval.getLength();
+        fExtraChildren = null;
     }
 
     @Override
     public Collection<AggregatedCallSite> getExtraChildrenSites() {
-        return ImmutableList.copyOf(fProcessStatuses.values());
+        Collection<AggregatedCallSite> extraChildren = fExtraChildren;
+        if (extraChildren != null) {
+            return extraChildren;
+        }
+        long[] statuses = fProcessStatuses;
+        if (statuses == null) {
+            return Collections.emptyList();
+        }
+        // The aggregated statuses are created on demand from the times and
+        // kept until a status is added
+        ImmutableList.Builder<AggregatedCallSite> builder = ImmutableList.builder();
+        for (int i = 0; i < statuses.length; i++) {
+            if (statuses[i] != NO_STATUS) {
+                AggregatedThreadStatus status = new AggregatedThreadStatus(STATUSES[i]);
+                status.addToWeight(statuses[i]);
+                builder.add(status);
+            }
+        }
+        extraChildren = builder.build();
+        fExtraChildren = extraChildren;
+        return extraChildren;
     }
 
     /**
@@ -9,37 +9,63 @@
 
 package org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.callgraph;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
-import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.ICalledFunction;
 
 /**
  * Class to calculate statistics for an aggregated function.
  *
+ * The statistics of the durations, self times and CPU times are kept in
+ * primitive arrays indexed by metric in each instance, instead of one
+ * statistics object per metric, since there is one instance of this class per
+ * node of the call graph. The {@link IStatistics} of each metric are views on
+ * those arrays. The durations are also kept in a {@link QuantileSketch}.
+ *
+ * The arrays are not in a store shared by all the nodes and indexed by call
+ * site: the nodes are created, copied and merged while the call graph is
+ * built, and most of them are discarded once merged, so such a store would
+ * have to know when a node is discarded to reuse its slot.
+ *
  * @author Sonia Farrah
  * @author Geneviève Bastien
  */
 public class AggregatedCalledFunctionStatistics {
 
     // Duration statistics will be kept for all calls of the method, so we make
-    // them on the called function themselves
-    private final IStatistics<ICalledFunction> fDurations;
-    // Self time statistics are on aggregated called function because self times
-    // are known only at the end, once the aggregation is over
-    private final IStatistics<ICalledFunction> fSelfTimes;
-    private final IStatistics<ICalledFunction> fCpuTimes;
-    // FIXME: Should this class manage the number of calls, or the callsite?
-    // Common info with sampling, so maybe callsite
-    private final IStatistics<ICalledFunction> fNbCalls;
+    // them on the called function themselves. Self time statistics are on
+    // aggregated called function because self times are known only at the
+    // end, once the aggregation is over
+    private static final int DURATION = 0;
+    private static final int SELF_TIME = 1;
+    private static final int CPU_TIME = 2;
+    private static final int NB_METRICS = 3;
+
+    // The total, minimum and maximum of each metric are at metric * 3 + offset
+    private static final int TOTAL = 0;
+    private static final int MIN = 1;
+    private static final int MAX = 2;
+    // The mean and sum of squared differences from the mean of each metric are
+    // at metric * 2 + offset
+    private static final int MEAN = 0;
+    private static final int M2 = 1;
+
+    private final long[] fValues = new long[NB_METRICS * 3];
+    private final double[] fMoments = new double[NB_METRICS * 2];
+    // The functions with the minimum and maximum value of each metric
+    private final @Nullable ICalledFunction[] fExtremes = new ICalledFunction[NB_METRICS * 2];
+    // The number of calls is common to all metrics
+    private long fNbElements = 0;
+    private final QuantileSketch fDurations = new QuantileSketch();
 
     /**
      * Constructor
      */
     public AggregatedCalledFunctionStatistics() {
-        fDurations = new Statistics<>(f -> f.getLength());
-        fSelfTimes = new Statistics<>(f -> f.getSelfTime());
-        fCpuTimes = new Statistics<>(f -> f.getCpuTime());
-        fNbCalls = new Statistics<>(f -> f.getCpuTime());
+        for (int metric = 0; metric < NB_METRICS; metric++) {
+            fValues[metric * 3 + MIN] = Long.MAX_VALUE;
+            fValues[metric * 3 + MAX] = Long.MIN_VALUE;
+        }
     }
 
     /**
@@ -52,10 +78,28 @@ public class AggregatedCalledFunctionStatistics {
      *            The function to add statistics for
      */
     public void update(ICalledFunction function) {
-        fDurations.update(function);
-        fSelfTimes.update(function);
-        fCpuTimes.update(function);
-        fNbCalls.update(function);
+        fNbElements++;
+        update(DURATION, function.getLength(), function);
+        update(SELF_TIME, function.getSelfTime(), function);
+        update(CPU_TIME, function.getCpuTime(), function);
+        fDurations.add(function.getLength());
+    }
+
+    private void update(int metric, long value, ICalledFunction function) {
+        int index = metric * 3;
+        fValues[index + TOTAL] += value;
+        if (value < fValues[index + MIN]) {
+            fValues[index + MIN] = value;
+            fExtremes[metric * 2] = function;
+        }
+        if (value > fValues[index + MAX]) {
+            fValues[index + MAX] = value;
+            fExtremes[metric * 2 + 1] = function;
+        }
+        // Online update of the mean and variance
+        double delta = value - fMoments[metric * 2 + MEAN];
+        fMoments[metric * 2 + MEAN] += delta / fNbElements;
+        fMoments[metric * 2 + M2] += delta * (value - fMoments[metric * 2 + MEAN]);
     }
 
     /**
@@ -66,9 +110,32 @@ public class AggregatedCalledFunctionStatistics {
      *            The statistics node to be merged
      */
     public void merge(AggregatedCalledFunctionStatistics statisticsNode) {
+        long otherNbElements = statisticsNode.fNbElements;
+        if (otherNbElements == 0) {
+            return;
+        }
+        long nbElements = fNbElements;
+        long total = nbElements + otherNbElements;
+        for (int metric = 0; metric < NB_METRICS; metric++) {
+            int index = metric * 3;
+            fValues[index + TOTAL] += statisticsNode.fValues[index + TOTAL];
+            if (statisticsNode.fValues[index + MIN] < fValues[index + MIN]) {
+                fValues[index + MIN] = statisticsNode.fValues[index + MIN];
+                fExtremes[metric * 2] = statisticsNode.fExtremes[metric * 2];
+            }
+            if (statisticsNode.fValues[index + MAX] > fValues[index + MAX]) {
+                fValues[index + MAX] = statisticsNode.fValues[index + MAX];
+                fExtremes[metric * 2 + 1] = statisticsNode.fExtremes[metric * 2 + 1];
+            }
+            // Combine the means and variances of both sets
+            double mean = fMoments[metric * 2 + MEAN];
+            double otherMean = statisticsNode.fMoments[metric * 2 + MEAN];
+            double delta = otherMean - mean;
+            fMoments[metric * 2 + MEAN] = (nbElements * mean + otherNbElements * otherMean) / total;
+            fMoments[metric * 2 + M2] += statisticsNode.fMoments[metric * 2 + M2] + delta * delta * nbElements * otherNbElements / total;
+        }
+        fNbElements = total;
         fDurations.merge(statisticsNode.fDurations);
-        fSelfTimes.merge(statisticsNode.fSelfTimes);
-        fCpuTimes.merge(statisticsNode.fCpuTimes);
     }
 
     /**
@@ -83,9 +150,7 @@ public class AggregatedCalledFunctionStatistics {
      *            the statistics are to be added to this one.
      */
     public void merge(AggregatedCalledFunctionStatistics other, boolean isGroup) {
-        fDurations.merge(other.fDurations);
-        fSelfTimes.merge(other.fSelfTimes);
-        fCpuTimes.merge(other.fCpuTimes);
+        merge(other);
         // if (!isGroup) {
         // // If the other is not a group, also update the data per call
         // fNbDataPerCall += stats.fNbDataPerCall;
@@ -103,7 +168,7 @@ public class AggregatedCalledFunctionStatistics {
      * @return The durations statistics
      */
     public IStatistics<ICalledFunction> getDurationStatistics() {
-        return fDurations;
+        return new MetricStatistics(DURATION);
     }
 
     /**
@@ -112,7 +177,7 @@ public class AggregatedCalledFunctionStatistics {
      * @return The self time statistics
      */
     public IStatistics<ICalledFunction> getSelfTimeStatistics() {
-        return fSelfTimes;
+        return new MetricStatistics(SELF_TIME);
     }
 
     /**
@@ -121,12 +186,175 @@ public class AggregatedCalledFunctionStatistics {
      * @return The CPU time statistics
      */
     public IStatistics<ICalledFunction> getCpuTimesStatistics() {
-        return fCpuTimes;
+        return new MetricStatistics(CPU_TIME);
+    }
+
+    /**
+     * Estimate a quantile of the durations of the called functions
+     *
+     * @param quantile
+     *            The quantile, between 0 and 1, for example 0.5 for the median
+     * @return The estimated duration at this quantile, or {@link Double#NaN}
+     *         if there are no calls
+     */
+    public double getDurationQuantile(double quantile) {
+        return fDurations.getQuantile(quantile);
     }
 
     @Override
     public String toString() {
-        return "Aggregated function statistics: Durations: " + fDurations + ", Self times " + fSelfTimes; //$NON-NLS-1$//$NON-NLS-2$
+        return "Aggregated function statistics: Durations: " + getDurationStatistics() + ", Self times " + getSelfTimeStatistics(); //$NON-NLS-1$//$NON-NLS-2$
+    }
+
+    /**
+     * View on the statistics of one metric. The view does not modify the
+     * aggregated statistics: on its first update or merge, it copies the
+     * statistics of its metric and then works on its own copy.
+     */
+    private class MetricStatistics implements IStatistics<ICalledFunction> {
+
+        private final int fMetric;
+        private boolean fDetached = false;
+        private long fMin;
+        private long fMax;
+        private long fTotal;
+        private long fNb;
+        private double fMean;
+        private double fM2;
+        private @Nullable ICalledFunction fMinObject;
+        private @Nullable ICalledFunction fMaxObject;
+
+        public MetricStatistics(int metric) {
+            fMetric = metric;
+        }
+
+        private void detach() {
+            if (fDetached) {
+                return;
+            }
+            fMin = fValues[fMetric * 3 + MIN];
+            fMax = fValues[fMetric * 3 + MAX];
+            fTotal = fValues[fMetric * 3 + TOTAL];
+            fNb = fNbElements;
+            fMean = fMoments[fMetric * 2 + MEAN];
+            fM2 = fMoments[fMetric * 2 + M2];
+            fMinObject = fExtremes[fMetric * 2];
+            fMaxObject = fExtremes[fMetric * 2 + 1];
+            fDetached = true;
+        }
+
+        private double getM2() {
+            return fDetached ? fM2 : fMoments[fMetric * 2 + M2];
+        }
+
+        @Override
+        public long getMin() {
+            return fDetached ? fMin : fValues[fMetric * 3 + MIN];
+        }
+
+        @Override
+        public long getMax() {
+            return fDetached ? fMax : fValues[fMetric * 3 + MAX];
+        }
+
+        @Override
+        public @Nullable ICalledFunction getMinObject() {
+            return fDetached ? fMinObject : fExtremes[fMetric * 2];
+        }
+
+        @Override
+        public @Nullable ICalledFunction getMaxObject() {
+            return fDetached ? fMaxObject : fExtremes[fMetric * 2 + 1];
+        }
+
+        @Override
+        public long getNbElements() {
+            return fDetached ? fNb : fNbElements;
+        }
+
+        @Override
+        public double getMean() {
+            return fDetached ? fMean : fMoments[fMetric * 2 + MEAN];
+        }
+
+        @Override
+        public double getStdDev() {
+            long nbElements = getNbElements();
+            return nbElements > 2 ? Math.sqrt(getM2() / (nbElements - 1)) : Double.NaN;
+        }
+
+        @Override
+        public long getTotal() {
+            return fDetached ? fTotal : fValues[fMetric * 3 + TOTAL];
+        }
+
+        @Override
+        public void update(ICalledFunction input) {
+            detach();
+            long value;
+            switch (fMetric) {
+            case SELF_TIME:
+                value = input.getSelfTime();
+                break;
+            case CPU_TIME:
+                value = input.getCpuTime();
+                break;
+            case DURATION:
+            default:
+                value = input.getLength();
+                break;
+            }
+            fNb++;
+            fTotal += value;
+            if (value < fMin) {
+                fMin = value;
+                fMinObject = input;
+            }
+            if (value > fMax) {
+                fMax = value;
+                fMaxObject = input;
+            }
+            double delta = value - fMean;
+            fMean += delta / fNb;
+            fM2 += delta * (value - fMean);
+        }
+
+        @Override
+        public void merge(IStatistics<ICalledFunction> other) {
+            long otherNbElements = other.getNbElements();
+            if (otherNbElements == 0) {
+                return;
+            }
+            // The sum of squared differences is known only for these views,
+            // otherwise it is computed back from the standard deviation
+            double otherM2;
+            if (other instanceof MetricStatistics) {
+                otherM2 = ((MetricStatistics) other).getM2();
+            } else {
+                double stdDev = other.getStdDev();
+                otherM2 = Double.isNaN(stdDev) ? 0 : stdDev * stdDev * (otherNbElements - 1);
+            }
+            detach();
+            long total = fNb + otherNbElements;
+            fTotal += other.getTotal();
+            if (other.getMin() < fMin) {
+                fMin = other.getMin();
+                fMinObject = other.getMinObject();
+            }
+            if (other.getMax() > fMax) {
+                fMax = other.getMax();
+                fMaxObject = other.getMaxObject();
+            }
+            double delta = other.getMean() - fMean;
+            fMean = (fNb * fMean + otherNbElements * other.getMean()) / total;
+            fM2 += otherM2 + delta * delta * fNb * otherNbElements / total;
+            fNb = total;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics: Nb elements: " + getNbElements() + ", Min: " + getMin() + ", Max: " + getMax() + ", Mean: " + getMean(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        }
     }
 
 }
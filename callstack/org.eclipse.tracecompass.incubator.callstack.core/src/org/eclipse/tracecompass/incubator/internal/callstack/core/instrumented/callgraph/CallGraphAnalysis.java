@@ -12,8 +12,14 @@ package org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -21,16 +27,19 @@ import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.osgi.util.NLS;
+import org.eclipse.tracecompass.analysis.os.linux.core.model.HostThread;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.ICallStackSymbol;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.ProcessStatusInterval;
 import org.eclipse.tracecompass.incubator.analysis.core.model.IHostModel;
 import org.eclipse.tracecompass.incubator.analysis.core.model.ModelManager;
+import org.eclipse.tracecompass.incubator.analysis.core.model.ThreadStatusCursor;
 import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
 import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackGroupDescriptor;
 import org.eclipse.tracecompass.incubator.callstack.core.callgraph.CallGraph;
 import org.eclipse.tracecompass.incubator.callstack.core.callgraph.ICallGraphProvider;
 import org.eclipse.tracecompass.incubator.callstack.core.flamechart.CallStack;
+import org.eclipse.tracecompass.incubator.callstack.core.flamechart.CallStackIntervals;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.ICalledFunction;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.IFlameChartProvider;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.statesystem.CallStackSeries;
@@ -46,7 +55,9 @@ import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multimap;
 
 /**
  * Call stack analysis used to create a segment for each call function from an
@@ -73,6 +84,35 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
      */
     public static final String ID = "org.eclipse.tracecompass.incubator.callstack.callgraph"; //$NON-NLS-1$
 
+    /**
+     * System property for the number of threads building the call graph of the
+     * leaf elements
+     */
+    public static final String PARALLELISM_PROPERTY = "org.eclipse.tracecompass.incubator.callstack.callgraph.parallelism"; //$NON-NLS-1$
+
+    /**
+     * System property for the interval, in milliseconds, at which partial call
+     * graphs are published while the call stacks are being built. A value of 0
+     * disables the partial call graphs.
+     */
+    public static final String SNAPSHOT_INTERVAL_PROPERTY = "org.eclipse.tracecompass.incubator.callstack.callgraph.snapshotInterval"; //$NON-NLS-1$
+
+    private static final long DEFAULT_SNAPSHOT_INTERVAL = 1000L;
+
+    /**
+     * The number of time windows in which the intervals of a whole call stack
+     * are first read, to bound the number of queries. It does not bound the
+     * memory used by a window, see {@link #DEFAULT_MAX_INTERVALS}.
+     */
+    private static final int WINDOW_COUNT = 64;
+
+    /**
+     * The default maximum number of intervals read at once. A window with more
+     * intervals is read in smaller windows, and the children of a root
+     * function with more intervals are queried one by one.
+     */
+    private static final int DEFAULT_MAX_INTERVALS = 1 << 16;
+
     private static final String SELF_TIME_TITLE = Objects.requireNonNull(Messages.CallGraphStats_SelfTime);
     private static final String CPU_TIME_TITLE = Objects.requireNonNull(Messages.CallGraphStats_CpuTime);
     private static final String NB_CALLS_TITLE = Objects.requireNonNull(Messages.CallGraphStats_NbCalls);
@@ -88,8 +128,70 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
 
     private final IFlameChartProvider fCsProvider;
     private final CallGraph fCallGraph = new CallGraph();
+    /**
+     * The pre-aggregated root functions of the leaf elements, by time bucket,
+     * built with the call graph of the whole trace and used by range queries
+     */
+    private final Map<ICallStackElement, CallGraphBucketIndex> fIndexes = new ConcurrentHashMap<>();
 
     private @Nullable Collection<ISymbolProvider> fSymbolProviders = null;
+    private int fParallelism = Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+    private long fSnapshotInterval = Long.getLong(SNAPSHOT_INTERVAL_PROPERTY, DEFAULT_SNAPSHOT_INTERVAL);
+    private int fMaxIntervals = DEFAULT_MAX_INTERVALS;
+    /**
+     * The last call graph published while the call stacks are being built, or
+     * the call graph of the analysis once it is complete
+     */
+    private volatile @Nullable CallGraph fSnapshot = null;
+    /**
+     * The root functions aggregated while the call stacks are being built,
+     * from which the call graph of the analysis starts
+     */
+    private @Nullable PartialCallGraph fPartial = null;
+
+    /**
+     * The root functions of the leaf elements aggregated while the call stacks
+     * are being built. The published call graphs contain copies of the
+     * aggregated root functions, only the ones modified since the previous
+     * publication are copied again.
+     */
+    private static final class PartialCallGraph {
+        private final CallGraph fCallGraph = new CallGraph();
+        /** The end of the last root function aggregated for each leaf element */
+        private final Map<ICallStackElement, Long> fEnds = new HashMap<>();
+        private final Map<ICallStackElement, CallGraphBucketIndex> fIndexes = new HashMap<>();
+        /** The symbols of the root functions modified since the publication */
+        private final Multimap<ICallStackElement, Object> fModified = HashMultimap.create();
+        /** The published copies of the root functions */
+        private final Map<ICallStackElement, Map<Object, AggregatedCallSite>> fCopies = new HashMap<>();
+
+        /**
+         * Get a new call graph with copies of the aggregated root functions
+         *
+         * @return The call graph, or <code>null</code> if no function was
+         *         aggregated since the previous one
+         */
+        public @Nullable CallGraph publish() {
+            if (fModified.isEmpty()) {
+                return null;
+            }
+            CallGraph snapshot = new CallGraph();
+            for (ICallStackElement element : fEnds.keySet()) {
+                Collection<Object> modified = fModified.get(element);
+                Map<Object, AggregatedCallSite> copies = fCopies.computeIfAbsent(element, e -> new HashMap<>());
+                for (AggregatedCallSite callsite : fCallGraph.getCallingContextTree(element)) {
+                    AggregatedCallSite copy = copies.get(callsite.getObject());
+                    if (copy == null || modified.contains(callsite.getObject())) {
+                        copy = callsite.copyOf();
+                        copies.put(callsite.getObject(), copy);
+                    }
+                    snapshot.addAggregatedCallSite(element, copy);
+                }
+            }
+            fModified.clear();
+            return snapshot;
+        }
+    }
 
     /**
      * Constructor
@@ -103,6 +205,39 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
         setName(NLS.bind(Messages.CallGraphAnalysis_NamePrefix, csProvider.getName()));
     }
 
+    /**
+     * Set the number of threads building the call graph of the leaf elements
+     *
+     * @param parallelism
+     *            the number of threads, 1 builds the call graph sequentially
+     */
+    public void setParallelism(int parallelism) {
+        fParallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Set the interval at which partial call graphs are published while the
+     * call stacks are being built
+     *
+     * @param interval
+     *            The interval in milliseconds, 0 to only publish the complete
+     *            call graph
+     */
+    public void setSnapshotInterval(long interval) {
+        fSnapshotInterval = Math.max(0, interval);
+    }
+
+    /**
+     * Set the maximum number of intervals read at once from the call stacks,
+     * which bounds the memory used to read them
+     *
+     * @param maxIntervals
+     *            The maximum number of intervals
+     */
+    public void setMaxIntervals(int maxIntervals) {
+        fMaxIntervals = Math.max(1, maxIntervals);
+    }
+
     @Override
     public @NonNull String getHelpText() {
         String msg = Messages.CallGraphAnalysis_Description;
@@ -131,7 +266,132 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
 
     @Override
     protected boolean executeAnalysis(@Nullable IProgressMonitor monitor) {
-        return executeForRange(fCallGraph, TmfTimeRange.ETERNITY, monitor);
+        // The indexes of a previous execution may not match the call stacks
+        fIndexes.clear();
+        fPartial = null;
+        if (monitor != null) {
+            aggregateWhileBuilding(monitor);
+        }
+        boolean ret = executeForRange(fCallGraph, TmfTimeRange.ETERNITY, monitor);
+        fPartial = null;
+        if (ret) {
+            fSnapshot = fCallGraph;
+        }
+        return ret;
+    }
+
+    /**
+     * Aggregate the root functions of the call stacks as they complete, while
+     * the flame chart providers are building them, and publish the partial
+     * call graph at each snapshot interval. The call graph of the analysis is
+     * then built from these aggregated functions and the functions that
+     * completed afterwards.
+     */
+    private void aggregateWhileBuilding(IProgressMonitor monitor) {
+        long interval = fSnapshotInterval;
+        if (interval <= 0) {
+            return;
+        }
+        List<IFlameChartProvider> providers = new ArrayList<>();
+        for (IAnalysisModule module : getDependentAnalyses()) {
+            if (!(module instanceof IFlameChartProvider)) {
+                // The call graph cannot be built, executeForRange will fail
+                Activator.getInstance().logWarning("Call Graph Analysis: The dependent analysis " + module.getId() + " is not a flame chart provider, no partial call graph is published"); //$NON-NLS-1$ //$NON-NLS-2$
+                return;
+            }
+            module.schedule();
+            providers.add((IFlameChartProvider) module);
+        }
+        while (!monitor.isCanceled() && !providers.stream().allMatch(IFlameChartProvider::isComplete)) {
+            for (IFlameChartProvider provider : providers) {
+                CallStackSeries callstack = provider.getCallStackSeries();
+                if (callstack != null) {
+                    aggregatePartially(callstack, ModelManager.getModelFor(provider.getHostId()), Long.MAX_VALUE, monitor);
+                }
+            }
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Aggregate the root functions of a callstack series that have completed
+     * since the last call, and publish the partial call graph if some were
+     * aggregated. A root function is aggregated once its end is before the
+     * current end time of its call stack, so the partial call graphs only
+     * contain complete calls, and once the data of the host model is final up
+     * to its end, so its thread statuses, CPU time and samples do not change
+     * later. The next iteration over the series in the call graph of this
+     * analysis starts from these aggregated functions.
+     *
+     * @param callstackSerie
+     *            The series being built
+     * @param model
+     *            The model of the host on which this callstack was running
+     * @param time
+     *            The time until which to aggregate the functions, if the call
+     *            stacks are built further
+     * @param monitor
+     *            A progress monitor
+     * @return The partial call graph, or <code>null</code> if nothing was
+     *         aggregated yet
+     */
+    @VisibleForTesting
+    protected @Nullable CallGraph aggregatePartially(CallStackSeries callstackSerie, IHostModel model, long time, IProgressMonitor monitor) {
+        PartialCallGraph partial = fPartial;
+        if (partial == null) {
+            partial = new PartialCallGraph();
+            fPartial = partial;
+        }
+        List<ICallStackElement> leaves = new ArrayList<>();
+        for (ICallStackElement element : callstackSerie.getRootElements()) {
+            getLeafElements(element, leaves);
+        }
+        for (ICallStackElement leaf : leaves) {
+            aggregateCompletedFunctions(leaf, model, partial, time, monitor);
+        }
+        CallGraph snapshot = partial.publish();
+        if (snapshot != null) {
+            fSnapshot = snapshot;
+        }
+        return fSnapshot;
+    }
+
+    private void aggregateCompletedFunctions(ICallStackElement element, IHostModel model, PartialCallGraph partial, long limit, IProgressMonitor monitor) {
+        if (!(element instanceof InstrumentedCallStackElement)) {
+            throw new IllegalStateException("Call Graph Analysis: The element does not have the right type"); //$NON-NLS-1$
+        }
+        CallStack callStack = ((InstrumentedCallStackElement) element).getCallStack();
+        if (callStack.getMaxDepth() == 0) {
+            return;
+        }
+        // Functions ending after this time are still running
+        long currentEnd = Math.min(limit, callStack.getEndTime());
+        Long aggregatedEnd = partial.fEnds.get(element);
+        long time = aggregatedEnd == null ? callStack.getStartTime() : aggregatedEnd;
+        CallGraphBucketIndex index = partial.fIndexes.get(element);
+        if (index == null) {
+            // The index grows with the call stack
+            index = new CallGraphBucketIndex(callStack.getStartTime(), Math.max(callStack.getStartTime(), currentEnd));
+            partial.fIndexes.put(element, index);
+        }
+        Map<HostThread, ThreadStatusCursor> cursors = new HashMap<>();
+        // Otherwise check the host model for each function, until its data is not final
+        boolean hostFinal = model.isQueryable(currentEnd);
+        AbstractCalledFunction function = (AbstractCalledFunction) callStack.getNextFunction(time, 1, null, model, time, Long.MAX_VALUE);
+        while (function != null && function.getEnd() <= currentEnd && (hostFinal || model.isQueryable(function.getEnd())) && !monitor.isCanceled()) {
+            AggregatedCalledFunction aggregatedChild = aggregateRootFunction(element, callStack, null, function, model, time, Long.MAX_VALUE, cursors, monitor);
+            index.add(function.getStart(), function.getEnd(), aggregatedChild.copyOf());
+            partial.fCallGraph.addAggregatedCallSite(element, aggregatedChild);
+            partial.fModified.put(element, aggregatedChild.getObject());
+            time = function.getEnd();
+            function = (AbstractCalledFunction) callStack.getNextFunction(time, 1, null, model, time, Long.MAX_VALUE);
+        }
+        partial.fEnds.put(element, time);
     }
 
     private boolean executeForRange(CallGraph callgraph, TmfTimeRange range, @Nullable IProgressMonitor monitor) {
@@ -146,7 +406,7 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
             }
             module.schedule();
         }
-        // TODO:Look at updates while the state system's being built
+        // Partial call graphs are published while waiting, see executeAnalysis
         dependentAnalyses.forEach((t) -> t.waitForCompletion(monitor));
 
         for (IAnalysisModule module : dependentAnalyses) {
@@ -171,7 +431,14 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
 
     /**
      * Iterate over a callstack series. It will do a depth-first search to create
-     * the callgraph
+     * the callgraph. The call stacks of the leaf elements are independent, so
+     * they are iterated over in parallel, each in its own call graph, and
+     * merged in the callgraph in the order of the search. When filling the
+     * call graph of this analysis, the root functions of each leaf element are
+     * also pre-aggregated by time bucket, so that the call graphs of smaller
+     * ranges can be obtained afterwards by merging buckets. The call graph of
+     * this analysis starts from the root functions aggregated while the call
+     * stacks were built, if any, so only the following ones are iterated over.
      *
      * @param callstackSerie
      *            The series to iterate over
@@ -189,29 +456,78 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
      */
     @VisibleForTesting
     protected boolean iterateOverCallstackSerie(CallStackSeries callstackSerie, IHostModel model, CallGraph callgraph, long start, long end, IProgressMonitor monitor) {
+        // The bucket indexes are built along with the call graph of the analysis
+        boolean buildIndex = callgraph == fCallGraph;
+        // which starts from the functions aggregated while building
+        PartialCallGraph partial = null;
+        if (buildIndex) {
+            partial = fPartial;
+            fPartial = null;
+        }
         // The root elements are the same as the one from the callstack series
         Collection<ICallStackElement> rootElements = callstackSerie.getRootElements();
+        List<ICallStackElement> leaves = new ArrayList<>();
         for (ICallStackElement element : rootElements) {
-            if (monitor.isCanceled()) {
-                return false;
+            getLeafElements(element, leaves);
+        }
+        if (fParallelism < 2 || leaves.size() < 2) {
+            for (ICallStackElement leaf : leaves) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                iterateOverLeafElement(leaf, model, callgraph, start, end, buildIndex, partial, monitor);
             }
-            iterateOverElement(element, model, callgraph, start, end, monitor);
+            return true;
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.min(fParallelism, leaves.size()));
+        try {
+            List<ForkJoinTask<CallGraph>> tasks = new ArrayList<>(leaves.size());
+            for (ICallStackElement leaf : leaves) {
+                tasks.add(pool.submit(() -> {
+                    CallGraph leafCallgraph = new CallGraph();
+                    if (!monitor.isCanceled()) {
+                        iterateOverLeafElement(leaf, model, leafCallgraph, start, end, buildIndex, partial, monitor);
+                    }
+                    return leafCallgraph;
+                }));
+            }
+            for (int i = 0; i < leaves.size(); i++) {
+                CallGraph leafCallgraph = tasks.get(i).get();
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                ICallStackElement leaf = leaves.get(i);
+                for (AggregatedCallSite callsite : leafCallgraph.getCallingContextTree(leaf)) {
+                    callgraph.addAggregatedCallSite(leaf, callsite);
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            pool.shutdownNow();
         }
-        return true;
     }
 
-    private void iterateOverElement(ICallStackElement element, IHostModel model, CallGraph callgraph, long start, long end, IProgressMonitor monitor) {
+    private static void getLeafElements(ICallStackElement element, List<ICallStackElement> leaves) {
         // Iterator over the children of the element until we reach the leaves
         if (element.isLeaf()) {
-            iterateOverLeafElement(element, model, callgraph, start, end, monitor);
+            leaves.add(element);
             return;
         }
         for (ICallStackElement child : element.getChildrenElements()) {
-            iterateOverElement(child, model, callgraph, start, end, monitor);
+            getLeafElements(child, leaves);
         }
     }
 
-    private void iterateOverLeafElement(ICallStackElement element, IHostModel model, CallGraph callgraph, long start, long end, IProgressMonitor monitor) {
+    private void iterateOverLeafElement(ICallStackElement element, IHostModel model, CallGraph callgraph, long start, long end, boolean buildIndex, @Nullable PartialCallGraph partial, IProgressMonitor monitor) {
         if (!(element instanceof InstrumentedCallStackElement)) {
             throw new IllegalStateException("Call Graph Analysis: The element does not have the right type"); //$NON-NLS-1$
         }
@@ -222,30 +538,153 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
         if (callStack.getMaxDepth() == 0) {
             return;
         }
-        // Start with the first function
-        AbstractCalledFunction nextFunction = (AbstractCalledFunction) callStack.getNextFunction(callStack.getStartTime(), 1, null, model, start, end);
-        while (nextFunction != null) {
-            AggregatedCalledFunction aggregatedChild = createCallSite(CallStackSymbolFactory.createSymbol(nextFunction.getSymbol(), element, nextFunction.getStart()));
-            iterateOverCallstack(element, callStack, nextFunction, 2, aggregatedChild, model, start, end, monitor);
-            aggregatedChild.addFunctionCall(nextFunction);
-            // Add the kernel statuses if available
-            Iterable<ProcessStatusInterval> kernelStatuses = callStack.getKernelStatuses(nextFunction, Collections.emptyList());
-            for (ProcessStatusInterval status : kernelStatuses) {
-                aggregatedChild.addKernelStatus(status);
+        CallGraphBucketIndex index = fIndexes.get(element);
+        if (!buildIndex && index != null) {
+            iterateOverIndexedLeafElement(element, callStack, index, model, callgraph, start, end, monitor);
+            return;
+        }
+        // Only index the whole call stack
+        boolean wholeCallStack = buildIndex && start <= callStack.getStartTime() && end > callStack.getEndTime();
+        CallGraphBucketIndex newIndex = wholeCallStack ? new CallGraphBucketIndex(callStack.getStartTime(), callStack.getEndTime()) : null;
+        long time = Math.max(start, callStack.getStartTime());
+        Long partialEnd = partial == null ? null : partial.fEnds.get(element);
+        if (wholeCallStack && partial != null && partialEnd != null) {
+            // Start from the functions aggregated while the call stack was built
+            for (AggregatedCallSite callsite : partial.fCallGraph.getCallingContextTree(element)) {
+                callgraph.addAggregatedCallSite(element, callsite);
+            }
+            newIndex = partial.fIndexes.get(element);
+            time = partialEnd;
+        }
+        // The root functions are visited in time order, read the kernel statuses with cursors
+        Map<HostThread, ThreadStatusCursor> cursors = new HashMap<>();
+        // Read the intervals of all depths by time window instead of querying each function
+        long last = Math.min(end - 1, callStack.getEndTime());
+        long maxWindowSize = Math.max(1, (last - time) / WINDOW_COUNT + 1);
+        long windowSize = maxWindowSize;
+        @Nullable CallStackIntervals window = null;
+        while (time <= last && !monitor.isCanceled()) {
+            if (window == null || time > window.getEnd()) {
+                window = callStack.queryIntervals(time, Math.min(last, time + windowSize - 1), fMaxIntervals);
+                if (window == null && windowSize > 1) {
+                    // Too many intervals in this window, read smaller ones
+                    windowSize = Math.max(1, windowSize / 4);
+                    continue;
+                }
+                windowSize = Math.min(maxWindowSize, windowSize * 2);
+            }
+            AbstractCalledFunction nextFunction = (AbstractCalledFunction) getNextFunction(callStack, window, time, 1, null, model, start, end);
+            if (nextFunction == null) {
+                if (window == null) {
+                    break;
+                }
+                // No function in this window, go to the next one
+                time = window.getEnd() + 1;
+                continue;
+            }
+            AggregatedCalledFunction aggregatedChild = aggregateRootFunction(element, callStack, window, nextFunction, model, start, end, cursors, monitor);
+            if (newIndex != null) {
+                newIndex.add(nextFunction.getStart(), nextFunction.getEnd(), aggregatedChild.copyOf());
             }
             callgraph.addAggregatedCallSite(element, aggregatedChild);
-            nextFunction = (AbstractCalledFunction) callStack.getNextFunction(nextFunction.getEnd(), 1, null, model, start, end);
+            time = nextFunction.getEnd();
+        }
+        if (newIndex != null && newIndex.isValid()) {
+            fIndexes.put(element, newIndex);
+        }
+    }
+
+    /**
+     * Fill the callgraph of a leaf element for a time range, by merging the
+     * pre-aggregated root functions of the buckets strictly inside the range.
+     * Only the root functions that are not entirely inside one of the nodes
+     * covering the buckets are aggregated from the call stack: those crossing
+     * the boundaries between the nodes and those at the edges of the range,
+     * which are clipped to the range.
+     */
+    private void iterateOverIndexedLeafElement(ICallStackElement element, CallStack callStack, CallGraphBucketIndex index, IHostModel model, CallGraph callgraph, long start, long end, IProgressMonitor monitor) {
+        int firstBucket = index.getFirstBoundaryAfter(start);
+        int lastBucket = index.getLastBoundaryBefore(end);
+        // The range does not cover any bucket, it is short enough to be walked
+        long coveredStart = firstBucket < lastBucket ? index.getBucketStart(firstBucket) : end;
+        long coveredEnd = firstBucket < lastBucket ? index.getBucketStart(lastBucket) : end;
+        // Each of the three passes below visits root functions in time order
+        Map<HostThread, ThreadStatusCursor> cursors = new HashMap<>();
+        if (firstBucket < lastBucket) {
+            List<AggregatedCallSite> callsites = new ArrayList<>();
+            List<Long> boundaries = index.getCallSites(firstBucket, lastBucket, callsites);
+            for (AggregatedCallSite callsite : callsites) {
+                callgraph.addAggregatedCallSite(element, callsite.copyOf());
+            }
+            // Add the functions crossing the boundaries between the nodes
+            long lastStart = Long.MIN_VALUE;
+            for (Long boundary : boundaries) {
+                AbstractCalledFunction function = (AbstractCalledFunction) callStack.getNextFunction(boundary, 1, null, model, start, end);
+                if (function != null && function.getStart() < boundary && function.getStart() >= coveredStart && function.getEnd() <= coveredEnd && function.getStart() != lastStart) {
+                    callgraph.addAggregatedCallSite(element, aggregateRootFunction(element, callStack, null, function, model, start, end, cursors, monitor));
+                    lastStart = function.getStart();
+                }
+            }
+        }
+        // Add the functions starting before the covered buckets
+        AbstractCalledFunction function = (AbstractCalledFunction) callStack.getNextFunction(Math.max(start, callStack.getStartTime()), 1, null, model, start, end);
+        while (function != null && function.getStart() < coveredStart) {
+            callgraph.addAggregatedCallSite(element, aggregateRootFunction(element, callStack, null, function, model, start, end, cursors, monitor));
+            function = (AbstractCalledFunction) callStack.getNextFunction(function.getEnd(), 1, null, model, start, end);
+        }
+        // Add the functions ending after the covered buckets
+        function = (AbstractCalledFunction) callStack.getNextFunction(coveredEnd, 1, null, model, start, end);
+        while (function != null) {
+            if (function.getStart() >= coveredStart) {
+                callgraph.addAggregatedCallSite(element, aggregateRootFunction(element, callStack, null, function, model, start, end, cursors, monitor));
+            }
+            function = (AbstractCalledFunction) callStack.getNextFunction(function.getEnd(), 1, null, model, start, end);
+        }
+    }
+
+    /**
+     * Aggregate a root function and its children. The children are navigated
+     * in the intervals of a window of the call stack if it covers the
+     * function, otherwise the intervals of the function are read, unless they
+     * are too many, then the children are queried one by one.
+     */
+    private AggregatedCalledFunction aggregateRootFunction(ICallStackElement element, CallStack callStack, @Nullable CallStackIntervals window, AbstractCalledFunction function, IHostModel model, long start, long end, Map<HostThread, ThreadStatusCursor> cursors,
+            IProgressMonitor monitor) {
+        AggregatedCalledFunction aggregatedChild = createCallSite(CallStackSymbolFactory.createSymbol(function.getSymbol(), element, function.getStart()));
+        if (callStack.getMaxDepth() > 1) {
+            @Nullable CallStackIntervals intervals = window;
+            if (intervals == null || function.getStart() < intervals.getStart() || function.getEnd() - 1 > intervals.getEnd()) {
+                intervals = callStack.queryIntervals(function.getStart(), function.getEnd() - 1, fMaxIntervals);
+            }
+            iterateOverCallstack(element, callStack, intervals, function, 2, aggregatedChild, model, start, end, monitor);
         }
+        aggregatedChild.addFunctionCall(function);
+        // Add the kernel statuses if available
+        for (ProcessStatusInterval status : callStack.getKernelStatuses(function, cursors)) {
+            aggregatedChild.addKernelStatus(status);
+        }
+        return aggregatedChild;
     }
 
-    private void iterateOverCallstack(ICallStackElement element, CallStack callstack, ICalledFunction function, int nextLevel, AggregatedCalledFunction aggregatedCall, IHostModel model, long start, long end, IProgressMonitor monitor) {
-        if (nextLevel > callstack.getMaxDepth()) {
+    /**
+     * Get the next function of a call stack from its intervals in memory if
+     * they were read, otherwise from the state system
+     */
+    private static @Nullable ICalledFunction getNextFunction(CallStack callStack, @Nullable CallStackIntervals intervals, long time, int depth, @Nullable ICalledFunction parent, IHostModel model, long start, long end) {
+        if (intervals == null) {
+            return callStack.getNextFunction(time, depth, parent, model, start, end);
+        }
+        return intervals.getNextFunction(time, depth, parent, model, start, end);
+    }
+
+    private void iterateOverCallstack(ICallStackElement element, CallStack callStack, @Nullable CallStackIntervals intervals, ICalledFunction function, int nextLevel, AggregatedCalledFunction aggregatedCall, IHostModel model, long start, long end, IProgressMonitor monitor) {
+        if (nextLevel > (intervals == null ? callStack.getMaxDepth() : intervals.getMaxDepth())) {
             return;
         }
         int threadId = function.getThreadId();
-        long lastSampleEnd = start;
+        long lastSampleEnd = function.getStart();
 
-        AbstractCalledFunction nextFunction = (AbstractCalledFunction) callstack.getNextFunction(function.getStart(), nextLevel, function, model, Math.max(function.getStart(), start), Math.min(function.getEnd(), end));
+        AbstractCalledFunction nextFunction = (AbstractCalledFunction) getNextFunction(callStack, intervals, function.getStart(), nextLevel, function, model, Math.max(function.getStart(), start), Math.min(function.getEnd(), end));
         while (nextFunction != null) {
             // Add sampling data of the time between next function and beginning of next
             // level
@@ -255,9 +694,9 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
                 lastSampleEnd = nextFunction.getEnd();
             }
             AggregatedCalledFunction aggregatedChild = createCallSite(CallStackSymbolFactory.createSymbol(nextFunction.getSymbol(), element, nextFunction.getStart()));
-            iterateOverCallstack(element, callstack, nextFunction, nextLevel + 1, aggregatedChild, model, start, end, monitor);
+            iterateOverCallstack(element, callStack, intervals, nextFunction, nextLevel + 1, aggregatedChild, model, start, end, monitor);
             aggregatedCall.addChild(nextFunction, aggregatedChild);
-            nextFunction = (AbstractCalledFunction) callstack.getNextFunction(nextFunction.getEnd(), nextLevel, function, model, Math.max(function.getStart(), start), Math.min(function.getEnd(), end));
+            nextFunction = (AbstractCalledFunction) getNextFunction(callStack, intervals, nextFunction.getEnd(), nextLevel, function, model, Math.max(function.getStart(), start), Math.min(function.getEnd(), end));
         }
         // Get the sampling to the end of the function
         if (threadId > 0) {
@@ -288,6 +727,12 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
         // Do nothing
     }
 
+    @Override
+    public void dispose() {
+        super.dispose();
+        fIndexes.clear();
+    }
+
     @Override
     public CallGraph getCallGraph(ITmfTimestamp start, ITmfTimestamp end) {
         CallGraph cg = new CallGraph();
@@ -300,6 +745,11 @@ public class CallGraphAnalysis extends TmfAbstractAnalysisModule implements ICal
         return fCallGraph;
     }
 
+    @Override
+    public @Nullable CallGraph getPartialCallGraph() {
+        return fSnapshot;
+    }
+
     @Override
     public Collection<ICallStackGroupDescriptor> getGroupDescriptors() {
         List<ICallStackGroupDescriptor> descriptors = new ArrayList<>();
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.callgraph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.ICallStackSymbol;
+
+/**
+ * Pre-aggregated call graph of the root functions of one call stack, by time
+ * bucket. The time range of the call stack is split in a power of 2 number of
+ * buckets, which are the leaves of a segment tree. Each root function is
+ * aggregated in the smallest node containing it, so each function is kept only
+ * once. The functions contained in a range of buckets are those of the at most
+ * 2*log(n) nodes covering the range and of their descendants.
+ *
+ * Functions that cross the boundaries between the nodes, or the edges of the
+ * requested range, are not in the nodes of a query and need to be aggregated
+ * by the caller.
+ *
+ * The width of the buckets doubles when a function ends after the last one,
+ * so the index can be built while the call stack grows.
+ */
+final class CallGraphBucketIndex {
+
+    /** The number of buckets, a power of 2 */
+    private static final int BUCKET_COUNT = 256;
+
+    private final long fStart;
+    private long fBucketWidth;
+    /**
+     * The nodes of the tree, the root is at index 1 and the children of node i
+     * are at 2i and 2i+1. The buckets are at index BUCKET_COUNT and up.
+     */
+    private @Nullable Map<ICallStackSymbol, AggregatedCallSite>[] fNodes;
+    private boolean fValid = true;
+
+    /**
+     * Constructor
+     *
+     * @param start
+     *            The start time of the call stack
+     * @param end
+     *            The end time of the call stack
+     */
+    @SuppressWarnings("unchecked")
+    public CallGraphBucketIndex(long start, long end) {
+        fStart = start;
+        long duration = Math.max(1, end - start + 1);
+        fBucketWidth = (duration + BUCKET_COUNT - 1) / BUCKET_COUNT;
+        fNodes = new Map[2 * BUCKET_COUNT];
+    }
+
+    /**
+     * Add the aggregated call site of a root function to the smallest node
+     * containing it. This index keeps a reference to the call site, so it
+     * should not be modified afterwards.
+     *
+     * @param functionStart
+     *            The start time of the function
+     * @param functionEnd
+     *            The end time of the function, exclusive
+     * @param callsite
+     *            The aggregated root function
+     */
+    public void add(long functionStart, long functionEnd, AggregatedCallSite callsite) {
+        long last = functionEnd - 1;
+        if (functionStart < fStart || last < functionStart) {
+            // The function is not where the call stack is, don't use this index
+            fValid = false;
+            return;
+        }
+        while (last - fStart >= fBucketWidth * BUCKET_COUNT) {
+            if (fBucketWidth > Long.MAX_VALUE / (2 * BUCKET_COUNT)) {
+                fValid = false;
+                return;
+            }
+            grow();
+        }
+        int first = (int) ((functionStart - fStart) / fBucketWidth) + BUCKET_COUNT;
+        int lastBucket = (int) ((last - fStart) / fBucketWidth) + BUCKET_COUNT;
+        // Find the lowest common ancestor of both buckets
+        while (first != lastBucket) {
+            first >>= 1;
+            lastBucket >>= 1;
+        }
+        merge(first, callsite);
+    }
+
+    /**
+     * Double the width of the buckets. The tree becomes the left half of a
+     * tree twice as large, where each node goes one level down, except the
+     * buckets, which are merged two by two.
+     */
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        @Nullable Map<ICallStackSymbol, AggregatedCallSite>[] nodes = fNodes;
+        fNodes = new Map[2 * BUCKET_COUNT];
+        fBucketWidth *= 2;
+        for (int node = 1; node < nodes.length; node++) {
+            Map<ICallStackSymbol, AggregatedCallSite> sites = nodes[node];
+            if (sites == null) {
+                continue;
+            }
+            int newNode = node < BUCKET_COUNT ? node + Integer.highestOneBit(node) : (node >> 1) + BUCKET_COUNT / 2;
+            for (AggregatedCallSite callsite : sites.values()) {
+                merge(newNode, callsite);
+            }
+        }
+    }
+
+    private void merge(int node, AggregatedCallSite callsite) {
+        @Nullable Map<ICallStackSymbol, AggregatedCallSite>[] nodes = fNodes;
+        Map<ICallStackSymbol, AggregatedCallSite> sites = nodes[node];
+        if (sites == null) {
+            sites = new HashMap<>();
+            nodes[node] = sites;
+        }
+        AggregatedCallSite site = sites.get(callsite.getObject());
+        if (site == null) {
+            sites.put(callsite.getObject(), callsite);
+        } else {
+            site.merge(callsite);
+        }
+    }
+
+    /**
+     * Get whether all the functions added are inside the time range of this
+     * index
+     *
+     * @return Whether this index can be used for queries
+     */
+    public boolean isValid() {
+        return fValid;
+    }
+
+    /**
+     * Get the first bucket boundary strictly after a time
+     *
+     * @param time
+     *            The start time of the query
+     * @return The index of the bucket starting at the boundary, may be greater
+     *         than the number of buckets
+     */
+    public int getFirstBoundaryAfter(long time) {
+        if (time < fStart) {
+            return 0;
+        }
+        long bucket = (time - fStart) / fBucketWidth + 1;
+        return (int) Math.min(bucket, BUCKET_COUNT + 1L);
+    }
+
+    /**
+     * Get the last bucket boundary strictly before a time
+     *
+     * @param time
+     *            The end time of the query
+     * @return The index of the bucket starting at the boundary, may be
+     *         negative
+     */
+    public int getLastBoundaryBefore(long time) {
+        if (time <= fStart) {
+            return -1;
+        }
+        long bucket = (time - fStart - 1) / fBucketWidth;
+        return (int) Math.min(bucket, BUCKET_COUNT);
+    }
+
+    /**
+     * Get the start time of a bucket
+     *
+     * @param bucket
+     *            The bucket index, {@link #BUCKET_COUNT} is the end of the last
+     *            bucket
+     * @return The start time of the bucket
+     */
+    public long getBucketStart(int bucket) {
+        return fStart + bucket * fBucketWidth;
+    }
+
+    /**
+     * Get the aggregated root functions contained in a range of buckets. The
+     * call sites returned belong to this index and should be copied before
+     * being modified. A symbol may be returned once per node, the caller
+     * merges them.
+     *
+     * @param first
+     *            The first bucket, inclusive
+     * @param last
+     *            The last bucket, exclusive
+     * @param callsites
+     *            The collection to which to add the call sites of the nodes
+     *            covering the buckets
+     * @return The start times of the nodes covering the buckets, other than
+     *         the first one. Functions crossing those times are not in the
+     *         call sites.
+     */
+    public List<Long> getCallSites(int first, int last, Collection<AggregatedCallSite> callsites) {
+        List<Long> boundaries = new ArrayList<>();
+        int left = first + BUCKET_COUNT;
+        int right = last + BUCKET_COUNT;
+        int level = 0;
+        while (left < right) {
+            if ((left & 1) == 1) {
+                addNode(left, level, callsites, boundaries);
+                left++;
+            }
+            if ((right & 1) == 1) {
+                right--;
+                addNode(right, level, callsites, boundaries);
+            }
+            left >>= 1;
+            right >>= 1;
+            level++;
+        }
+        boundaries.remove(Long.valueOf(getBucketStart(first)));
+        boundaries.sort(null);
+        return boundaries;
+    }
+
+    private void addNode(int node, int level, Collection<AggregatedCallSite> callsites, List<Long> boundaries) {
+        // The descendants of the node at each level below it are contiguous
+        for (int depth = 0; depth <= level; depth++) {
+            int firstDescendant = node << depth;
+            int lastDescendant = firstDescendant + (1 << depth);
+            for (int descendant = firstDescendant; descendant < lastDescendant; descendant++) {
+                Map<ICallStackSymbol, AggregatedCallSite> sites = fNodes[descendant];
+                if (sites != null) {
+                    callsites.addAll(sites.values());
+                }
+            }
+        }
+        int firstBucket = (node << level) - BUCKET_COUNT;
+        boundaries.add(getBucketStart(firstBucket));
+    }
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.callgraph;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable sketch to estimate the quantiles of positive long values, like
+ * durations. The values are counted in buckets whose bounds grow
+ * geometrically, {@link #BUCKETS_PER_OCTAVE} buckets for each power of 2, so
+ * the estimated quantiles are within about 9% of the real values. The counts
+ * are kept in one array covering only the buckets between the smallest and the
+ * largest values, and two sketches are merged by adding their counts.
+ *
+ * This class is not thread-safe.
+ */
+public final class QuantileSketch {
+
+    /** The number of buckets between a value and its double */
+    public static final int BUCKETS_PER_OCTAVE = 4;
+
+    private static final double GAMMA = Math.pow(2, 1.0 / BUCKETS_PER_OCTAVE);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int[] EMPTY = new int[0];
+
+    /** The counts of the buckets, starting at bucket fOffset */
+    private int[] fCounts = EMPTY;
+    private int fOffset = 0;
+    /** The number of values lower than or equal to 0 */
+    private long fZeroCount = 0;
+    private long fCount = 0;
+
+    /**
+     * Constructor
+     */
+    public QuantileSketch() {
+        // Empty sketch
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param toCopy
+     *            The sketch to copy
+     */
+    public QuantileSketch(QuantileSketch toCopy) {
+        fCounts = toCopy.fCounts.length == 0 ? EMPTY : Arrays.copyOf(toCopy.fCounts, toCopy.fCounts.length);
+        fOffset = toCopy.fOffset;
+        fZeroCount = toCopy.fZeroCount;
+        fCount = toCopy.fCount;
+    }
+
+    private static int bucketOf(long value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    /**
+     * Add a value to the sketch
+     *
+     * @param value
+     *            The value to add
+     */
+    public void add(long value) {
+        fCount++;
+        if (value <= 0) {
+            fZeroCount++;
+            return;
+        }
+        int bucket = bucketOf(value);
+        ensureRange(bucket, bucket);
+        fCounts[bucket - fOffset]++;
+    }
+
+    /**
+     * Add the values of another sketch to this one
+     *
+     * @param other
+     *            The sketch to merge with this one
+     */
+    public void merge(QuantileSketch other) {
+        fCount += other.fCount;
+        fZeroCount += other.fZeroCount;
+        int[] counts = other.fCounts;
+        if (counts.length == 0) {
+            return;
+        }
+        ensureRange(other.fOffset, other.fOffset + counts.length - 1);
+        for (int i = 0; i < counts.length; i++) {
+            fCounts[other.fOffset + i - fOffset] += counts[i];
+        }
+    }
+
+    /**
+     * Grow the counts array so that it covers the buckets from first to last
+     */
+    private void ensureRange(int first, int last) {
+        int[] counts = fCounts;
+        if (counts.length == 0) {
+            fCounts = new int[last - first + 1];
+            fOffset = first;
+            return;
+        }
+        int newFirst = Math.min(first, fOffset);
+        int newLast = Math.max(last, fOffset + counts.length - 1);
+        if (newFirst == fOffset && newLast == fOffset + counts.length - 1) {
+            return;
+        }
+        int[] newCounts = new int[newLast - newFirst + 1];
+        System.arraycopy(counts, 0, newCounts, fOffset - newFirst, counts.length);
+        fCounts = newCounts;
+        fOffset = newFirst;
+    }
+
+    /**
+     * Get the number of values in this sketch
+     *
+     * @return The number of values
+     */
+    public long getCount() {
+        return fCount;
+    }
+
+    /**
+     * Estimate a quantile of the values of this sketch
+     *
+     * @param quantile
+     *            The quantile, between 0 and 1, for example 0.5 for the median
+     * @return The estimated value at this quantile, or {@link Double#NaN} if
+     *         the sketch is empty
+     */
+    public double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile should be between 0 and 1: " + quantile); //$NON-NLS-1$
+        }
+        if (fCount == 0) {
+            return Double.NaN;
+        }
+        // The rank of the value, starting at 0
+        long rank = (long) (quantile * (fCount - 1));
+        if (rank < fZeroCount) {
+            return 0;
+        }
+        long seen = fZeroCount;
+        int[] counts = fCounts;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                // The middle of the bucket, whose values are between
+                // gamma^(i-1) and gamma^i
+                return 2 * Math.pow(GAMMA, fOffset + i) / (GAMMA + 1);
+            }
+        }
+        return 2 * Math.pow(GAMMA, fOffset + counts.length - 1) / (GAMMA + 1);
+    }
+
+}
@@ -307,6 +307,12 @@ public class CallstackXmlAnalysis extends TmfAbstractAnalysisModule implements I
         return fCallGraph.getCallGraph();
     }
 
+    @Override
+    public @Nullable CallGraph getPartialCallGraph() {
+        fCallGraph.schedule();
+        return fCallGraph.getPartialCallGraph();
+    }
+
     @Override
     public AggregatedCallSite createCallSite(Object symbol) {
         return fCallGraph.createCallSite(symbol);
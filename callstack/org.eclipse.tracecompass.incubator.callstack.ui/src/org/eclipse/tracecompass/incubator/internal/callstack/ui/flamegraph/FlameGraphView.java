@@ -18,7 +18,11 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -132,6 +136,8 @@ public class FlameGraphView extends TmfView {
 
     private ITmfTrace fTrace;
     private static final @NonNull Logger LOGGER = Logger.getLogger(FlameGraphView.class.getName());
+    /** Interval, in milliseconds, at which partial call graphs are shown */
+    private static final long PARTIAL_REFRESH_INTERVAL = 1000L;
 
     private final @NonNull MenuManager fEventMenuManager = new MenuManager();
     private Action fAggregateByAction;
@@ -336,11 +342,13 @@ public class FlameGraphView extends TmfView {
                         ICallStackGroupDescriptor group = fGroupBy;
                         for (ICallGraphProvider provider : callGraphProviders) {
                             if (provider instanceof IAnalysisModule) {
-                                ((IAnalysisModule) provider).waitForCompletion(monitor);
+                                if (selStart == null || selEnd == null) {
+                                    waitShowingPartialCallGraphs((IAnalysisModule) provider, provider, group, callgraphs, monitor);
+                                } else {
+                                    ((IAnalysisModule) provider).waitForCompletion(monitor);
+                                }
                             }
-                            // FIXME: This waits for completion, there is no way of cancelling this call, so
-                            // make the views responsive to updates in the model, so that we can return a
-                            // partial callgraph
+                            // FIXME: This waits for completion, there is no way of cancelling this call
                             CallGraph callGraph;
                             if (selStart == null || selEnd == null) {
                                 callGraph = provider.getCallGraph();
@@ -385,6 +393,40 @@ public class FlameGraphView extends TmfView {
         }
     }
 
+    /**
+     * Wait for an analysis to complete, showing the partial call graphs of the
+     * provider, with the call graphs already retrieved, as they are published
+     */
+    private void waitShowingPartialCallGraphs(IAnalysisModule module, ICallGraphProvider provider, @Nullable ICallStackGroupDescriptor group, Set<CallGraph> callgraphs, IProgressMonitor monitor) {
+        CompletableFuture<Boolean> completion = CompletableFuture.supplyAsync(() -> module.waitForCompletion(monitor));
+        @Nullable CallGraph shown = null;
+        while (!monitor.isCanceled()) {
+            try {
+                completion.get(PARTIAL_REFRESH_INTERVAL, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                CallGraph partial = provider.getPartialCallGraph();
+                if (partial != null && partial != shown) {
+                    shown = partial;
+                    Set<CallGraph> input = new HashSet<>(callgraphs);
+                    input.add(group == null ? partial : CallGraphGroupBy.groupCallGraphBy(group, partial));
+                    Display.getDefault().asyncExec(() -> {
+                        if (!monitor.isCanceled()) {
+                            fTimeGraphViewer.setInput(input);
+                            fTimeGraphViewer.resetStartFinishTime();
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                Activator.getDefault().logError(e.getMessage(), e);
+                return;
+            }
+        }
+    }
+
     /**
      * Await the next refresh
      *
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.perf;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.BinaryModelEncoder;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphState;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphState;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmarks the encoding of the XY and time graph responses in JSON with
+ * Jackson and with the {@link BinaryModelEncoder}, for an XY chart of 200
+ * series by 2000 pixels and a time graph of 500 rows by 400 states
+ */
+public class ModelEncodingBenchmark {
+
+    /**
+     * Test ID for the encoding benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#TraceServer#";
+    private static final String TEST_XY_JSON = "Encode XY in JSON";
+    private static final String TEST_XY_BINARY = "Encode XY in binary";
+    private static final String TEST_TIME_GRAPH_JSON = "Encode time graph in JSON";
+    private static final String TEST_TIME_GRAPH_BINARY = "Encode time graph in binary";
+
+    private static final int SERIES_COUNT = 200;
+    private static final int POINT_COUNT = 2000;
+    private static final int ROW_COUNT = 500;
+    private static final int STATE_COUNT = 400;
+    private static final int LOOP_COUNT = 20;
+
+    private interface Encoder {
+        void encode(ByteArrayOutputStream output) throws IOException;
+    }
+
+    /**
+     * Run the benchmark
+     *
+     * @throws IOException
+     *             if the encoding fails
+     */
+    @Test
+    public void runBenchmark() throws IOException {
+        long[] xValues = new long[POINT_COUNT];
+        List<double[]> yValues = new ArrayList<>();
+        for (int i = 0; i < POINT_COUNT; i++) {
+            xValues[i] = 1000000000L + 12345L * i;
+        }
+        for (int j = 0; j < SERIES_COUNT; j++) {
+            double[] values = new double[POINT_COUNT];
+            for (int i = 0; i < POINT_COUNT; i++) {
+                values[i] = Math.sin(i / (j + 1.0)) * 1000;
+            }
+            yValues.add(values);
+        }
+        List<ITimeGraphRowModel> rows = new ArrayList<>();
+        for (int j = 0; j < ROW_COUNT; j++) {
+            List<ITimeGraphState> states = new ArrayList<>();
+            for (int i = 0; i < STATE_COUNT; i++) {
+                states.add(i % 4 == 0 ? new TimeGraphState(i * 1000L, 1000L, i % 7, "label" + i) : new TimeGraphState(i * 1000L, 1000L, i % 7));
+            }
+            rows.add(new TimeGraphRowModel(j, states));
+        }
+        TimeGraphModel timeGraph = new TimeGraphModel(rows);
+        ObjectMapper mapper = new ObjectMapper();
+
+        long jsonSize = benchmark(TEST_XY_JSON, output -> {
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(output)) {
+                gen.writeStartArray();
+                for (int j = 0; j < SERIES_COUNT; j++) {
+                    gen.writeStartObject();
+                    gen.writeNumberField("id", j);
+                    gen.writeStringField("name", "series" + j);
+                    gen.writeObjectField("xValues", xValues);
+                    gen.writeObjectField("yValues", yValues.get(j));
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+            }
+        });
+        long binarySize = benchmark(TEST_XY_BINARY, output -> {
+            BinaryModelEncoder encoder = new BinaryModelEncoder(output);
+            for (int j = 0; j < SERIES_COUNT; j++) {
+                encoder.writeSeries(j, "series" + j, xValues, yValues.get(j));
+            }
+            encoder.flush();
+        });
+        assertTrue(binarySize < jsonSize);
+
+        benchmark(TEST_TIME_GRAPH_JSON, output -> mapper.writeValue(output, timeGraph));
+        benchmark(TEST_TIME_GRAPH_BINARY, output -> {
+            BinaryModelEncoder encoder = new BinaryModelEncoder(output);
+            encoder.writeTimeGraphModel(timeGraph);
+            encoder.flush();
+        });
+    }
+
+    private static long benchmark(String testName, Encoder encoder) throws IOException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + testName));
+        perf.tagAsSummary(pm, testName, Dimension.CPU_TIME);
+        long size = 0;
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            pm.start();
+            encoder.encode(output);
+            pm.stop();
+            size = output.size();
+        }
+        pm.commit();
+        return size;
+    }
+}
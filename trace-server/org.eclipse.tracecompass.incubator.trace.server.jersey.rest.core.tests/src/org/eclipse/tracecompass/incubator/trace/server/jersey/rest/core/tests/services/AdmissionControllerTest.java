@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.AdmissionController;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.AdmissionController.Permit;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.AdmissionController.RejectedException;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.RequestMonitor;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.RequestMonitorRegistry;
+import org.junit.Test;
+
+/**
+ * Test the {@link AdmissionController}
+ */
+public class AdmissionControllerTest {
+
+    private static void assertRejected(AdmissionController controller, UUID uuid, int status) {
+        try (Permit permit = controller.acquire(uuid)) {
+            fail("The request should be rejected");
+        } catch (RejectedException e) {
+            assertEquals(status, e.getStatus());
+        }
+    }
+
+    /**
+     * Test the limit of concurrent requests per trace
+     *
+     * @throws RejectedException
+     *             if a request is not admitted
+     */
+    @Test
+    public void testPerTraceLimit() throws RejectedException {
+        AdmissionController controller = new AdmissionController(4, 0, 1, 10);
+        UUID trace = UUID.randomUUID();
+        try (Permit permit = controller.acquire(trace)) {
+            assertRejected(controller, trace, AdmissionController.TOO_MANY_REQUESTS);
+            // Other traces are not limited by this one
+            try (Permit other = controller.acquire(UUID.randomUUID())) {
+                assertEquals(2, controller.getAvailable());
+            }
+        }
+        assertEquals(4, controller.getAvailable());
+        try (Permit permit = controller.acquire(trace)) {
+            assertEquals(3, controller.getAvailable());
+        }
+    }
+
+    /**
+     * Test that the requests which wait too long for their trace are rejected
+     * as unavailable, while the requests which cannot wait are rejected as too
+     * many
+     *
+     * @throws RejectedException
+     *             if a request is not admitted
+     */
+    @Test
+    public void testPerTraceTimeout() throws RejectedException {
+        AdmissionController controller = new AdmissionController(4, 1, 1, 10);
+        UUID trace = UUID.randomUUID();
+        try (Permit permit = controller.acquire(trace)) {
+            assertRejected(controller, trace, AdmissionController.SERVICE_UNAVAILABLE);
+            assertEquals(0, controller.getQueued());
+        }
+        assertEquals(4, controller.getAvailable());
+    }
+
+    /**
+     * Test that a request waiting for its trace then for the server waits at
+     * most the timeout in total
+     *
+     * @throws Exception
+     *             if the test fails
+     */
+    @Test
+    public void testSingleDeadline() throws Exception {
+        long timeout = 500;
+        AdmissionController controller = new AdmissionController(1, 2, 1, timeout);
+        UUID trace = UUID.randomUUID();
+        Permit permit = controller.acquire(UUID.randomUUID());
+        // Takes the permit of the trace, then waits for the server until its timeout
+        Thread first = new Thread(() -> assertRejected(controller, trace, AdmissionController.SERVICE_UNAVAILABLE));
+        first.start();
+        while (controller.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+        // Waits for the trace until the first request times out, then for the server
+        long start = System.nanoTime();
+        assertRejected(controller, trace, AdmissionController.SERVICE_UNAVAILABLE);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        first.join();
+        assertTrue("Waited " + elapsed + " ms", elapsed < timeout * 3 / 2);
+        permit.close();
+        assertEquals(0, controller.getQueued());
+        assertEquals(1, controller.getAvailable());
+    }
+
+    /**
+     * Test that the requests which wait too long are rejected as unavailable
+     *
+     * @throws RejectedException
+     *             if a request is not admitted
+     */
+    @Test
+    public void testTimeout() throws RejectedException {
+        AdmissionController controller = new AdmissionController(1, 1, 0, 10);
+        try (Permit permit = controller.acquire(UUID.randomUUID())) {
+            assertRejected(controller, UUID.randomUUID(), AdmissionController.SERVICE_UNAVAILABLE);
+            assertEquals(0, controller.getQueued());
+        }
+        assertEquals(1, controller.getAvailable());
+    }
+
+    /**
+     * Test that the requests are rejected when the queue is full
+     *
+     * @throws Exception
+     *             if the test fails
+     */
+    @Test
+    public void testQueueFull() throws Exception {
+        AdmissionController controller = new AdmissionController(1, 1, 0, 5000);
+        Permit permit = controller.acquire(UUID.randomUUID());
+        Thread waiting = new Thread(() -> {
+            try (Permit queued = controller.acquire(UUID.randomUUID())) {
+                // Admitted once the first request is done
+            } catch (RejectedException e) {
+                fail(e.getMessage());
+            }
+        });
+        waiting.start();
+        while (controller.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+        assertRejected(controller, UUID.randomUUID(), AdmissionController.TOO_MANY_REQUESTS);
+        permit.close();
+        waiting.join();
+        assertEquals(0, controller.getQueued());
+        assertEquals(1, controller.getAvailable());
+    }
+
+    /**
+     * Test that a queued request superseded by a newer request of the same
+     * client leaves the queue, and does not cancel the newer request once it
+     * is admitted. The requests are registered before they are admitted, as
+     * in the data provider service.
+     *
+     * @throws Exception
+     *             if the test fails
+     */
+    @Test
+    public void testSupersededWhileQueued() throws Exception {
+        AdmissionController controller = new AdmissionController(1, 2, 0, 5000);
+        RequestMonitorRegistry registry = new RequestMonitorRegistry();
+        UUID trace = UUID.randomUUID();
+        String key = "client1";
+        Permit permit = controller.acquire(UUID.randomUUID());
+
+        RequestMonitor older = new RequestMonitor(0, () -> true);
+        AtomicBoolean olderCancelled = new AtomicBoolean();
+        Thread olderThread = new Thread(() -> {
+            registry.register(key, older);
+            try (Permit queued = controller.acquire(trace, older)) {
+                fail("The superseded request should not be admitted");
+            } catch (OperationCanceledException e) {
+                olderCancelled.set(true);
+            } catch (RejectedException e) {
+                fail(e.getMessage());
+            } finally {
+                registry.unregister(key, older);
+            }
+        });
+        olderThread.start();
+        while (controller.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+
+        RequestMonitor newer = new RequestMonitor(0, () -> true);
+        registry.register(key, newer);
+        olderThread.join();
+        assertTrue(olderCancelled.get());
+        assertEquals(0, controller.getQueued());
+
+        permit.close();
+        try (Permit admitted = controller.acquire(trace, newer)) {
+            assertFalse(newer.isCanceled());
+            assertEquals(1, registry.size());
+        }
+        registry.unregister(key, newer);
+        assertEquals(0, registry.size());
+        assertEquals(1, controller.getAvailable());
+    }
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.eclipse.jetty.io.AbstractConnection;
+import org.eclipse.jetty.io.ByteArrayEndPoint;
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ConnectionProbe;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.RequestMonitor;
+import org.junit.Test;
+
+/**
+ * Test the {@link ConnectionProbe} class
+ */
+public class ConnectionProbeTest {
+
+    /**
+     * Connection doing nothing, to test its close callback
+     */
+    private static class StubConnection extends AbstractConnection {
+        public StubConnection(ByteArrayEndPoint endPoint) {
+            super(endPoint, Runnable::run);
+        }
+
+        @Override
+        public void onFillable() {
+            // Nothing to read
+        }
+    }
+
+    /**
+     * Test that a closed end point is detected, and cancels the request
+     */
+    @Test
+    public void testLocalClose() {
+        ByteArrayEndPoint endPoint = new ByteArrayEndPoint();
+        try (ConnectionProbe probe = new ConnectionProbe(endPoint)) {
+            RequestMonitor monitor = new RequestMonitor(0, probe);
+            assertFalse(monitor.isCanceled());
+            endPoint.close();
+            assertTrue(monitor.isCanceled());
+        }
+    }
+
+    /**
+     * Test that the end of the stream, once read by Jetty, is detected
+     *
+     * @throws IOException
+     *             should not happen
+     */
+    @Test
+    public void testInputShutdown() throws IOException {
+        ByteArrayEndPoint endPoint = new ByteArrayEndPoint();
+        try (ConnectionProbe probe = new ConnectionProbe(endPoint)) {
+            endPoint.addInputEOF();
+            assertTrue(probe.getAsBoolean());
+            assertEquals(-1, endPoint.fill(BufferUtil.allocate(1)));
+            assertFalse(probe.getAsBoolean());
+        }
+    }
+
+    /**
+     * Test that closing the connection of the end point is detected
+     */
+    @Test
+    public void testConnectionClosed() {
+        ByteArrayEndPoint endPoint = new ByteArrayEndPoint();
+        StubConnection connection = new StubConnection(endPoint);
+        endPoint.setConnection(connection);
+        try (ConnectionProbe probe = new ConnectionProbe(endPoint)) {
+            assertTrue(probe.getAsBoolean());
+            connection.onClose();
+            assertFalse(probe.getAsBoolean());
+        }
+    }
+
+    /**
+     * Test that the bytes of a pipelined request are left in the end point
+     *
+     * @throws IOException
+     *             should not happen
+     */
+    @Test
+    public void testPipelinedRequest() throws IOException {
+        ByteArrayEndPoint endPoint = new ByteArrayEndPoint();
+        try (ConnectionProbe probe = new ConnectionProbe(endPoint)) {
+            endPoint.addInput("GET /");
+            assertTrue(probe.getAsBoolean());
+            ByteBuffer buffer = BufferUtil.allocate(16);
+            assertEquals(5, endPoint.fill(buffer));
+            assertEquals("GET /", BufferUtil.toString(buffer));
+        }
+    }
+
+    /**
+     * Test that the client is considered connected without an end point
+     */
+    @Test
+    public void testNoEndPoint() {
+        try (ConnectionProbe probe = new ConnectionProbe(null)) {
+            assertTrue(probe.getAsBoolean());
+        }
+    }
+}
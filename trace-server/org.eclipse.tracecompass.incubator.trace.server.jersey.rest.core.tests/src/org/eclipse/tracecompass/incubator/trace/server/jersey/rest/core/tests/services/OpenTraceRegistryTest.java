@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Map;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.OpenTraceJob;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.OpenTraceJob.OpenState;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.OpenTraceRegistry;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.junit.Test;
+
+/**
+ * Test the {@link OpenTraceRegistry} and the {@link OpenTraceJob} status
+ */
+public class OpenTraceRegistryTest {
+
+    private static final String PATH = "/path/to/trace";
+    private static final String ERROR = "Not a trace";
+
+    private static OpenTraceJob createFailingJob(OpenTraceRegistry registry) {
+        return new OpenTraceJob("trace", PATH, () -> {
+            throw new TmfTraceException(ERROR);
+        }, registry);
+    }
+
+    /**
+     * Test that a path can only be opened once
+     */
+    @Test
+    public void testDuplicates() {
+        OpenTraceRegistry registry = new OpenTraceRegistry();
+        OpenTraceJob job = createFailingJob(registry);
+        assertNull(registry.add(job));
+        assertSame(job, registry.add(createFailingJob(registry)));
+        assertSame(job, registry.getByPath(PATH));
+        assertSame(job, registry.getById(job.getId()));
+
+        registry.remove(PATH);
+        assertNull(registry.getByPath(PATH));
+        assertNull(registry.getById(job.getId()));
+        assertNull(registry.add(createFailingJob(registry)));
+    }
+
+    /**
+     * Test that a failed opening reports its error, and that the trace can be
+     * opened again
+     *
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testFailure() throws InterruptedException {
+        OpenTraceRegistry registry = new OpenTraceRegistry();
+        OpenTraceJob job = createFailingJob(registry);
+        assertNull(registry.add(job));
+        assertEquals(OpenState.INITIALIZING, job.getState());
+        job.schedule();
+        job.join();
+
+        assertEquals(OpenState.FAILED, job.getState());
+        assertNull(job.getTrace());
+        assertNull(registry.getByPath(PATH));
+        assertSame(job, registry.getById(job.getId()));
+        Map<String, Object> status = job.getOpenStatus();
+        assertEquals(job.getId().toString(), status.get("id"));
+        assertEquals(PATH, status.get("path"));
+        assertEquals(OpenState.FAILED.name(), status.get("status"));
+        assertEquals(ERROR, status.get("error"));
+        assertEquals(0.0, status.get("progress"));
+    }
+
+    /**
+     * Test that the status of a failed opening expires, so that the failed
+     * openings are not kept forever
+     *
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testFailureExpires() throws InterruptedException {
+        OpenTraceRegistry registry = new OpenTraceRegistry(0);
+        OpenTraceJob job = createFailingJob(registry);
+        assertNull(registry.add(job));
+        job.schedule();
+        job.join();
+
+        assertEquals(OpenState.FAILED, job.getState());
+        assertNull(registry.getByPath(PATH));
+        assertNull(registry.getById(job.getId()));
+    }
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.RequestMonitor;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.RequestMonitorRegistry;
+import org.junit.Test;
+
+/**
+ * Test the {@link RequestMonitorRegistry} and {@link RequestMonitor} classes
+ */
+public class RequestMonitorRegistryTest {
+
+    /**
+     * Test that a newer request with the same key cancels the running one,
+     * but not the requests with other keys
+     */
+    @Test
+    public void testSupersede() {
+        RequestMonitorRegistry registry = new RequestMonitorRegistry();
+        RequestMonitor first = new RequestMonitor(0, () -> true);
+        RequestMonitor other = new RequestMonitor(0, () -> true);
+        registry.register("client1", first);
+        registry.register("client2", other);
+        assertFalse(first.isCanceled());
+
+        RequestMonitor second = new RequestMonitor(0, () -> true);
+        registry.register("client1", second);
+        assertTrue(first.isCanceled());
+        assertFalse(second.isCanceled());
+        assertFalse(other.isCanceled());
+
+        // The superseded request ending should not unregister the newer one
+        registry.unregister("client1", first);
+        assertEquals(2, registry.size());
+        registry.unregister("client1", second);
+        registry.unregister("client2", other);
+        assertEquals(0, registry.size());
+    }
+
+    /**
+     * Test that a request is cancelled after its deadline
+     *
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testDeadline() throws InterruptedException {
+        RequestMonitor monitor = new RequestMonitor(10, () -> true);
+        RequestMonitor noDeadline = new RequestMonitor(0, () -> true);
+        Thread.sleep(50);
+        assertTrue(monitor.isCanceled());
+        assertFalse(noDeadline.isCanceled());
+    }
+
+    /**
+     * Test that a request is cancelled once its client disconnects
+     */
+    @Test
+    public void testDisconnect() {
+        AtomicBoolean connected = new AtomicBoolean(true);
+        RequestMonitor monitor = new RequestMonitor(0, connected::get);
+        assertFalse(monitor.isCanceled());
+        connected.set(false);
+        assertTrue(monitor.isCanceled());
+        // The request stays cancelled
+        connected.set(true);
+        assertTrue(monitor.isCanceled());
+    }
+}
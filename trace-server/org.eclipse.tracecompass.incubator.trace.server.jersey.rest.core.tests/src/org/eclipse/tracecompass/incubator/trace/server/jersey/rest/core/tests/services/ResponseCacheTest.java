@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.ws.rs.core.MediaType;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.DataProviderService;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ResponseCache;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ResponseCache.CachedResponse;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.BinaryModelWriter;
+import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Test the {@link ResponseCache}
+ */
+public class ResponseCacheTest {
+
+    private static final Set<String> IGNORED_KEYS = ImmutableSet.of(DataProviderService.CLIENT_ID_KEY, DataProviderService.DEADLINE_KEY);
+    private static final String OUTPUT = "output";
+    private static final String TYPE = "xy";
+    private static final String PROGRESS = "1000:5000";
+
+    private static Map<String, Object> createParameters() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("start", 0);
+        parameters.put("end", 100L);
+        parameters.put("nb_times", 10);
+        parameters.put("requested_items", Arrays.asList(1, 2, 3));
+        parameters.put(DataProviderService.CLIENT_ID_KEY, "client1");
+        return parameters;
+    }
+
+    /**
+     * Test that equivalent parameters have the same fingerprint
+     */
+    @Test
+    public void testFingerprint() {
+        Map<String, Object> other = new LinkedHashMap<>();
+        other.put("requested_items", Arrays.asList(1L, 2L, 3L));
+        other.put("nb_times", 10.0);
+        other.put("end", 100);
+        other.put("start", 0L);
+        other.put(DataProviderService.DEADLINE_KEY, 1000);
+        assertEquals(ResponseCache.fingerprint(createParameters(), IGNORED_KEYS), ResponseCache.fingerprint(other, IGNORED_KEYS));
+
+        other.put("end", 101);
+        assertNotEquals(ResponseCache.fingerprint(createParameters(), IGNORED_KEYS), ResponseCache.fingerprint(other, IGNORED_KEYS));
+    }
+
+    /**
+     * Test that the large integral numbers, such as timestamps in
+     * nanoseconds, have the same fingerprint whatever their type
+     */
+    @Test
+    public void testFingerprintLargeNumbers() {
+        long time = 1_500_000_000_123_456_000L;
+        Map<String, Object> longs = Collections.singletonMap("start", time);
+        Map<String, Object> doubles = Collections.singletonMap("start", (double) time);
+        Map<String, Object> bigs = Collections.singletonMap("start", BigDecimal.valueOf(time));
+        assertEquals(ResponseCache.fingerprint(longs, IGNORED_KEYS), ResponseCache.fingerprint(doubles, IGNORED_KEYS));
+        assertEquals(ResponseCache.fingerprint(longs, IGNORED_KEYS), ResponseCache.fingerprint(bigs, IGNORED_KEYS));
+        assertEquals(ResponseCache.fingerprint(Collections.singletonMap("end", Long.MAX_VALUE), IGNORED_KEYS),
+                ResponseCache.fingerprint(Collections.singletonMap("end", BigInteger.valueOf(Long.MAX_VALUE)), IGNORED_KEYS));
+        assertNotEquals(ResponseCache.fingerprint(Collections.singletonMap("end", 1.5), IGNORED_KEYS),
+                ResponseCache.fingerprint(Collections.singletonMap("end", 1), IGNORED_KEYS));
+        assertNotEquals(ResponseCache.fingerprint(Collections.singletonMap("end", 1e19), IGNORED_KEYS),
+                ResponseCache.fingerprint(Collections.singletonMap("end", Long.MAX_VALUE), IGNORED_KEYS));
+    }
+
+    /**
+     * Test that only the completed responses are cached, and that they are
+     * invalidated with their trace
+     */
+    @Test
+    public void testPutGetInvalidate() {
+        ResponseCache cache = new ResponseCache(1024 * 1024);
+        UUID uuid = UUID.randomUUID();
+        UUID otherUuid = UUID.randomUUID();
+
+        TmfModelResponse<String> running = new TmfModelResponse<>("partial", ITmfResponse.Status.RUNNING, CommonStatusMessage.RUNNING);
+        assertNull(cache.put(uuid, OUTPUT, TYPE, PROGRESS, createParameters(), IGNORED_KEYS, running));
+        assertNull(cache.get(uuid, OUTPUT, TYPE, PROGRESS, createParameters(), IGNORED_KEYS));
+
+        TmfModelResponse<String> completed = new TmfModelResponse<>("model", ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+        CachedResponse cached = cache.put(uuid, OUTPUT, TYPE, PROGRESS, createParameters(), IGNORED_KEYS, completed);
+        assertNotNull(cached);
+        cache.put(otherUuid, OUTPUT, TYPE, PROGRESS, createParameters(), IGNORED_KEYS, completed);
+
+        Map<String, Object> otherClient = createParameters();
+        otherClient.put(DataProviderService.CLIENT_ID_KEY, "client2");
+        CachedResponse hit = cache.get(uuid, OUTPUT, TYPE, PROGRESS, otherClient, IGNORED_KEYS);
+        assertNotNull(hit);
+        assertSame(completed, hit.getResponse());
+        assertEquals(cached.getEntityTag(MediaType.APPLICATION_JSON_TYPE), hit.getEntityTag(MediaType.APPLICATION_JSON_TYPE));
+        assertNull(cache.get(uuid, OUTPUT, "states", PROGRESS, createParameters(), IGNORED_KEYS));
+
+        cache.invalidate(uuid);
+        assertNull(cache.get(uuid, OUTPUT, TYPE, PROGRESS, createParameters(), IGNORED_KEYS));
+        assertNotNull(cache.get(otherUuid, OUTPUT, TYPE, PROGRESS, createParameters(), IGNORED_KEYS));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getStats().hitCount());
+    }
+
+    /**
+     * Test that the responses cached while a trace progresses are not
+     * returned once it has progressed
+     */
+    @Test
+    public void testProgress() {
+        ResponseCache cache = new ResponseCache(1024 * 1024);
+        UUID uuid = UUID.randomUUID();
+        TmfModelResponse<String> completed = new TmfModelResponse<>("lines", ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+        assertNotNull(cache.put(uuid, OUTPUT, TYPE, "1000:5000+", createParameters(), IGNORED_KEYS, completed));
+        assertNotNull(cache.get(uuid, OUTPUT, TYPE, "1000:5000+", createParameters(), IGNORED_KEYS));
+        assertNull(cache.get(uuid, OUTPUT, TYPE, "2000:9000+", createParameters(), IGNORED_KEYS));
+        assertNull(cache.get(uuid, OUTPUT, TYPE, "2000:9000", createParameters(), IGNORED_KEYS));
+    }
+
+    /**
+     * Test matching the If-None-Match header
+     */
+    @Test
+    public void testMatches() {
+        assertTrue(ResponseCache.matches("\"abc\"", "abc"));
+        assertTrue(ResponseCache.matches("\"xyz\", W/\"abc\"", "abc"));
+        assertTrue(ResponseCache.matches("*", "abc"));
+        assertFalse(ResponseCache.matches("\"abcd\"", "abc"));
+        assertFalse(ResponseCache.matches(null, "abc"));
+    }
+
+    /**
+     * Test that the JSON and binary representations of a response have
+     * different entity tags, so that the If-None-Match header of one does not
+     * match the other
+     */
+    @Test
+    public void testRepresentations() {
+        MediaType json = MediaType.APPLICATION_JSON_TYPE;
+        MediaType binary = MediaType.valueOf(BinaryModelWriter.MEDIA_TYPE);
+        List<MediaType> produced = Arrays.asList(json, binary);
+        assertEquals(json, DataProviderService.selectMediaType(Collections.singletonList(MediaType.WILDCARD_TYPE), produced));
+        assertEquals(binary, DataProviderService.selectMediaType(Arrays.asList(binary, json), produced));
+        assertEquals(json, DataProviderService.selectMediaType(Collections.singletonList(binary), Collections.singletonList(json)));
+
+        ResponseCache cache = new ResponseCache(1024 * 1024);
+        TmfModelResponse<String> completed = new TmfModelResponse<>("model", ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+        CachedResponse cached = cache.put(UUID.randomUUID(), OUTPUT, TYPE, PROGRESS, createParameters(), IGNORED_KEYS, completed);
+        assertNotNull(cached);
+        String jsonTag = cached.getEntityTag(json);
+        String binaryTag = cached.getEntityTag(binary);
+        assertNotEquals(jsonTag, binaryTag);
+        assertTrue(ResponseCache.matches('"' + jsonTag + '"', jsonTag));
+        assertFalse(ResponseCache.matches('"' + jsonTag + '"', binaryTag));
+        assertFalse(ResponseCache.matches('"' + binaryTag + '"', jsonTag));
+        assertTrue(ResponseCache.matches('"' + binaryTag + '"', binaryTag));
+    }
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.webapp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.BinaryModelEncoder;
+import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphState;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.junit.Test;
+
+/**
+ * Test the {@link BinaryModelEncoder} by decoding what it writes
+ */
+public class BinaryModelEncoderTest {
+
+    private static @Nullable String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Test writing series larger than the buffer of the encoder
+     *
+     * @throws IOException
+     *             if the encoder fails
+     */
+    @Test
+    public void testSeries() throws IOException {
+        int length = 20000;
+        long[] xValues = new long[length];
+        double[] yValues = new double[length];
+        for (int i = 0; i < length; i++) {
+            xValues[i] = 1000L * i;
+            yValues[i] = i / 3.0;
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryModelEncoder encoder = new BinaryModelEncoder(output);
+        encoder.writeSeries(7, "s\u00e9ries", xValues, yValues);
+        encoder.writeSeries(8, null, new long[0], new double[0]);
+        encoder.flush();
+
+        ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(7, buffer.getLong());
+        assertEquals("s\u00e9ries", readString(buffer));
+        assertEquals(length, buffer.getInt());
+        long[] readX = new long[length];
+        buffer.asLongBuffer().get(readX);
+        buffer.position(buffer.position() + length * Long.BYTES);
+        double[] readY = new double[length];
+        buffer.asDoubleBuffer().get(readY);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        assertArrayEquals(xValues, readX);
+        assertArrayEquals(yValues, readY, 0.0);
+
+        assertEquals(8, buffer.getLong());
+        assertNull(readString(buffer));
+        assertEquals(0, buffer.getInt());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Test writing a response with a time graph model
+     *
+     * @throws IOException
+     *             if the encoder fails
+     */
+    @Test
+    public void testTimeGraphResponse() throws IOException {
+        TimeGraphModel model = new TimeGraphModel(Arrays.asList(
+                new TimeGraphRowModel(1, Arrays.asList(new TimeGraphState(0, 10, 2), new TimeGraphState(10, 5, 3, "label"))),
+                new TimeGraphRowModel(2, Collections.emptyList())));
+        TmfModelResponse<TimeGraphModel> response = new TmfModelResponse<>(model, ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryModelEncoder encoder = new BinaryModelEncoder(output);
+        encoder.writeResponse(response);
+        encoder.flush();
+
+        ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(BinaryModelEncoder.MAGIC, buffer.getInt());
+        assertEquals(BinaryModelEncoder.VERSION, buffer.get());
+        assertEquals(BinaryModelEncoder.TIME_GRAPH_MODEL, buffer.get());
+        assertEquals(BinaryModelEncoder.STATUS_COMPLETED, buffer.get());
+        assertEquals(CommonStatusMessage.COMPLETED, readString(buffer));
+
+        assertEquals(2, buffer.getInt());
+        assertEquals(1, buffer.getLong());
+        assertEquals(2, buffer.getInt());
+        assertEquals(0, buffer.getLong());
+        assertEquals(10, buffer.getLong());
+        assertEquals(2, buffer.getInt());
+        assertNull(readString(buffer));
+        assertEquals(10, buffer.getLong());
+        assertEquals(5, buffer.getLong());
+        assertEquals(3, buffer.getInt());
+        assertEquals("label", readString(buffer));
+        assertEquals(2, buffer.getLong());
+        assertEquals(0, buffer.getInt());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Test writing a response without a model
+     *
+     * @throws IOException
+     *             if the encoder fails
+     */
+    @Test
+    public void testEmptyResponse() throws IOException {
+        TmfModelResponse<TimeGraphModel> response = new TmfModelResponse<>(null, ITmfResponse.Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryModelEncoder encoder = new BinaryModelEncoder(output);
+        encoder.writeResponse(response);
+        encoder.flush();
+
+        ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(BinaryModelEncoder.MAGIC, buffer.getInt());
+        assertEquals(BinaryModelEncoder.VERSION, buffer.get());
+        assertEquals(BinaryModelEncoder.NO_MODEL, buffer.get());
+        assertEquals(BinaryModelEncoder.STATUS_CANCELLED, buffer.get());
+        assertEquals(CommonStatusMessage.TASK_CANCELLED, readString(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+}
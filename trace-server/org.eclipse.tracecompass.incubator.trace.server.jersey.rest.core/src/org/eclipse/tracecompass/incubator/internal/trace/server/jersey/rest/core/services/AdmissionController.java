@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Admission control of a class of requests to the data providers. It bounds
+ * the number of requests running concurrently, in total and per trace, and
+ * the number of requests waiting to run. A request which cannot wait is
+ * rejected with a 429 status, and a request which waited too long, for its
+ * trace or for the server, with a 503 status, so that the clients back off
+ * instead of piling up requests. A request waits at most the timeout in
+ * total, and leaves the queue as soon as it is cancelled.
+ *
+ * Separate controllers for the expensive and the cheap requests keep the
+ * expensive ones from starving the others.
+ */
+public final class AdmissionController {
+
+    /** Status of the requests rejected because too many are waiting */
+    public static final int TOO_MANY_REQUESTS = 429;
+    /** Status of the requests rejected because they waited too long */
+    public static final int SERVICE_UNAVAILABLE = 503;
+
+    /** Time in milliseconds between two checks of a waiting request */
+    private static final long POLL_INTERVAL = 50;
+
+    private final Semaphore fRunning;
+    private final int fMaxQueued;
+    private final int fMaxPerTrace;
+    private final long fTimeout;
+    private final AtomicInteger fQueued = new AtomicInteger();
+    private final Map<UUID, Semaphore> fPerTrace = new ConcurrentHashMap<>();
+
+    /**
+     * Exception of a request which is not admitted
+     */
+    public static final class RejectedException extends Exception {
+
+        private static final long serialVersionUID = -3546154284616378372L;
+
+        private final int fStatus;
+
+        private RejectedException(int status, String message) {
+            super(message);
+            fStatus = status;
+        }
+
+        /**
+         * Get the HTTP status of the rejection
+         *
+         * @return {@link AdmissionController#TOO_MANY_REQUESTS} or
+         *         {@link AdmissionController#SERVICE_UNAVAILABLE}
+         */
+        public int getStatus() {
+            return fStatus;
+        }
+    }
+
+    /**
+     * Permit of an admitted request, to close once the request is done
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final @Nullable Semaphore fTracePermits;
+
+        private Permit(@Nullable Semaphore tracePermits) {
+            fTracePermits = tracePermits;
+        }
+
+        @Override
+        public void close() {
+            fRunning.release();
+            Semaphore tracePermits = fTracePermits;
+            if (tracePermits != null) {
+                tracePermits.release();
+            }
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxRunning
+     *            The maximum number of requests running concurrently
+     * @param maxQueued
+     *            The maximum number of requests waiting to run
+     * @param maxPerTrace
+     *            The maximum number of requests running concurrently on a
+     *            trace, or a value lower than or equal to 0 for no limit
+     * @param timeout
+     *            The time in milliseconds a request waits in total to run,
+     *            for its trace and for the server, before being rejected
+     */
+    public AdmissionController(int maxRunning, int maxQueued, int maxPerTrace, long timeout) {
+        fRunning = new Semaphore(Math.max(1, maxRunning), true);
+        fMaxQueued = maxQueued;
+        fMaxPerTrace = maxPerTrace;
+        fTimeout = timeout;
+    }
+
+    /**
+     * Admit a request, waiting for a permit if the limits are reached
+     *
+     * @param uuid
+     *            The UUID of the trace queried by the request
+     * @return The permit of the request, to close once the request is done
+     * @throws RejectedException
+     *             If the request is not admitted
+     */
+    public Permit acquire(UUID uuid) throws RejectedException {
+        return acquire(uuid, new NullProgressMonitor());
+    }
+
+    /**
+     * Admit a request, waiting for a permit if the limits are reached, until
+     * the request is cancelled
+     *
+     * @param uuid
+     *            The UUID of the trace queried by the request
+     * @param monitor
+     *            The monitor of the request, checked while it waits
+     * @return The permit of the request, to close once the request is done
+     * @throws RejectedException
+     *             If the request is not admitted
+     * @throws OperationCanceledException
+     *             If the request was cancelled while it waited
+     */
+    public Permit acquire(UUID uuid, IProgressMonitor monitor) throws RejectedException {
+        // A single deadline for both waits, so that a request never waits more than the timeout
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fTimeout);
+        Semaphore tracePermits = fMaxPerTrace > 0 ? fPerTrace.computeIfAbsent(uuid, u -> new Semaphore(fMaxPerTrace, true)) : null;
+        if (tracePermits != null && !tryAcquire(tracePermits, monitor, deadline)) {
+            throw new RejectedException(SERVICE_UNAVAILABLE, "Trace busy " + uuid); //$NON-NLS-1$
+        }
+        try {
+            if (!tryAcquire(fRunning, monitor, deadline)) {
+                throw new RejectedException(SERVICE_UNAVAILABLE, "Server busy"); //$NON-NLS-1$
+            }
+        } catch (RejectedException | OperationCanceledException e) {
+            if (tracePermits != null) {
+                tracePermits.release();
+            }
+            throw e;
+        }
+        return new Permit(tracePermits);
+    }
+
+    /**
+     * Acquire a permit, waiting in the queue if there is no permit available
+     * and the queue is not full, until the deadline. The wait is split in
+     * intervals to leave the queue once the request is cancelled.
+     */
+    private boolean tryAcquire(Semaphore semaphore, IProgressMonitor monitor, long deadline) throws RejectedException {
+        if (semaphore.tryAcquire()) {
+            return true;
+        }
+        if (fQueued.incrementAndGet() > fMaxQueued) {
+            fQueued.decrementAndGet();
+            throw new RejectedException(TOO_MANY_REQUESTS, "Too many queued requests"); //$NON-NLS-1$
+        }
+        try {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            while (remaining > 0) {
+                if (monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                if (semaphore.tryAcquire(Math.min(remaining, POLL_INTERVAL), TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+                remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            fQueued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Forget the limit of a trace, when it is deleted
+     *
+     * @param uuid
+     *            The UUID of the trace
+     */
+    public void remove(UUID uuid) {
+        fPerTrace.remove(uuid);
+    }
+
+    /**
+     * Get the number of requests waiting to run
+     *
+     * @return The number of queued requests
+     */
+    public int getQueued() {
+        return fQueued.get();
+    }
+
+    /**
+     * Get the number of requests which can still run without waiting
+     *
+     * @return The number of available permits
+     */
+    public int getAvailable() {
+        return fRunning.availablePermits();
+    }
+}
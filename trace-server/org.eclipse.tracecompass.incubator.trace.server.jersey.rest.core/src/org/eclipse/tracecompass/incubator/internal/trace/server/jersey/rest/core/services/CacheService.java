@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Service to report the metrics of the data provider response cache
+ */
+@Path("/cache")
+public class CacheService {
+
+    /**
+     * Get the metrics of the response cache
+     *
+     * @return the number of cached responses, hits, misses, evictions and the
+     *         hit rate of the cache
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getStatistics() {
+        ResponseCache cache = DataProviderService.getResponseCache();
+        CacheStats stats = cache.getStats();
+        return Response.ok(ImmutableMap.of(
+                "size", cache.size(), //$NON-NLS-1$
+                "hitCount", stats.hitCount(), //$NON-NLS-1$
+                "missCount", stats.missCount(), //$NON-NLS-1$
+                "evictionCount", stats.evictionCount(), //$NON-NLS-1$
+                "hitRate", stats.hitRate())).build(); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.io.Connection;
+import org.eclipse.jetty.io.EndPoint;
+
+/**
+ * Probe of the connection of a request, to know whether its client is still
+ * connected while the response is computed.
+ *
+ * The probe never reads from the connection, the bytes of a request pipelined
+ * by the client stay for Jetty to read. The client is considered disconnected
+ * once Jetty has closed the end point or shut down its input, or closed the
+ * connection, for example after its idle timeout. The probe only reads the
+ * state of the end point and a flag set by the close callback of the
+ * connection, so it can be called from any thread.
+ *
+ * The probe listens to the connection until it is closed, it must be closed
+ * once the response is computed.
+ */
+public final class ConnectionProbe implements BooleanSupplier, Connection.Listener, AutoCloseable {
+
+    private final @Nullable EndPoint fEndPoint;
+    private final @Nullable Connection fConnection;
+    private volatile boolean fClosed = false;
+
+    /**
+     * Constructor
+     *
+     * @param endPoint
+     *            The end point of the request, or <code>null</code> if it is
+     *            not known, in which case the client is always considered
+     *            connected
+     */
+    public ConnectionProbe(@Nullable EndPoint endPoint) {
+        fEndPoint = endPoint;
+        Connection connection = endPoint != null ? endPoint.getConnection() : null;
+        fConnection = connection;
+        if (connection != null) {
+            connection.addListener(this);
+        }
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+        EndPoint endPoint = fEndPoint;
+        return endPoint == null || (!fClosed && endPoint.isOpen() && !endPoint.isInputShutdown());
+    }
+
+    @Override
+    public void onOpened(@Nullable Connection connection) {
+        // Nothing to do, the connection is already open
+    }
+
+    @Override
+    public void onClosed(@Nullable Connection connection) {
+        fClosed = true;
+    }
+
+    @Override
+    public void close() {
+        Connection connection = fConnection;
+        if (connection != null) {
+            connection.removeListener(this);
+        }
+    }
+}
@@ -10,11 +10,15 @@
 package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
@@ -22,14 +26,26 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.io.EndPoint;
+import org.eclipse.jetty.server.Request;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.GenericView;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.QueryParameters;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.AdmissionController.Permit;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.AdmissionController.RejectedException;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ResponseCache.CachedResponse;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.BinaryModelWriter;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.filters.VirtualTableQueryFilter;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableDataProvider;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.IVirtualTableLine;
@@ -41,20 +57,21 @@ import org.eclipse.tracecompass.tmf.analysis.xml.core.module.TmfXmlUtils;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.output.XmlDataProviderManager;
 import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderManager;
 import org.eclipse.tracecompass.tmf.core.dataprovider.IDataProviderDescriptor;
+import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
 import org.eclipse.tracecompass.tmf.core.model.filters.SelectionTimeQueryFilter;
 import org.eclipse.tracecompass.tmf.core.model.filters.TimeQueryFilter;
-import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphArrow;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphDataProvider;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphEntryModel;
-import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
 import org.eclipse.tracecompass.tmf.core.model.tree.ITmfTreeDataModel;
 import org.eclipse.tracecompass.tmf.core.model.tree.ITmfTreeDataProvider;
 import org.eclipse.tracecompass.tmf.core.model.xy.ITmfTreeXYDataProvider;
-import org.eclipse.tracecompass.tmf.core.model.xy.ITmfXyModel;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
 import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
 import org.w3c.dom.Element;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 
 /**
@@ -69,8 +86,78 @@ public class DataProviderService {
     private static final String NO_PROVIDER = "Analysis cannot run"; //$NON-NLS-1$
     private static final String NO_SUCH_TRACE = "No Such Trace"; //$NON-NLS-1$
 
+    /**
+     * Key of the optional parameter identifying the client of a request. A
+     * request of a client cancels the running request of the same client for
+     * the same trace, output and type of request.
+     */
+    public static final String CLIENT_ID_KEY = "clientId"; //$NON-NLS-1$
+
+    /**
+     * Key of the optional parameter for the time in milliseconds after which a
+     * request is cancelled
+     */
+    public static final String DEADLINE_KEY = "deadline"; //$NON-NLS-1$
+
+    private static final String XY = "xy"; //$NON-NLS-1$
+    private static final String STATES = "states"; //$NON-NLS-1$
+    private static final String ARROWS = "arrows"; //$NON-NLS-1$
+    private static final String LINES = "lines"; //$NON-NLS-1$
+    private static final String TREE = "tree"; //$NON-NLS-1$
+    private static final String TOOLTIP = "tooltip"; //$NON-NLS-1$
+
+    /** The parameters of a request which do not change its response */
+    private static final Set<String> IGNORED_KEYS = ImmutableSet.of(CLIENT_ID_KEY, DEADLINE_KEY);
+
+    /** The maximum estimated size of the cached responses, in bytes */
+    private static final long CACHE_SIZE = 64L * 1024 * 1024;
+
+    /** The running requests of the clients, shared by the service instances */
+    private static final RequestMonitorRegistry MONITORS = new RequestMonitorRegistry();
+
+    /** The completed responses, shared by the service instances */
+    private static final ResponseCache CACHE = new ResponseCache(CACHE_SIZE);
+
+    /** The types of requests which are cheap to compute */
+    private static final Set<String> LIGHT_TYPES = ImmutableSet.of(TREE, TOOLTIP);
+
+    /** The representations of the responses which are only in JSON */
+    private static final List<MediaType> JSON_ONLY = Collections.singletonList(MediaType.APPLICATION_JSON_TYPE);
+
+    /** The representations of the responses which are also in binary */
+    private static final List<MediaType> JSON_OR_BINARY = Arrays.asList(MediaType.APPLICATION_JSON_TYPE, MediaType.valueOf(BinaryModelWriter.MEDIA_TYPE));
+
+    /** Seconds after which a rejected client can retry */
+    private static final String RETRY_AFTER = "1"; //$NON-NLS-1$
+
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+    private static final long QUEUE_TIMEOUT = Long.getLong("traceserver.queue.timeout", 10000); //$NON-NLS-1$
+
+    /**
+     * Admission control of the expensive requests, such as the XY, states and
+     * lines, limited per trace so that a trace cannot take all the threads
+     */
+    private static final AdmissionController HEAVY = new AdmissionController(
+            Integer.getInteger("traceserver.heavy.threads", PROCESSORS), //$NON-NLS-1$
+            Integer.getInteger("traceserver.heavy.queue", 4 * PROCESSORS), //$NON-NLS-1$
+            Integer.getInteger("traceserver.heavy.perTrace", Math.max(1, PROCESSORS / 2)), //$NON-NLS-1$
+            QUEUE_TIMEOUT);
+
+    /** Admission control of the cheap requests, such as the trees and tooltips */
+    private static final AdmissionController LIGHT = new AdmissionController(
+            Integer.getInteger("traceserver.light.threads", 2 * PROCESSORS), //$NON-NLS-1$
+            Integer.getInteger("traceserver.light.queue", 8 * PROCESSORS), //$NON-NLS-1$
+            Integer.getInteger("traceserver.light.perTrace", 0), //$NON-NLS-1$
+            QUEUE_TIMEOUT);
+
     private final DataProviderManager manager = DataProviderManager.getInstance();
 
+    @Context
+    private @Nullable HttpServletRequest servletRequest;
+
+    @Context
+    private @Nullable HttpHeaders httpHeaders;
+
     /**
      * Getter for the list of data provider descriptions
      *
@@ -125,7 +212,7 @@ public class DataProviderService {
     @POST
     @Path("/XY/{outputId}/xy")
     @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, BinaryModelWriter.MEDIA_TYPE })
     public Response getXY(@PathParam("uuid") UUID uuid,
             @PathParam("outputId") String outputId, QueryParameters queryParameters) {
         ITmfTrace trace = TraceManagerService.getTraceByUUID(uuid);
@@ -151,8 +238,8 @@ public class DataProviderService {
             return Response.status(Status.UNAUTHORIZED).entity(WRONG_PARAMETERS).build();
         }
 
-        TmfModelResponse<@NonNull ITmfXyModel> response = provider.fetchXY(queryParameters.getParameters(), null);
-        return Response.ok(response).build();
+        ITmfTreeXYDataProvider<@NonNull ITmfTreeDataModel> xyProvider = provider;
+        return fetch(uuid, outputId, XY, JSON_OR_BINARY, queryParameters.getParameters(), monitor -> xyProvider.fetchXY(queryParameters.getParameters(), monitor));
     }
 
     /**
@@ -219,7 +306,7 @@ public class DataProviderService {
     @POST
     @Path("/timeGraph/{outputId}/states")
     @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, BinaryModelWriter.MEDIA_TYPE })
     public Response getStates(@PathParam("uuid") UUID uuid,
             @PathParam("outputId") String outputId,
             QueryParameters queryParameters) {
@@ -240,8 +327,7 @@ public class DataProviderService {
             return Response.status(Status.UNAUTHORIZED).entity(WRONG_PARAMETERS).build();
         }
 
-        TmfModelResponse<TimeGraphModel> response = provider.fetchRowModel(queryParameters.getParameters(), null);
-        return Response.ok(response).build();
+        return fetch(uuid, outputId, STATES, JSON_OR_BINARY, queryParameters.getParameters(), monitor -> provider.fetchRowModel(queryParameters.getParameters(), monitor));
     }
 
     /**
@@ -280,8 +366,7 @@ public class DataProviderService {
             return Response.status(Status.UNAUTHORIZED).entity(WRONG_PARAMETERS).build();
         }
 
-        TmfModelResponse<@NonNull List<@NonNull ITimeGraphArrow>> response = provider.fetchArrows(queryParameters.getParameters(), null);
-        return Response.ok(response).build();
+        return fetch(uuid, outputId, ARROWS, queryParameters.getParameters(), monitor -> provider.fetchArrows(queryParameters.getParameters(), monitor));
     }
 
     /**
@@ -318,8 +403,8 @@ public class DataProviderService {
             // The analysis cannot be run on this trace
             return Response.status(Status.METHOD_NOT_ALLOWED).entity(NO_PROVIDER).build();
         }
-        TmfModelResponse<@NonNull Map<@NonNull String, @NonNull String>> response = provider.fetchTooltip(FetchParametersUtils.selectionTimeQueryToMap(new SelectionTimeQueryFilter(time, time, 1, Arrays.asList(entryId, targetId))), null);
-        return Response.ok(response).build();
+        Map<String, Object> parameters = FetchParametersUtils.selectionTimeQueryToMap(new SelectionTimeQueryFilter(time, time, 1, Arrays.asList(entryId, targetId)));
+        return fetch(uuid, outputId, TOOLTIP, parameters, monitor -> provider.fetchTooltip(parameters, monitor));
     }
 
     private ITimeGraphDataProvider<@NonNull ITimeGraphEntryModel> getTimeGraphProvider(@NonNull ITmfTrace trace, String outputId) {
@@ -388,8 +473,7 @@ public class DataProviderService {
         if (tableQueryFilter == null) {
             return Response.status(Status.UNAUTHORIZED).entity(WRONG_PARAMETERS).build();
         }
-        TmfModelResponse<?> response = provider.fetchLines(queryParameters.getParameters(), null);
-        return Response.ok(response).build();
+        return fetch(uuid, outputId, LINES, queryParameters.getParameters(), monitor -> provider.fetchLines(queryParameters.getParameters(), monitor));
     }
 
     /**
@@ -444,7 +528,155 @@ public class DataProviderService {
             return Response.status(Status.UNAUTHORIZED).entity(WRONG_PARAMETERS).build();
         }
 
-        TmfModelResponse<?> treeResponse = provider.fetchTree(queryParameters.getParameters(), null);
-        return Response.ok(treeResponse).build();
+        ITmfTreeDataProvider<? extends @NonNull ITmfTreeDataModel> treeProvider = provider;
+        return fetch(uuid, outputId, TREE, queryParameters.getParameters(), monitor -> treeProvider.fetchTree(queryParameters.getParameters(), monitor));
+    }
+
+    /**
+     * Invalidate the cached responses of a trace or experiment
+     *
+     * @param uuid
+     *            The UUID of the trace or experiment
+     */
+    public static void invalidate(UUID uuid) {
+        CACHE.invalidate(uuid);
+        HEAVY.remove(uuid);
+        LIGHT.remove(uuid);
+    }
+
+    /**
+     * Get the cache of the completed responses
+     *
+     * @return The response cache
+     */
+    public static ResponseCache getResponseCache() {
+        return CACHE;
+    }
+
+    /**
+     * Get the response of a request from the cache, or fetch it from the data
+     * provider and cache it if it is completed. The cached responses are
+     * tagged, a client sending the tag of the cached response in the
+     * If-None-Match header receives a not modified response. The requests
+     * to compute are admitted by the controller of their type, or rejected
+     * if the server is too busy.
+     */
+    private Response fetch(UUID uuid, String outputId, String type, Map<String, Object> parameters, Function<IProgressMonitor, TmfModelResponse<?>> fetcher) {
+        return fetch(uuid, outputId, type, JSON_ONLY, parameters, fetcher);
+    }
+
+    /**
+     * Fetch a response in the representation negotiated among the produced
+     * media types. The entity tag depends on the representation, and the
+     * responses vary with the Accept header when there are several
+     * representations.
+     */
+    private Response fetch(UUID uuid, String outputId, String type, List<MediaType> produced, Map<String, Object> parameters, Function<IProgressMonitor, TmfModelResponse<?>> fetcher) {
+        HttpHeaders headers = httpHeaders;
+        MediaType mediaType = selectMediaType(headers != null ? headers.getAcceptableMediaTypes() : JSON_ONLY, produced);
+        // The progress before the fetch, so that a response is never cached as more recent than it is
+        String progress = getProgress(uuid);
+        CachedResponse cached = CACHE.get(uuid, outputId, type, progress, parameters, IGNORED_KEYS);
+        if (cached != null) {
+            EntityTag tag = new EntityTag(cached.getEntityTag(mediaType));
+            HttpServletRequest request = servletRequest;
+            if (request != null && ResponseCache.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), tag.getValue())) {
+                return vary(Response.notModified(tag), produced).build();
+            }
+            return vary(Response.ok(cached.getResponse(), mediaType).tag(tag), produced).build();
+        }
+        TmfModelResponse<?> response;
+        try {
+            response = fetchFromProvider(uuid, outputId, type, parameters, fetcher);
+        } catch (RejectedException e) {
+            return Response.status(e.getStatus()).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER).entity(e.getMessage()).build();
+        }
+        cached = CACHE.put(uuid, outputId, type, progress, parameters, IGNORED_KEYS, response);
+        ResponseBuilder builder = vary(Response.ok(response, mediaType), produced);
+        if (cached != null) {
+            builder.tag(new EntityTag(cached.getEntityTag(mediaType)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get the progress of a trace, part of the key of its cached responses,
+     * as some data providers return completed responses while the trace is
+     * still being indexed.
+     */
+    private static String getProgress(UUID uuid) {
+        ITmfTrace trace = TraceManagerService.getTraceByUUID(uuid);
+        if (trace == null) {
+            return ""; //$NON-NLS-1$
+        }
+        boolean indexing = trace instanceof TmfTrace && ((TmfTrace) trace).getIndexer().isIndexing();
+        return trace.getNbEvents() + ":" + trace.getEndTime().toNanos() + (indexing ? "+" : ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    private static ResponseBuilder vary(ResponseBuilder builder, List<MediaType> produced) {
+        return produced.size() > 1 ? builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT) : builder;
+    }
+
+    /**
+     * Select the representation of a response, the first produced media type
+     * compatible with the most preferred acceptable media type
+     *
+     * @param acceptable
+     *            The acceptable media types of the request, from the most to
+     *            the least preferred
+     * @param produced
+     *            The media types in which the response can be written, from
+     *            the default one
+     * @return The selected media type, or the default one if none is
+     *         acceptable
+     */
+    public static MediaType selectMediaType(List<MediaType> acceptable, List<MediaType> produced) {
+        for (MediaType accepted : acceptable) {
+            for (MediaType mediaType : produced) {
+                if (accepted.isCompatible(mediaType)) {
+                    return mediaType;
+                }
+            }
+        }
+        return produced.get(0);
+    }
+
+    /**
+     * Fetch a response from a data provider with the monitor of the request,
+     * once the request is admitted by the controller of its type. If the
+     * client is identified, the request is registered before it waits to be
+     * admitted, so that a newer request of the same client for this output
+     * and type cancels it, whether it is waiting or running.
+     */
+    private TmfModelResponse<?> fetchFromProvider(UUID uuid, String outputId, String type, Map<String, Object> parameters, Function<IProgressMonitor, TmfModelResponse<?>> fetcher) throws RejectedException {
+        Object deadline = parameters.get(DEADLINE_KEY);
+        try (ConnectionProbe connection = new ConnectionProbe(getEndPoint())) {
+            RequestMonitor monitor = new RequestMonitor(deadline instanceof Number ? ((Number) deadline).longValue() : 0, connection);
+            Object clientId = parameters.get(CLIENT_ID_KEY);
+            @Nullable List<Object> key = clientId != null ? Arrays.asList(uuid, outputId, type, String.valueOf(clientId)) : null;
+            if (key != null) {
+                MONITORS.register(key, monitor);
+            }
+            AdmissionController admission = LIGHT_TYPES.contains(type) ? LIGHT : HEAVY;
+            try (Permit permit = admission.acquire(uuid, monitor)) {
+                return fetcher.apply(monitor);
+            } catch (OperationCanceledException e) {
+                return new TmfModelResponse<>(null, ITmfResponse.Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+            } finally {
+                if (key != null) {
+                    MONITORS.unregister(key, monitor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the Jetty end point of the current request, whose connection is
+     * probed to know whether the client is still connected
+     */
+    private @Nullable EndPoint getEndPoint() {
+        HttpServletRequest request = servletRequest;
+        Request baseRequest = request != null ? Request.getBaseRequest(request) : null;
+        return baseRequest != null ? baseRequest.getHttpChannel().getEndPoint() : null;
     }
 }
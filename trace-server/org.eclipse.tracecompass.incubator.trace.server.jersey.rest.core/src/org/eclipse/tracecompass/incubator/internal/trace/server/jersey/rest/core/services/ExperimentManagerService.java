@@ -9,6 +9,7 @@
 
 package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,16 +21,18 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
-import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.signal.TmfSignalManager;
 import org.eclipse.tracecompass.tmf.core.signal.TmfTraceClosedSignal;
 import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
@@ -38,7 +41,6 @@ import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
 
 import com.google.common.collect.Collections2;
-import com.google.common.collect.Iterables;
 
 /**
  * Service to manage experiments
@@ -50,6 +52,9 @@ public class ExperimentManagerService {
 
     private static final String EXPERIMENTS = "experiments"; //$NON-NLS-1$
 
+    @Context
+    private @Nullable UriInfo uriInfo;
+
     /**
      * Getter for the list of experiments from the trace manager
      *
@@ -80,6 +85,27 @@ public class ExperimentManagerService {
         return Response.status(Status.NOT_FOUND).build();
     }
 
+    /**
+     * Get the status of the opening of an experiment, then of its indexing and
+     * of the analyses scheduled on it
+     *
+     * @param uuid
+     *            Identifier of the opening, as returned when the experiment is
+     *            being opened, or UUID of the opened experiment
+     * @return a response containing the status, or not found if the
+     *         experiment is not known
+     */
+    @GET
+    @Path("/{uuid}/status")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response getStatus(@PathParam("uuid") UUID uuid) {
+        OpenTraceJob job = TraceManagerService.getOpening(uuid);
+        if (job == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+        return Response.ok(job.getOpenStatus()).build();
+    }
+
     @GET
     @Path("/{uuid}/outputs")
     @Produces(MediaType.APPLICATION_JSON)
@@ -103,6 +129,8 @@ public class ExperimentManagerService {
         ITmfTrace experiment = TraceManagerService.getTraceByUUID(uuid);
         if (experiment instanceof TmfExperiment) {
             TmfSignalManager.dispatchSignal(new TmfTraceClosedSignal(this, experiment));
+            TraceManagerService.OPENED_TRACES.remove(experiment.getPath());
+            DataProviderService.invalidate(uuid);
             experiment.dispose();
             return Response.ok(experiment).build();
         }
@@ -111,7 +139,10 @@ public class ExperimentManagerService {
 
     /**
      * Post a new experiment encapsulating the traces from the list of
-     * {@link UUID}s.
+     * {@link UUID}s. The experiment is opened in the background, if it is not
+     * opened after a short time, the request is accepted and responds with the
+     * status of the opening, which can be followed with
+     * {@link #getStatus(UUID)}.
      *
      * @param name
      *            name for the experiment.
@@ -129,29 +160,37 @@ public class ExperimentManagerService {
         IPath ipath = root.getLocation().append(EXPERIMENTS).append(name);
         IResource resource = root.findMember(ipath);
 
-        if (Iterables.any(TmfTraceManager.getInstance().getOpenedTraces(), t -> t.getPath().equals(ipath.toOSString()))) {
+        String path = ipath.toOSString();
+        if (TraceManagerService.OPENED_TRACES.getByPath(path) != null) {
             return Response.status(Status.CONFLICT).entity("There is already an experiment named: " + name).build(); //$NON-NLS-1$
         }
 
-        ITmfTrace[] array = new ITmfTrace[traceUUIDs.size()];
-        int i = 0;
+        List<ITmfTrace> traces = new ArrayList<>();
         for (UUID uuid : traceUUIDs) {
             ITmfTrace trace = TraceManagerService.getTraceByUUID(uuid);
             if (trace == null) {
                 return Response.noContent().build();
             }
-            // traces in the experiment need to be cloned.
-            try {
+            traces.add(trace);
+        }
+        OpenTraceJob job = new OpenTraceJob(name, path, () -> {
+            ITmfTrace[] array = new ITmfTrace[traces.size()];
+            int i = 0;
+            for (ITmfTrace trace : traces) {
+                // traces in the experiment need to be cloned.
                 ITmfTrace clone = trace.getClass().newInstance();
                 clone.initTrace(trace.getResource(), trace.getPath(), ITmfEvent.class, trace.getName(), trace.getTraceTypeId());
                 array[i++] = clone;
-            } catch (InstantiationException | IllegalAccessException | TmfTraceException e) {
-                return Response.serverError().entity(e.getMessage()).build();
             }
+            TmfExperiment experiment = new TmfExperiment(ITmfEvent.class, path, array, TmfExperiment.DEFAULT_INDEX_PAGE_SIZE, resource);
+            TmfSignalManager.dispatchSignal(new TmfTraceOpenedSignal(this, experiment, null));
+            return experiment;
+        }, TraceManagerService.OPENED_TRACES);
+        if (TraceManagerService.OPENED_TRACES.add(job) != null) {
+            return Response.status(Status.CONFLICT).entity("There is already an experiment named: " + name).build(); //$NON-NLS-1$
         }
-        TmfExperiment experiment = new TmfExperiment(ITmfEvent.class, ipath.toOSString(), array, TmfExperiment.DEFAULT_INDEX_PAGE_SIZE, resource);
-        TmfSignalManager.dispatchSignal(new TmfTraceOpenedSignal(this, experiment, null));
-        return Response.ok(experiment).build();
+        job.schedule();
+        return TraceManagerService.waitForOpening(job, uriInfo, ExperimentManagerService.class);
     }
 
 }
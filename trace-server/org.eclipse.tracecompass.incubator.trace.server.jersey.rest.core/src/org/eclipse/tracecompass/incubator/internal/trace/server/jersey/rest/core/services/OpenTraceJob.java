@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.Activator;
+import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceKnownSize;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Job initializing a trace or an experiment in the background, so that
+ * opening a large trace, which can require reading or sorting all of its
+ * events, does not block the request that opens it. The status of the job
+ * reports the state of the opening, then the indexing progress of the trace
+ * and the analyses scheduled on it.
+ */
+public class OpenTraceJob extends Job {
+
+    /**
+     * State of the opening of a trace
+     */
+    public enum OpenState {
+        /** The trace is being initialized */
+        INITIALIZING,
+        /** The trace is opened, it can still be indexing */
+        OPENED,
+        /** The trace could not be opened */
+        FAILED
+    }
+
+    /**
+     * Initializer of a trace, called by the job
+     */
+    @FunctionalInterface
+    public interface TraceInitializer {
+        /**
+         * Initialize the trace and signal that it is opened
+         *
+         * @return The opened trace
+         * @throws TmfTraceException
+         *             If the trace cannot be initialized
+         * @throws ReflectiveOperationException
+         *             If the trace cannot be instantiated
+         */
+        ITmfTrace initialize() throws TmfTraceException, ReflectiveOperationException;
+    }
+
+    private final UUID fId = UUID.randomUUID();
+    private final String fTraceName;
+    private final String fPath;
+    private final TraceInitializer fInitializer;
+    private final OpenTraceRegistry fRegistry;
+
+    private volatile OpenState fState = OpenState.INITIALIZING;
+    private volatile @Nullable ITmfTrace fTrace;
+    private volatile @Nullable String fError;
+
+    /**
+     * Constructor
+     *
+     * @param name
+     *            The name of the trace
+     * @param path
+     *            The path of the trace
+     * @param initializer
+     *            The initializer of the trace
+     * @param registry
+     *            The registry of the opened traces, the job is removed from
+     *            it if the trace cannot be opened
+     */
+    public OpenTraceJob(String name, String path, TraceInitializer initializer, OpenTraceRegistry registry) {
+        super("Opening " + name); //$NON-NLS-1$
+        fTraceName = name;
+        fPath = path;
+        fInitializer = initializer;
+        fRegistry = registry;
+    }
+
+    @Override
+    protected IStatus run(@Nullable IProgressMonitor monitor) {
+        try {
+            fTrace = fInitializer.initialize();
+            fState = OpenState.OPENED;
+        } catch (TmfTraceException | ReflectiveOperationException | RuntimeException e) {
+            Activator.getInstance().logError("Failed to open trace " + fPath, e); //$NON-NLS-1$
+            fError = e.getMessage();
+            fState = OpenState.FAILED;
+            fRegistry.removeFailed(this);
+        }
+        return Status.OK_STATUS;
+    }
+
+    /**
+     * Get the identifier of the opening, which can be used to get its status
+     * before the trace is opened
+     *
+     * @return The identifier
+     */
+    public UUID getId() {
+        return fId;
+    }
+
+    /**
+     * Get the path of the trace
+     *
+     * @return The path
+     */
+    public String getPath() {
+        return fPath;
+    }
+
+    /**
+     * Get the state of the opening
+     *
+     * @return The state
+     */
+    public OpenState getState() {
+        return fState;
+    }
+
+    /**
+     * Get the trace, once it is opened
+     *
+     * @return The trace, or null if it is not opened
+     */
+    public @Nullable ITmfTrace getTrace() {
+        return fTrace;
+    }
+
+    /**
+     * Get the error message, if the trace could not be opened
+     *
+     * @return The error message, or null
+     */
+    public @Nullable String getError() {
+        return fError;
+    }
+
+    /**
+     * Get the progress of the opening and the indexing of the trace, from 0
+     * while the trace is initialized to 1 once it is indexed. The indexing
+     * progress is only known for the traces which know their size, the others
+     * report 0 until they are indexed.
+     *
+     * @return The progress, between 0 and 1
+     */
+    public double getProgress() {
+        ITmfTrace trace = fTrace;
+        if (trace == null) {
+            return 0.0;
+        }
+        if (!trace.isIndexing()) {
+            return 1.0;
+        }
+        if (trace instanceof ITmfTraceKnownSize) {
+            ITmfTraceKnownSize knownSize = (ITmfTraceKnownSize) trace;
+            int size = knownSize.size();
+            if (size > 0) {
+                return Math.min(1.0, Math.max(0.0, (double) knownSize.progress() / size));
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Get the status of the opening and the indexing of the trace
+     *
+     * @return The status, as a map to serialize
+     */
+    public Map<String, Object> getOpenStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", fId.toString()); //$NON-NLS-1$
+        status.put("name", fTraceName); //$NON-NLS-1$
+        status.put("path", fPath); //$NON-NLS-1$
+        status.put("status", fState.name()); //$NON-NLS-1$
+        status.put("progress", getProgress()); //$NON-NLS-1$
+        String error = fError;
+        if (error != null) {
+            status.put("error", error); //$NON-NLS-1$
+        }
+        ITmfTrace trace = fTrace;
+        if (trace == null) {
+            return status;
+        }
+        UUID uuid = trace.getUUID();
+        if (uuid != null) {
+            status.put("UUID", uuid.toString()); //$NON-NLS-1$
+        }
+        status.put("nbEvents", trace.getNbEvents()); //$NON-NLS-1$
+        status.put("start", trace.getStartTime().toNanos()); //$NON-NLS-1$
+        status.put("end", trace.getEndTime().toNanos()); //$NON-NLS-1$
+        status.put("indexingStatus", trace.isIndexing() ? "RUNNING" : "COMPLETED"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        List<Map<String, String>> analyses = new ArrayList<>();
+        for (IAnalysisModule module : trace.getAnalysisModules()) {
+            if (module.isAutomatic()) {
+                analyses.add(ImmutableMap.of("id", module.getId(), "name", module.getName())); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        status.put("analyses", analyses); //$NON-NLS-1$
+        return status;
+    }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Index of the traces and experiments opened or being opened by the server,
+ * by path to detect the duplicates and by the identifier of their opening to
+ * report its status. The failed openings are removed from both indexes, their
+ * status remains available by identifier until it expires.
+ */
+public final class OpenTraceRegistry {
+
+    /** Time in milliseconds during which the status of a failed opening is kept */
+    private static final long FAILED_RETENTION = 10 * 60 * 1000L;
+
+    private final Map<String, OpenTraceJob> fByPath = new ConcurrentHashMap<>();
+    private final Map<UUID, OpenTraceJob> fById = new ConcurrentHashMap<>();
+    private final Cache<UUID, OpenTraceJob> fFailed;
+
+    /**
+     * Constructor
+     */
+    public OpenTraceRegistry() {
+        this(FAILED_RETENTION);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param failedRetention
+     *            Time in milliseconds during which the status of a failed
+     *            opening is kept
+     */
+    public OpenTraceRegistry(long failedRetention) {
+        fFailed = CacheBuilder.newBuilder()
+                .expireAfterWrite(failedRetention, TimeUnit.MILLISECONDS)
+                .<UUID, OpenTraceJob> build();
+    }
+
+    /**
+     * Add the opening of a trace, if no trace with the same path is opened or
+     * being opened
+     *
+     * @param job
+     *            The job opening the trace
+     * @return The job opening the trace with the same path, or null if the job
+     *         was added
+     */
+    public @Nullable OpenTraceJob add(OpenTraceJob job) {
+        OpenTraceJob existing = fByPath.putIfAbsent(job.getPath(), job);
+        if (existing != null) {
+            return existing;
+        }
+        fById.put(job.getId(), job);
+        return null;
+    }
+
+    /**
+     * Get the opening of the trace with a path
+     *
+     * @param path
+     *            The path of the trace
+     * @return The job opening the trace, or null if there is none
+     */
+    public @Nullable OpenTraceJob getByPath(String path) {
+        return fByPath.get(path);
+    }
+
+    /**
+     * Get an opening by its identifier, or a failed opening whose status has
+     * not expired
+     *
+     * @param id
+     *            The identifier of the opening
+     * @return The job opening the trace, or null if there is none
+     */
+    public @Nullable OpenTraceJob getById(UUID id) {
+        OpenTraceJob job = fById.get(id);
+        return job != null ? job : fFailed.getIfPresent(id);
+    }
+
+    /**
+     * Remove a failed opening, so that the trace can be opened again. Its
+     * status remains available by its identifier until it expires.
+     *
+     * @param job
+     *            The job which failed to open the trace
+     */
+    public void removeFailed(OpenTraceJob job) {
+        fFailed.put(job.getId(), job);
+        fByPath.remove(job.getPath(), job);
+        fById.remove(job.getId(), job);
+    }
+
+    /**
+     * Remove an opening, when its trace is deleted
+     *
+     * @param path
+     *            The path of the trace
+     */
+    public void remove(String path) {
+        OpenTraceJob job = fByPath.remove(path);
+        if (job != null) {
+            fById.remove(job.getId());
+        }
+    }
+}
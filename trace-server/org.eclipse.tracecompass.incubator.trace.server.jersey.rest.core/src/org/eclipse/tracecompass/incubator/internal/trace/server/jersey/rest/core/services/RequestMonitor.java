@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * Progress monitor of a request to a data provider. The request is cancelled
+ * when it is superseded by a newer request of the same client, when its
+ * deadline has passed or when the client has disconnected, so the data
+ * provider stops computing a response that will not be used.
+ */
+public final class RequestMonitor extends NullProgressMonitor {
+
+    private final long fDeadline;
+    private final boolean fHasDeadline;
+    private final BooleanSupplier fConnected;
+
+    /**
+     * Constructor
+     *
+     * @param timeout
+     *            The time in milliseconds after which the request is
+     *            cancelled, or a value lower than or equal to 0 for no
+     *            deadline
+     * @param connected
+     *            Supplier returning whether the client of the request is still
+     *            connected
+     */
+    public RequestMonitor(long timeout, BooleanSupplier connected) {
+        fHasDeadline = timeout > 0;
+        fDeadline = fHasDeadline ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+        fConnected = connected;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        if (super.isCanceled()) {
+            return true;
+        }
+        if ((fHasDeadline && System.nanoTime() - fDeadline > 0) || !fConnected.getAsBoolean()) {
+            setCanceled(true);
+            return true;
+        }
+        return false;
+    }
+}
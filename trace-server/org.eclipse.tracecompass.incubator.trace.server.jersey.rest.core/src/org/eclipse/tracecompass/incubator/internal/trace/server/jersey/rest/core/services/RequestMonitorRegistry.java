@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the running requests to the data providers, by key. Registering
+ * a request cancels the running request with the same key, so that a client
+ * sending requests faster than they are computed, for example while zooming,
+ * only keeps its latest request running.
+ */
+public final class RequestMonitorRegistry {
+
+    private final Map<Object, RequestMonitor> fMonitors = new ConcurrentHashMap<>();
+
+    /**
+     * Register a running request, cancelling the previous request with the
+     * same key
+     *
+     * @param key
+     *            The key of the request, it should identify the trace, the
+     *            output, the type of request and the client
+     * @param monitor
+     *            The monitor of the request
+     */
+    public void register(Object key, RequestMonitor monitor) {
+        RequestMonitor previous = fMonitors.put(key, monitor);
+        if (previous != null && previous != monitor) {
+            previous.setCanceled(true);
+        }
+    }
+
+    /**
+     * Unregister a request once it is done. Nothing is done if a newer
+     * request with the same key was registered since.
+     *
+     * @param key
+     *            The key of the request
+     * @param monitor
+     *            The monitor of the request
+     */
+    public void unregister(Object key, RequestMonitor monitor) {
+        fMonitors.remove(key, monitor);
+    }
+
+    /**
+     * Get the number of running requests
+     *
+     * @return The number of requests registered
+     */
+    public int size() {
+        return fMonitors.size();
+    }
+}
@@ -0,0 +1,349 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.core.MediaType;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ISeriesModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ITmfXyModel;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Cache of the completed responses of the data providers, shared by the
+ * clients querying the same trace with the same parameters. The cache is
+ * bounded by an estimate of the memory used by the responses.
+ *
+ * Only the responses with a {@link ITmfResponse.Status#COMPLETED} status are
+ * cached, as the responses of an analysis in progress change as it
+ * progresses. Some data providers return completed responses while their
+ * trace is still being indexed, so the key of a response also has the
+ * progress of its trace when it was requested: the responses computed before
+ * the trace progressed are not returned anymore, and are evicted in time. The
+ * responses of a trace are invalidated when it is deleted.
+ *
+ * Each representation of a cached response has an entity tag, so that a
+ * client which already has it does not receive it again.
+ */
+public final class ResponseCache {
+
+    /** Weight of a response, without its model */
+    private static final long RESPONSE_WEIGHT = 256;
+    /** Weight of an XY point, a long and a double */
+    private static final long POINT_WEIGHT = Long.BYTES + Double.BYTES;
+    /** Weight of a time graph state, its times, value and object header */
+    private static final long STATE_WEIGHT = 48;
+    /** Weight of an element of the other models, such as tree entries */
+    private static final long ELEMENT_WEIGHT = 128;
+
+    /** Unique prefix of the entity tags of this server instance */
+    private static final String ETAG_PREFIX = Long.toHexString(System.currentTimeMillis());
+
+    private final Cache<Key, CachedResponse> fCache;
+    private final AtomicLong fVersion = new AtomicLong();
+
+    /**
+     * A cached response and its entity tag
+     */
+    public static final class CachedResponse {
+        private final TmfModelResponse<?> fResponse;
+        private final String fEntityTag;
+
+        private CachedResponse(TmfModelResponse<?> response, String entityTag) {
+            fResponse = response;
+            fEntityTag = entityTag;
+        }
+
+        /**
+         * Get the response
+         *
+         * @return The response
+         */
+        public TmfModelResponse<?> getResponse() {
+            return fResponse;
+        }
+
+        /**
+         * Get the entity tag of a representation of the response, without
+         * quotes. The representations in different media types have
+         * different tags, so that a client cannot revalidate one with the tag
+         * of another.
+         *
+         * @param mediaType
+         *            The media type of the representation
+         * @return The entity tag
+         */
+        public String getEntityTag(MediaType mediaType) {
+            return fEntityTag + '-' + mediaType.getType() + '.' + mediaType.getSubtype();
+        }
+    }
+
+    private static final class Key {
+        private final UUID fUuid;
+        private final String fOutputId;
+        private final String fType;
+        private final String fProgress;
+        private final String fFingerprint;
+
+        public Key(UUID uuid, String outputId, String type, String progress, String fingerprint) {
+            fUuid = uuid;
+            fOutputId = outputId;
+            fType = type;
+            fProgress = progress;
+            fFingerprint = fingerprint;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fUuid, fOutputId, fType, fProgress, fFingerprint);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return fUuid.equals(other.fUuid) && fOutputId.equals(other.fOutputId)
+                    && fType.equals(other.fType) && fProgress.equals(other.fProgress)
+                    && fFingerprint.equals(other.fFingerprint);
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxWeight
+     *            The maximum estimated size in bytes of the cached responses
+     */
+    public ResponseCache(long maxWeight) {
+        fCache = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .<Key, CachedResponse> weigher((key, value) -> (int) Math.min(Integer.MAX_VALUE, key.fFingerprint.length() + weigh(value.getResponse())))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get a cached response
+     *
+     * @param uuid
+     *            The UUID of the trace
+     * @param outputId
+     *            The ID of the output
+     * @param type
+     *            The type of request
+     * @param progress
+     *            The progress of the trace, such as its number of events and
+     *            whether it is still being indexed
+     * @param parameters
+     *            The parameters of the request
+     * @param ignoredKeys
+     *            The keys of the parameters which do not change the response
+     * @return The cached response, or null if there is none
+     */
+    public @Nullable CachedResponse get(UUID uuid, String outputId, String type, String progress, Map<String, Object> parameters, Set<String> ignoredKeys) {
+        return fCache.getIfPresent(new Key(uuid, outputId, type, progress, fingerprint(parameters, ignoredKeys)));
+    }
+
+    /**
+     * Cache a response, if it is completed
+     *
+     * @param uuid
+     *            The UUID of the trace
+     * @param outputId
+     *            The ID of the output
+     * @param type
+     *            The type of request
+     * @param progress
+     *            The progress of the trace, such as its number of events and
+     *            whether it is still being indexed
+     * @param parameters
+     *            The parameters of the request
+     * @param ignoredKeys
+     *            The keys of the parameters which do not change the response
+     * @param response
+     *            The response to cache
+     * @return The cached response, or null if the response is not cached
+     */
+    public @Nullable CachedResponse put(UUID uuid, String outputId, String type, String progress, Map<String, Object> parameters, Set<String> ignoredKeys, TmfModelResponse<?> response) {
+        if (response.getStatus() != ITmfResponse.Status.COMPLETED) {
+            return null;
+        }
+        CachedResponse cached = new CachedResponse(response, ETAG_PREFIX + '-' + Long.toHexString(fVersion.incrementAndGet()));
+        fCache.put(new Key(uuid, outputId, type, progress, fingerprint(parameters, ignoredKeys)), cached);
+        return cached;
+    }
+
+    /**
+     * Invalidate the cached responses of a trace or experiment
+     *
+     * @param uuid
+     *            The UUID of the trace or experiment
+     */
+    public void invalidate(UUID uuid) {
+        fCache.asMap().keySet().removeIf(key -> key.fUuid.equals(uuid));
+    }
+
+    /**
+     * Get the statistics of the cache, such as its hit rate
+     *
+     * @return The statistics
+     */
+    public CacheStats getStats() {
+        return fCache.stats();
+    }
+
+    /**
+     * Get the number of cached responses
+     *
+     * @return The number of cached responses
+     */
+    public long size() {
+        return fCache.size();
+    }
+
+    /**
+     * Get whether an If-None-Match header matches an entity tag
+     *
+     * @param ifNoneMatch
+     *            The value of the header, a list of entity tags
+     * @param entityTag
+     *            The entity tag, without quotes
+     * @return true if one of the tags of the header matches
+     */
+    public static boolean matches(@Nullable String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) { //$NON-NLS-1$
+            String value = tag.trim();
+            if (value.startsWith("W/")) { //$NON-NLS-1$
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals('"' + entityTag + '"')) { //$NON-NLS-1$
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get a normalized representation of the parameters of a request, where
+     * the keys of the maps are sorted and the integral numbers are written
+     * the same way whatever their type, as long as they fit in a long
+     *
+     * @param parameters
+     *            The parameters of the request
+     * @param ignoredKeys
+     *            The keys of the parameters to ignore
+     * @return The fingerprint of the parameters
+     */
+    public static String fingerprint(Map<String, Object> parameters, Set<String> ignoredKeys) {
+        Map<String, Object> filtered = new TreeMap<>();
+        for (Entry<String, Object> entry : parameters.entrySet()) {
+            if (!ignoredKeys.contains(entry.getKey())) {
+                filtered.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return String.valueOf(normalize(filtered));
+    }
+
+    private static @Nullable Object normalize(@Nullable Object value) {
+        if (value instanceof Map) {
+            Map<String, @Nullable Object> sorted = new TreeMap<>();
+            for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), normalize(entry.getValue()));
+            }
+            return sorted;
+        }
+        if (value instanceof Collection) {
+            List<@Nullable Object> list = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                list.add(normalize(element));
+            }
+            return list;
+        }
+        if (value instanceof Number) {
+            Long longValue = toLong((Number) value);
+            return longValue != null ? longValue : value.toString();
+        }
+        return value;
+    }
+
+    /**
+     * Get the value of an integral number within the range of a long, or null
+     * if the number has a fraction or is out of range
+     */
+    private static @Nullable Long toLong(Number number) {
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            return number.longValue();
+        }
+        if (number instanceof BigInteger) {
+            return ((BigInteger) number).bitLength() < Long.SIZE ? number.longValue() : null;
+        }
+        if (number instanceof BigDecimal) {
+            try {
+                return ((BigDecimal) number).longValueExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        double doubleValue = number.doubleValue();
+        if (doubleValue == Math.rint(doubleValue) && doubleValue >= Long.MIN_VALUE && doubleValue < -(double) Long.MIN_VALUE) {
+            return (long) doubleValue;
+        }
+        return null;
+    }
+
+    private static long weigh(TmfModelResponse<?> response) {
+        Object model = response.getModel();
+        long weight = RESPONSE_WEIGHT;
+        if (model instanceof ITmfXyModel) {
+            for (ISeriesModel series : ((ITmfXyModel) model).getData().values()) {
+                weight += POINT_WEIGHT * series.getXAxis().length;
+            }
+        } else if (model instanceof TimeGraphModel) {
+            for (ITimeGraphRowModel row : ((TimeGraphModel) model).getRows()) {
+                weight += STATE_WEIGHT * row.getStates().size();
+            }
+        } else if (model instanceof Collection) {
+            weight += ELEMENT_WEIGHT * ((Collection<?>) model).size();
+        } else if (model instanceof Map) {
+            weight += ELEMENT_WEIGHT * ((Map<?, ?>) model).size();
+        } else {
+            weight += ELEMENT_WEIGHT;
+        }
+        return weight;
+    }
+}
@@ -23,9 +23,12 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -36,13 +39,13 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.QueryParameters;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.OpenTraceJob.OpenState;
 import org.eclipse.tracecompass.tmf.core.TmfCommonConstants;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
-import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.io.ResourceUtil;
 import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceImportException;
 import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceType;
@@ -54,7 +57,6 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
 
-import com.google.common.base.Optional;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.Iterables;
@@ -67,6 +69,18 @@ import com.google.common.collect.Iterables;
 @Path("/traces")
 public class TraceManagerService {
 
+    /**
+     * Time in milliseconds that a request opening a trace waits for it to be
+     * opened, before responding with the status of the opening
+     */
+    private static final long OPEN_WAIT = 1000;
+
+    /** The traces and experiments opened or being opened by the server */
+    static final OpenTraceRegistry OPENED_TRACES = new OpenTraceRegistry();
+
+    @Context
+    private @Nullable UriInfo uriInfo;
+
     /**
      * Getter method to access the list of traces
      *
@@ -81,12 +95,15 @@ public class TraceManagerService {
 
     /**
      * Method to open the trace, initialize it, index it and add it to the trace
-     * manager.
+     * manager. The trace is opened in the background, if it is not opened
+     * after a short time, the request is accepted and responds with the status
+     * of the opening, which can be followed with {@link #getStatus(UUID)}.
      *
      * @param queryParameters
      *            Parameters to post a trace as described by
      *            {@link QueryParameters}
-     * @return the new trace model object or the exception if it failed to load.
+     * @return the new trace model object, the status of its opening or the
+     *         exception if it failed to load.
      */
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
@@ -97,27 +114,32 @@ public class TraceManagerService {
         String path = (String) parameters.get("uri");
         Object typeIDObject = parameters.get("typeID");
         String typeID = typeIDObject != null ? (String) typeIDObject : "";
-        Optional<@NonNull ITmfTrace> optional = Iterables.tryFind(TmfTraceManager.getInstance().getOpenedTraces(), t -> t.getPath().equals(path));
-        if (optional.isPresent()) {
-            return Response.status(Status.CONFLICT).entity(optional.get()).build();
+        OpenTraceJob existing = OPENED_TRACES.getByPath(path);
+        if (existing != null) {
+            return conflict(existing);
         }
         if (!Paths.get(path).toFile().exists()) {
             return Response.status(Status.NOT_FOUND).entity("No trace at " + path).build(); //$NON-NLS-1$
         }
         try {
-            ITmfTrace trace = put(path, name, typeID);
-            if (trace == null) {
+            OpenTraceJob job = put(path, name, typeID);
+            if (job == null) {
                 return Response.status(Status.NOT_IMPLEMENTED).entity("Trace type not supported").build(); //$NON-NLS-1$
             }
-            return Response.ok(trace).build();
-        } catch (TmfTraceException | TmfTraceImportException | InstantiationException
+            existing = OPENED_TRACES.add(job);
+            if (existing != null) {
+                return conflict(existing);
+            }
+            job.schedule();
+            return waitForOpening(job, uriInfo, TraceManagerService.class);
+        } catch (TmfTraceImportException | InstantiationException
                 | IllegalAccessException | CoreException e) {
             return Response.status(Status.NOT_ACCEPTABLE).entity(e.getMessage()).build();
         }
     }
 
-    private ITmfTrace put(String path, String name, String typeID)
-            throws TmfTraceException, TmfTraceImportException, InstantiationException,
+    private @Nullable OpenTraceJob put(String path, String name, String typeID)
+            throws TmfTraceImportException, InstantiationException,
             IllegalAccessException, CoreException {
         List<TraceTypeHelper> traceTypes = TmfTraceType.selectTraceType(path, typeID);
         if (traceTypes.isEmpty()) {
@@ -128,10 +150,55 @@ public class TraceManagerService {
 
         TraceTypeHelper helper = traceTypes.get(0);
         ITmfTrace trace = helper.getTraceClass().newInstance();
-        trace.initTrace(resource, path, ITmfEvent.class, name, typeID);
-        trace.indexTrace(false);
-        TmfSignalManager.dispatchSignal(new TmfTraceOpenedSignal(this, trace, null));
-        return trace;
+        return new OpenTraceJob(name, path, () -> {
+            trace.initTrace(resource, path, ITmfEvent.class, name, typeID);
+            trace.indexTrace(false);
+            TmfSignalManager.dispatchSignal(new TmfTraceOpenedSignal(this, trace, null));
+            return trace;
+        }, OPENED_TRACES);
+    }
+
+    /**
+     * Wait a short time for a trace or experiment to be opened, then respond
+     * with it, with the error if it could not be opened, or with the status of
+     * its opening if it is still being opened. The location of an accepted
+     * response is the status resource of the opening.
+     *
+     * @param job
+     *            The job opening the trace or experiment
+     * @param uriInfo
+     *            The URI information of the request, or null if it is not
+     *            known, in which case the location is not set
+     * @param service
+     *            The service of the trace or experiment, which has the status
+     *            resource
+     * @return The response to the request opening the trace
+     */
+    static Response waitForOpening(OpenTraceJob job, @Nullable UriInfo uriInfo, Class<?> service) {
+        try {
+            job.join(OPEN_WAIT, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (OperationCanceledException e) {
+            // Respond with the status
+        }
+        ITmfTrace trace = job.getTrace();
+        if (trace != null) {
+            return Response.ok(trace).build();
+        }
+        if (job.getState() == OpenState.FAILED) {
+            return Response.status(Status.NOT_ACCEPTABLE).entity(job.getError()).build();
+        }
+        ResponseBuilder builder = Response.accepted(job.getOpenStatus());
+        if (uriInfo != null) {
+            builder.location(uriInfo.getBaseUriBuilder().path(service).path(service, "getStatus").build(job.getId())); //$NON-NLS-1$
+        }
+        return builder.build();
+    }
+
+    private static Response conflict(OpenTraceJob existing) {
+        ITmfTrace trace = existing.getTrace();
+        return Response.status(Status.CONFLICT).entity(trace != null ? trace : existing.getOpenStatus()).build();
     }
 
     /**
@@ -196,6 +263,43 @@ public class TraceManagerService {
         return Response.ok(trace).build();
     }
 
+    /**
+     * Get the status of the opening of a trace or an experiment, then of its
+     * indexing and of the analyses scheduled on it
+     *
+     * @param uuid
+     *            Identifier of the opening, as returned when the trace is
+     *            being opened, or UUID of the opened trace
+     * @return a response containing the status, or not found if the trace is
+     *         not known
+     */
+    @GET
+    @Path("/{uuid}/status")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response getStatus(@PathParam("uuid") @NotNull UUID uuid) {
+        OpenTraceJob job = getOpening(uuid);
+        if (job == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+        return Response.ok(job.getOpenStatus()).build();
+    }
+
+    /**
+     * Get the opening of a trace or an experiment
+     *
+     * @param uuid
+     *            Identifier of the opening or UUID of the opened trace
+     * @return the job opening the trace, or null if there is none
+     */
+    static @Nullable OpenTraceJob getOpening(UUID uuid) {
+        OpenTraceJob job = OPENED_TRACES.getById(uuid);
+        if (job != null) {
+            return job;
+        }
+        ITmfTrace trace = getTraceByUUID(uuid);
+        return trace != null ? OPENED_TRACES.getByPath(trace.getPath()) : null;
+    }
+
     /**
      * Delete a trace from the manager and dispose of it
      *
@@ -212,6 +316,14 @@ public class TraceManagerService {
             return Response.status(Status.NOT_FOUND).build();
         }
         TmfSignalManager.dispatchSignal(new TmfTraceClosedSignal(this, trace));
+        OPENED_TRACES.remove(trace.getPath());
+        DataProviderService.invalidate(uuid);
+        for (ITmfTrace opened : TmfTraceManager.getInstance().getOpenedTraces()) {
+            UUID experimentUuid = opened.getUUID();
+            if (opened instanceof TmfExperiment && experimentUuid != null && ((TmfExperiment) opened).getTraces().contains(trace)) {
+                DataProviderService.invalidate(experimentUuid);
+            }
+        }
         TmfTraceManager.deleteSupplementaryFolder(trace);
         trace.dispose();
         try {
@@ -0,0 +1,263 @@
+/**********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphState;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ISeriesModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ITmfXyModel;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse.Status;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+
+/**
+ * Encoder of the data provider responses in a compact binary format, where
+ * the numbers are written in little-endian order and the arrays of the models
+ * are copied in bulk, without boxing their values. The format of a response
+ * is:
+ *
+ * <pre>
+ * int     magic number {@link #MAGIC}
+ * byte    version {@link #VERSION}
+ * byte    model type: {@link #NO_MODEL}, {@link #XY_MODEL} or {@link #TIME_GRAPH_MODEL}
+ * byte    status: {@link #STATUS_RUNNING}, {@link #STATUS_COMPLETED},
+ *         {@link #STATUS_FAILED} or {@link #STATUS_CANCELLED}
+ * string  status message
+ * XY model:         string title, int number of series, then for each series:
+ *                   long id, string name, int n, long[n] x values, double[n] y values
+ * Time graph model: int number of rows, then for each row:
+ *                   long entry id, int number of states, then for each state:
+ *                   long start time, long duration, int value, string label
+ * </pre>
+ *
+ * where a string is an int number of UTF-8 bytes, -1 for a null string,
+ * followed by the bytes.
+ *
+ * This class is not thread-safe.
+ */
+public final class BinaryModelEncoder {
+
+    /** Magic number at the start of a response, "TSPB" */
+    public static final int MAGIC = 0x42505354;
+    /** Version of the format */
+    public static final byte VERSION = 1;
+    /** Model type of a response without a model */
+    public static final byte NO_MODEL = 0;
+    /** Model type of an XY model */
+    public static final byte XY_MODEL = 1;
+    /** Model type of a time graph model */
+    public static final byte TIME_GRAPH_MODEL = 2;
+    /** Status of a response which is still running */
+    public static final byte STATUS_RUNNING = 0;
+    /** Status of a completed response */
+    public static final byte STATUS_COMPLETED = 1;
+    /** Status of a failed response */
+    public static final byte STATUS_FAILED = 2;
+    /** Status of a cancelled response */
+    public static final byte STATUS_CANCELLED = 3;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream fOutput;
+    private final ByteBuffer fBuffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Constructor
+     *
+     * @param output
+     *            The stream to write to. It is not closed by the encoder.
+     */
+    public BinaryModelEncoder(OutputStream output) {
+        fOutput = output;
+    }
+
+    /**
+     * Write a data provider response
+     *
+     * @param response
+     *            The response to write
+     * @throws IOException
+     *             If the stream cannot be written
+     */
+    public void writeResponse(TmfModelResponse<?> response) throws IOException {
+        Object model = response.getModel();
+        ensure(Integer.BYTES + 3);
+        fBuffer.putInt(MAGIC);
+        fBuffer.put(VERSION);
+        if (model instanceof ITmfXyModel) {
+            fBuffer.put(XY_MODEL);
+        } else if (model instanceof TimeGraphModel) {
+            fBuffer.put(TIME_GRAPH_MODEL);
+        } else {
+            fBuffer.put(NO_MODEL);
+        }
+        fBuffer.put(toStatusCode(response.getStatus()));
+        writeString(response.getStatusMessage());
+        if (model instanceof ITmfXyModel) {
+            writeXyModel((ITmfXyModel) model);
+        } else if (model instanceof TimeGraphModel) {
+            writeTimeGraphModel((TimeGraphModel) model);
+        }
+    }
+
+    /**
+     * Get the code of a response status in the format, which does not depend
+     * on the order of the constants of the status
+     *
+     * @param status
+     *            The status of a response
+     * @return The code of the status
+     */
+    public static byte toStatusCode(Status status) {
+        switch (status) {
+        case RUNNING:
+            return STATUS_RUNNING;
+        case COMPLETED:
+            return STATUS_COMPLETED;
+        case FAILED:
+            return STATUS_FAILED;
+        case CANCELLED:
+            return STATUS_CANCELLED;
+        default:
+            throw new IllegalArgumentException("Unknown status: " + status); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Write an XY model
+     *
+     * @param model
+     *            The model to write
+     * @throws IOException
+     *             If the stream cannot be written
+     */
+    public void writeXyModel(ITmfXyModel model) throws IOException {
+        writeString(model.getTitle());
+        ensure(Integer.BYTES);
+        fBuffer.putInt(model.getData().size());
+        for (ISeriesModel series : model.getData().values()) {
+            writeSeries(series.getId(), series.getName(), series.getXAxis(), series.getData());
+        }
+    }
+
+    /**
+     * Write the values of a series
+     *
+     * @param id
+     *            The ID of the series
+     * @param name
+     *            The name of the series
+     * @param xValues
+     *            The x values
+     * @param yValues
+     *            The y values, there should be as many as x values
+     * @throws IOException
+     *             If the stream cannot be written
+     */
+    public void writeSeries(long id, @Nullable String name, long[] xValues, double[] yValues) throws IOException {
+        ensure(Long.BYTES);
+        fBuffer.putLong(id);
+        writeString(name);
+        int length = Math.min(xValues.length, yValues.length);
+        ensure(Integer.BYTES);
+        fBuffer.putInt(length);
+        int written = 0;
+        while (written < length) {
+            ensure(Long.BYTES);
+            int count = Math.min(length - written, fBuffer.remaining() / Long.BYTES);
+            fBuffer.asLongBuffer().put(xValues, written, count);
+            fBuffer.position(fBuffer.position() + count * Long.BYTES);
+            written += count;
+        }
+        written = 0;
+        while (written < length) {
+            ensure(Double.BYTES);
+            int count = Math.min(length - written, fBuffer.remaining() / Double.BYTES);
+            fBuffer.asDoubleBuffer().put(yValues, written, count);
+            fBuffer.position(fBuffer.position() + count * Double.BYTES);
+            written += count;
+        }
+    }
+
+    /**
+     * Write a time graph model
+     *
+     * @param model
+     *            The model to write
+     * @throws IOException
+     *             If the stream cannot be written
+     */
+    public void writeTimeGraphModel(TimeGraphModel model) throws IOException {
+        List<ITimeGraphRowModel> rows = model.getRows();
+        ensure(Integer.BYTES);
+        fBuffer.putInt(rows.size());
+        for (ITimeGraphRowModel row : rows) {
+            List<ITimeGraphState> states = row.getStates();
+            ensure(Long.BYTES + Integer.BYTES);
+            fBuffer.putLong(row.getEntryID());
+            fBuffer.putInt(states.size());
+            for (ITimeGraphState state : states) {
+                ensure(2 * Long.BYTES + Integer.BYTES);
+                fBuffer.putLong(state.getStartTime());
+                fBuffer.putLong(state.getDuration());
+                fBuffer.putInt(state.getValue());
+                writeString(state.getLabel());
+            }
+        }
+    }
+
+    private void writeString(@Nullable String string) throws IOException {
+        ensure(Integer.BYTES);
+        if (string == null) {
+            fBuffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        fBuffer.putInt(bytes.length);
+        if (bytes.length > fBuffer.remaining()) {
+            flush();
+            if (bytes.length > fBuffer.remaining()) {
+                fOutput.write(bytes);
+                return;
+            }
+        }
+        fBuffer.put(bytes);
+    }
+
+    /**
+     * Make sure the buffer has room for a number of bytes
+     */
+    private void ensure(int bytes) throws IOException {
+        if (fBuffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Write the buffered bytes to the stream
+     *
+     * @throws IOException
+     *             If the stream cannot be written
+     */
+    public void flush() throws IOException {
+        if (fBuffer.position() > 0) {
+            fOutput.write(fBuffer.array(), 0, fBuffer.position());
+            fBuffer.clear();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+
+/**
+ * Writer of the data provider responses for the clients accepting the
+ * {@link #MEDIA_TYPE} media type, in the format of the
+ * {@link BinaryModelEncoder}
+ */
+@Provider
+@Produces(BinaryModelWriter.MEDIA_TYPE)
+public class BinaryModelWriter implements MessageBodyWriter<TmfModelResponse<?>> {
+
+    /**
+     * Media type of the binary responses. It is specific to the format, so
+     * that it is not confused with other binary contents.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.eclipse.tracecompass.model+binary"; //$NON-NLS-1$
+
+    private static final MediaType BINARY_TYPE = MediaType.valueOf(MEDIA_TYPE);
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return TmfModelResponse.class.isAssignableFrom(type) && BINARY_TYPE.isCompatible(mediaType);
+    }
+
+    @Override
+    public long getSize(TmfModelResponse<?> response, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        // The size is not known in advance
+        return -1;
+    }
+
+    @Override
+    public void writeTo(TmfModelResponse<?> response, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        BinaryModelEncoder encoder = new BinaryModelEncoder(entityStream);
+        encoder.writeResponse(response);
+        encoder.flush();
+    }
+
+}
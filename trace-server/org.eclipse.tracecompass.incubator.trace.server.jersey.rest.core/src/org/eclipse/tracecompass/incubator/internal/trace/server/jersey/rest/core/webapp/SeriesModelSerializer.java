@@ -42,8 +42,17 @@ public class SeriesModelSerializer extends StdSerializer<@NonNull ISeriesModel>
         gen.writeStartObject();
         gen.writeNumberField("id", value.getId()); //$NON-NLS-1$
         gen.writeStringField("name", value.getName()); //$NON-NLS-1$
-        gen.writeObjectField("xValues", value.getXAxis()); //$NON-NLS-1$
-        gen.writeObjectField("yValues", value.getData()); //$NON-NLS-1$
+        // Write the values directly, without looking up the array serializers
+        gen.writeArrayFieldStart("xValues"); //$NON-NLS-1$
+        for (long x : value.getXAxis()) {
+            gen.writeNumber(x);
+        }
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("yValues"); //$NON-NLS-1$
+        for (double y : value.getData()) {
+            gen.writeNumber(y);
+        }
+        gen.writeEndArray();
         gen.writeEndObject();
     }
 
@@ -11,8 +11,12 @@ package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.cor
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.CacheService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.DataProviderService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ExperimentManagerService;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.FilterService;
@@ -48,6 +52,15 @@ public class WebApplication {
      */
     public static final int TEST_PORT = 8378;
 
+    /** Maximum number of Jetty threads serving the requests */
+    private static final int MAX_THREADS = Integer.getInteger("traceserver.jetty.maxThreads", 200); //$NON-NLS-1$
+    /** Minimum number of idle Jetty threads */
+    private static final int MIN_THREADS = Integer.getInteger("traceserver.jetty.minThreads", 8); //$NON-NLS-1$
+    /** Maximum number of requests waiting for a Jetty thread */
+    private static final int MAX_QUEUED = Integer.getInteger("traceserver.jetty.queue", 1000); //$NON-NLS-1$
+    /** Time in milliseconds after which an idle Jetty thread is stopped */
+    private static final int IDLE_TIMEOUT = 60000;
+
     private int fPort;
 
     private Server fServer;
@@ -86,14 +99,22 @@ public class WebApplication {
         rc.register(DataProviderService.class);
         rc.register(FilterService.class);
         rc.register(XmlManagerService.class);
+        rc.register(CacheService.class);
         rc.register(CORSFilter.class);
+        rc.register(BinaryModelWriter.class);
         rc.register(registerCustomMappers());
 
         ServletContainer sc = new ServletContainer(rc);
         ServletHolder holder = new ServletHolder(sc);
         sch.addServlet(holder, PATH_SPEC);
 
-        fServer = new Server(fPort);
+        // Bound the threads and the queue of the requests waiting for one
+        QueuedThreadPool threadPool = new QueuedThreadPool(MAX_THREADS, MIN_THREADS, IDLE_TIMEOUT, new BlockingArrayQueue<>(MAX_QUEUED));
+        threadPool.setName("Trace Server"); //$NON-NLS-1$
+        fServer = new Server(threadPool);
+        ServerConnector connector = new ServerConnector(fServer);
+        connector.setPort(fPort);
+        fServer.addConnector(connector);
         fServer.setHandler(sch);
 
         // create and open a default eclipse project.
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.ftrace.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceField;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceLineParser;
+import org.junit.Test;
+
+/**
+ * Benchmarks the parsing of ftrace text lines with the pattern and with the
+ * {@link GenericFtraceLineParser}, on a capture made mostly of sched_switch
+ * events
+ */
+public class FtraceLineParserBenchmark {
+
+    /**
+     * Test ID for the ftrace benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#Ftrace#";
+    private static final String TEST_PATTERN = "Parse lines with pattern";
+    private static final String TEST_SCANNER = "Parse lines with scanner";
+
+    private static final int LINE_COUNT = 500000;
+    private static final int LOOP_COUNT = 10;
+
+    private static List<String> createLines() {
+        List<String> lines = new ArrayList<>(LINE_COUNT);
+        for (int i = 0; i < LINE_COUNT; i++) {
+            int cpu = i % 8;
+            String timestamp = String.format("%d.%06d", 1000 + i / 1000, (i * 37) % 1000000);
+            switch (i % 10) {
+            case 0:
+                lines.add(String.format("kworker/u16:%d-%d  [%03d] d..4  %s: sched_wakeup: comm=daemonsu pid=%d prio=120 success=1 target_cpu=%03d",
+                        cpu, 200 + cpu, cpu, timestamp, 1000 + i % 300, cpu));
+                break;
+            case 1:
+                lines.add(String.format("test/1-1316  [%03d] .......   %s: sys_recvmsg(fd: 3, msg: 7ffe3bd38070, flags: 0)", cpu, timestamp));
+                break;
+            default:
+                lines.add(String.format("<idle>-0     (-----) [%03d] d..2  %s: sched_switch: prev_comm=swapper/%d prev_pid=0 prev_prio=120 prev_state=R ==> next_comm=kworker/u16:%d next_pid=%d next_prio=120",
+                        cpu, timestamp, cpu, i % 16, 100 + i % 500));
+                break;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Run the benchmark
+     */
+    @Test
+    public void runBenchmark() {
+        List<String> lines = createLines();
+        benchmark(lines, TEST_PATTERN, GenericFtraceField::parseLineWithPattern);
+        benchmark(lines, TEST_SCANNER, GenericFtraceLineParser::parseLine);
+    }
+
+    private static void benchmark(List<String> lines, String testName, Function<String, @Nullable GenericFtraceField> parser) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + testName));
+        perf.tagAsSummary(pm, testName, Dimension.CPU_TIME);
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            int count = 0;
+            pm.start();
+            for (String line : lines) {
+                if (parser.apply(line) != null) {
+                    count++;
+                }
+            }
+            pm.stop();
+            assertEquals(lines.size(), count);
+        }
+        pm.commit();
+    }
+}
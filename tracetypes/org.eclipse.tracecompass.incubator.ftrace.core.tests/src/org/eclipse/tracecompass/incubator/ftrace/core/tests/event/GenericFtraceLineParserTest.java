@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.ftrace.core.tests.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.tracecompass.incubator.ftrace.core.tests.ActivatorTest;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceField;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceLineParser;
+import org.junit.Test;
+
+/**
+ * Test the {@link GenericFtraceLineParser} against the pattern based parser
+ */
+public class GenericFtraceLineParserTest {
+
+    private static final String TRACE_PATH = "res";
+
+    /**
+     * Test that every line of the test traces is parsed like with the pattern
+     *
+     * @throws IOException
+     *             should not happen
+     */
+    @Test
+    public void testSameAsPattern() throws IOException {
+        File[] traceFiles = ActivatorTest.getAbsoluteFilePath(TRACE_PATH).toFile().listFiles();
+        assertNotNull(traceFiles);
+        int events = 0;
+        for (File traceFile : traceFiles) {
+            for (String line : Files.readAllLines(traceFile.toPath(), StandardCharsets.ISO_8859_1)) {
+                GenericFtraceField expected = GenericFtraceField.parseLineWithPattern(line);
+                GenericFtraceField actual = GenericFtraceLineParser.parseLine(line);
+                assertEquals(line, GenericFtraceLineParser.isEvent(line), actual != null);
+                if (expected == null) {
+                    assertNull(line, actual);
+                    continue;
+                }
+                events++;
+                assertNotNull(line, actual);
+                assertEquals(line, expected.getName(), actual.getName());
+                assertEquals(line, expected.getCpu(), actual.getCpu());
+                assertEquals(line, expected.getPid(), actual.getPid());
+                assertEquals(line, expected.getTid(), actual.getTid());
+                /* The pattern rounds the timestamps through a double */
+                assertEquals(line, expected.getTs(), actual.getTs(), 1.0);
+                assertEquals(line, expected.getContent().getValue(), actual.getContent().getValue());
+            }
+        }
+        assertTrue(events > 0);
+    }
+
+    /**
+     * Test that timestamps are converted exactly
+     */
+    @Test
+    public void testTimestamp() {
+        GenericFtraceField field = GenericFtraceLineParser.parseLine("bash-1234  [002] d..2  1.000001: sched_wakeup: comm=ls pid=5 prio=120 target_cpu=002");
+        assertNotNull(field);
+        assertEquals(1000001000L, (long) field.getTs());
+
+        field = GenericFtraceLineParser.parseLine("bash-1234  [002] d..2  4.123456789: sched_wakeup: comm=ls pid=5 prio=120 target_cpu=002");
+        assertNotNull(field);
+        assertEquals(4123456789L, (long) field.getTs());
+
+        field = GenericFtraceLineParser.parseLine("bash-1234  [002]  17: sched_wakeup: comm=ls pid=5 prio=120 target_cpu=002");
+        assertNotNull(field);
+        assertEquals(17000000000L, (long) field.getTs());
+    }
+
+    /**
+     * Test the thread group id and the interned names
+     */
+    @Test
+    public void testTgid() {
+        GenericFtraceField field = GenericFtraceLineParser.parseLine("Binder:1234_2-1240  ( 1234) [001] ...1  10.5: sched_waking: comm=surfaceflinger pid=600 prio=98 target_cpu=000");
+        assertNotNull(field);
+        assertEquals("sched_waking", field.getName());
+        assertEquals((Integer) 1234, field.getPid());
+        assertEquals((Integer) 1240, field.getTid());
+        assertEquals((Integer) 1, field.getCpu());
+
+        GenericFtraceField other = GenericFtraceLineParser.parseLine("<idle>-0     (-----) [000] d..2  10.6: sched_waking: comm=ls pid=5 prio=120 target_cpu=000");
+        assertNotNull(other);
+        assertEquals((Integer) 0, other.getPid());
+        assertSame(field.getName(), other.getName());
+    }
+
+    /**
+     * Test lines that are not events
+     */
+    @Test
+    public void testNotEvents() {
+        assertFalse(GenericFtraceLineParser.isEvent(""));
+        assertFalse(GenericFtraceLineParser.isEvent("# tracer: nop"));
+        assertFalse(GenericFtraceLineParser.isEvent("#           TASK-PID   CPU#  ||||    TIMESTAMP  FUNCTION"));
+        assertFalse(GenericFtraceLineParser.isEvent("bash-1234 [002] 1.5: sched_switch:prev_comm=bash"));
+        assertFalse(GenericFtraceLineParser.isEvent("bash-1234 [002] 1.5: sys_read(fd: 3) count: 1"));
+        assertNull(GenericFtraceLineParser.parseLine("bash [002] 1.5: sched_switch: prev_comm=bash"));
+    }
+}
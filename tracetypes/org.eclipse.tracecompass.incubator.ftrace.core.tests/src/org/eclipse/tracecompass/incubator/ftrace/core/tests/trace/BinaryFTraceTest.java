@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.ftrace.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tracecompass.incubator.ftrace.core.tests.ActivatorTest;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceEvent;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceField;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.trace.BinaryFTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the native reader of binary trace-cmd traces, on a small trace with 2
+ * CPUs, events at the same timestamps, a padding event, an event of unknown
+ * type, a time extend and an absolute timestamp.
+ */
+public class BinaryFTraceTest {
+
+    private static final String TRACE_PATH = "res-bin/trace.dat";
+
+    private static final long[] TIMESTAMPS = { 1000, 1005, 1010, 1010, 1010, 1010, 1020, 1040, 1050, 134218773, 134218773, 4294967299L };
+    private static final int[] CPUS = { 0, 1, 0, 0, 1, 1, 0, 0, 1, 0, 0, 0 };
+    private static final String[] NAMES = { "sched_wakeup", "sched_wakeup", "sched_switch", "sched_wakeup", "sched_switch", "sched_wakeup",
+            "sys_openat", "sched_switch", "sched_switch", "sched_wakeup", "sched_switch", "sched_switch" };
+
+    private BinaryFTrace fTrace = new BinaryFTrace();
+
+    /**
+     * Open the trace
+     *
+     * @throws TmfTraceException
+     *             should not happen
+     */
+    @Before
+    public void before() throws TmfTraceException {
+        fTrace = new BinaryFTrace();
+        fTrace.initTrace(null, ActivatorTest.getAbsoluteFilePath(TRACE_PATH).toOSString(), ITmfEvent.class);
+    }
+
+    /**
+     * Dispose the trace
+     */
+    @After
+    public void after() {
+        fTrace.dispose();
+    }
+
+    /**
+     * Test that the trace is validated without trace-cmd
+     */
+    @Test
+    public void testValidate() {
+        IStatus status = fTrace.validate(null, ActivatorTest.getAbsoluteFilePath(TRACE_PATH).toOSString());
+        assertTrue(status.getMessage(), status.isOK());
+        status = fTrace.validate(null, ActivatorTest.getAbsoluteFilePath("res/trace-func-graph").toOSString());
+        assertEquals(IStatus.ERROR, status.getSeverity());
+    }
+
+    /**
+     * Test reading all the events, in order of timestamp then CPU
+     */
+    @Test
+    public void testRead() {
+        ITmfContext context = fTrace.seekEvent(0L);
+        for (int i = 0; i < TIMESTAMPS.length; i++) {
+            ITmfEvent event = fTrace.getNext(context);
+            assertNotNull("event " + i, event);
+            assertEquals("event " + i, TIMESTAMPS[i], event.getTimestamp().toNanos());
+            assertEquals("event " + i, NAMES[i], event.getName());
+            GenericFtraceField field = ((GenericFtraceEvent) event).getField();
+            assertEquals("event " + i, CPUS[i], field.getCpu().intValue());
+        }
+        assertNull(fTrace.getNext(context));
+    }
+
+    /**
+     * Test the fields of an event
+     */
+    @Test
+    public void testFields() {
+        ITmfContext context = fTrace.seekEvent(2L);
+        GenericFtraceEvent event = (GenericFtraceEvent) fTrace.getNext(context);
+        assertNotNull(event);
+        GenericFtraceField field = event.getField();
+        assertEquals(Integer.valueOf(10), field.getPid());
+        assertEquals(Integer.valueOf(10), field.getTid());
+        assertEquals("bash", event.getContent().getFieldValue(String.class, "prev_comm"));
+        assertEquals(Long.valueOf(1), event.getContent().getFieldValue(Long.class, "prev_state"));
+        assertEquals("ls", event.getContent().getFieldValue(String.class, "next_comm"));
+        assertEquals(Long.valueOf(42), event.getContent().getFieldValue(Long.class, "next_pid"));
+    }
+
+    /**
+     * Test that seeking the location of every event reads it again, even among
+     * events at the same timestamp
+     */
+    @Test
+    public void testSeekLocation() {
+        ITmfContext context = fTrace.seekEvent((ITmfLocation) null);
+        List<ITmfLocation> locations = new ArrayList<>();
+        List<ITmfEvent> events = new ArrayList<>();
+        ITmfLocation location = context.getLocation();
+        ITmfEvent event = fTrace.getNext(context);
+        while (event != null) {
+            locations.add(location);
+            events.add(event);
+            location = context.getLocation();
+            event = fTrace.getNext(context);
+        }
+        assertEquals(TIMESTAMPS.length, events.size());
+        for (int i = locations.size() - 1; i >= 0; i--) {
+            ITmfEvent seeked = fTrace.getNext(fTrace.seekEvent(locations.get(i)));
+            assertNotNull("event " + i, seeked);
+            assertEquals("event " + i, events.get(i).getTimestamp(), seeked.getTimestamp());
+            assertEquals("event " + i, events.get(i).getContent(), seeked.getContent());
+        }
+    }
+
+    /**
+     * Test seeking by ratio
+     */
+    @Test
+    public void testSeekRatio() {
+        ITmfEvent event = fTrace.getNext(fTrace.seekEvent(0.0));
+        assertNotNull(event);
+        assertEquals(TIMESTAMPS[0], event.getTimestamp().toNanos());
+        ITmfContext context = fTrace.seekEvent(0.5);
+        assertEquals(0.5, fTrace.getLocationRatio(context.getLocation()), 0.01);
+        event = fTrace.getNext(context);
+        assertNotNull(event);
+        assertEquals(TIMESTAMPS[TIMESTAMPS.length - 1], event.getTimestamp().toNanos());
+        assertNull(fTrace.getNext(fTrace.seekEvent(1.1)));
+    }
+}
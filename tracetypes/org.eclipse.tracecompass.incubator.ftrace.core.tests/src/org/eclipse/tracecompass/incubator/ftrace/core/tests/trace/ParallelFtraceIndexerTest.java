@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.ftrace.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.incubator.ftrace.core.tests.ActivatorTest;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.trace.FtraceTrace;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.trace.ParallelFtraceIndexer;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.junit.Test;
+
+/**
+ * Test that the {@link ParallelFtraceIndexer} finds the same checkpoints,
+ * number of events and time range as reading the trace sequentially
+ */
+public class ParallelFtraceIndexerTest {
+
+    private static final String TRACE_PATH = "res";
+    private static final int INTERVAL = 7;
+    /** Small chunks, so lines and comments are split between many chunks */
+    private static final long CHUNK_SIZE = 97;
+
+    /**
+     * Index all the text traces in many chunks and compare the index with the
+     * events read one after the other
+     *
+     * @throws TmfTraceException
+     *             should not happen
+     */
+    @Test
+    public void testSameAsSequential() throws TmfTraceException {
+        File[] traceFiles = ActivatorTest.getAbsoluteFilePath(TRACE_PATH).toFile().listFiles();
+        assertTrue(traceFiles.length > 0);
+        for (File traceFile : traceFiles) {
+            FtraceTrace trace = new FtraceTrace();
+            trace.initTrace(null, traceFile.getAbsolutePath(), ITmfEvent.class);
+            ParallelFtraceIndexer indexer = new ParallelFtraceIndexer(trace, INTERVAL);
+            try {
+                indexer.setChunkSize(CHUNK_SIZE);
+                indexer.setParallelism(4);
+                indexer.buildIndex(0, TmfTimeRange.ETERNITY, true);
+                assertFalse(indexer.isIndexing());
+                long nbEvents = trace.getNbEvents();
+                TmfTimeRange range = trace.getTimeRange();
+
+                String name = traceFile.getName();
+                ITmfContext context = trace.seekEvent(0L);
+                ITmfTimestamp start = null;
+                ITmfTimestamp end = null;
+                List<ITmfLocation> locations = new ArrayList<>();
+                long rank = 0;
+                while (true) {
+                    if (rank % INTERVAL == 0) {
+                        locations.add(context.getLocation());
+                    }
+                    ITmfEvent event = trace.getNext(context);
+                    if (event == null) {
+                        break;
+                    }
+                    ITmfTimestamp timestamp = event.getTimestamp();
+                    start = (start == null || timestamp.compareTo(start) < 0) ? timestamp : start;
+                    end = (end == null || timestamp.compareTo(end) > 0) ? timestamp : end;
+                    rank++;
+                }
+                assertTrue(name, rank > 0);
+                assertEquals(name, rank, nbEvents);
+                assertEquals(name, start, range.getStartTime());
+                assertEquals(name, end, range.getEndTime());
+                for (int i = 0; (long) i * INTERVAL < rank; i++) {
+                    ITmfContext checkpoint = indexer.seekIndex((long) i * INTERVAL);
+                    assertEquals(name + " checkpoint " + i, (long) i * INTERVAL, checkpoint.getRank());
+                    assertEquals(name + " checkpoint " + i, locations.get(i), checkpoint.getLocation());
+                }
+            } finally {
+                indexer.dispose();
+                trace.dispose();
+            }
+        }
+    }
+}
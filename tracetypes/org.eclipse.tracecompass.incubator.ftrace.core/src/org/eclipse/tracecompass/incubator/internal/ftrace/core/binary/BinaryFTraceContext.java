@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
+
+/**
+ * Context of a binary ftrace trace. The events of the CPUs are merged by
+ * timestamp, then by CPU, so the order of the events at a same timestamp is
+ * always the same and a location can count them.
+ */
+public class BinaryFTraceContext extends TmfContext {
+
+    private static final Comparator<BinaryFTraceCpuCursor> COMPARATOR = Comparator.comparingLong(BinaryFTraceCpuCursor::getTimestamp)
+            .thenComparingInt(BinaryFTraceCpuCursor::getCpu);
+
+    private final BinaryFTraceFile fFile;
+    private final PriorityQueue<BinaryFTraceCpuCursor> fQueue;
+    private long fTimestamp;
+    private long fIndex;
+
+    /**
+     * Constructor, seeks all the CPUs to a location
+     *
+     * @param file
+     *            the trace file
+     * @param location
+     *            the location, the events before it are skipped
+     * @param rank
+     *            the rank of the location, or {@link ITmfContext#UNKNOWN_RANK}
+     */
+    public BinaryFTraceContext(BinaryFTraceFile file, BinaryFTraceLocation location, long rank) {
+        super(location, rank);
+        fFile = file;
+        int cpus = file.getCpuCount();
+        fQueue = new PriorityQueue<>(Math.max(1, cpus), COMPARATOR);
+        BinaryFTraceLocationInfo info = location.getLocationInfo();
+        fTimestamp = info.getTimestamp();
+        fIndex = 0;
+        for (int cpu = 0; cpu < cpus; cpu++) {
+            BinaryFTraceCpuCursor cursor = new BinaryFTraceCpuCursor(file, cpu);
+            if (cursor.seek(fTimestamp)) {
+                fQueue.add(cursor);
+            }
+        }
+        /* Skip the events at the timestamp that were already read */
+        while (fIndex < info.getIndex()) {
+            BinaryFTraceCpuCursor cursor = fQueue.peek();
+            if (cursor == null || cursor.getTimestamp() != fTimestamp) {
+                break;
+            }
+            advance();
+        }
+        setLocation(new BinaryFTraceLocation(new BinaryFTraceLocationInfo(fTimestamp, fIndex)));
+    }
+
+    /**
+     * Get the cursor of the CPU holding the current event
+     *
+     * @return the cursor, or null at the end of the trace
+     */
+    public @Nullable BinaryFTraceCpuCursor getCurrent() {
+        return fQueue.peek();
+    }
+
+    /**
+     * Move to the next event, the current event becomes part of the events
+     * before the location.
+     *
+     * @return true if there is a next event
+     */
+    public boolean advance() {
+        BinaryFTraceCpuCursor cursor = fQueue.poll();
+        if (cursor == null) {
+            return false;
+        }
+        long timestamp = cursor.getTimestamp();
+        if (timestamp == fTimestamp) {
+            fIndex++;
+        } else {
+            fTimestamp = timestamp;
+            fIndex = 1;
+        }
+        if (cursor.advance()) {
+            fQueue.add(cursor);
+        }
+        return !fQueue.isEmpty();
+    }
+
+    /**
+     * Get the location after the events read so far
+     *
+     * @return the location
+     */
+    public BinaryFTraceLocation getCurrentLocation() {
+        return new BinaryFTraceLocation(new BinaryFTraceLocationInfo(fTimestamp, fIndex));
+    }
+
+    @Override
+    public BinaryFTraceContext clone() {
+        /* The cursors cannot be shared, seek a new context instead */
+        return new BinaryFTraceContext(fFile, getCurrentLocation(), getRank());
+    }
+}
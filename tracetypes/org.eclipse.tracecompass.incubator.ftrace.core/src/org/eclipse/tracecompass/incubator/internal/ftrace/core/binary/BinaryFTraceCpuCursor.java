@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Cursor on the ring buffer events of a CPU of a {@link BinaryFTraceFile}.
+ * Every event starts with a 32-bit header holding a 5-bit type/length and a
+ * 27-bit time delta from the previous event. The length is either the type
+ * (in 32-bit words), or in the next word when the type is 0. Types 29 to 31
+ * are padding, time extends and absolute timestamps, they are not returned.
+ */
+@NonNullByDefault
+public class BinaryFTraceCpuCursor {
+
+    private static final int TYPE_PADDING = 29;
+    private static final int TYPE_TIME_EXTEND = 30;
+    private static final int TYPE_TIME_STAMP = 31;
+    private static final int TS_SHIFT = 27;
+    private static final int TYPE_LEN_MASK = (1 << 5) - 1;
+    private static final int TIME_DELTA_MASK = (1 << TS_SHIFT) - 1;
+
+    private final BinaryFTraceFile fFile;
+    private final int fCpu;
+    private final long fPageCount;
+    private final boolean fLittleEndian;
+    private final int fDataOffset;
+
+    /* Current page */
+    private long fPage = -1;
+    private ByteBuffer fBuffer;
+    private int fDataEnd;
+    private int fNext;
+    private long fTime;
+
+    /* Current event */
+    private long fEventTime;
+    private int fEventStart;
+    private int fEventLength;
+
+    /**
+     * Constructor, the cursor is before the first event
+     *
+     * @param file
+     *            the trace file
+     * @param cpu
+     *            the CPU to read
+     */
+    public BinaryFTraceCpuCursor(BinaryFTraceFile file, int cpu) {
+        fFile = file;
+        fCpu = cpu;
+        fPageCount = file.getPageCount(cpu);
+        fLittleEndian = file.getByteOrder() == ByteOrder.LITTLE_ENDIAN;
+        fDataOffset = file.getDataOffset();
+        fBuffer = ByteBuffer.allocate(0);
+    }
+
+    /**
+     * Get the CPU of this cursor
+     *
+     * @return the CPU
+     */
+    public int getCpu() {
+        return fCpu;
+    }
+
+    /**
+     * Move the cursor to the first event at or after a timestamp. The pages
+     * are found by a binary search on their timestamps.
+     *
+     * @param timestamp
+     *            the timestamp
+     * @return true if there is such an event, then it is the current event
+     */
+    public boolean seek(long timestamp) {
+        /* Find the last page that starts strictly before the timestamp */
+        long low = 0;
+        long high = fPageCount - 1;
+        long page = 0;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            ByteBuffer buffer = fFile.getPageBuffer(fCpu, mid);
+            if (fFile.getPageTimestamp(buffer, fFile.getPageStart(mid)) < timestamp) {
+                page = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        loadPage(page);
+        while (advance()) {
+            if (fEventTime >= timestamp) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Move the cursor to the next event
+     *
+     * @return true if there is a next event, then it is the current event
+     */
+    public boolean advance() {
+        while (true) {
+            if (fNext >= fDataEnd) {
+                if (fPage + 1 >= fPageCount) {
+                    return false;
+                }
+                loadPage(fPage + 1);
+                continue;
+            }
+            ByteBuffer buffer = fBuffer;
+            int position = fNext;
+            int header = buffer.getInt(position);
+            int typeLen;
+            long delta;
+            if (fLittleEndian) {
+                typeLen = header & TYPE_LEN_MASK;
+                delta = header >>> 5;
+            } else {
+                typeLen = (header >>> TS_SHIFT) & TYPE_LEN_MASK;
+                delta = header & TIME_DELTA_MASK;
+            }
+            position += Integer.BYTES;
+            switch (typeLen) {
+            case TYPE_PADDING:
+                if (delta == 0) {
+                    /* The rest of the page is empty */
+                    fNext = fDataEnd;
+                } else {
+                    /* Discarded event */
+                    fTime += delta;
+                    int length = buffer.getInt(position);
+                    fNext = length > 0 ? position + length : fDataEnd;
+                }
+                break;
+            case TYPE_TIME_EXTEND:
+                fTime += ((buffer.getInt(position) & 0xffffffffL) << TS_SHIFT) + delta;
+                fNext = position + Integer.BYTES;
+                break;
+            case TYPE_TIME_STAMP:
+                fTime = ((buffer.getInt(position) & 0xffffffffL) << TS_SHIFT) + delta;
+                fNext = position + Integer.BYTES;
+                break;
+            case 0:
+                fTime += delta;
+                fEventLength = ((buffer.getInt(position) - Integer.BYTES) + 3) & ~3;
+                fEventStart = position + Integer.BYTES;
+                break;
+            default:
+                fTime += delta;
+                fEventLength = typeLen * Integer.BYTES;
+                fEventStart = position;
+                break;
+            }
+            if (typeLen < TYPE_PADDING) {
+                if (fEventLength < 0 || fEventStart + fEventLength > fDataEnd) {
+                    /* Corrupted page, skip the rest of it */
+                    fNext = fDataEnd;
+                    continue;
+                }
+                fNext = fEventStart + fEventLength;
+                fEventTime = fTime;
+                return true;
+            }
+        }
+    }
+
+    private void loadPage(long page) {
+        fPage = page;
+        if (page >= fPageCount) {
+            fNext = fDataEnd = 0;
+            return;
+        }
+        ByteBuffer buffer = fFile.getPageBuffer(fCpu, page);
+        int pageStart = fFile.getPageStart(page);
+        fBuffer = buffer;
+        fTime = fFile.getPageTimestamp(buffer, pageStart);
+        fNext = pageStart + fDataOffset;
+        fDataEnd = fNext + fFile.getPageCommit(buffer, pageStart);
+    }
+
+    /**
+     * Get the timestamp of the current event
+     *
+     * @return the timestamp
+     */
+    public long getTimestamp() {
+        return fEventTime;
+    }
+
+    /**
+     * Get the buffer containing the current event. It must only be read with
+     * absolute reads.
+     *
+     * @return the buffer
+     */
+    public ByteBuffer getBuffer() {
+        return fBuffer;
+    }
+
+    /**
+     * Get the start of the payload of the current event in the buffer
+     *
+     * @return the position of the payload
+     */
+    public int getEventStart() {
+        return fEventStart;
+    }
+
+    /**
+     * Get the length of the payload of the current event
+     *
+     * @return the length in bytes
+     */
+    public int getEventLength() {
+        return fEventLength;
+    }
+}
@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Format of an event type of a binary trace-cmd trace, as described in the
+ * "format" files of the tracefs, for example:
+ *
+ * <pre>
+ * name: sched_wakeup
+ * ID: 316
+ * format:
+ *     field:unsigned short common_type;    offset:0;    size:2;    signed:0;
+ *     ...
+ *     field:char comm[16];    offset:8;    size:16;    signed:1;
+ *     field:pid_t pid;    offset:24;    size:4;    signed:1;
+ * </pre>
+ */
+@NonNullByDefault
+public class BinaryFTraceEventFormat {
+
+    private static final String COMMON_PREFIX = "common_"; //$NON-NLS-1$
+    private static final String COMMON_PID = "common_pid"; //$NON-NLS-1$
+    private static final String DATA_LOC = "__data_loc"; //$NON-NLS-1$
+
+    private final String fName;
+    private final int fId;
+    private final List<FieldFormat> fFields;
+    private final @Nullable FieldFormat fPid;
+
+    /**
+     * Format of a field of an event
+     */
+    public static final class FieldFormat {
+        private final String fName;
+        private final int fOffset;
+        private final int fSize;
+        private final boolean fSigned;
+        private final boolean fArray;
+        private final boolean fDynamic;
+        private final boolean fString;
+
+        private FieldFormat(String name, int offset, int size, boolean signed, boolean array, boolean dynamic, boolean string) {
+            fName = name;
+            fOffset = offset;
+            fSize = size;
+            fSigned = signed;
+            fArray = array;
+            fDynamic = dynamic;
+            fString = string;
+        }
+
+        /**
+         * Get the name of the field
+         *
+         * @return the name
+         */
+        public String getName() {
+            return fName;
+        }
+
+        /**
+         * Get the offset of the field in the event payload
+         *
+         * @return the offset in bytes
+         */
+        public int getOffset() {
+            return fOffset;
+        }
+
+        /**
+         * Get the size of the field
+         *
+         * @return the size in bytes
+         */
+        public int getSize() {
+            return fSize;
+        }
+
+        /**
+         * Read the value of the field
+         *
+         * @param data
+         *            the buffer containing the event
+         * @param start
+         *            the position of the event payload in the buffer
+         * @param length
+         *            the length of the event payload
+         * @return the value, a {@link Long} or a {@link String}, or null if the
+         *         field type is not supported or the value is out of the event
+         */
+        public @Nullable Object read(ByteBuffer data, int start, int length) {
+            if (fDynamic) {
+                if (!fString || fOffset + Integer.BYTES > length) {
+                    return null;
+                }
+                int location = data.getInt(start + fOffset);
+                int offset = location & 0xffff;
+                int size = location >>> 16;
+                if (offset + size > length) {
+                    return null;
+                }
+                return readString(data, start + offset, size);
+            }
+            if (fOffset + fSize > length) {
+                return null;
+            }
+            if (fArray) {
+                return fString ? readString(data, start + fOffset, fSize) : null;
+            }
+            int position = start + fOffset;
+            switch (fSize) {
+            case Byte.BYTES:
+                byte b = data.get(position);
+                return fSigned ? (long) b : (long) (b & 0xff);
+            case Short.BYTES:
+                short s = data.getShort(position);
+                return fSigned ? (long) s : (long) (s & 0xffff);
+            case Integer.BYTES:
+                int i = data.getInt(position);
+                return fSigned ? (long) i : (i & 0xffffffffL);
+            case Long.BYTES:
+                return data.getLong(position);
+            default:
+                return null;
+            }
+        }
+
+        private static String readString(ByteBuffer data, int position, int size) {
+            int end = position;
+            int limit = position + size;
+            while (end < limit && data.get(end) != 0) {
+                end++;
+            }
+            byte[] bytes = new byte[end - position];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = data.get(position + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private BinaryFTraceEventFormat(String name, int id, List<FieldFormat> fields, @Nullable FieldFormat pid) {
+        fName = name;
+        fId = id;
+        fFields = fields;
+        fPid = pid;
+    }
+
+    /**
+     * Parse an event format description
+     *
+     * @param format
+     *            the text of the format
+     * @return the event format, or null if there is no name or ID
+     */
+    public static @Nullable BinaryFTraceEventFormat parse(String format) {
+        String name = null;
+        int id = -1;
+        List<FieldFormat> fields = new ArrayList<>();
+        FieldFormat pid = null;
+        for (String rawLine : format.split("\n")) { //$NON-NLS-1$
+            String line = rawLine.trim();
+            if (line.startsWith("name:")) { //$NON-NLS-1$
+                name = line.substring(5).trim();
+            } else if (line.startsWith("ID:")) { //$NON-NLS-1$
+                try {
+                    id = Integer.parseInt(line.substring(3).trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            } else if (line.startsWith("field:")) { //$NON-NLS-1$
+                FieldFormat field = parseField(line);
+                if (field == null) {
+                    continue;
+                }
+                if (field.getName().equals(COMMON_PID)) {
+                    pid = field;
+                } else if (!field.getName().startsWith(COMMON_PREFIX)) {
+                    fields.add(field);
+                }
+            }
+        }
+        if (name == null || id < 0) {
+            return null;
+        }
+        return new BinaryFTraceEventFormat(name, id, Collections.unmodifiableList(fields), pid);
+    }
+
+    /**
+     * Parse a field line, like
+     * "field:char comm[16]; offset:8; size:16; signed:1;"
+     *
+     * @param line
+     *            the line
+     * @return the field format, or null if the line is not a valid field
+     */
+    static @Nullable FieldFormat parseField(String line) {
+        Map<String, String> attributes = new HashMap<>();
+        for (String part : line.split(";")) { //$NON-NLS-1$
+            int colon = part.indexOf(':');
+            if (colon > 0) {
+                attributes.put(part.substring(0, colon).trim(), part.substring(colon + 1).trim());
+            }
+        }
+        String declaration = attributes.get("field"); //$NON-NLS-1$
+        String offset = attributes.get("offset"); //$NON-NLS-1$
+        String size = attributes.get("size"); //$NON-NLS-1$
+        if (declaration == null || offset == null || size == null) {
+            return null;
+        }
+        boolean dynamic = declaration.startsWith(DATA_LOC);
+        boolean array = declaration.endsWith("]"); //$NON-NLS-1$
+        String type = declaration;
+        if (array) {
+            type = type.substring(0, type.lastIndexOf('['));
+        }
+        type = type.trim();
+        int nameStart = Math.max(type.lastIndexOf(' '), type.lastIndexOf('*')) + 1;
+        String name = type.substring(nameStart);
+        if (dynamic && name.endsWith("[]")) { //$NON-NLS-1$
+            name = name.substring(0, name.length() - 2);
+        }
+        boolean string = type.contains("char"); //$NON-NLS-1$
+        String signed = attributes.get("signed"); //$NON-NLS-1$
+        try {
+            return new FieldFormat(name.intern(), Integer.parseInt(offset), Integer.parseInt(size), "1".equals(signed), array, dynamic, string); //$NON-NLS-1$
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the name of the event
+     *
+     * @return the name
+     */
+    public String getName() {
+        return fName;
+    }
+
+    /**
+     * Get the ID of the event type, as written in the common_type field
+     *
+     * @return the ID
+     */
+    public int getId() {
+        return fId;
+    }
+
+    /**
+     * Get the fields of the event, without the common fields
+     *
+     * @return the fields
+     */
+    public List<FieldFormat> getFields() {
+        return fFields;
+    }
+
+    /**
+     * Read the PID (common_pid) of an event
+     *
+     * @param data
+     *            the buffer containing the event
+     * @param start
+     *            the position of the event payload in the buffer
+     * @param length
+     *            the length of the event payload
+     * @return the PID, or null if it is not available
+     */
+    public @Nullable Integer readPid(ByteBuffer data, int start, int length) {
+        FieldFormat pid = fPid;
+        if (pid == null) {
+            return null;
+        }
+        Object value = pid.read(data, start, length);
+        return value instanceof Long ? ((Long) value).intValue() : null;
+    }
+
+    /**
+     * Read the fields of an event
+     *
+     * @param data
+     *            the buffer containing the event
+     * @param start
+     *            the position of the event payload in the buffer
+     * @param length
+     *            the length of the event payload
+     * @return the field values by name
+     */
+    public Map<String, Object> readFields(ByteBuffer data, int start, int length) {
+        Map<String, Object> values = new HashMap<>();
+        for (FieldFormat field : fFields) {
+            Object value = field.read(data, start, length);
+            if (value != null) {
+                values.put(field.getName(), value);
+            }
+        }
+        return values;
+    }
+}
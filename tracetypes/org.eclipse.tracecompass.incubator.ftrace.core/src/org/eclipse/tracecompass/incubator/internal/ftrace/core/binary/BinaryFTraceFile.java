@@ -0,0 +1,492 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Binary trace-cmd (trace.dat) file, version 6. The header is read when the
+ * file is opened and the per-CPU ring buffer pages are memory mapped. See
+ * trace-cmd.dat(5) for the layout of the file:
+ *
+ * <pre>
+ * magic, version, endianness, size of long, page size
+ * "header_page" and "header_event" formats
+ * ftrace event formats, then event formats by system
+ * kallsyms, ftrace_printk, process info (cmdlines)
+ * number of CPUs, options, then "flyrecord" and the offset and size of the data
+ * of every CPU
+ * </pre>
+ */
+@NonNullByDefault
+public class BinaryFTraceFile implements AutoCloseable {
+
+    /**
+     * trace-cmd magic number
+     */
+    public static final byte[] MAGIC = { 0x17, 0x08, 0x44, 't', 'r', 'a', 'c', 'i', 'n', 'g' };
+
+    /**
+     * The supported version of the file format, the string following the magic
+     */
+    public static final String SUPPORTED_VERSION = "6"; //$NON-NLS-1$
+    private static final String HEADER_PAGE = "header_page"; //$NON-NLS-1$
+    private static final String HEADER_EVENT = "header_event"; //$NON-NLS-1$
+    private static final String OPTIONS = "options  "; //$NON-NLS-1$
+    private static final String FLYRECORD = "flyrecord"; //$NON-NLS-1$
+    private static final int SECTION_ID_LENGTH = 10;
+
+    /** The commit field of the page header also holds flags in its high bits */
+    private static final long COMMIT_MASK = (1L << 27) - 1;
+    /** Maximum size of a mapped region of the per-CPU data */
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private final File fFile;
+    private final String fVersion;
+    private final ByteOrder fOrder;
+    private final int fLongSize;
+    private final int fPageSize;
+    private final int fTimestampOffset;
+    private final int fCommitOffset;
+    private final int fCommitSize;
+    private final int fDataOffset;
+    private final Map<Integer, BinaryFTraceEventFormat> fFormats = new HashMap<>();
+    private final int fPagesPerChunk;
+    private final long[] fCpuOffsets;
+    private final long[] fCpuSizes;
+    private final MappedByteBuffer[][] fChunks;
+    private volatile boolean fClosed = false;
+
+    /**
+     * Open a trace.dat file and read its header
+     *
+     * @param file
+     *            the file
+     * @throws IOException
+     *             the file cannot be read or is not a supported trace.dat
+     *             file
+     */
+    public BinaryFTraceFile(File file) throws IOException {
+        fFile = file;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            HeaderReader reader = new HeaderReader(channel);
+            if (!Arrays.equals(MAGIC, reader.readBytes(MAGIC.length))) {
+                throw new IOException("Not a trace-cmd file, magic mismatch: " + file); //$NON-NLS-1$
+            }
+            fVersion = reader.readCString();
+            if (!SUPPORTED_VERSION.equals(fVersion)) {
+                throw new IOException("Unsupported trace-cmd file version " + fVersion + ": " + file); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            fOrder = reader.readByte() == 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            reader.setOrder(fOrder);
+            fLongSize = reader.readByte();
+            fPageSize = reader.readInt();
+            if (fPageSize <= 0) {
+                throw new IOException("Invalid page size " + fPageSize + ": " + file); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+
+            /* Page header, the layout of the start of every page */
+            reader.expectCString(HEADER_PAGE);
+            String headerPage = reader.readString(reader.readLong());
+            BinaryFTraceEventFormat.FieldFormat timestamp = findField(headerPage, "timestamp"); //$NON-NLS-1$
+            BinaryFTraceEventFormat.FieldFormat commit = findField(headerPage, "commit"); //$NON-NLS-1$
+            BinaryFTraceEventFormat.FieldFormat data = findField(headerPage, "data"); //$NON-NLS-1$
+            fTimestampOffset = timestamp == null ? 0 : timestamp.getOffset();
+            fCommitOffset = commit == null ? Long.BYTES : commit.getOffset();
+            fCommitSize = commit == null ? fLongSize : commit.getSize();
+            fDataOffset = data == null ? Long.BYTES + fLongSize : data.getOffset();
+
+            /* Event header, the ring buffer format is fixed */
+            reader.expectCString(HEADER_EVENT);
+            reader.skip(reader.readLong());
+
+            /* Ftrace events, then events of every system */
+            int ftraceEvents = reader.readInt();
+            for (int i = 0; i < ftraceEvents; i++) {
+                addFormat(reader.readString(reader.readLong()));
+            }
+            int systems = reader.readInt();
+            for (int i = 0; i < systems; i++) {
+                reader.readCString();
+                int events = reader.readInt();
+                for (int j = 0; j < events; j++) {
+                    addFormat(reader.readString(reader.readLong()));
+                }
+            }
+
+            /* kallsyms, ftrace_printk and process info are not used */
+            reader.skip(reader.readInt() & 0xffffffffL);
+            reader.skip(reader.readInt() & 0xffffffffL);
+            reader.skip(reader.readLong());
+
+            int cpus = reader.readInt();
+            if (cpus < 0) {
+                throw new IOException("Invalid number of CPUs " + cpus + ": " + file); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            String section = reader.readSectionId();
+            if (OPTIONS.equals(section)) {
+                short option = reader.readShort();
+                while (option != 0) {
+                    reader.skip(reader.readInt() & 0xffffffffL);
+                    option = reader.readShort();
+                }
+                section = reader.readSectionId();
+            }
+            if (!FLYRECORD.equals(section)) {
+                throw new IOException("Unsupported trace-cmd data section \"" + section.trim() + "\": " + file); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            fCpuOffsets = new long[cpus];
+            fCpuSizes = new long[cpus];
+            for (int cpu = 0; cpu < cpus; cpu++) {
+                fCpuOffsets[cpu] = reader.readLong();
+                fCpuSizes[cpu] = reader.readLong();
+                if (fCpuOffsets[cpu] < 0 || fCpuSizes[cpu] < 0 || fCpuOffsets[cpu] + fCpuSizes[cpu] > channel.size()) {
+                    throw new IOException("CPU " + cpu + " data is out of the file: " + file); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+
+            /* Map the data of the CPUs in chunks of whole pages */
+            fPagesPerChunk = (int) Math.max(1, MAX_CHUNK_SIZE / fPageSize);
+            fChunks = new MappedByteBuffer[cpus][];
+            for (int cpu = 0; cpu < cpus; cpu++) {
+                long pages = getPageCount(cpu);
+                MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((pages + fPagesPerChunk - 1) / fPagesPerChunk)];
+                for (int chunk = 0; chunk < chunks.length; chunk++) {
+                    long start = (long) chunk * fPagesPerChunk * fPageSize;
+                    long size = Math.min((long) fPagesPerChunk * fPageSize, pages * fPageSize - start);
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, fCpuOffsets[cpu] + start, size);
+                    buffer.order(fOrder);
+                    chunks[chunk] = buffer;
+                }
+                fChunks[cpu] = chunks;
+            }
+        }
+    }
+
+    private static BinaryFTraceEventFormat.@Nullable FieldFormat findField(String format, String name) {
+        for (String line : format.split("\n")) { //$NON-NLS-1$
+            BinaryFTraceEventFormat.FieldFormat field = BinaryFTraceEventFormat.parseField(line.trim());
+            if (field != null && field.getName().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private void addFormat(String format) {
+        BinaryFTraceEventFormat eventFormat = BinaryFTraceEventFormat.parse(format);
+        if (eventFormat != null) {
+            fFormats.put(eventFormat.getId(), eventFormat);
+        }
+    }
+
+    /**
+     * Get the file
+     *
+     * @return the file
+     */
+    public File getFile() {
+        return fFile;
+    }
+
+    /**
+     * Get the version of the file format
+     *
+     * @return the version
+     */
+    public String getVersion() {
+        return fVersion;
+    }
+
+    /**
+     * Get the byte order of the traced machine
+     *
+     * @return the byte order
+     */
+    public ByteOrder getByteOrder() {
+        return fOrder;
+    }
+
+    /**
+     * Get the size of a long on the traced machine
+     *
+     * @return the size in bytes
+     */
+    public int getLongSize() {
+        return fLongSize;
+    }
+
+    /**
+     * Get the size of a ring buffer page
+     *
+     * @return the size in bytes
+     */
+    public int getPageSize() {
+        return fPageSize;
+    }
+
+    /**
+     * Get the number of CPUs
+     *
+     * @return the number of CPUs
+     */
+    public int getCpuCount() {
+        return fCpuOffsets.length;
+    }
+
+    /**
+     * Get the number of pages of a CPU
+     *
+     * @param cpu
+     *            the CPU
+     * @return the number of pages
+     */
+    public long getPageCount(int cpu) {
+        return fCpuSizes[cpu] / fPageSize;
+    }
+
+    /**
+     * Get the event formats
+     *
+     * @return the event formats
+     */
+    public Collection<BinaryFTraceEventFormat> getFormats() {
+        return Collections.unmodifiableCollection(fFormats.values());
+    }
+
+    /**
+     * Get the format of an event type
+     *
+     * @param id
+     *            the event type ID, the common_type field of the event
+     * @return the format, or null if it is unknown
+     */
+    public @Nullable BinaryFTraceEventFormat getFormat(int id) {
+        return fFormats.get(id);
+    }
+
+    /**
+     * Get the format of an event from its common_type field, the first 16 bits
+     * of its payload
+     *
+     * @param data
+     *            the buffer containing the event
+     * @param start
+     *            the position of the event payload in the buffer
+     * @param length
+     *            the length of the event payload
+     * @return the format, or null if it is unknown
+     */
+    public @Nullable BinaryFTraceEventFormat getFormat(ByteBuffer data, int start, int length) {
+        if (length < Short.BYTES) {
+            return null;
+        }
+        return fFormats.get(data.getShort(start) & 0xffff);
+    }
+
+    /**
+     * Get the buffer containing a page. The buffer is shared, it must only be
+     * read with absolute reads, starting at {@link #getPageStart(long)}.
+     *
+     * @param cpu
+     *            the CPU
+     * @param page
+     *            the page index
+     * @return the buffer
+     */
+    public ByteBuffer getPageBuffer(int cpu, long page) {
+        MappedByteBuffer buffer = fChunks[cpu][(int) (page / fPagesPerChunk)];
+        if (buffer == null || fClosed) {
+            throw new IllegalStateException("The trace-cmd file is closed: " + fFile); //$NON-NLS-1$
+        }
+        return buffer;
+    }
+
+    /**
+     * Release the mapped pages of the file. The mappings are removed when the
+     * buffers are garbage collected, the pages can no longer be read.
+     */
+    @Override
+    public void close() {
+        fClosed = true;
+        for (MappedByteBuffer[] chunks : fChunks) {
+            Arrays.fill(chunks, null);
+        }
+    }
+
+    /**
+     * Get the start of a page in the buffer returned by
+     * {@link #getPageBuffer(int, long)}
+     *
+     * @param page
+     *            the page index
+     * @return the position of the page in its buffer
+     */
+    public int getPageStart(long page) {
+        return (int) (page % fPagesPerChunk) * fPageSize;
+    }
+
+    /**
+     * Get the timestamp of a page, the base of the time deltas of its events
+     *
+     * @param buffer
+     *            the buffer of the page
+     * @param pageStart
+     *            the start of the page in the buffer
+     * @return the timestamp
+     */
+    public long getPageTimestamp(ByteBuffer buffer, int pageStart) {
+        return buffer.getLong(pageStart + fTimestampOffset);
+    }
+
+    /**
+     * Get the size of the data written in a page
+     *
+     * @param buffer
+     *            the buffer of the page
+     * @param pageStart
+     *            the start of the page in the buffer
+     * @return the size of the data in bytes
+     */
+    public int getPageCommit(ByteBuffer buffer, int pageStart) {
+        long commit = fCommitSize == Long.BYTES ? buffer.getLong(pageStart + fCommitOffset) : buffer.getInt(pageStart + fCommitOffset);
+        return (int) Math.min(commit & COMMIT_MASK, fPageSize - fDataOffset);
+    }
+
+    /**
+     * Get the offset of the data in a page
+     *
+     * @return the offset in bytes
+     */
+    public int getDataOffset() {
+        return fDataOffset;
+    }
+
+    /**
+     * Sequential reader of the header of the file
+     */
+    private static final class HeaderReader {
+        private final FileChannel fChannel;
+        private final ByteBuffer fPrimitive = ByteBuffer.allocate(Long.BYTES);
+        private long fPosition = 0;
+
+        public HeaderReader(FileChannel channel) {
+            fChannel = channel;
+        }
+
+        public void setOrder(ByteOrder order) {
+            fPrimitive.order(order);
+        }
+
+        private ByteBuffer fill(ByteBuffer buffer) throws IOException {
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                int read = fChannel.read(buffer, fPosition);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file at " + fPosition); //$NON-NLS-1$
+                }
+                fPosition += read;
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        private ByteBuffer primitive(int size) throws IOException {
+            fPrimitive.clear();
+            fPrimitive.limit(size);
+            while (fPrimitive.hasRemaining()) {
+                int read = fChannel.read(fPrimitive, fPosition);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file at " + fPosition); //$NON-NLS-1$
+                }
+                fPosition += read;
+            }
+            fPrimitive.flip();
+            return fPrimitive;
+        }
+
+        public byte[] readBytes(int size) throws IOException {
+            byte[] bytes = new byte[size];
+            fill(ByteBuffer.wrap(bytes));
+            return bytes;
+        }
+
+        public byte readByte() throws IOException {
+            return primitive(Byte.BYTES).get();
+        }
+
+        public short readShort() throws IOException {
+            return primitive(Short.BYTES).getShort();
+        }
+
+        public int readInt() throws IOException {
+            return primitive(Integer.BYTES).getInt();
+        }
+
+        public long readLong() throws IOException {
+            return primitive(Long.BYTES).getLong();
+        }
+
+        public String readString(long size) throws IOException {
+            if (size < 0 || size > Integer.MAX_VALUE || fPosition + size > fChannel.size()) {
+                throw new IOException("Invalid section size " + size + " at " + fPosition); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            return new String(readBytes((int) size), StandardCharsets.UTF_8);
+        }
+
+        public String readCString() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            byte b = readByte();
+            while (b != 0) {
+                sb.append((char) (b & 0xff));
+                b = readByte();
+            }
+            return sb.toString();
+        }
+
+        public void expectCString(String expected) throws IOException {
+            String actual = readCString();
+            if (!expected.equals(actual)) {
+                throw new IOException("Expected " + expected + " but found " + actual + " at " + fPosition); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+        }
+
+        public String readSectionId() throws IOException {
+            byte[] id = readBytes(SECTION_ID_LENGTH);
+            int length = 0;
+            while (length < id.length && id[length] != 0) {
+                length++;
+            }
+            return new String(id, 0, length, StandardCharsets.US_ASCII);
+        }
+
+        public void skip(long size) throws IOException {
+            if (size < 0 || fPosition + size > fChannel.size()) {
+                throw new IOException("Invalid section size " + size + " at " + fPosition); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            fPosition += size;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.tracecompass.tmf.core.trace.location.TmfLocation;
+
+/**
+ * Location of a binary ftrace trace, see {@link BinaryFTraceLocationInfo}
+ */
+public final class BinaryFTraceLocation extends TmfLocation {
+
+    /**
+     * Constructor
+     *
+     * @param locationInfo
+     *            the location information
+     */
+    public BinaryFTraceLocation(BinaryFTraceLocationInfo locationInfo) {
+        super(locationInfo);
+    }
+
+    /**
+     * Constructor from a serialized location
+     *
+     * @param bufferIn
+     *            the buffer to read from
+     */
+    public BinaryFTraceLocation(ByteBuffer bufferIn) {
+        super(new BinaryFTraceLocationInfo(bufferIn));
+    }
+
+    @Override
+    public BinaryFTraceLocationInfo getLocationInfo() {
+        return (BinaryFTraceLocationInfo) super.getLocationInfo();
+    }
+
+    @Override
+    public void serialize(ByteBuffer bufferOut) {
+        getLocationInfo().serialize(bufferOut);
+    }
+}
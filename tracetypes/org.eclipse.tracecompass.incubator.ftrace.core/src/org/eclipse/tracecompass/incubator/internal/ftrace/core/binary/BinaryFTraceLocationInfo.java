@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ftrace.core.binary;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Location information of a binary ftrace trace: a timestamp and the number of
+ * events at this timestamp that were already read.
+ */
+@NonNullByDefault
+public final class BinaryFTraceLocationInfo implements Comparable<BinaryFTraceLocationInfo> {
+
+    /**
+     * The beginning of the trace
+     */
+    public static final BinaryFTraceLocationInfo START = new BinaryFTraceLocationInfo(Long.MIN_VALUE, 0);
+
+    private final long fTimestamp;
+    private final long fIndex;
+
+    /**
+     * Constructor
+     *
+     * @param timestamp
+     *            the timestamp
+     * @param index
+     *            the number of events at this timestamp before the location
+     */
+    public BinaryFTraceLocationInfo(long timestamp, long index) {
+        fTimestamp = timestamp;
+        fIndex = index;
+    }
+
+    /**
+     * Constructor from a serialized location
+     *
+     * @param bufferIn
+     *            the buffer to read from
+     */
+    public BinaryFTraceLocationInfo(ByteBuffer bufferIn) {
+        fTimestamp = bufferIn.getLong();
+        fIndex = bufferIn.getLong();
+    }
+
+    /**
+     * Get the timestamp
+     *
+     * @return the timestamp
+     */
+    public long getTimestamp() {
+        return fTimestamp;
+    }
+
+    /**
+     * Get the number of events at the timestamp before the location
+     *
+     * @return the index
+     */
+    public long getIndex() {
+        return fIndex;
+    }
+
+    /**
+     * Write the location to a buffer
+     *
+     * @param bufferOut
+     *            the buffer to write to
+     */
+    public void serialize(ByteBuffer bufferOut) {
+        bufferOut.putLong(fTimestamp);
+        bufferOut.putLong(fIndex);
+    }
+
+    @Override
+    public int compareTo(BinaryFTraceLocationInfo other) {
+        int cmp = Long.compare(fTimestamp, other.fTimestamp);
+        return cmp != 0 ? cmp : Long.compare(fIndex, other.fIndex);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fTimestamp) * 31 + Long.hashCode(fIndex);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BinaryFTraceLocationInfo)) {
+            return false;
+        }
+        BinaryFTraceLocationInfo other = (BinaryFTraceLocationInfo) obj;
+        return fTimestamp == other.fTimestamp && fIndex == other.fIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + fTimestamp + ", " + fIndex + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
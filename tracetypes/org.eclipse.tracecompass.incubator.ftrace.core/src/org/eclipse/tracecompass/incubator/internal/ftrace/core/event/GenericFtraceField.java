@@ -94,6 +94,19 @@ public class GenericFtraceField {
      * @return An event field
      */
     public static @Nullable GenericFtraceField parseLine(String line) {
+        return GenericFtraceLineParser.parseLine(line);
+    }
+
+    /**
+     * Parse a line from an ftrace ouput file with
+     * {@link IGenericFtraceConstants#FTRACE_PATTERN}. This is the reference
+     * for {@link #parseLine(String)}, it is slower and the timestamps are
+     * rounded through a double.
+     *
+     * @param line The string to parse
+     * @return An event field
+     */
+    public static @Nullable GenericFtraceField parseLineWithPattern(String line) {
         Matcher matcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
         if (matcher.matches()) {
             Integer pid = Integer.parseInt(matcher.group(IGenericFtraceConstants.FTRACE_PID_GROUP));
@@ -132,30 +145,12 @@ public class GenericFtraceField {
                 String key = keyvalMatcher.group(KEYVAL_KEY_GROUP);
                 String value = keyvalMatcher.group(KEYVAL_VAL_GROUP);
                 if (value != null) {
-                    // This is a temporary solution. Refactor suggestions are welcome.
-                    if (key.equals("prev_state")) { //$NON-NLS-1$
-                        fields.put(key, parsePrevStateValue(value));
-                    } else if (StringUtils.isNumeric(value)) {
-                        if (key.equals("parent_pid") && name.equals("sched_process_fork")) {//$NON-NLS-1$ //$NON-NLS-2$
-                            key = "pid"; //$NON-NLS-1$
-                        }
-                        fields.put(key, Long.parseUnsignedLong(value));
-                    } else {
-                        fields.put(key, decodeString(value));
-                    }
+                    putField(fields, name, key, value);
                 }
             }
 
-            /*
-             * If anything else fails, but we have discovered sort of a valid event
-             * attributes lets just add the unparsed attributes with key "data".
-             */
             if (fields.isEmpty() && attributes != null && !attributes.isEmpty()) {
-                String key = "data"; //$NON-NLS-1$
-                if (name.equals(IGenericFtraceConstants.FTRACE_EXIT_SYSCALL)) {
-                    key = "ret"; //$NON-NLS-1$
-                }
-                fields.put(key, decodeString(attributes));
+                putData(fields, name, attributes);
             }
 
             return new GenericFtraceField(name, cpu, timestampInNano, pid, tid, fields);
@@ -163,6 +158,72 @@ public class GenericFtraceField {
         return null;
     }
 
+    /**
+     * Create a field from an event decoded from a binary trace, its fields are
+     * already typed
+     *
+     * @param name
+     *            the event name, as in the format of the event
+     * @param cpu
+     *            the cpu number
+     * @param ts
+     *            the timestamp in ns
+     * @param pid
+     *            the process id (common_pid), also used as thread id
+     * @param fields
+     *            the event fields, they may be modified
+     * @return An event field
+     */
+    public static GenericFtraceField parseRawEvent(String name, Integer cpu, Long ts, @Nullable Integer pid, Map<String, Object> fields) {
+        String eventName = eventNameRewrite(name, null);
+        if (eventName.equals("sched_process_fork")) { //$NON-NLS-1$
+            Object parentPid = fields.remove("parent_pid"); //$NON-NLS-1$
+            if (parentPid != null) {
+                fields.put("pid", parentPid); //$NON-NLS-1$
+            }
+        }
+        return new GenericFtraceField(eventName, cpu, ts, pid, pid, fields);
+    }
+
+    /**
+     * Add a field parsed from a line
+     *
+     * @param fields the fields of the event
+     * @param name the name of the event
+     * @param key the name of the field
+     * @param value the value of the field
+     */
+    static void putField(Map<String, Object> fields, String name, String key, String value) {
+        // This is a temporary solution. Refactor suggestions are welcome.
+        if (key.equals("prev_state")) { //$NON-NLS-1$
+            fields.put(key, parsePrevStateValue(value));
+        } else if (StringUtils.isNumeric(value)) {
+            String fieldName = key;
+            if (key.equals("parent_pid") && name.equals("sched_process_fork")) {//$NON-NLS-1$ //$NON-NLS-2$
+                fieldName = "pid"; //$NON-NLS-1$
+            }
+            fields.put(fieldName, Long.parseUnsignedLong(value));
+        } else {
+            fields.put(key, decodeString(value));
+        }
+    }
+
+    /**
+     * If anything else fails, but we have discovered sort of a valid event
+     * attributes lets just add the unparsed attributes with key "data".
+     *
+     * @param fields the fields of the event, empty
+     * @param name the name of the event
+     * @param attributes the unparsed attributes
+     */
+    static void putData(Map<String, Object> fields, String name, String attributes) {
+        String key = "data"; //$NON-NLS-1$
+        if (name.equals(IGenericFtraceConstants.FTRACE_EXIT_SYSCALL)) {
+            key = "ret"; //$NON-NLS-1$
+        }
+        fields.put(key, decodeString(attributes));
+    }
+
     private static Object decodeString(String val) {
         try {
             if (val.startsWith("0x") || val.startsWith("0X")) { //$NON-NLS-1$ //$NON-NLS-2$
@@ -291,7 +352,7 @@ public class GenericFtraceField {
      *
      * @return the new or original event name
      */
-    private static String eventNameRewrite(@Nullable String name, @Nullable String separator) {
+    static String eventNameRewrite(@Nullable String name, @Nullable String separator) {
         if (name == null) {
             return ""; //$NON-NLS-1$
         }
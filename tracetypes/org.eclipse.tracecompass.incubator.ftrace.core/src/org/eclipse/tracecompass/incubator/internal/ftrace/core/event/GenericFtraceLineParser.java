@@ -0,0 +1,417 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ftrace.core.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Single pass scanner of ftrace text lines. It accepts the same lines as
+ * {@link IGenericFtraceConstants#FTRACE_PATTERN} and splits the fields like
+ * the key/value pattern of {@link GenericFtraceField}, without regular
+ * expressions:
+ *
+ * <pre>
+ * kworker/u16:6-214   [002] d...   149.136514: sched_switch: prev_comm=kworker/u16:6 prev_pid=214 ...
+ * </pre>
+ *
+ * Timestamps are fixed-point decimal numbers of seconds, they are converted to
+ * nanoseconds exactly. Event names and field names are interned, they are
+ * shared by all the events.
+ */
+@NonNullByDefault
+public final class GenericFtraceLineParser {
+
+    private static final long SECONDS_TO_NANO = 1000000000L;
+    private static final int NANO_DIGITS = 9;
+    /** More digits may overflow a long, they are parsed as a double */
+    private static final int MAX_SECONDS_DIGITS = 9;
+
+    private static final String SEPARATOR_COLON = ":"; //$NON-NLS-1$
+    private static final String SEPARATOR_PARENTHESIS = "("; //$NON-NLS-1$
+    private static final String SEPARATOR_ARROW = "->"; //$NON-NLS-1$
+
+    /**
+     * Positions of the parts of an event line
+     */
+    private static final class Header {
+        private int fPid;
+        private @Nullable Integer fTgid;
+        private int fCpu;
+        private long fTimestamp;
+        private int fNameStart;
+        private int fNameEnd;
+        private String fSeparator = SEPARATOR_COLON;
+        private int fDataStart;
+        private int fDataEnd;
+    }
+
+    private GenericFtraceLineParser() {
+        // Do nothing
+    }
+
+    /**
+     * Check if a line is an ftrace event line, without parsing its fields
+     *
+     * @param line
+     *            the line
+     * @return true if the line is an event
+     */
+    public static boolean isEvent(String line) {
+        return scanHeader(line) != null;
+    }
+
+    /**
+     * Get the timestamp of an ftrace event line, without parsing its fields
+     *
+     * @param line
+     *            the line
+     * @return the timestamp in nanoseconds, or -1 if the line is not an event
+     */
+    public static long getTimestamp(String line) {
+        Header header = scanHeader(line);
+        return header != null ? header.fTimestamp : -1;
+    }
+
+    /**
+     * Parse a line from an ftrace output file
+     *
+     * @param line
+     *            the line to parse
+     * @return the event field, or null if the line is not an event
+     */
+    public static @Nullable GenericFtraceField parseLine(String line) {
+        Header header = scanHeader(line);
+        if (header == null) {
+            return null;
+        }
+        String name = GenericFtraceField.eventNameRewrite(line.substring(header.fNameStart, header.fNameEnd), header.fSeparator).intern();
+
+        /*
+         * There's no distinction between pid and tid in scheduling events.
+         * However, when there's a mismatch between the tgid and the pid, we
+         * know the event happened on a thread and that the tgid is the actual
+         * pid, and the pid the tid.
+         */
+        Integer tid = header.fPid;
+        Integer tgid = header.fTgid;
+        Integer pid = tgid != null ? tgid : tid;
+
+        Map<String, Object> fields = new HashMap<>();
+        scanFields(line, header.fDataStart, header.fDataEnd, name, fields);
+        if (fields.isEmpty() && header.fDataStart < header.fDataEnd) {
+            GenericFtraceField.putData(fields, name, line.substring(header.fDataStart, header.fDataEnd));
+        }
+        return new GenericFtraceField(name, header.fCpu, header.fTimestamp, pid, tid, fields);
+    }
+
+    // ------------------------------------------------------------------------
+    // Header: "comm-pid (tgid) [cpu] flags timestamp: name: data"
+    // ------------------------------------------------------------------------
+
+    private static @Nullable Header scanHeader(String line) {
+        /*
+         * The command name can contain anything, the last CPU bracket that
+         * is followed by a valid event is the right one.
+         */
+        int bracket = line.lastIndexOf('[');
+        while (bracket > 0) {
+            Header header = scanHeader(line, bracket);
+            if (header != null) {
+                return header;
+            }
+            bracket = line.lastIndexOf('[', bracket - 1);
+        }
+        return null;
+    }
+
+    private static @Nullable Header scanHeader(String line, int bracket) {
+        int length = line.length();
+        int cpuEnd = skipDigits(line, bracket + 1, length);
+        if (cpuEnd == bracket + 1 || cpuEnd >= length || line.charAt(cpuEnd) != ']') {
+            return null;
+        }
+        /* Whitespace, then the pid or the tgid */
+        int end = bracket - 1;
+        if (!isWhitespace(line.charAt(end))) {
+            return null;
+        }
+        while (end >= 0 && isWhitespace(line.charAt(end))) {
+            end--;
+        }
+        if (end < 0) {
+            return null;
+        }
+        Header header = new Header();
+        if (line.charAt(end) == ')') {
+            if (!scanTgid(line, end, header)) {
+                return null;
+            }
+        } else {
+            int pidStart = skipDigitsBackward(line, end);
+            if (pidStart > end || pidStart == 0 || line.charAt(pidStart - 1) != '-') {
+                return null;
+            }
+            header.fPid = parseInt(line, pidStart, end + 1);
+        }
+        header.fCpu = parseInt(line, bracket + 1, cpuEnd);
+
+        /* Optional flags, then the timestamp */
+        int afterCpu = cpuEnd + 1;
+        if (afterCpu >= length || !isWhitespace(line.charAt(afterCpu))) {
+            return null;
+        }
+        int first = skipWhitespace(line, afterCpu, length);
+        int firstEnd = skipNonWhitespace(line, first, length);
+        if (firstEnd < length && isWhitespace(line.charAt(firstEnd)) && scanEvent(line, skipWhitespace(line, firstEnd, length), header)) {
+            return header;
+        }
+        return scanEvent(line, first, header) ? header : null;
+    }
+
+    /**
+     * Scan "pid (xxx tgid)", where the tgid is optional, backward from the
+     * closing parenthesis
+     */
+    private static boolean scanTgid(String line, int close, Header header) {
+        int tgidStart = skipDigitsBackward(line, close - 1);
+        for (int open = tgidStart - 1; open > 0 && !isDigit(line.charAt(open)); open--) {
+            if (line.charAt(open) != '(' || !isWhitespace(line.charAt(open - 1))) {
+                continue;
+            }
+            int pidEnd = open - 1;
+            while (pidEnd >= 0 && isWhitespace(line.charAt(pidEnd))) {
+                pidEnd--;
+            }
+            if (pidEnd < 0) {
+                continue;
+            }
+            int pidStart = skipDigitsBackward(line, pidEnd);
+            if (pidStart > pidEnd || pidStart == 0 || line.charAt(pidStart - 1) != '-') {
+                continue;
+            }
+            header.fPid = parseInt(line, pidStart, pidEnd + 1);
+            if (tgidStart < close) {
+                int tgid = parseInt(line, tgidStart, close);
+                header.fTgid = tgid != header.fPid ? tgid : null;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Scan "timestamp: name: data", "timestamp: name(data)" or "timestamp: name
+     * -> data"
+     */
+    private static boolean scanEvent(String line, int start, Header header) {
+        int length = line.length();
+        int secondsEnd = skipDigits(line, start, length);
+        if (secondsEnd == start) {
+            return false;
+        }
+        int end = secondsEnd;
+        int fractionEnd = secondsEnd;
+        if (end < length && line.charAt(end) == '.') {
+            fractionEnd = skipDigits(line, end + 1, length);
+            if (fractionEnd > end + 1) {
+                end = fractionEnd;
+            } else {
+                fractionEnd = secondsEnd;
+            }
+        }
+        if (end + 1 >= length || line.charAt(end) != ':' || line.charAt(end + 1) != ' ') {
+            return false;
+        }
+        int nameStart = end + 2;
+        int nameEnd = skipWordCharacters(line, nameStart, length);
+        if (nameEnd == nameStart || nameEnd >= length) {
+            return false;
+        }
+        char separator = line.charAt(nameEnd);
+        int dataStart;
+        if (separator == ':') {
+            if (nameEnd + 1 >= length || !isWhitespace(line.charAt(nameEnd + 1))) {
+                return false;
+            }
+            dataStart = skipWhitespace(line, nameEnd + 1, length);
+            header.fSeparator = SEPARATOR_COLON;
+        } else if (separator == '(') {
+            dataStart = nameEnd + 1;
+            header.fSeparator = SEPARATOR_PARENTHESIS;
+        } else if (isWhitespace(separator)) {
+            int arrow = skipWhitespace(line, nameEnd, length);
+            if (!line.startsWith(SEPARATOR_ARROW, arrow)) {
+                return false;
+            }
+            int afterArrow = arrow + SEPARATOR_ARROW.length();
+            if (afterArrow >= length || !isWhitespace(line.charAt(afterArrow))) {
+                return false;
+            }
+            dataStart = skipWhitespace(line, afterArrow, length);
+            header.fSeparator = SEPARATOR_ARROW;
+        } else {
+            return false;
+        }
+        /* The data ends at a closing parenthesis, only allowed at the end */
+        int dataEnd = line.indexOf(')', dataStart);
+        if (dataEnd < 0) {
+            dataEnd = length;
+        } else if (dataEnd != length - 1) {
+            return false;
+        }
+        header.fTimestamp = parseTimestamp(line, start, secondsEnd, fractionEnd);
+        header.fNameStart = nameStart;
+        header.fNameEnd = nameEnd;
+        header.fDataStart = dataStart;
+        header.fDataEnd = dataEnd;
+        return true;
+    }
+
+    /**
+     * Parse "seconds.fraction" to nanoseconds, the digits past the nanosecond
+     * are truncated
+     */
+    private static long parseTimestamp(String line, int start, int secondsEnd, int fractionEnd) {
+        if (secondsEnd - start > MAX_SECONDS_DIGITS) {
+            return (long) (Double.parseDouble(line.substring(start, fractionEnd)) * SECONDS_TO_NANO);
+        }
+        long seconds = 0;
+        for (int i = start; i < secondsEnd; i++) {
+            seconds = seconds * 10 + (line.charAt(i) - '0');
+        }
+        long nanos = 0;
+        int digits = 0;
+        for (int i = secondsEnd + 1; i < fractionEnd && digits < NANO_DIGITS; i++, digits++) {
+            nanos = nanos * 10 + (line.charAt(i) - '0');
+        }
+        for (; digits < NANO_DIGITS; digits++) {
+            nanos *= 10;
+        }
+        return seconds * SECONDS_TO_NANO + nanos;
+    }
+
+    // ------------------------------------------------------------------------
+    // Fields: "key=value key: value ..."
+    // ------------------------------------------------------------------------
+
+    /**
+     * Find the key/value pairs, a run of key characters followed by '=' or ':'
+     * then a run of value characters. Like a greedy pattern, the longest key is
+     * taken, so a key may contain ':'.
+     */
+    private static void scanFields(String line, int start, int end, String name, Map<String, Object> fields) {
+        int i = start;
+        while (i < end) {
+            if (!isKeyCharacter(line.charAt(i))) {
+                i++;
+                continue;
+            }
+            int runEnd = i + 1;
+            while (runEnd < end && isKeyCharacter(line.charAt(runEnd))) {
+                runEnd++;
+            }
+            int next = runEnd;
+            for (int separator = runEnd; separator > i; separator--) {
+                char c = separator < end ? line.charAt(separator) : 0;
+                if ((separator == runEnd && c != '=') || (separator < runEnd && c != ':')) {
+                    continue;
+                }
+                int valueStart = skipWhitespace(line, separator + 1, end);
+                int valueEnd = valueStart;
+                while (valueEnd < end && isKeyCharacter(line.charAt(valueEnd))) {
+                    valueEnd++;
+                }
+                if (valueEnd > valueStart) {
+                    String key = line.substring(i, separator).intern();
+                    GenericFtraceField.putField(fields, name, key, line.substring(valueStart, valueEnd));
+                    next = valueEnd;
+                    break;
+                }
+            }
+            i = next;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Character classes, the same as \s, \d and \w in patterns
+    // ------------------------------------------------------------------------
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isKeyCharacter(char c) {
+        return !isWhitespace(c) && c != '=' && c != '[' && c != ']' && c != ',';
+    }
+
+    private static int skipDigits(String line, int start, int end) {
+        int i = start;
+        while (i < end && isDigit(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipDigitsBackward(String line, int last) {
+        int i = last;
+        while (i >= 0 && isDigit(line.charAt(i))) {
+            i--;
+        }
+        return i + 1;
+    }
+
+    private static int skipWhitespace(String line, int start, int end) {
+        int i = start;
+        while (i < end && isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipNonWhitespace(String line, int start, int end) {
+        int i = start;
+        while (i < end && !isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWordCharacters(String line, int start, int end) {
+        int i = start;
+        while (i < end && isWordCharacter(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int parseInt(String line, int start, int end) {
+        if (end - start >= 10) {
+            /* May overflow, let the JDK throw the same exception */
+            return Integer.parseInt(line.substring(start, end));
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (line.charAt(i) - '0');
+        }
+        return value;
+    }
+}
@@ -9,12 +9,10 @@
 
 package org.eclipse.tracecompass.incubator.internal.ftrace.core.trace;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -24,25 +22,44 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.Activator;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.BinaryFTraceContext;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.BinaryFTraceCpuCursor;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.BinaryFTraceEventFormat;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.BinaryFTraceFile;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.BinaryFTraceLocation;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.binary.BinaryFTraceLocationInfo;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceEvent;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceField;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.project.model.ITmfPropertiesProvider;
-import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 
 /**
- * Helper to open fTrace traces
+ * Binary fTrace trace, a trace.dat file recorded by trace-cmd. The file is read
+ * directly, the per-CPU ring buffer pages are memory mapped and merged by
+ * timestamp.
  *
  * @author Matthew Khouzam
  *
  */
 public class BinaryFTrace extends GenericFtrace implements ITmfPropertiesProvider {
 
-    private static final String TRACE_CMD = "trace-cmd"; //$NON-NLS-1$
-    private static final String REPORT = "report"; //$NON-NLS-1$
+    private static final int CONFIDENCE = 32;
+    private static final int MAX_VERSION_LENGTH = 16;
+    private static final BinaryFTraceLocation START_LOCATION = new BinaryFTraceLocation(BinaryFTraceLocationInfo.START);
+
     private final @NonNull Map<@NonNull String, @NonNull String> fProperties = new LinkedHashMap<>();
+    private @Nullable BinaryFTraceFile fTraceFile;
+    private BinaryFTraceLocation fCurrentLocation = START_LOCATION;
+    private long fStartTimestamp;
+    private long fEndTimestamp;
 
     @Override
     public IStatus validate(IProject project, String path) {
@@ -53,7 +70,6 @@ public class BinaryFTrace extends GenericFtrace implements ITmfPropertiesProvide
         if (!file.isFile()) {
             return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Not a file. It's a directory: " + path); //$NON-NLS-1$
         }
-        int confidence = 32;
         try {
             if (!TmfTraceUtils.isText(file)) {
                 int magicLength = TRACE_CMD_DAT_MAGIC.length;
@@ -62,17 +78,12 @@ public class BinaryFTrace extends GenericFtrace implements ITmfPropertiesProvide
                         byte[] start = new byte[magicLength];
                         int read = fis.read(start);
                         if (read == magicLength && Arrays.equals(TRACE_CMD_DAT_MAGIC, start)) {
-                            ProcessBuilder pb = new ProcessBuilder(TRACE_CMD);
-                            Process traceCmd = pb.start();
-                            try (BufferedReader br = new BufferedReader(new InputStreamReader(traceCmd.getInputStream(), Charset.forName("UTF-8")));) { //$NON-NLS-1$
-                                String line = br.readLine();
-                                while (line != null) {
-                                    if (line.contains(REPORT)) {
-                                        return new TraceValidationStatus(confidence, Activator.PLUGIN_ID);
-                                    }
-                                    line = br.readLine();
-                                }
+                            /* The version is a null terminated string */
+                            String version = readVersion(fis);
+                            if (!BinaryFTraceFile.SUPPORTED_VERSION.equals(version)) {
+                                return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unsupported trace-cmd file version: " + version); //$NON-NLS-1$
                             }
+                            return new TraceValidationStatus(CONFIDENCE, Activator.PLUGIN_ID);
                         }
                     }
                     return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Magic mismatch"); //$NON-NLS-1$
@@ -80,42 +91,157 @@ public class BinaryFTrace extends GenericFtrace implements ITmfPropertiesProvide
             }
         } catch (IOException e) {
             Activator.getInstance().logError("Error validating file: " + path, e); //$NON-NLS-1$
-            if (e.getMessage().startsWith("Cannot run program: \"" + TRACE_CMD + "\": error=2,")) { //$NON-NLS-1$ //$NON-NLS-2$
-                return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "It appears trace-cmd is not available on your machine. Please install it to use the binary ftrace parser. (sudo apt install trace-cmd)", e); //$NON-NLS-1$
-            }
-
             return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "IOException validating file: " + path, e); //$NON-NLS-1$
         }
         return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Not an FTrace bin"); //$NON-NLS-1$
     }
 
+    private static String readVersion(FileInputStream fis) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int read = fis.read();
+        while (read > 0 && sb.length() < MAX_VERSION_LENGTH) {
+            sb.append((char) read);
+            read = fis.read();
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void initTrace(IResource resource, String path, Class<? extends ITmfEvent> type) throws TmfTraceException {
+        BinaryFTraceFile traceFile;
+        try {
+            traceFile = new BinaryFTraceFile(new File(path));
+        } catch (IOException e) {
+            throw new TmfTraceException(e.getMessage(), e);
+        }
+        fTraceFile = traceFile;
+        initBounds(traceFile);
+        fProperties.put("Type", "trace-cmd"); //$NON-NLS-1$ //$NON-NLS-2$
+        fProperties.put("Version", traceFile.getVersion()); //$NON-NLS-1$
+        fProperties.put("CPUs", String.valueOf(traceFile.getCpuCount())); //$NON-NLS-1$
+        fProperties.put("Page size", String.valueOf(traceFile.getPageSize())); //$NON-NLS-1$
+        fProperties.put("Byte order", String.valueOf(traceFile.getByteOrder())); //$NON-NLS-1$
+        super.initTrace(resource, path, type);
+    }
+
     @Override
-    public void initTrace(IResource resource, String path, Class<? extends ITmfEvent> type, String name, String traceTypeId) throws TmfTraceException {
+    protected void initFileInput(File file) {
+        /* The events are read from the mapped pages, not from the lines */
+    }
 
-        super.initTrace(resource, path, type, name, traceTypeId);
-        fProperties.put("Type", "Trace-Event"); //$NON-NLS-1$ //$NON-NLS-2$
-        String dir = TmfTraceManager.getSupplementaryFileDir(this);
-        if (!new File(dir).exists()) {
-            throw new TmfTraceException("Could not create temporary folder " + dir); //$NON-NLS-1$
+    @Override
+    public synchronized void dispose() {
+        BinaryFTraceFile traceFile = fTraceFile;
+        fTraceFile = null;
+        if (traceFile != null) {
+            traceFile.close();
         }
-        File file = new File(dir + new File(path).getName());
-        if (!file.exists()) {
+        super.dispose();
+    }
 
-            ProcessBuilder pb = new ProcessBuilder(TRACE_CMD, "report", "-i", path, "-R"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-            pb.redirectOutput(file);
-            try {
-                pb.start().waitFor();
-            } catch (IOException | InterruptedException e) {
-                throw new TmfTraceException(e.getMessage(), e);
+    /**
+     * Find the first and last timestamps of the trace, the bounds of the
+     * location ratios
+     */
+    private void initBounds(BinaryFTraceFile traceFile) {
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (int cpu = 0; cpu < traceFile.getCpuCount(); cpu++) {
+            BinaryFTraceCpuCursor cursor = new BinaryFTraceCpuCursor(traceFile, cpu);
+            if (cursor.advance()) {
+                start = Math.min(start, cursor.getTimestamp());
             }
-            if (!file.exists()) {
-                throw new TmfTraceException("Could not create temporary file " + file.getAbsolutePath()); //$NON-NLS-1$
+            /* The last event is in the last page, or before if it is empty */
+            long pages = traceFile.getPageCount(cpu);
+            for (long page = pages - 1; page >= 0; page--) {
+                ByteBuffer buffer = traceFile.getPageBuffer(cpu, page);
+                if (cursor.seek(traceFile.getPageTimestamp(buffer, traceFile.getPageStart(page)))) {
+                    long last = cursor.getTimestamp();
+                    while (cursor.advance()) {
+                        last = cursor.getTimestamp();
+                    }
+                    end = Math.max(end, last);
+                    break;
+                }
+            }
+        }
+        fStartTimestamp = start == Long.MAX_VALUE ? 0 : start;
+        fEndTimestamp = Math.max(fStartTimestamp, end);
+    }
+
+    @Override
+    public ITmfContext seekEvent(ITmfLocation location) {
+        BinaryFTraceFile traceFile = fTraceFile;
+        if (traceFile == null) {
+            return new TmfContext(START_LOCATION, ITmfContext.UNKNOWN_RANK);
+        }
+        BinaryFTraceLocation binaryLocation = START_LOCATION;
+        if (location instanceof BinaryFTraceLocation) {
+            binaryLocation = (BinaryFTraceLocation) location;
+        }
+        BinaryFTraceContext context = new BinaryFTraceContext(traceFile, binaryLocation, location == null ? 0 : ITmfContext.UNKNOWN_RANK);
+        fCurrentLocation = context.getCurrentLocation();
+        return context;
+    }
+
+    @Override
+    public ITmfContext seekEvent(double ratio) {
+        long timestamp = fStartTimestamp + (long) ((fEndTimestamp - fStartTimestamp) * ratio);
+        ITmfContext context = seekEvent(new BinaryFTraceLocation(new BinaryFTraceLocationInfo(timestamp, 0)));
+        context.setRank(ITmfContext.UNKNOWN_RANK);
+        return context;
+    }
+
+    @Override
+    public double getLocationRatio(ITmfLocation location) {
+        if (!(location instanceof BinaryFTraceLocation) || fEndTimestamp <= fStartTimestamp) {
+            return 0;
+        }
+        long timestamp = ((BinaryFTraceLocation) location).getLocationInfo().getTimestamp();
+        double ratio = (timestamp - (double) fStartTimestamp) / (fEndTimestamp - fStartTimestamp);
+        return Math.max(0.0, Math.min(1.0, ratio));
+    }
+
+    @Override
+    public ITmfLocation getCurrentLocation() {
+        return fCurrentLocation;
+    }
+
+    @Override
+    public ITmfEvent parseEvent(ITmfContext context) {
+        BinaryFTraceFile traceFile = fTraceFile;
+        if (traceFile == null) {
+            return null;
+        }
+        BinaryFTraceContext binaryContext;
+        if (context instanceof BinaryFTraceContext) {
+            binaryContext = (BinaryFTraceContext) context;
+        } else {
+            ITmfLocation location = context.getLocation();
+            if (!(location instanceof BinaryFTraceLocation)) {
+                return null;
             }
-            if (file.length() <= 0) {
-                throw new TmfTraceException("Empty temporary file " + file.getAbsolutePath()); //$NON-NLS-1$
+            binaryContext = new BinaryFTraceContext(traceFile, (BinaryFTraceLocation) location, context.getRank());
+        }
+        BinaryFTraceCpuCursor cursor = binaryContext.getCurrent();
+        while (cursor != null) {
+            ByteBuffer buffer = cursor.getBuffer();
+            int start = cursor.getEventStart();
+            int length = cursor.getEventLength();
+            BinaryFTraceEventFormat format = traceFile.getFormat(buffer, start, length);
+            if (format != null) {
+                GenericFtraceField field = GenericFtraceField.parseRawEvent(format.getName(), cursor.getCpu(), cursor.getTimestamp(),
+                        format.readPid(buffer, start, length), format.readFields(buffer, start, length));
+                binaryContext.advance();
+                fCurrentLocation = binaryContext.getCurrentLocation();
+                return new GenericFtraceEvent(this, context.getRank(), field);
             }
+            /* Events of unknown types are skipped */
+            binaryContext.advance();
+            cursor = binaryContext.getCurrent();
         }
-        setFile(file);
+        fCurrentLocation = binaryContext.getCurrentLocation();
+        return null;
     }
 
     @Override
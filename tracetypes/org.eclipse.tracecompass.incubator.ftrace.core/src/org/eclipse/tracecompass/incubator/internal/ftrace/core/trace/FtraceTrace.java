@@ -22,6 +22,7 @@ import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtra
 import org.eclipse.tracecompass.tmf.core.io.BufferedRandomAccessFile;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceIndexer;
 
 /**
  * Ftrace trace.
@@ -37,6 +38,11 @@ public class FtraceTrace extends GenericFtrace {
     private static final int MAX_LINES = 100;
     private static final int MAX_CONFIDENCE = 100;
 
+    @Override
+    protected ITmfTraceIndexer createIndexer(int interval) {
+        return new ParallelFtraceIndexer(this, interval);
+    }
+
     @Override
     public IStatus validate(IProject project, String path) {
         File file = new File(path);
@@ -17,12 +17,14 @@ import org.eclipse.tracecompass.incubator.internal.ftrace.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceAspects;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceEvent;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceField;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceLineParser;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.IGenericFtraceConstants;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.layout.GenericFtraceEventLayout;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.io.BufferedRandomAccessFile;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
@@ -33,7 +35,6 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
-import java.util.regex.Matcher;
 
 /**
  * Generic Ftrace trace.
@@ -77,9 +78,22 @@ public abstract class GenericFtrace extends TmfTrace implements IKernelTrace {
     @Override
     public void initTrace(IResource resource, String path, Class<? extends ITmfEvent> type) throws TmfTraceException {
         super.initTrace(resource, path, type);
+        fFile = new File(path);
+        initFileInput(fFile);
+    }
+
+    /**
+     * Open the file input of the trace, from which the lines are read. Traces
+     * that do not read lines override this method to not open it.
+     *
+     * @param file
+     *            the trace file
+     * @throws TmfTraceException
+     *             if the file cannot be opened
+     */
+    protected void initFileInput(File file) throws TmfTraceException {
         try {
-            fFile = new File(path);
-            fFileInput = new BufferedRandomAccessFile(fFile, "r"); //$NON-NLS-1$
+            fFileInput = new BufferedRandomAccessFile(file, "r"); //$NON-NLS-1$
         } catch (IOException e) {
             throw new TmfTraceException(e.getMessage(), e);
         }
@@ -139,14 +153,12 @@ public abstract class GenericFtrace extends TmfTrace implements IKernelTrace {
             if (line == null) {
                 return context;
             }
-            Matcher matcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
-            while (!matcher.matches()) {
+            while (!GenericFtraceLineParser.isEvent(line)) {
                 lineStartOffset = fileInput.getFilePointer();
                 line = fileInput.readLine();
                 if (line == null) {
                     break;
                 }
-                matcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
             }
             fileInput.seek(lineStartOffset);
         } else if (location.getLocationInfo() instanceof Long) {
@@ -248,6 +260,20 @@ public abstract class GenericFtrace extends TmfTrace implements IKernelTrace {
         return GenericFtraceEventLayout.getInstance();
     }
 
+    /**
+     * Set the number of events and the time range of the trace once it is
+     * indexed without reading its events
+     *
+     * @param nbEvents
+     *            the number of events
+     * @param range
+     *            the time range of the events
+     */
+    void setIndexedAttributes(long nbEvents, TmfTimeRange range) {
+        setNbEvents(nbEvents);
+        setTimeRange(range);
+    }
+
     /**
      * Get the fTrace file input
      *
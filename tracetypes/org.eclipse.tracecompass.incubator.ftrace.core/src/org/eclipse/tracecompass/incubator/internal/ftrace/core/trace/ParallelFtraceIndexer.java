@@ -0,0 +1,520 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ftrace.core.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.Activator;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceLineParser;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.IGenericFtraceConstants;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceUpdatedSignal;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.TmfCheckpointIndexer;
+import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
+
+/**
+ * Checkpoint indexer of ftrace text traces that reads the file with several
+ * threads. The file is split in chunks at line boundaries, then:
+ * <ol>
+ * <li>every chunk counts its events, which gives the rank of its first
+ * event;</li>
+ * <li>every chunk records the checkpoints of its ranks that are multiples of
+ * the interval, along with its first and last timestamps.</li>
+ * </ol>
+ * The checkpoints are then inserted in order, they are the same as the ones
+ * the sequential indexer finds: the location of an event is the offset just
+ * after the line of the previous event, comments are skipped and the trace
+ * ends at the first line that is neither a comment nor an event.
+ *
+ * Small files and ranges other than the whole trace are indexed by the
+ * sequential indexer.
+ */
+public class ParallelFtraceIndexer extends TmfCheckpointIndexer {
+
+    /**
+     * System property for the number of threads reading chunks
+     */
+    public static final String PARALLELISM_PROPERTY = "org.eclipse.tracecompass.incubator.ftrace.index.parallelism"; //$NON-NLS-1$
+    /**
+     * System property for the size of the chunks, in bytes
+     */
+    public static final String CHUNK_SIZE_PROPERTY = "org.eclipse.tracecompass.incubator.ftrace.index.chunk"; //$NON-NLS-1$
+
+    private static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+    private static final int MAX_BUFFER_SIZE = 1 << 20;
+    private static final int MIN_BUFFER_SIZE = 1 << 8;
+    /** Number of lines read between checks of the cancellation */
+    private static final int CANCEL_CHECK_LINES = 1 << 12;
+
+    private final GenericFtrace fTrace;
+    private final int fInterval;
+    private int fParallelism = Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+    private long fChunkSize = Long.getLong(CHUNK_SIZE_PROPERTY, DEFAULT_CHUNK_SIZE);
+    private volatile boolean fParallelIndexing = false;
+    private @Nullable Job fJob = null;
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            the trace to index
+     * @param interval
+     *            the number of events between checkpoints
+     */
+    public ParallelFtraceIndexer(GenericFtrace trace, int interval) {
+        super(trace, interval);
+        fTrace = trace;
+        fInterval = interval;
+    }
+
+    /**
+     * Set the number of threads reading chunks
+     *
+     * @param parallelism
+     *            the number of threads, 1 uses the sequential indexer
+     */
+    public void setParallelism(int parallelism) {
+        fParallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Set the size of the chunks read by the threads. Files that fit in one
+     * chunk use the sequential indexer.
+     *
+     * @param chunkSize
+     *            the size of the chunks, in bytes
+     */
+    public void setChunkSize(long chunkSize) {
+        fChunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public void buildIndex(long offset, TmfTimeRange range, boolean waitForCompletion) {
+        File file = fTrace.getFile();
+        if (offset != 0 || !TmfTimeRange.ETERNITY.equals(range) || file == null || fParallelism < 2 || file.length() <= fChunkSize) {
+            super.buildIndex(offset, range, waitForCompletion);
+            return;
+        }
+        Job job;
+        synchronized (this) {
+            if (fParallelIndexing) {
+                return;
+            }
+            fParallelIndexing = true;
+            job = new Job(NLS.bind(Messages.ParallelFtraceIndexer_Indexing, fTrace.getName())) {
+                @Override
+                protected IStatus run(@Nullable IProgressMonitor monitor) {
+                    try {
+                        return index(file, SubMonitor.convert(monitor));
+                    } finally {
+                        fParallelIndexing = false;
+                    }
+                }
+            };
+            job.setSystem(true);
+            fJob = job;
+        }
+        job.schedule();
+        if (waitForCompletion) {
+            try {
+                job.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isIndexing() {
+        return fParallelIndexing || super.isIndexing();
+    }
+
+    @Override
+    public synchronized void dispose() {
+        Job job = fJob;
+        if (job != null) {
+            job.cancel();
+        }
+        super.dispose();
+    }
+
+    private IStatus index(File file, SubMonitor monitor) {
+        ForkJoinPool pool = new ForkJoinPool(fParallelism);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long[] bounds = split(channel, file.length());
+            int chunks = bounds.length - 1;
+            SubMonitor progress = SubMonitor.convert(monitor, 2 * chunks);
+
+            /* Pass 1: count the events of every chunk */
+            List<ForkJoinTask<ChunkSummary>> counts = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                counts.add(pool.submit(() -> summarize(channel, start, end, progress)));
+            }
+            ChunkSummary[] summaries = new ChunkSummary[chunks];
+            for (int i = 0; i < chunks; i++) {
+                summaries[i] = counts.get(i).get();
+                progress.worked(1);
+            }
+
+            /* Stitch the chunks: ranks, and where the trace starts and ends */
+            long[] baseRanks = new long[chunks];
+            long[] nbEvents = new long[chunks];
+            long[] previousEnds = new long[chunks];
+            boolean started = false;
+            long rank = 0;
+            long previousEnd = -1;
+            for (int i = 0; i < chunks; i++) {
+                ChunkSummary summary = summaries[i];
+                baseRanks[i] = rank;
+                boolean badFirst = summary.fFirstBad >= 0 && (summary.fFirstEvent < 0 || summary.fFirstBad < summary.fFirstEvent);
+                if (!started) {
+                    if (summary.fFirstEvent < 0) {
+                        /* Lines before the first event are skipped */
+                        continue;
+                    }
+                    started = true;
+                    previousEnd = summary.fFirstEvent;
+                } else if (badFirst) {
+                    break;
+                }
+                previousEnds[i] = previousEnd;
+                nbEvents[i] = summary.fEvents;
+                rank += summary.fEvents;
+                if (summary.fEvents > 0) {
+                    previousEnd = summary.fLastEventEnd;
+                }
+                if (summary.fEndsTrace) {
+                    break;
+                }
+            }
+
+            /* Pass 2: find the checkpoints of every chunk */
+            List<ForkJoinTask<ChunkIndex>> indexes = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                long base = baseRanks[i];
+                long count = nbEvents[i];
+                long previous = previousEnds[i];
+                indexes.add(count == 0 ? null : pool.submit(() -> findCheckpoints(channel, start, end, base, count, previous, progress)));
+            }
+            long startTime = Long.MAX_VALUE;
+            long endTime = Long.MIN_VALUE;
+            for (int i = 0; i < chunks; i++) {
+                ForkJoinTask<ChunkIndex> task = indexes.get(i);
+                if (task != null) {
+                    ChunkIndex index = task.get();
+                    for (int j = 0; j < index.fSize; j++) {
+                        updateIndex(new TmfContext(new TmfLongLocation(index.fLocations[j]), index.fRanks[j]), TmfTimestamp.fromNanos(index.fTimestamps[j]));
+                    }
+                    startTime = Math.min(startTime, index.fStartTime);
+                    endTime = Math.max(endTime, index.fEndTime);
+                }
+                progress.worked(1);
+            }
+            if (rank > 0) {
+                TmfTimeRange range = new TmfTimeRange(TmfTimestamp.fromNanos(startTime), TmfTimestamp.fromNanos(endTime));
+                fTrace.setIndexedAttributes(rank, range);
+                fTrace.broadcast(new TmfTraceUpdatedSignal(this, fTrace, range, rank));
+            }
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Status.CANCEL_STATUS;
+        } catch (IOException | ExecutionException e) {
+            Activator.getInstance().logError("Error indexing trace " + fTrace.getPath(), e); //$NON-NLS-1$
+            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Error indexing trace " + fTrace.getPath(), e); //$NON-NLS-1$
+        } finally {
+            pool.shutdownNow();
+            monitor.done();
+        }
+        return Status.OK_STATUS;
+    }
+
+    // ------------------------------------------------------------------------
+    // Chunks
+    // ------------------------------------------------------------------------
+
+    /**
+     * Split the file in chunks that start at the beginning of a line
+     *
+     * @return the bounds of the chunks, the first one is 0 and the last one is
+     *         the size of the file
+     */
+    private long[] split(FileChannel channel, long size) throws IOException {
+        int chunks = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(1, (size + fChunkSize - 1) / fChunkSize));
+        long[] bounds = new long[chunks + 1];
+        for (int i = 1; i < chunks; i++) {
+            long position = Math.max(bounds[i - 1], size / chunks * i);
+            bounds[i] = position > 0 ? nextLineStart(channel, position - 1, size) : 0;
+        }
+        bounds[chunks] = size;
+        return bounds;
+    }
+
+    /**
+     * Find the start of the first line after a position, the line terminators
+     * are the same as {@link java.io.RandomAccessFile#readLine()}
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        LineReader reader = new LineReader(channel, from, MIN_BUFFER_SIZE);
+        reader.readLine();
+        return Math.min(size, reader.getLineEnd());
+    }
+
+    private static boolean isEvent(String line) {
+        return getTimestamp(line) >= 0;
+    }
+
+    /**
+     * Get the timestamp of an event line, or -1 if the line is not an event.
+     * Lines with numbers too large to parse are not events either.
+     */
+    private static long getTimestamp(String line) {
+        try {
+            return GenericFtraceLineParser.getTimestamp(line);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void checkCanceled(IProgressMonitor monitor, long lines) {
+        if ((lines % CANCEL_CHECK_LINES) == 0 && monitor.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+    }
+
+    /**
+     * Pass 1: count the events of a chunk. The trace may or may not have
+     * started before the chunk, so both where the events start and where bad
+     * lines are found are kept.
+     */
+    private static ChunkSummary summarize(FileChannel channel, long start, long end, IProgressMonitor monitor) throws IOException {
+        ChunkSummary summary = new ChunkSummary();
+        LineReader reader = new LineReader(channel, start, end - start);
+        long lines = 0;
+        String line = reader.readLine();
+        while (line != null && reader.getLineStart() < end) {
+            checkCanceled(monitor, ++lines);
+            if (line.startsWith(IGenericFtraceConstants.FTRACE_COMMENT_CHAR)) {
+                /* The trace starts at the first event, even a commented one */
+                if (summary.fFirstEvent < 0 && isEvent(line)) {
+                    summary.fFirstEvent = reader.getLineStart();
+                }
+            } else if (isEvent(line)) {
+                if (summary.fFirstEvent < 0) {
+                    summary.fFirstEvent = reader.getLineStart();
+                }
+                summary.fEvents++;
+                summary.fLastEventEnd = reader.getLineEnd();
+            } else {
+                if (summary.fFirstBad < 0) {
+                    summary.fFirstBad = reader.getLineStart();
+                }
+                if (summary.fFirstEvent >= 0) {
+                    summary.fEndsTrace = true;
+                    break;
+                }
+            }
+            line = reader.readLine();
+        }
+        return summary;
+    }
+
+    /**
+     * Pass 2: find the checkpoints and the time range of the events of a chunk
+     */
+    private ChunkIndex findCheckpoints(FileChannel channel, long start, long end, long baseRank, long count, long previousEnd, IProgressMonitor monitor) throws IOException {
+        ChunkIndex index = new ChunkIndex();
+        LineReader reader = new LineReader(channel, start, end - start);
+        long rank = baseRank;
+        long location = previousEnd;
+        long lines = 0;
+        String line = reader.readLine();
+        while (line != null && rank < baseRank + count) {
+            checkCanceled(monitor, ++lines);
+            long timestamp = line.startsWith(IGenericFtraceConstants.FTRACE_COMMENT_CHAR) ? -1 : getTimestamp(line);
+            if (timestamp >= 0) {
+                if (rank % fInterval == 0) {
+                    index.add(rank, location, timestamp);
+                }
+                index.fStartTime = Math.min(index.fStartTime, timestamp);
+                index.fEndTime = Math.max(index.fEndTime, timestamp);
+                location = reader.getLineEnd();
+                rank++;
+            }
+            line = reader.readLine();
+        }
+        return index;
+    }
+
+    private static final class ChunkSummary {
+        /** Offset of the first event line, even commented */
+        private long fFirstEvent = -1;
+        /** Offset of the first line that is neither a comment nor an event */
+        private long fFirstBad = -1;
+        /** Number of events from the first event to the next bad line */
+        private long fEvents = 0;
+        /** Offset after the line of the last event counted */
+        private long fLastEventEnd = -1;
+        /** Whether there is a bad line after the first event */
+        private boolean fEndsTrace = false;
+    }
+
+    private static final class ChunkIndex {
+        private long[] fRanks = new long[16];
+        private long[] fLocations = new long[16];
+        private long[] fTimestamps = new long[16];
+        private int fSize = 0;
+        private long fStartTime = Long.MAX_VALUE;
+        private long fEndTime = Long.MIN_VALUE;
+
+        private void add(long rank, long location, long timestamp) {
+            if (fSize == fRanks.length) {
+                fRanks = Arrays.copyOf(fRanks, fSize * 2);
+                fLocations = Arrays.copyOf(fLocations, fSize * 2);
+                fTimestamps = Arrays.copyOf(fTimestamps, fSize * 2);
+            }
+            fRanks[fSize] = rank;
+            fLocations[fSize] = location;
+            fTimestamps[fSize] = timestamp;
+            fSize++;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Line reader
+    // ------------------------------------------------------------------------
+
+    /**
+     * Reads the lines of a file from a position with positional reads, so
+     * several readers can share a channel. The bytes are decoded as ISO-8859-1
+     * and the lines end with '\n', '\r' or "\r\n", like
+     * {@link java.io.RandomAccessFile#readLine()}.
+     */
+    private static final class LineReader {
+        private final FileChannel fChannel;
+        private byte[] fBuffer;
+        /** Offset in the file of the first byte of the buffer */
+        private long fBufferOffset;
+        private int fPosition = 0;
+        private int fLimit = 0;
+        private boolean fEof = false;
+        private long fLineStart;
+        private long fLineEnd;
+
+        /**
+         * Constructor
+         *
+         * @param channel
+         *            the file
+         * @param position
+         *            the position of the first line
+         * @param length
+         *            the expected number of bytes to read, to size the buffer
+         */
+        public LineReader(FileChannel channel, long position, long length) {
+            fChannel = channel;
+            fBuffer = new byte[(int) Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, length))];
+            fBufferOffset = position;
+            fLineEnd = position;
+        }
+
+        public long getLineStart() {
+            return fLineStart;
+        }
+
+        public long getLineEnd() {
+            return fLineEnd;
+        }
+
+        public @Nullable String readLine() throws IOException {
+            fLineStart = fBufferOffset + fPosition;
+            int scanned = 0;
+            while (true) {
+                byte[] buffer = fBuffer;
+                for (int i = fPosition + scanned; i < fLimit; i++) {
+                    byte b = buffer[i];
+                    if (b == '\n' || b == '\r') {
+                        if (b == '\r' && i + 1 == fLimit && !fEof) {
+                            /* Need the next byte to know if it is "\r\n" */
+                            break;
+                        }
+                        String line = new String(buffer, fPosition, i - fPosition, StandardCharsets.ISO_8859_1);
+                        int next = i + 1;
+                        if (b == '\r' && next < fLimit && buffer[next] == '\n') {
+                            next++;
+                        }
+                        fPosition = next;
+                        fLineEnd = fBufferOffset + next;
+                        return line;
+                    }
+                    scanned++;
+                }
+                if (fEof) {
+                    if (fPosition == fLimit) {
+                        return null;
+                    }
+                    String line = new String(buffer, fPosition, fLimit - fPosition, StandardCharsets.ISO_8859_1);
+                    fPosition = fLimit;
+                    fLineEnd = fBufferOffset + fLimit;
+                    return line;
+                }
+                fill();
+            }
+        }
+
+        /**
+         * Read more bytes, keeping the current line at the start of the
+         * buffer
+         */
+        private void fill() throws IOException {
+            int remaining = fLimit - fPosition;
+            if (fPosition > 0) {
+                System.arraycopy(fBuffer, fPosition, fBuffer, 0, remaining);
+                fBufferOffset += fPosition;
+                fPosition = 0;
+                fLimit = remaining;
+            } else if (fLimit == fBuffer.length) {
+                fBuffer = Arrays.copyOf(fBuffer, fBuffer.length * 2);
+            }
+            int read = fChannel.read(ByteBuffer.wrap(fBuffer, fLimit, fBuffer.length - fLimit), fBufferOffset + fLimit);
+            if (read < 0) {
+                fEof = true;
+            } else {
+                fLimit += read;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.perf.profiling.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph.PerfCallchainAnalysisModule;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.Test;
+
+/**
+ * Benchmarks the {@link PerfCallchainAnalysisModule} on a generated trace of
+ * sampling events from many processes
+ */
+public class PerfCallchainAnalysisBenchmark {
+
+    /**
+     * Test ID for the perf profiling benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#PerfProfiling#";
+    private static final String TEST_CALLCHAIN = "Aggregate callchains of many processes";
+
+    private static final int PROCESS_COUNT = 2000;
+    private static final int THREAD_COUNT = 4;
+    private static final int SAMPLE_COUNT = 10;
+    private static final int LOOP_COUNT = 5;
+
+    /**
+     * Write a trace where each thread of each process is sampled at every
+     * timestamp, with a callchain that depends on the time
+     */
+    private static File createTrace() throws IOException {
+        File file = File.createTempFile("perf", ".xml");
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("<trace>\n");
+            for (int time = 1; time <= SAMPLE_COUNT; time++) {
+                for (int pid = 1; pid <= PROCESS_COUNT; pid++) {
+                    for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                        long tid = (long) pid * THREAD_COUNT + thread;
+                        writer.write(String.format("<event timestamp=\"%d\" name=\"cycles:ppp\">\n", time));
+                        writer.write(String.format("<field name=\"perf_pid\" type=\"long\" value=\"%d\" />\n", pid));
+                        writer.write(String.format("<field name=\"perf_tid\" type=\"long\" value=\"%d\" />\n", tid));
+                        writer.write(String.format("<field name=\"perf_callchain\" type=\"longArray\" value=\"0,%d,%d,1\" />\n", time % 3 + 2, thread + 10));
+                        writer.write("</event>\n");
+                    }
+                }
+            }
+            writer.write("</trace>\n");
+        }
+        return file;
+    }
+
+    /**
+     * Run the benchmark
+     *
+     * @throws IOException
+     *             Exceptions writing the trace
+     * @throws TmfTraceException
+     *             Exceptions opening the trace
+     */
+    @Test
+    public void runBenchmark() throws IOException, TmfTraceException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + TEST_CALLCHAIN));
+        perf.tagAsSummary(pm, TEST_CALLCHAIN, Dimension.CPU_TIME);
+        File traceFile = createTrace();
+        try {
+            for (int i = 0; i < LOOP_COUNT; i++) {
+                TmfXmlTraceStub trace = new TmfXmlTraceStubNs();
+                try {
+                    trace.initTrace(null, traceFile.getAbsolutePath(), TmfEvent.class);
+                    trace.traceOpened(new TmfTraceOpenedSignal(this, trace, null));
+                    PerfCallchainAnalysisModule module = TmfTraceUtils.getAnalysisModuleOfClass(trace, PerfCallchainAnalysisModule.class, PerfCallchainAnalysisModule.ID);
+                    assertNotNull(module);
+                    pm.start();
+                    module.schedule();
+                    assertTrue(module.waitForCompletion());
+                    pm.stop();
+                    assertEquals(PROCESS_COUNT, module.getCallGraph().getElements().size());
+                } finally {
+                    /*
+                     * Delete the saved samples, so that the next iteration
+                     * reads the trace again
+                     */
+                    File suppDir = new File(TmfTraceManager.getSupplementaryFileDir(trace));
+                    trace.dispose();
+                    for (File file : suppDir.listFiles()) {
+                        file.delete();
+                    }
+                }
+            }
+            pm.commit();
+        } finally {
+            Files.deleteIfExists(traceFile.toPath());
+        }
+    }
+}
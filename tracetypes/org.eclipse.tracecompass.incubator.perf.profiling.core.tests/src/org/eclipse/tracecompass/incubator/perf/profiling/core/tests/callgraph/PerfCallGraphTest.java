@@ -15,18 +15,24 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.ISamplingDataProvider;
+import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
+import org.eclipse.tracecompass.incubator.callstack.core.callgraph.CallGraph;
 import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph.PerfCallchainAnalysisModule;
 import org.eclipse.tracecompass.incubator.perf.profiling.core.tests.ActivatorTest;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
@@ -119,4 +125,68 @@ public class PerfCallGraphTest {
         assertEquals("0x4", callsite.getObject().resolve(Collections.emptySet()));
     }
 
+    /**
+     * Test that the call graph of a time range, obtained from the samples
+     * indexed by the analysis, has the samples of the range
+     */
+    @Test
+    public void testRangeCallGraph() {
+        PerfCallchainAnalysisModule module = fModule;
+        assertNotNull(module);
+
+        CallGraph fullRange = module.getCallGraph(TmfTimestamp.BIG_BANG, TmfTimestamp.BIG_CRUNCH);
+        assertEquals(toString(module.getCallGraph()), toString(fullRange));
+
+        // Only the samples of the first timestamp
+        CallGraph range = module.getCallGraph(TmfTimestamp.fromNanos(0), TmfTimestamp.fromNanos(2));
+        assertEquals("[1/2[0x1=1[0x0=1]], 1/3, 5/6[0x1=1[0x3=1[0x0=1]]], 5/7[0x5=1[0x2=1[0x0=1]]]]", toString(range));
+    }
+
+    /**
+     * Test that a new analysis on the same trace reads the samples saved by
+     * the first one instead of the events
+     *
+     * @throws TmfAnalysisException
+     *             Exceptions setting the trace of the analysis
+     */
+    @Test
+    public void testSavedSamples() throws TmfAnalysisException {
+        PerfCallchainAnalysisModule module = fModule;
+        assertNotNull(module);
+
+        PerfCallchainAnalysisModule reopened = new PerfCallchainAnalysisModule();
+        try {
+            reopened.setId(PerfCallchainAnalysisModule.ID);
+            assertTrue(reopened.setTrace(fTrace));
+            reopened.schedule();
+            assertTrue(reopened.waitForCompletion());
+
+            assertEquals(toString(module.getCallGraph()), toString(reopened.getCallGraph()));
+            assertEquals(toString(module.getSamplingData(2, 0, 50)), toString(reopened.getSamplingData(2, 0, 50)));
+            assertEquals(toString(module.getSamplingData(6, 8, 12)), toString(reopened.getSamplingData(6, 8, 12)));
+        } finally {
+            reopened.dispose();
+        }
+    }
+
+    private static String toString(CallGraph callGraph) {
+        List<String> strings = new ArrayList<>();
+        for (ICallStackElement process : callGraph.getElements()) {
+            for (ICallStackElement thread : process.getChildrenElements()) {
+                strings.add(process.getName() + '/' + thread.getName() + toString(callGraph.getCallingContextTree(thread)));
+            }
+        }
+        Collections.sort(strings);
+        return String.valueOf(strings);
+    }
+
+    private static String toString(Collection<AggregatedCallSite> callsites) {
+        List<String> strings = new ArrayList<>();
+        for (AggregatedCallSite callsite : callsites) {
+            strings.add(callsite.getObject().resolve(Collections.emptySet()) + '=' + callsite.getWeight() + toString(callsite.getCallees()));
+        }
+        Collections.sort(strings);
+        return strings.isEmpty() ? "" : String.valueOf(strings);
+    }
+
 }
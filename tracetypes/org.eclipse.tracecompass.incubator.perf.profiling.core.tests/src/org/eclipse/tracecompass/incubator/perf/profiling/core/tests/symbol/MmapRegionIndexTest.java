@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.perf.profiling.core.tests.symbol;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.symbol.MmapRegionIndex;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.junit.Test;
+
+/**
+ * Test the {@link MmapRegionIndex}
+ */
+public class MmapRegionIndexTest {
+
+    /**
+     * Create a state system like the one of the perf mmap analysis, with the
+     * files mapped by pid 1
+     */
+    private static ITmfStateSystem createStateSystem() {
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("Test", 0L));
+        int libA = ss.getQuarkAbsoluteAndAdd("1", "1000");
+        int libB = ss.getQuarkAbsoluteAndAdd("1", "5000");
+        int libC = ss.getQuarkAbsoluteAndAdd("1", "3000");
+        ss.modifyAttribute(10L, "libA", libA);
+        ss.modifyAttribute(20L, "libC", libC);
+        ss.modifyAttribute(50L, "libB", libB);
+        ss.modifyAttribute(60L, null, libC);
+        ss.modifyAttribute(70L, "libC2", libC);
+        ss.closeHistory(100L);
+        return ss;
+    }
+
+    /**
+     * Test the regions found for addresses at different times
+     *
+     * @throws StateSystemDisposedException
+     *             Exceptions thrown by the state system
+     */
+    @Test
+    public void testGetRegion() throws StateSystemDisposedException {
+        ITmfStateSystem ss = createStateSystem();
+        MmapRegionIndex index = MmapRegionIndex.create(ss, ss.optQuarkAbsolute("1"));
+
+        // Nothing is mapped before the first base address or time
+        assertEquals(MmapRegionIndex.NO_REGION, index.getRegion(50L, 999L));
+        assertEquals(MmapRegionIndex.NO_REGION, index.getRegion(5L, 1500L));
+
+        assertRegion(index, 15L, 4000L, 1000L, "libA");
+        assertRegion(index, 30L, 4000L, 3000L, "libC");
+        assertRegion(index, 55L, 6000L, 5000L, "libB");
+        // libC is unmapped, the address falls back in libA
+        assertRegion(index, 65L, 4000L, 1000L, "libA");
+        assertRegion(index, 80L, 4000L, 3000L, "libC2");
+        assertRegion(index, 100L, 3000L, 3000L, "libC2");
+
+        // A process without mappings
+        index = MmapRegionIndex.create(ss, ss.optQuarkAbsolute("2"));
+        assertEquals(MmapRegionIndex.NO_REGION, index.getRegion(50L, 4000L));
+    }
+
+    private static void assertRegion(MmapRegionIndex index, long time, long address, long expectedBase, String expectedFile) {
+        int region = index.getRegion(time, address);
+        assertEquals(expectedBase, index.getBaseAddress(region));
+        assertEquals(expectedFile, index.getFilename(region));
+    }
+}
@@ -9,13 +9,17 @@
 
 package org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
@@ -24,15 +28,22 @@ import org.eclipse.tracecompass.incubator.callstack.core.base.CallStackElement;
 import org.eclipse.tracecompass.incubator.callstack.core.base.CallStackGroupDescriptor;
 import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
 import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackGroupDescriptor;
+import org.eclipse.tracecompass.incubator.callstack.core.callgraph.CallGraph;
 import org.eclipse.tracecompass.incubator.callstack.core.sampled.callgraph.ProfilingCallGraphAnalysisModule;
+import org.eclipse.tracecompass.incubator.callstack.core.sampled.callgraph.SampledCallGraph;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.util.LongMap;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.Activator;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
 import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
 import org.eclipse.tracecompass.tmf.core.util.Pair;
 
@@ -55,11 +66,50 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
     private static final String FIELD_PERF_CALLCHAIN = "perf_callchain"; //$NON-NLS-1$
     private static final String FIELD_PERF_PID = "perf_pid"; //$NON-NLS-1$
     private static final String FIELD_PERF_TID = "perf_tid"; //$NON-NLS-1$
+    private static final String SAMPLES_FILE_SUFFIX = ".samples"; //$NON-NLS-1$
 
     private final CallStackGroupDescriptor fThreadDescriptor;
     private final CallStackGroupDescriptor fProcessDescriptor;
+    /** The process elements by pid, guarded by this */
+    private final LongMap<ProcessElement> fProcesses = new LongMap<>();
     // private final ProfilingGroup fGroupNode = new ProfilingGroup("Data",
     // CallGraphAllGroupDescriptor.getInstance());
+    /** The samples of the trace, once the analysis has read them */
+    private volatile @Nullable PerfSampleStore fSampleStore = null;
+    /** The builder of the sample store, while the analysis reads the trace */
+    private volatile @Nullable PerfSampleStore.Builder fSampleStoreBuilder = null;
+
+    /**
+     * The element of a process, with its thread elements by tid
+     */
+    private static class ProcessElement extends CallStackElement {
+        private final long fPid;
+        private final LongMap<ThreadElement> fThreads = new LongMap<>();
+
+        public ProcessElement(long pid, ICallStackGroupDescriptor descriptor, ICallStackGroupDescriptor nextGroup) {
+            super(String.valueOf(pid), descriptor, nextGroup, null);
+            fPid = pid;
+        }
+
+        @Override
+        protected int retrieveSymbolKeyAt(long time) {
+            return (int) fPid;
+        }
+    }
+
+    /**
+     * The element of a thread
+     */
+    private static class ThreadElement extends CallStackElement {
+        private final long fPid;
+        private final long fTid;
+
+        public ThreadElement(long pid, long tid, ICallStackGroupDescriptor descriptor, ProcessElement parent) {
+            super(String.valueOf(tid), descriptor, null, parent);
+            fPid = pid;
+            fTid = tid;
+        }
+    }
 
     /**
      * Constructor
@@ -72,6 +122,28 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
 
     @Override
     protected @Nullable Pair<ICallStackElement, AggregatedCallSite> getProfiledStackTrace(@NonNull ITmfEvent event) {
+        long[] callchain = getCallchain(event);
+        if (callchain == null) {
+            return null;
+        }
+        ICallStackElement element = getElement(event);
+        return new Pair<>(element, getCallSite(element, callchain, event.getTimestamp().getValue()));
+    }
+
+    @Override
+    protected @Nullable Pair<ICallStackElement, long[]> getProfiledStackTraceAddresses(@NonNull ITmfEvent event) {
+        long[] callchain = getCallchain(event);
+        if (callchain == null) {
+            return null;
+        }
+        return new Pair<>(getElement(event), callchain);
+    }
+
+    /**
+     * Get the callchain of a sampling event, reversed so that the element at
+     * position 0 is the bottom. The event's field is not modified.
+     */
+    private static long @Nullable [] getCallchain(ITmfEvent event) {
         if (!event.getName().startsWith(EVENT_SAMPLING)) {
             return null;
         }
@@ -82,61 +154,97 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
         }
         long[] value = (long[]) field.getValue();
         int size = value.length;
-        long tmp;
-        // Reverse the stack so that element at position 0 is the bottom
-        for (int i = 0, mid = size >> 1, j = size - 1; i < mid; i++, j--) {
-            tmp = value[i];
-            value[i] = value[j];
-            value[j] = tmp;
+        long[] callchain = new long[size];
+        for (int i = 0; i < size; i++) {
+            callchain[i] = value[size - 1 - i];
         }
-        ICallStackElement element = getElement(event);
-        return new Pair<>(element, getCallSite(element, value, event.getTimestamp().getValue()));
+        return callchain;
     }
 
-    /**
-     * @param event
-     */
-    private ICallStackElement getElement(ITmfEvent event) {
-        // Find a root elements with the same PID
-        Collection<ICallStackElement> rootElements = getRootElements();
+    private static long getPid(ITmfEvent event) {
         Long pidField = event.getContent().getFieldValue(Long.class, FIELD_PERF_PID);
-        Long pid = pidField == null ? -1 : pidField;
+        return pidField == null ? -1 : pidField;
+    }
+
+    private static long getTid(ITmfEvent event) {
         Long tidField = event.getContent().getFieldValue(Long.class, FIELD_PERF_TID);
-        Long tid = tidField == null ? -1 : tidField;
-        Optional<ICallStackElement> process = rootElements.stream()
-                .filter(e -> e.getName().equals(String.valueOf(pid)))
-                .findFirst();
-        if (!process.isPresent()) {
-            // Process is null, create both process and thread elements and return
-            ICallStackElement processEl = new CallStackElement(String.valueOf(pid), fProcessDescriptor, fThreadDescriptor, null) {
-
-                @Override
-                protected int retrieveSymbolKeyAt(long time) {
-                    return pid.intValue();
-                }
+        return tidField == null ? -1 : tidField;
+    }
+
+    private ThreadElement getElement(ITmfEvent event) {
+        return getElement(getPid(event), getTid(event));
+    }
 
-            };
-            ICallStackElement threadEl = new CallStackElement(String.valueOf(tid), fThreadDescriptor, null, processEl);
+    private synchronized ThreadElement getElement(long pid, long tid) {
+        ProcessElement processEl = fProcesses.get(pid);
+        if (processEl == null) {
+            processEl = new ProcessElement(pid, fProcessDescriptor, fThreadDescriptor);
             processEl.setSymbolKeyElement(processEl);
-            threadEl.setSymbolKeyElement(processEl);
-            processEl.addChild(threadEl);
+            fProcesses.put(pid, processEl);
             addRootElement(processEl);
-            return threadEl;
         }
-        ICallStackElement processEl = process.get();
+        ThreadElement threadEl = processEl.fThreads.get(tid);
+        if (threadEl == null) {
+            threadEl = new ThreadElement(pid, tid, fThreadDescriptor, processEl);
+            processEl.fThreads.put(tid, threadEl);
+            processEl.addChild(threadEl);
+        }
+        return threadEl;
+    }
 
-        // Process exists, find a thread element under it or create it
-        Optional<ICallStackElement> thread = processEl.getChildrenElements().stream()
-                .filter(e -> e.getName().equals(String.valueOf(tid)))
-                .findFirst();
+    @Override
+    protected boolean executeAnalysis(@NonNull IProgressMonitor monitor) throws TmfAnalysisException {
+        ITmfTrace trace = getTrace();
+        if (trace == null) {
+            throw new NullPointerException("Trace has not been set, yet the analysis is being run!"); //$NON-NLS-1$
+        }
+        File file = new File(TmfTraceManager.getSupplementaryFileDir(trace), getId() + SAMPLES_FILE_SUFFIX);
+        // Use the samples saved by a previous run, if any
+        File source = new File(trace.getPath());
+        PerfSampleStore store = PerfSampleStore.open(file, source);
+        fSampleStore = store;
+        PerfSampleStore.Builder builder = null;
+        if (store == null) {
+            builder = new PerfSampleStore.Builder();
+            fSampleStoreBuilder = builder;
+        }
+        try {
+            if (!super.executeAnalysis(monitor)) {
+                return false;
+            }
+        } finally {
+            fSampleStoreBuilder = null;
+        }
+        if (builder != null) {
+            store = builder.build();
+            try {
+                store.save(file, source);
+            } catch (IOException e) {
+                Activator.getInstance().logError("Error saving the perf samples to " + file, e); //$NON-NLS-1$
+            }
+            fSampleStore = store;
+        }
+        return true;
+    }
 
-        if (thread.isPresent()) {
-            return thread.get();
+    @Override
+    protected void indexSample(ITmfEvent event, ICallStackElement element, long[] stackTrace) {
+        PerfSampleStore.Builder builder = fSampleStoreBuilder;
+        if (builder != null && element instanceof ThreadElement) {
+            ThreadElement threadEl = (ThreadElement) element;
+            builder.add(threadEl.fPid, threadEl.fTid, event.getTimestamp().toNanos(), stackTrace);
         }
-        ICallStackElement threadEl = new CallStackElement(String.valueOf(tid), fThreadDescriptor, null, processEl);
-        processEl.addChild(threadEl);
-        return threadEl;
+    }
 
+    @Override
+    protected @Nullable CallGraph getIndexedCallGraph(ITmfTimestamp start, ITmfTimestamp end) {
+        PerfSampleStore store = fSampleStore;
+        if (store == null) {
+            return null;
+        }
+        SampledCallGraph callGraph = new SampledCallGraph();
+        store.forEachSample(start.toNanos(), end.toNanos(), (pid, tid, timestamp, callchain) -> callGraph.addStackTrace(getElement(pid, tid), callchain, timestamp));
+        return callGraph;
     }
 
     @Override
@@ -171,6 +279,20 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
             return Collections.emptyList();
         }
         List<AggregatedCallSite> callsites = new ArrayList<>();
+        PerfSampleStore store = fSampleStore;
+        if (store != null) {
+            SampledCallGraph callGraph = new SampledCallGraph();
+            Set<ICallStackElement> elements = new LinkedHashSet<>();
+            store.forEachSample(tid, start, end, (pid, sampleTid, timestamp, callchain) -> {
+                ICallStackElement element = getElement(pid, sampleTid);
+                elements.add(element);
+                callGraph.addStackTrace(element, callchain, timestamp);
+            });
+            for (ICallStackElement element : elements) {
+                callGraph.getCallingContextTree(element).forEach(callsite -> addSamplingData(callsites, callsite));
+            }
+            return callsites;
+        }
         TmfEventRequest request = new PerfProfilingEventRequest(trace, start, end, tid, callsites);
         trace.sendRequest(request);
         try {
@@ -190,6 +312,16 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
         return Collections.singleton(trace.getHostId());
     }
 
+    private static void addSamplingData(List<AggregatedCallSite> callsites, AggregatedCallSite perfCallSite) {
+        for (AggregatedCallSite site : callsites) {
+            if (site.getObject().equals(perfCallSite.getObject())) {
+                site.merge(perfCallSite);
+                return;
+            }
+        }
+        callsites.add(perfCallSite);
+    }
+
     private class PerfProfilingEventRequest extends TmfEventRequest {
 
         private final int fTid;
@@ -240,23 +372,14 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
         }
 
         private void handleEvent(ITmfEvent event) {
-            Long tidField = event.getContent().getFieldValue(Long.class, FIELD_PERF_TID);
-            Long tid = tidField == null ? -1 : tidField;
-            if (tid.intValue() != fTid) {
+            if ((int) getTid(event) != fTid) {
                 return;
             }
             Pair<ICallStackElement, AggregatedCallSite> stackTrace = getProfiledStackTrace(event);
             if (stackTrace == null) {
                 return;
             }
-            AggregatedCallSite perfCallSite = stackTrace.getSecond();
-            for (AggregatedCallSite site : fSites) {
-                if (site.getObject().equals(perfCallSite.getObject())) {
-                    site.merge(perfCallSite);
-                    return;
-                }
-            }
-            fSites.add(perfCallSite);
+            addSamplingData(fSites, stackTrace.getSecond());
         }
     }
 
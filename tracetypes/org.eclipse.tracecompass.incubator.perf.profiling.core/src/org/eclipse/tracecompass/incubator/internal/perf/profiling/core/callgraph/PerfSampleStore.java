@@ -0,0 +1,437 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Store of the perf samples, built in one pass over the trace and saved in a
+ * supplementary file. The samples are kept by thread, in columns of
+ * timestamps, pids and callchain IDs sorted by timestamp, so that the samples
+ * of a time range are found by binary search. Callchains are interned: each
+ * distinct callchain is stored once and the samples hold its ID.
+ *
+ * The file is saved with the size and modification time of the trace, it is
+ * not opened if they changed or if its format version is different.
+ */
+final class PerfSampleStore {
+
+    private static final int MAGIC = 0x50534D50; // "PSMP"
+    private static final int VERSION = 2;
+    private static final int INITIAL_SIZE = 64;
+
+    /**
+     * Consumer of the samples of the store
+     */
+    @FunctionalInterface
+    interface ISampleConsumer {
+        /**
+         * Consume a sample
+         *
+         * @param pid
+         *            The pid of the sample
+         * @param tid
+         *            The tid of the sample
+         * @param timestamp
+         *            The timestamp of the sample
+         * @param callchain
+         *            The callchain of the sample, reversed from the perf
+         *            callchain field. It is shared with other samples and
+         *            should not be modified.
+         */
+        void accept(long pid, long tid, long timestamp, long[] callchain);
+    }
+
+    /**
+     * The samples of one thread
+     */
+    private static final class ThreadSamples {
+        private final long fTid;
+        private int fSize = 0;
+        private long[] fTimestamps;
+        private long[] fPids;
+        private int[] fCallchains;
+
+        public ThreadSamples(long tid, int capacity) {
+            fTid = tid;
+            fTimestamps = new long[capacity];
+            fPids = new long[capacity];
+            fCallchains = new int[capacity];
+        }
+
+        public void add(long pid, long timestamp, int callchain) {
+            if (fSize == fTimestamps.length) {
+                int length = Math.max(INITIAL_SIZE, fSize * 2);
+                fTimestamps = Arrays.copyOf(fTimestamps, length);
+                fPids = Arrays.copyOf(fPids, length);
+                fCallchains = Arrays.copyOf(fCallchains, length);
+            }
+            fTimestamps[fSize] = timestamp;
+            fPids[fSize] = pid;
+            fCallchains[fSize] = callchain;
+            fSize++;
+        }
+
+        /**
+         * Sort the samples by timestamp, if they were not added in order
+         */
+        public void sort() {
+            boolean sorted = true;
+            for (int i = 1; i < fSize && sorted; i++) {
+                sorted = fTimestamps[i - 1] <= fTimestamps[i];
+            }
+            if (sorted) {
+                return;
+            }
+            int[] order = new int[fSize];
+            for (int i = 0; i < fSize; i++) {
+                order[i] = i;
+            }
+            sortIndices(order, order.clone(), 0, fSize);
+            long[] sortedTimestamps = new long[fSize];
+            long[] sortedPids = new long[fSize];
+            int[] sortedCallchains = new int[fSize];
+            for (int i = 0; i < fSize; i++) {
+                sortedTimestamps[i] = fTimestamps[order[i]];
+                sortedPids[i] = fPids[order[i]];
+                sortedCallchains[i] = fCallchains[order[i]];
+            }
+            fTimestamps = sortedTimestamps;
+            fPids = sortedPids;
+            fCallchains = sortedCallchains;
+        }
+
+        /**
+         * Stable merge sort of sample indices by timestamp, samples of the same
+         * time stay in the order of the trace. The indices are sorted in
+         * place, the work array holds the same indices on entry.
+         */
+        private void sortIndices(int[] indices, int[] work, int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            /* Sort both halves in the work array, then merge them back */
+            sortIndices(work, indices, from, mid);
+            sortIndices(work, indices, mid, to);
+            int left = from;
+            int right = mid;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < mid && fTimestamps[work[left]] <= fTimestamps[work[right]])) {
+                    indices[i] = work[left++];
+                } else {
+                    indices[i] = work[right++];
+                }
+            }
+        }
+
+        /**
+         * Get the index of the first sample at or after a time
+         */
+        public int indexOf(long start) {
+            int low = 0;
+            int high = fSize;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (fTimestamps[mid] < start) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Wrapper of a callchain to intern it by value
+     */
+    private static final class Callchain {
+        private final long[] fValue;
+        private final int fHashCode;
+
+        public Callchain(long[] value) {
+            fValue = value;
+            fHashCode = Arrays.hashCode(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return fHashCode;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            return (obj instanceof Callchain) && Arrays.equals(fValue, ((Callchain) obj).fValue);
+        }
+    }
+
+    /**
+     * Builder of the store, samples are added in the order of the trace
+     */
+    static final class Builder {
+        private final Map<Callchain, Integer> fIds = new HashMap<>();
+        private final List<long[]> fCallchains = new ArrayList<>();
+        private final Map<Long, ThreadSamples> fThreads = new LinkedHashMap<>();
+
+        /**
+         * Add a sample
+         *
+         * @param pid
+         *            The pid of the sample
+         * @param tid
+         *            The tid of the sample
+         * @param timestamp
+         *            The timestamp of the sample
+         * @param callchain
+         *            The callchain of the sample, reversed from the perf
+         *            callchain field
+         */
+        public void add(long pid, long tid, long timestamp, long[] callchain) {
+            Callchain key = new Callchain(callchain);
+            Integer id = fIds.get(key);
+            if (id == null) {
+                id = fCallchains.size();
+                fCallchains.add(callchain);
+                fIds.put(key, id);
+            }
+            ThreadSamples samples = fThreads.get(tid);
+            if (samples == null) {
+                samples = new ThreadSamples(tid, INITIAL_SIZE);
+                fThreads.put(tid, samples);
+            }
+            samples.add(pid, timestamp, id);
+        }
+
+        /**
+         * Build the store with the samples added
+         *
+         * @return The sample store
+         */
+        public PerfSampleStore build() {
+            fThreads.values().forEach(ThreadSamples::sort);
+            return new PerfSampleStore(fCallchains.toArray(new long[fCallchains.size()][]), fThreads);
+        }
+    }
+
+    private final long[][] fCallchains;
+    private final Map<Long, ThreadSamples> fThreads;
+
+    private PerfSampleStore(long[][] callchains, Map<Long, ThreadSamples> threads) {
+        fCallchains = callchains;
+        fThreads = threads;
+    }
+
+    /**
+     * Visit the samples of a thread in a time range, in timestamp order
+     *
+     * @param tid
+     *            The tid of the thread
+     * @param start
+     *            The start of the range, inclusive
+     * @param end
+     *            The end of the range, inclusive
+     * @param consumer
+     *            The consumer of the samples
+     */
+    public void forEachSample(long tid, long start, long end, ISampleConsumer consumer) {
+        ThreadSamples samples = fThreads.get(tid);
+        if (samples != null) {
+            forEachSample(samples, start, end, consumer);
+        }
+    }
+
+    /**
+     * Visit the samples of all threads in a time range, thread by thread
+     *
+     * @param start
+     *            The start of the range, inclusive
+     * @param end
+     *            The end of the range, inclusive
+     * @param consumer
+     *            The consumer of the samples
+     */
+    public void forEachSample(long start, long end, ISampleConsumer consumer) {
+        for (ThreadSamples samples : fThreads.values()) {
+            forEachSample(samples, start, end, consumer);
+        }
+    }
+
+    private void forEachSample(ThreadSamples samples, long start, long end, ISampleConsumer consumer) {
+        for (int i = samples.indexOf(start); i < samples.fSize && samples.fTimestamps[i] <= end; i++) {
+            consumer.accept(samples.fPids[i], samples.fTid, samples.fTimestamps[i], fCallchains[samples.fCallchains[i]]);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Save and open
+    // ------------------------------------------------------------------------
+
+    /**
+     * Save the store to a file. It is first written to a temporary file, so
+     * that an incomplete file is never opened.
+     *
+     * @param file
+     *            The file to write
+     * @param source
+     *            The trace the samples were read from, a file or a directory
+     * @throws IOException
+     *             The file could not be written
+     */
+    public void save(File file, File source) throws IOException {
+        File tmpFile = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sizeOf(source));
+            out.writeLong(lastModified(source));
+            out.writeInt(fCallchains.length);
+            for (long[] callchain : fCallchains) {
+                out.writeInt(callchain.length);
+                for (long address : callchain) {
+                    out.writeLong(address);
+                }
+            }
+            out.writeInt(fThreads.size());
+            for (ThreadSamples samples : fThreads.values()) {
+                out.writeLong(samples.fTid);
+                out.writeInt(samples.fSize);
+                for (int i = 0; i < samples.fSize; i++) {
+                    out.writeLong(samples.fTimestamps[i]);
+                }
+                for (int i = 0; i < samples.fSize; i++) {
+                    out.writeLong(samples.fPids[i]);
+                }
+                for (int i = 0; i < samples.fSize; i++) {
+                    out.writeInt(samples.fCallchains[i]);
+                }
+            }
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Open a store saved in a file
+     *
+     * @param file
+     *            The file to read
+     * @param source
+     *            The trace the samples were read from, a file or a directory
+     * @return The sample store, or null if the file does not exist, cannot be
+     *         read, has another format version or was built from another
+     *         version of the trace
+     */
+    public static @Nullable PerfSampleStore open(File file, File source) {
+        if (!file.exists()) {
+            return null;
+        }
+        long fileSize = file.length();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION ||
+                    in.readLong() != sizeOf(source) || in.readLong() != lastModified(source)) {
+                return null;
+            }
+            int nbCallchains = in.readInt();
+            if (nbCallchains < 0 || nbCallchains > fileSize / Integer.BYTES) {
+                return null;
+            }
+            long[][] callchains = new long[nbCallchains][];
+            for (int i = 0; i < nbCallchains; i++) {
+                int length = in.readInt();
+                if (length < 0 || length > fileSize / Long.BYTES) {
+                    return null;
+                }
+                long[] callchain = new long[length];
+                for (int j = 0; j < length; j++) {
+                    callchain[j] = in.readLong();
+                }
+                callchains[i] = callchain;
+            }
+            int nbThreads = in.readInt();
+            if (nbThreads < 0) {
+                return null;
+            }
+            Map<Long, ThreadSamples> threads = new LinkedHashMap<>();
+            for (int t = 0; t < nbThreads; t++) {
+                long tid = in.readLong();
+                int size = in.readInt();
+                if (size < 0 || size > fileSize / Long.BYTES) {
+                    return null;
+                }
+                ThreadSamples samples = new ThreadSamples(tid, size);
+                for (int i = 0; i < size; i++) {
+                    samples.fTimestamps[i] = in.readLong();
+                }
+                for (int i = 0; i < size; i++) {
+                    samples.fPids[i] = in.readLong();
+                }
+                for (int i = 0; i < size; i++) {
+                    int callchain = in.readInt();
+                    if (callchain < 0 || callchain >= nbCallchains) {
+                        return null;
+                    }
+                    samples.fCallchains[i] = callchain;
+                }
+                samples.fSize = size;
+                threads.put(tid, samples);
+            }
+            return new PerfSampleStore(callchains, threads);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the size of a trace, the total size of its files if it is a
+     * directory, like a CTF trace
+     */
+    private static long sizeOf(File source) {
+        File[] files = source.listFiles();
+        if (files == null) {
+            return source.length();
+        }
+        long size = 0;
+        for (File child : files) {
+            size += sizeOf(child);
+        }
+        return size;
+    }
+
+    /**
+     * Get the modification time of a trace, the latest of its files if it is
+     * a directory
+     */
+    private static long lastModified(File source) {
+        File[] files = source.listFiles();
+        if (files == null) {
+            return source.lastModified();
+        }
+        long lastModified = source.lastModified();
+        for (File child : files) {
+            lastModified = Math.max(lastModified, lastModified(child));
+        }
+        return lastModified;
+    }
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.perf.profiling.core.symbol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+
+/**
+ * Index of the memory regions mapped by one process, built once from the
+ * complete state system of the {@link PerfMmapAnalysisModule}. A region is a
+ * file mapped at a base address during a time range. The regions are kept in
+ * primitive arrays sorted by base address, then by start time, so the region of
+ * an address at a time is found by binary search.
+ */
+public final class MmapRegionIndex {
+
+    /** Value returned when no region contains an address */
+    public static final int NO_REGION = -1;
+
+    /** The distinct base addresses, sorted */
+    private final long[] fBaseAddresses;
+    /**
+     * The first region of each base address, the regions of base address i are
+     * from fOffsets[i] to fOffsets[i + 1]
+     */
+    private final int[] fOffsets;
+    private final long[] fRegionBaseAddresses;
+    private final long[] fStarts;
+    private final long[] fEnds;
+    private final String[] fFilenames;
+
+    private MmapRegionIndex(long[] baseAddresses, int[] offsets, long[] regionBaseAddresses, long[] starts, long[] ends, String[] filenames) {
+        fBaseAddresses = baseAddresses;
+        fOffsets = offsets;
+        fRegionBaseAddresses = regionBaseAddresses;
+        fStarts = starts;
+        fEnds = ends;
+        fFilenames = filenames;
+    }
+
+    /**
+     * Create the index of the regions of a process
+     *
+     * @param stateSystem
+     *            The state system of the perf mmap analysis, it should be
+     *            completely built
+     * @param pidQuark
+     *            The quark of the process, or
+     *            {@link ITmfStateSystem#INVALID_ATTRIBUTE} if the process did
+     *            not map any file
+     * @return The index of the regions of the process
+     * @throws StateSystemDisposedException
+     *             The state system was disposed
+     */
+    public static MmapRegionIndex create(ITmfStateSystem stateSystem, int pidQuark) throws StateSystemDisposedException {
+        if (pidQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+            return new MmapRegionIndex(new long[0], new int[] { 0 }, new long[0], new long[0], new long[0], new String[0]);
+        }
+        // Parse the base address of each attribute once
+        Map<Integer, Long> baseAddresses = new HashMap<>();
+        for (Integer quark : stateSystem.getSubAttributes(pidQuark, false)) {
+            try {
+                baseAddresses.put(quark, Long.parseLong(stateSystem.getAttributeName(quark)));
+            } catch (NumberFormatException e) {
+                // Not a base address, ignore
+            }
+        }
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (ITmfStateInterval interval : stateSystem.query2D(baseAddresses.keySet(), stateSystem.getStartTime(), stateSystem.getCurrentEndTime())) {
+            if (interval.getValue() != null) {
+                intervals.add(interval);
+            }
+        }
+        intervals.sort(Comparator.<ITmfStateInterval> comparingLong(interval -> Objects.requireNonNull(baseAddresses.get(interval.getAttribute())))
+                .thenComparingLong(ITmfStateInterval::getStartTime));
+
+        int size = intervals.size();
+        long[] distinct = new long[size];
+        int[] offsets = new int[size + 1];
+        long[] regionBaseAddresses = new long[size];
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        String[] filenames = new String[size];
+        int nbDistinct = 0;
+        for (int i = 0; i < size; i++) {
+            ITmfStateInterval interval = intervals.get(i);
+            long baseAddress = Objects.requireNonNull(baseAddresses.get(interval.getAttribute()));
+            if (nbDistinct == 0 || distinct[nbDistinct - 1] != baseAddress) {
+                distinct[nbDistinct] = baseAddress;
+                offsets[nbDistinct] = i;
+                nbDistinct++;
+            }
+            regionBaseAddresses[i] = baseAddress;
+            starts[i] = interval.getStartTime();
+            ends[i] = interval.getEndTime();
+            filenames[i] = String.valueOf(interval.getValue());
+        }
+        offsets[nbDistinct] = size;
+        return new MmapRegionIndex(Arrays.copyOf(distinct, nbDistinct), Arrays.copyOf(offsets, nbDistinct + 1), regionBaseAddresses, starts, ends, filenames);
+    }
+
+    /**
+     * Get the region containing an address at a time, ie the mapped region
+     * with the highest base address lower than or equal to the address
+     *
+     * @param timestamp
+     *            The time of the query
+     * @param address
+     *            The address to find
+     * @return The region, or {@link #NO_REGION} if no region contains the
+     *         address at this time
+     */
+    public int getRegion(long timestamp, long address) {
+        // The last base address lower than or equal to the address
+        int baseAddress = Arrays.binarySearch(fBaseAddresses, address);
+        if (baseAddress < 0) {
+            baseAddress = -baseAddress - 2;
+        }
+        for (; baseAddress >= 0; baseAddress--) {
+            // The last region of this base address starting at or before the time
+            int low = fOffsets[baseAddress];
+            int high = fOffsets[baseAddress + 1];
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (fStarts[mid] <= timestamp) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int region = low - 1;
+            if (region >= fOffsets[baseAddress] && fEnds[region] >= timestamp) {
+                return region;
+            }
+        }
+        return NO_REGION;
+    }
+
+    /**
+     * Get the base address of a region
+     *
+     * @param region
+     *            The region, as returned by {@link #getRegion(long, long)}
+     * @return The base address
+     */
+    public long getBaseAddress(int region) {
+        return fRegionBaseAddresses[region];
+    }
+
+    /**
+     * Get the file mapped in a region
+     *
+     * @param region
+     *            The region, as returned by {@link #getRegion(long, long)}
+     * @return The file name
+     */
+    public String getFilename(int region) {
+        return fFilenames[region];
+    }
+}
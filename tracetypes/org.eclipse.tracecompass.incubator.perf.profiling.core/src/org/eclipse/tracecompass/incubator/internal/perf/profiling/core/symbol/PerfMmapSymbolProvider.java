@@ -13,12 +13,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -33,15 +35,41 @@ import org.eclipse.tracecompass.tmf.core.symbols.IMappingFile;
 import org.eclipse.tracecompass.tmf.core.symbols.ISymbolProvider;
 import org.eclipse.tracecompass.tmf.core.symbols.TmfResolvedSymbol;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.util.Pair;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * @author Geneviève Bastien
  */
 public class PerfMmapSymbolProvider implements ISymbolProvider {
 
+    private static final int CACHE_SIZE = 65536;
+
     private final PerfMmapAnalysisModule fMmapModule;
     private final ITmfTrace fTrace;
-    private final Map<String, IMappingFile> fSymbolMapping = new HashMap<>();
+    private final Map<String, IMappingFile> fSymbolMapping = new ConcurrentHashMap<>();
+    private final Map<Integer, MmapRegionIndex> fRegionIndexes = new ConcurrentHashMap<>();
+    /** Symbols resolved by pid and address, with the region they were found in */
+    private final Cache<Pair<Integer, Long>, CachedSymbol> fSymbolCache = Objects.requireNonNull(CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build());
+    private final AtomicLong fCacheHits = new AtomicLong();
+    private final AtomicLong fCacheMisses = new AtomicLong();
+
+    /**
+     * A resolved symbol, valid while the address is in the same region
+     */
+    private static final class CachedSymbol {
+        private final int fRegion;
+        private final TmfResolvedSymbol fSymbol;
+
+        public CachedSymbol(int region, TmfResolvedSymbol symbol) {
+            fRegion = region;
+            fSymbol = symbol;
+        }
+    }
 
     /**
      * Constructor
@@ -69,6 +97,78 @@ public class PerfMmapSymbolProvider implements ISymbolProvider {
         if (stateSystem == null) {
             return null;
         }
+        MmapRegionIndex index = getRegionIndex(stateSystem, pid);
+        if (index == null) {
+            // The state system is not built yet, query it directly
+            return getSymbolFromStateSystem(stateSystem, pid, timestamp, address);
+        }
+        int region = index.getRegion(timestamp, address);
+        if (region == MmapRegionIndex.NO_REGION) {
+            return null;
+        }
+        Pair<Integer, Long> key = new Pair<>(pid, address);
+        CachedSymbol cached = fSymbolCache.getIfPresent(key);
+        if (cached != null && cached.fRegion == region) {
+            fCacheHits.incrementAndGet();
+            return cached.fSymbol;
+        }
+        fCacheMisses.incrementAndGet();
+        long baseAddress = index.getBaseAddress(region);
+        String filename = index.getFilename(region);
+        TmfResolvedSymbol symbol = getSymbolInFile(pid, filename, address, baseAddress);
+        if (symbol == null) {
+            symbol = new TmfResolvedSymbol(baseAddress, filename);
+        }
+        fSymbolCache.put(key, new CachedSymbol(region, symbol));
+        return symbol;
+    }
+
+    /**
+     * Get the index of the regions mapped by a process, building it the first
+     * time
+     *
+     * @return The index, or <code>null</code> if the state system is not
+     *         completely built yet
+     */
+    private @Nullable MmapRegionIndex getRegionIndex(ITmfStateSystem stateSystem, int pid) {
+        MmapRegionIndex index = fRegionIndexes.get(pid);
+        if (index != null) {
+            return index;
+        }
+        if (!stateSystem.waitUntilBuilt(0)) {
+            return null;
+        }
+        try {
+            index = MmapRegionIndex.create(stateSystem, stateSystem.optQuarkAbsolute(String.valueOf(pid)));
+        } catch (StateSystemDisposedException e) {
+            return null;
+        }
+        fRegionIndexes.put(pid, index);
+        return index;
+    }
+
+    /**
+     * Get the number of symbols found in the cache of resolved symbols
+     *
+     * @return The number of cache hits
+     */
+    public long getCacheHitCount() {
+        return fCacheHits.get();
+    }
+
+    /**
+     * Get the number of symbols resolved because they were not in the cache
+     *
+     * @return The number of cache misses
+     */
+    public long getCacheMissCount() {
+        return fCacheMisses.get();
+    }
+
+    /**
+     * Get a symbol by querying the state system, used while it is being built
+     */
+    private @Nullable TmfResolvedSymbol getSymbolFromStateSystem(ITmfStateSystem stateSystem, int pid, long timestamp, long address) {
         // Get the quark for the process
         int pidQuark = stateSystem.optQuarkAbsolute(String.valueOf(pid));
         if (pidQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
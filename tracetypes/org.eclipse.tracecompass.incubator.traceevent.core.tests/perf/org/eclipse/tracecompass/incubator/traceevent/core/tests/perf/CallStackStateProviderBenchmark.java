@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests.perf;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.callstack.TraceEventCallStackProvider;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.callstack.TraceEventCallstackAnalysis;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.TraceEventTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestHelper;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.junit.Test;
+
+/**
+ * Benchmarks the state system build of the {@link TraceEventCallStackProvider}
+ * on a generated trace of deeply nested complete events on many threads
+ */
+public class CallStackStateProviderBenchmark {
+
+    /**
+     * Test ID for the trace event benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#TraceEvent#";
+    private static final String TEST_BUILD = "Build call stack of nested complete events";
+
+    private static final int THREAD_COUNT = 64;
+    private static final int DEPTH = 8;
+    private static final int TREE_COUNT = 50;
+    private static final int LOOP_COUNT = 5;
+
+    /**
+     * Write a trace where each thread runs trees of nested complete events,
+     * each function calling two children
+     */
+    private static File createTrace() throws IOException {
+        File file = File.createTempFile("nested", ".json");
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write('[');
+            boolean first = true;
+            long treeDuration = 1L << (DEPTH + 1);
+            for (int tree = 0; tree < TREE_COUNT; tree++) {
+                for (int tid = 0; tid < THREAD_COUNT; tid++) {
+                    long start = tree * treeDuration + 1;
+                    first = writeTree(writer, first, tid, 0, start, treeDuration - 1);
+                }
+            }
+            writer.write(']');
+        }
+        return file;
+    }
+
+    private static boolean writeTree(BufferedWriter writer, boolean first, int tid, int depth, long start, long duration) throws IOException {
+        if (!first) {
+            writer.write(",\n");
+        }
+        writer.write(String.format("{\"ph\":\"X\",\"name\":\"f%d\",\"pid\":1,\"tid\":%d,\"ts\":%d,\"dur\":%d}", depth, tid, start, duration));
+        if (depth + 1 < DEPTH) {
+            long childDuration = duration / 2 - 1;
+            writeTree(writer, false, tid, depth + 1, start + 1, childDuration);
+            writeTree(writer, false, tid, depth + 1, start + 2 + childDuration, childDuration);
+        }
+        return false;
+    }
+
+    /**
+     * Run the benchmark
+     *
+     * @throws IOException
+     *             Exceptions writing the trace
+     * @throws TmfTraceException
+     *             Exceptions opening the trace
+     * @throws TmfAnalysisException
+     *             Exceptions setting the trace of the analysis
+     */
+    @Test
+    public void runBenchmark() throws IOException, TmfTraceException, TmfAnalysisException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + TEST_BUILD));
+        perf.tagAsSummary(pm, TEST_BUILD, Dimension.CPU_TIME);
+        File traceFile = createTrace();
+        try {
+            for (int i = 0; i < LOOP_COUNT; i++) {
+                TraceEventTrace trace = new TraceEventTrace();
+                TraceEventCallstackAnalysis module = new TraceEventCallstackAnalysis();
+                try {
+                    trace.initTrace(null, traceFile.getAbsolutePath(), ITmfEvent.class);
+                    assertTrue(module.setTrace(trace));
+                    pm.start();
+                    assertTrue(TmfTestHelper.executeAnalysis(module));
+                    pm.stop();
+                    assertNotNull(module.getStateSystem());
+                } finally {
+                    module.dispose();
+                    trace.dispose();
+                }
+                /*
+                 * Delete the state system, so that the next iteration rebuilds
+                 * it. The sorted trace and its cache are kept.
+                 */
+                File suppDir = new File(TmfTraceManager.getSupplementaryFileDir(trace));
+                for (File file : suppDir.listFiles()) {
+                    if (file.getName().endsWith(".ht")) {
+                        file.delete();
+                    }
+                }
+            }
+            pm.commit();
+        } finally {
+            Files.deleteIfExists(traceFile.toPath());
+        }
+    }
+}
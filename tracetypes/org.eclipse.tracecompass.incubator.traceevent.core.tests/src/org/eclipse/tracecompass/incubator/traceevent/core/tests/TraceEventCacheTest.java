@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventCache;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventTokenizer;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.TraceEventTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.io.BufferedRandomAccessFile;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.junit.Test;
+
+/**
+ * Test the binary {@link TraceEventCache} of sorted Trace-Event traces
+ */
+public class TraceEventCacheTest {
+
+    /**
+     * Test that the records of the cache are the events of the sorted trace,
+     * and that their positions match the positions of the JSON reader
+     *
+     * @throws TmfTraceException
+     *             should not happen
+     * @throws IOException
+     *             should not happen
+     */
+    @Test
+    public void testSameAsJson() throws TmfTraceException, IOException {
+        String path = "traces/simple_trace.json";
+        TraceEventTrace trace = new TraceEventTrace();
+        File cacheFile = File.createTempFile("trace", ".cache");
+        try {
+            trace.initTrace(null, path, ITmfEvent.class);
+            File source = new File(path);
+            File sorted = new File(TmfTraceManager.getSupplementaryFileDir(trace) + source.getName());
+            assertTrue(sorted.exists());
+
+            TraceEventCache.build(sorted, source, cacheFile, new NullProgressMonitor());
+            assertFalse(TraceEventCache.isSourceChanged(cacheFile, source));
+            try (TraceEventCache cache = TraceEventCache.open(cacheFile, sorted, source);
+                    BufferedRandomAccessFile input = new BufferedRandomAccessFile(sorted, "r")) {
+                assertNotNull(cache);
+                TraceEventTokenizer tokenizer = new TraceEventTokenizer();
+                List<Integer> metadataRecords = new ArrayList<>();
+                int record = 0;
+                while (tokenizer.readNextEvent(input)) {
+                    TraceEventField expected = tokenizer.parse();
+                    assertNotNull(expected);
+                    TraceEventField actual = cache.getField(record);
+                    assertEquals(expected.getName(), actual.getName());
+                    assertEquals(expected.getTs(), actual.getTs());
+                    assertEquals(expected.getPhase(), actual.getPhase());
+                    assertEquals(expected.getPid(), actual.getPid());
+                    assertEquals(expected.getTid(), actual.getTid());
+                    assertEquals(expected.getCategory(), actual.getCategory());
+                    assertEquals(expected.getId(), actual.getId());
+                    assertEquals(expected.getDuration(), actual.getDuration());
+                    assertEquals(expected.getArgs(), actual.getArgs());
+                    assertEquals(input.getFilePointer(), cache.getEnd(record));
+                    /* The next record is read from the end of this one */
+                    assertEquals(record + 1, cache.findRecord(cache.getEnd(record)));
+                    /* The middle of the record is not the start of an event */
+                    assertEquals(-1, cache.findRecord(cache.getEnd(record) - 1));
+                    if (expected.getPhase() == 'M') {
+                        metadataRecords.add(record);
+                    }
+                    record++;
+                }
+                assertTrue(record > 0);
+                assertEquals(record, cache.getNbRecords());
+                assertEquals(0, cache.findRecord(0));
+                /* The metadata records are listed in the cache */
+                assertFalse(metadataRecords.isEmpty());
+                int[] actualRecords = cache.getMetadataRecords();
+                assertEquals(metadataRecords.size(), actualRecords.length);
+                for (int i = 0; i < actualRecords.length; i++) {
+                    assertEquals(metadataRecords.get(i).intValue(), actualRecords[i]);
+                }
+            }
+
+            /* The cache is not used with another version of the traces */
+            assertNull(TraceEventCache.open(cacheFile, sorted, cacheFile));
+            assertTrue(TraceEventCache.isSourceChanged(cacheFile, cacheFile));
+        } finally {
+            trace.dispose();
+            Files.deleteIfExists(cacheFile.toPath());
+        }
+    }
+
+    /**
+     * Test that the cache cannot be read once closed, including the arguments
+     * of the fields it returned before
+     *
+     * @throws TmfTraceException
+     *             should not happen
+     * @throws IOException
+     *             should not happen
+     */
+    @Test
+    public void testReadAfterClose() throws TmfTraceException, IOException {
+        String path = "traces/simple_trace.json";
+        TraceEventTrace trace = new TraceEventTrace();
+        File cacheFile = File.createTempFile("trace", ".cache");
+        try {
+            trace.initTrace(null, path, ITmfEvent.class);
+            File source = new File(path);
+            File sorted = new File(TmfTraceManager.getSupplementaryFileDir(trace) + source.getName());
+            TraceEventCache.build(sorted, source, cacheFile, new NullProgressMonitor());
+            TraceEventCache cache = TraceEventCache.open(cacheFile, sorted, source);
+            assertNotNull(cache);
+            /* A record with arguments, they are not read yet */
+            TraceEventField field = null;
+            for (int record = 0; record < cache.getNbRecords() && field == null; record++) {
+                TraceEventField candidate = cache.getField(record);
+                if (candidate.getName().startsWith("A long name")) {
+                    field = candidate;
+                }
+            }
+            assertNotNull(field);
+            cache.close();
+            try {
+                cache.getField(0);
+                fail();
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            try {
+                field.getArgs();
+                fail();
+            } catch (IllegalStateException e) {
+                // expected
+            }
+        } finally {
+            trace.dispose();
+            Files.deleteIfExists(cacheFile.toPath());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventTokenizer;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.TraceEventSortingJob;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.TraceEventTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.io.BufferedRandomAccessFile;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.junit.Test;
+
+/**
+ * Test the parallel external sort of the {@link TraceEventSortingJob}
+ */
+public class TraceEventSortingJobTest {
+
+    /**
+     * Test that sorting a trace in many chunks on many threads gives the same
+     * file as sorting it in memory
+     *
+     * @throws TmfTraceException
+     *             should not happen
+     * @throws IOException
+     *             should not happen
+     * @throws InterruptedException
+     *             should not happen
+     */
+    @Test
+    public void testChunkedSortIsSameAsInMemorySort() throws TmfTraceException, IOException, InterruptedException {
+        String path = "traces/multiple_input_latency.json";
+        TraceEventTrace trace = new TraceEventTrace();
+        try {
+            trace.initTrace(null, path, ITmfEvent.class);
+            File sorted = new File(TmfTraceManager.getSupplementaryFileDir(trace) + new File(path).getName());
+            assertTrue(sorted.exists());
+
+            /* Sort in memory */
+            byte[] inMemory = sort(trace, path, sorted, Long.MAX_VALUE, 1);
+            /* Sort in chunks of the minimal size, with many threads */
+            byte[] chunked = sort(trace, path, sorted, 0, 4);
+            assertArrayEquals(inMemory, chunked);
+        } finally {
+            trace.dispose();
+        }
+    }
+
+    /**
+     * Test that the events are sorted by their own timestamp, not by a
+     * timestamp key in their arguments
+     *
+     * @throws TmfTraceException
+     *             should not happen
+     * @throws IOException
+     *             should not happen
+     */
+    @Test
+    public void testNestedTimestampKey() throws TmfTraceException, IOException {
+        File input = File.createTempFile("nested-ts", ".json");
+        List<String> events = Arrays.asList(
+                "{\"name\":\"second\",\"ph\":\"i\",\"pid\":1,\"tid\":1,\"args\":{\"ts\":1},\"ts\":20}",
+                "{\"name\":\"first\",\"ph\":\"i\",\"pid\":1,\"tid\":1,\"ts\":10,\"args\":{\"ts\":30}}");
+        Files.write(input.toPath(), ("[\n" + String.join(",\n", events) + "\n]\n").getBytes(StandardCharsets.UTF_8));
+        TraceEventTrace trace = new TraceEventTrace();
+        try {
+            trace.initTrace(null, input.getAbsolutePath(), ITmfEvent.class);
+            File sorted = new File(TmfTraceManager.getSupplementaryFileDir(trace) + input.getName());
+            List<String> lines = Files.readAllLines(sorted.toPath(), StandardCharsets.UTF_8);
+            assertEquals(Arrays.asList("[", events.get(1) + ',', events.get(0) + ',', "]"), lines);
+        } finally {
+            trace.dispose();
+            Files.deleteIfExists(input.toPath());
+        }
+    }
+
+    /**
+     * Test that the metadata events are collected by the sort, in the order
+     * of the sorted trace
+     *
+     * @throws TmfTraceException
+     *             should not happen
+     * @throws IOException
+     *             should not happen
+     * @throws InterruptedException
+     *             should not happen
+     */
+    @Test
+    public void testMetadata() throws TmfTraceException, IOException, InterruptedException {
+        String path = "traces/simple_trace.json";
+        TraceEventTrace trace = new TraceEventTrace();
+        try {
+            trace.initTrace(null, path, ITmfEvent.class);
+            File sorted = new File(TmfTraceManager.getSupplementaryFileDir(trace) + new File(path).getName());
+            Files.deleteIfExists(sorted.toPath());
+            TraceEventSortingJob job = new TraceEventSortingJob(trace, path);
+            job.schedule();
+            job.join();
+
+            List<String> expected = new ArrayList<>();
+            try (BufferedRandomAccessFile input = new BufferedRandomAccessFile(sorted, "r")) {
+                TraceEventTokenizer tokenizer = new TraceEventTokenizer();
+                while (tokenizer.readNextEvent(input)) {
+                    TraceEventField field = tokenizer.parse();
+                    assertNotNull(field);
+                    if (field.getPhase() == 'M') {
+                        expected.add(field.getName() + field.getArgs());
+                    }
+                }
+            }
+            List<String> actual = new ArrayList<>();
+            for (TraceEventField field : job.getMetadata()) {
+                actual.add(field.getName() + field.getArgs());
+            }
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, actual);
+        } finally {
+            trace.dispose();
+        }
+    }
+
+    private static byte[] sort(TraceEventTrace trace, String path, File sorted, long memoryBudget, int parallelism) throws InterruptedException, IOException {
+        Files.deleteIfExists(sorted.toPath());
+        TraceEventSortingJob job = new TraceEventSortingJob(trace, path);
+        job.setMemoryBudget(memoryBudget);
+        job.setParallelism(parallelism);
+        job.schedule();
+        job.join();
+        IStatus result = job.getResult();
+        assertNotNull(result);
+        assertTrue(result.getMessage(), result.isOK());
+        return Files.readAllBytes(sorted.toPath());
+    }
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.ITraceEventConstants;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventTokenizer;
+import org.eclipse.tracecompass.tmf.core.io.BufferedRandomAccessFile;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test the {@link TraceEventTokenizer}
+ */
+public class TraceEventTokenizerTest {
+
+    /**
+     * Test the well known fields of an event
+     */
+    @Test
+    public void testFields() {
+        TraceEventTokenizer tokenizer = new TraceEventTokenizer();
+        TraceEventField field = tokenizer.parse("{\"cat\":\"bar\",\"pid\":26037,\"tid\":26065,\"ts\":10.0015,\"ph\":\"b\",\"name\":\"REQUEST\",\"args\":{\"source\":\"URL\",\"params\":{\"a\":1}},\"id\":\"0x313\",\"dur\":2}");
+        assertNotNull(field);
+        assertEquals("REQUEST", field.getName());
+        assertEquals(10001L, field.getTs());
+        assertEquals('b', field.getPhase());
+        assertEquals(26037, field.getPid());
+        assertEquals(Integer.valueOf(26065), field.getTid());
+        assertEquals("bar", field.getCategory());
+        assertEquals("0x313", field.getId());
+        assertEquals(Long.valueOf(2000L), field.getDuration());
+        assertEquals(ImmutableMap.of("source", "URL", "params", "{\"a\":1}"), field.getArgs());
+        assertEquals("URL", field.getContent().getFieldValue(String.class, ITraceEventConstants.ARGS + "/source"));
+        assertEquals("b", field.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE));
+    }
+
+    /**
+     * Test the default values and the values that are not in their usual type
+     */
+    @Test
+    public void testDefaultsAndVariants() {
+        TraceEventTokenizer tokenizer = new TraceEventTokenizer();
+        TraceEventField field = tokenizer.parse("{ \"ts\" : \"5\", \"pid\":\"p1\", \"dur\": 1.5e3, \"id\": 12, \"x\": [1,{\"y\":\"}\"}], \"tid\": null }");
+        assertNotNull(field);
+        assertEquals("unknown", field.getName());
+        assertEquals(5000L, field.getTs());
+        assertEquals('I', field.getPhase());
+        assertEquals("p1", field.getPid());
+        assertNull(field.getTid());
+        assertEquals("12", field.getId());
+        assertEquals(Long.valueOf(1500000L), field.getDuration());
+        assertNull(field.getArgs());
+
+        field = tokenizer.parse("{\"ph\":\"E\",\"name\":\"esc\\\"aped\\u00e9\"}");
+        assertNotNull(field);
+        assertEquals("esc\"aped\u00e9", field.getName());
+        field = tokenizer.parse("{\"ph\":\"E\"}");
+        assertNotNull(field);
+        assertEquals("exit", field.getName());
+
+        assertNull(tokenizer.parse("[]"));
+    }
+
+    /**
+     * Test that repeated strings are interned
+     */
+    @Test
+    public void testInterning() {
+        TraceEventTokenizer tokenizer = new TraceEventTokenizer();
+        TraceEventField first = tokenizer.parse("{\"ph\":\"X\",\"name\":\"function\",\"cat\":\"category\"}");
+        TraceEventField second = tokenizer.parse("{\"ph\":\"X\",\"name\":\"function\",\"cat\":\"category\"}");
+        assertNotNull(first);
+        assertNotNull(second);
+        assertSame(first.getName(), second.getName());
+        assertSame(first.getCategory(), second.getCategory());
+    }
+
+    /**
+     * Test reading events from a file
+     *
+     * @throws IOException
+     *             should not happen
+     */
+    @Test
+    public void testReadEvents() throws IOException {
+        TraceEventTokenizer tokenizer = new TraceEventTokenizer();
+        try (BufferedRandomAccessFile rafile = new BufferedRandomAccessFile("traces/simple-in-order.json", "r")) {
+            int count = 0;
+            long prevTs = Long.MIN_VALUE;
+            while (tokenizer.readNextEvent(rafile)) {
+                TraceEventField field = tokenizer.parse();
+                assertNotNull(field);
+                assertTrue(field.getTs() >= prevTs);
+                prevTs = field.getTs();
+                count++;
+            }
+            assertEquals(8, count);
+            assertEquals(77000L, prevTs);
+            assertFalse(tokenizer.readNextEvent(rafile));
+        }
+    }
+
+    /**
+     * Test reading events from positions of a file, going back to a position
+     * that was already read
+     *
+     * @throws IOException
+     *             should not happen
+     */
+    @Test
+    public void testReadFromPositions() throws IOException {
+        TraceEventTokenizer tokenizer = new TraceEventTokenizer();
+        try (FileChannel channel = FileChannel.open(Paths.get("traces/simple-in-order.json"), StandardOpenOption.READ)) {
+            assertTrue(tokenizer.readNextEvent(channel, 0));
+            long second = tokenizer.getPosition();
+            assertTrue(tokenizer.readNextEvent(channel, second));
+            TraceEventField field = tokenizer.parse();
+            assertNotNull(field);
+            assertEquals("bar", field.getName());
+            long third = tokenizer.getPosition();
+            assertTrue(third > second);
+            assertEquals(0L, channel.position());
+
+            assertTrue(tokenizer.readNextEvent(channel, second));
+            field = tokenizer.parse();
+            assertNotNull(field);
+            assertEquals("bar", field.getName());
+            assertEquals(third, tokenizer.getPosition());
+
+            /* A position before the block read last */
+            assertTrue(tokenizer.readNextEvent(channel, 0));
+            field = tokenizer.parse();
+            assertNotNull(field);
+            assertEquals("foo", field.getName());
+            assertEquals(second, tokenizer.getPosition());
+        }
+    }
+
+    /**
+     * Test that the lazy arguments are the same as the content
+     */
+    @Test
+    public void testLazyArgs() {
+        TraceEventField field = TraceEventField.parseJson("{\"ph\":\"C\",\"name\":\"foo\",\"ts\":0,\"pid\":0,\"tid\":0,\"args\":{\"value\":1}}");
+        assertNotNull(field);
+        Map<String, Object> args = field.getArgs();
+        assertEquals(ImmutableMap.of("value", "1"), args);
+        assertEquals("1", field.getContent().getFieldValue(String.class, ITraceEventConstants.ARGS + "/value"));
+        assertEquals(Long.valueOf(0L), field.getContent().getFieldValue(Long.class, ITraceEventConstants.TIMESTAMP));
+    }
+}
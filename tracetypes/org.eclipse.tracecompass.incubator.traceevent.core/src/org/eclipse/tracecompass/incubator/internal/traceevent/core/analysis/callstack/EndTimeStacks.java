@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.callstack;
+
+import java.util.Arrays;
+
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+
+/**
+ * Stacks of the end times of the complete events pushed on the call stack
+ * attributes, by call stack quark. The stacks are primitive arrays indexed by
+ * quark, and only the stacks that are not empty are visited, in the order of
+ * their quarks.
+ */
+final class EndTimeStacks {
+
+    private static final int INITIAL_SIZE = 16;
+
+    private long[][] fStacks = new long[INITIAL_SIZE][];
+    private int[] fSizes = new int[INITIAL_SIZE];
+    /** The quarks of the stacks that are not empty, sorted */
+    private int[] fActive = new int[INITIAL_SIZE];
+    private int fNbActive = 0;
+    /**
+     * No top of stack is before this time, so there is nothing to pop before
+     * it
+     */
+    private long fNextEnd = Long.MAX_VALUE;
+
+    /**
+     * Push the end time of a function on the stack of a call stack quark
+     *
+     * @param quark
+     *            the call stack quark
+     * @param end
+     *            the end time of the function
+     */
+    public void push(int quark, long end) {
+        if (quark >= fStacks.length) {
+            int length = Math.max(quark + 1, fStacks.length * 2);
+            fStacks = Arrays.copyOf(fStacks, length);
+            fSizes = Arrays.copyOf(fSizes, length);
+        }
+        long[] stack = fStacks[quark];
+        int size = fSizes[quark];
+        if (stack == null) {
+            stack = new long[INITIAL_SIZE];
+            fStacks[quark] = stack;
+        } else if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size * 2);
+            fStacks[quark] = stack;
+        }
+        if (size == 0) {
+            activate(quark);
+        }
+        stack[size] = end;
+        fSizes[quark] = size + 1;
+        fNextEnd = Math.min(fNextEnd, end);
+    }
+
+    private void activate(int quark) {
+        int index = Arrays.binarySearch(fActive, 0, fNbActive, quark);
+        int insertion = -index - 1;
+        if (fNbActive == fActive.length) {
+            fActive = Arrays.copyOf(fActive, fNbActive * 2);
+        }
+        System.arraycopy(fActive, insertion, fActive, insertion + 1, fNbActive - insertion);
+        fActive[insertion] = quark;
+        fNbActive++;
+    }
+
+    /**
+     * Pop the attributes of all the functions that end before a time, at
+     * their end time
+     *
+     * @param ss
+     *            the state system builder
+     * @param timestamp
+     *            the current time
+     */
+    public void popBefore(ITmfStateSystemBuilder ss, long timestamp) {
+        if (timestamp <= fNextEnd) {
+            return;
+        }
+        long nextEnd = Long.MAX_VALUE;
+        int nbActive = 0;
+        for (int i = 0; i < fNbActive; i++) {
+            int quark = fActive[i];
+            long[] stack = fStacks[quark];
+            int size = fSizes[quark];
+            while (size > 0 && stack[size - 1] < timestamp) {
+                ss.popAttribute(stack[--size], quark);
+            }
+            fSizes[quark] = size;
+            if (size > 0) {
+                fActive[nbActive++] = quark;
+                nextEnd = Math.min(nextEnd, stack[size - 1]);
+            }
+        }
+        fNbActive = nbActive;
+        fNextEnd = nextEnd;
+    }
+
+    /**
+     * Pop the attributes of all the functions, at their end time
+     *
+     * @param ss
+     *            the state system builder
+     */
+    public void popAll(ITmfStateSystemBuilder ss) {
+        for (int i = 0; i < fNbActive; i++) {
+            int quark = fActive[i];
+            long[] stack = fStacks[quark];
+            for (int size = fSizes[quark]; size > 0; size--) {
+                ss.popAttribute(stack[size - 1], quark);
+            }
+            fSizes[quark] = 0;
+        }
+        fNbActive = 0;
+        fNextEnd = Long.MAX_VALUE;
+    }
+}
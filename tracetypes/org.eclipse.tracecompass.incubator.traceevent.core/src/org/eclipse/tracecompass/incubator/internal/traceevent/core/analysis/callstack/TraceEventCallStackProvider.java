@@ -11,16 +11,11 @@ package org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.cal
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.TreeMap;
-import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jdt.annotation.NonNull;
@@ -34,6 +29,7 @@ import org.eclipse.tracecompass.incubator.callstack.core.instrumented.statesyste
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.statesystem.InstrumentedCallStackAnalysis;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.ITraceEventConstants;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventAspects;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventEvent;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventPhases;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -57,35 +53,45 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
     private static final int UNSET_ID = -1;
     static final String EDGES = "EDGES"; //$NON-NLS-1$
 
-    private static final Function<String, Integer> FUNCTION = s -> {
-        try {
-            return Integer.decode(s);
-        } catch (NumberFormatException e) {
-            return UNSET_ID;
+    /**
+     * The flow of a trace event scope ID string
+     */
+    private static final class Edge {
+        private final int fId;
+        private boolean fHasStartTime = false;
+        private long fStartTime;
+        private @Nullable HostThread fSrcHost = null;
+
+        private Edge(@Nullable String id) {
+            fId = parseId(id);
+        }
+
+        private static int parseId(@Nullable String id) {
+            if (id == null) {
+                return UNSET_ID;
+            }
+            try {
+                return Integer.decode(id);
+            } catch (NumberFormatException e) {
+                return UNSET_ID;
+            }
         }
-    };
+    }
 
     private ITmfTimestamp fSafeTime;
 
     /**
-     * A map of tid/stacks of timestamps
+     * The end times of the complete events, by call stack quark
      */
-    private final Map<Integer, Deque<Long>> fStack = new TreeMap<>();
+    private final EndTimeStacks fStack = new EndTimeStacks();
 
     private final ITmfEventAspect<?> fIdAspect;
 
     /**
-     * Map of trace event scope ID string to their start times
-     */
-    private final Map<String, Long> fEdgeStartTimes = new HashMap<>();
-    /**
-     * Map of trace event scope ID string to the source {@link HostThread} of the edge.
+     * Map of trace event scope ID string to their flow: start time, source
+     * {@link HostThread} of the edge and parsed ID
      */
-    private final Map<String, HostThread> fEdgeSrcHosts = new HashMap<>();
-    /**
-     * Cache of trace event scope ID string to their parsed values
-     */
-    private final Map<String, Integer> fIdCache = new HashMap<>();
+    private final Map<String, Edge> fEdges = new HashMap<>();
 
     /**
      * Constructor
@@ -166,52 +172,56 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
 
     @Override
     protected boolean considerEvent(@NonNull ITmfEvent event) {
-        String ph = event.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE);
-        return (ph != null);
+        return getPhase(event) != null;
+    }
+
+    /**
+     * Get the phase of an event, read from the field of trace event events
+     * rather than looked up by name in the content
+     */
+    private static @Nullable String getPhase(ITmfEvent event) {
+        if (event instanceof TraceEventEvent) {
+            return ((TraceEventEvent) event).getField().getPhaseString();
+        }
+        return event.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE);
     }
 
     @Override
     protected @Nullable Object functionEntry(@NonNull ITmfEvent event) {
-        if (isEntry(event)) {
+        if (isEntry(getPhase(event))) {
             return event.getName();
         }
         return null;
     }
 
-    private static boolean isEntry(ITmfEvent event) {
-        String phase = event.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE);
+    private static boolean isEntry(@Nullable String phase) {
         return TraceEventPhases.NESTABLE_START.equals(phase) || TraceEventPhases.DURATION_START.equals(phase) || TraceEventPhases.FLOW_START.equals(phase);
     }
 
     @Override
     protected @Nullable Object functionExit(@NonNull ITmfEvent event) {
-        if (isExit(event)) {
+        if (isExit(getPhase(event))) {
             return event.getName();
         }
         return null;
     }
 
-    private static boolean isExit(ITmfEvent event) {
-        String phase = event.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE);
+    private static boolean isExit(@Nullable String phase) {
         return TraceEventPhases.NESTABLE_END.equals(phase) || TraceEventPhases.DURATION_END.equals(phase) || TraceEventPhases.FLOW_END.equals(phase);
     }
 
     @Override
     protected void eventHandle(ITmfEvent event) {
-        if (!considerEvent(event)) {
+        String phase = getPhase(event);
+        if (phase == null) {
             return;
         }
         ITmfStateSystemBuilder ss = Objects.requireNonNull(getStateSystemBuilder());
 
-        /* Check if the event is a function entry */
         long timestamp = event.getTimestamp().toNanos();
-        updateCloseCandidates(ss, timestamp);
+        fStack.popBefore(ss, timestamp);
         String processName = getProcessName(event);
-        String ph = event.getContent().getFieldValue(String.class, ITraceEventConstants.PHASE);
-        if (ph == null) {
-            return;
-        }
-        switch (ph) {
+        switch (phase) {
         case TraceEventPhases.NESTABLE_START:
         case TraceEventPhases.DURATION_START:
             handleStart(event, ss, timestamp, processName);
@@ -225,7 +235,7 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         case TraceEventPhases.DURATION:
             Number duration = event.getContent().getFieldValue(Number.class, ITraceEventConstants.DURATION);
             if (duration != null) {
-                handleComplete(event, ss, processName);
+                handleComplete(event, ss, processName, duration);
             }
             break;
 
@@ -243,25 +253,13 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         }
     }
 
-    private void updateCloseCandidates(ITmfStateSystemBuilder ss, long timestamp) {
-        for (Entry<Integer, Deque<Long>> stackEntry : fStack.entrySet()) {
-            Deque<Long> stack = stackEntry.getValue();
-            if (!stack.isEmpty()) {
-                Long closeCandidate = stack.pop();
-                while (closeCandidate != null && closeCandidate < timestamp) {
-                    ss.popAttribute(closeCandidate, stackEntry.getKey());
-                    closeCandidate = (stack.isEmpty()) ? null : stack.pop();
-                }
-                if (closeCandidate != null) {
-                    stack.push(closeCandidate);
-                }
-            }
-        }
-    }
-
     private void updateFLinks(ITmfEvent event) {
         String id = event.getContent().getFieldValue(String.class, ITraceEventConstants.ID);
-        fEdgeStartTimes.putIfAbsent(id, event.getTimestamp().toNanos());
+        Edge edge = fEdges.computeIfAbsent(id, Edge::new);
+        if (!edge.fHasStartTime) {
+            edge.fHasStartTime = true;
+            edge.fStartTime = event.getTimestamp().toNanos();
+        }
     }
 
     private void updateSLinks(ITmfEvent event) {
@@ -280,20 +278,22 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         }
 
         long ts = event.getTimestamp().toNanos();
-        long startTime = fEdgeStartTimes.getOrDefault(sId, ts);
+        Edge edge = fEdges.computeIfAbsent(sId, Edge::new);
+        long startTime = edge.fHasStartTime ? edge.fStartTime : ts;
 
-        HostThread srcHostThread = fEdgeSrcHosts.remove(sId);
+        HostThread srcHostThread = edge.fSrcHost;
         HostThread currHostThread = new HostThread(event.getTrace().getHostId(), tid);
         if (srcHostThread != null) {
             int edgeQuark = getAvailableEdgeQuark(ssb, startTime);
 
-            Object edgeStateValue = new EdgeStateValue(fIdCache.computeIfAbsent(sId, FUNCTION), srcHostThread, currHostThread);
+            Object edgeStateValue = new EdgeStateValue(edge.fId, srcHostThread, currHostThread);
             ssb.modifyAttribute(startTime, edgeStateValue, edgeQuark);
             ssb.modifyAttribute(ts, (Object) null, edgeQuark);
 
         }
-        fEdgeStartTimes.put(sId, ts);
-        fEdgeSrcHosts.put(sId, currHostThread);
+        edge.fHasStartTime = true;
+        edge.fStartTime = ts;
+        edge.fSrcHost = currHostThread;
     }
 
     /**
@@ -325,24 +325,23 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
     }
 
     private void handleStart(@NonNull ITmfEvent event, ITmfStateSystemBuilder ss, long timestamp, String processName) {
-        Object functionBeginName = functionEntry(event);
-        if (functionBeginName != null) {
-            int processQuark = ss.getQuarkAbsoluteAndAdd(PROCESSES, processName);
-            int pid = getProcessId(event);
-            ss.modifyAttribute(timestamp, pid, processQuark);
+        /* The phase was checked by the caller, the event is a function entry */
+        Object functionBeginName = event.getName();
+        int processQuark = ss.getQuarkAbsoluteAndAdd(PROCESSES, processName);
+        int pid = getProcessId(event);
+        ss.modifyAttribute(timestamp, pid, processQuark);
 
-            String threadName = getThreadName(event);
-            long threadId = getThreadId(event);
-            if (threadName == null) {
-                threadName = Long.toString(threadId);
-            }
-            int threadQuark = ss.getQuarkRelativeAndAdd(processQuark, threadName);
-            ss.modifyAttribute(timestamp, threadId, threadQuark);
-
-            int callStackQuark = ss.getQuarkRelativeAndAdd(threadQuark, InstrumentedCallStackAnalysis.CALL_STACK);
-            ss.pushAttribute(timestamp, functionBeginName, callStackQuark);
-            prepareNextSlice(ss, callStackQuark, timestamp);
+        String threadName = getThreadName(event);
+        long threadId = getThreadId(event);
+        if (threadName == null) {
+            threadName = Long.toString(threadId);
         }
+        int threadQuark = ss.getQuarkRelativeAndAdd(processQuark, threadName);
+        ss.modifyAttribute(timestamp, threadId, threadQuark);
+
+        int callStackQuark = ss.getQuarkRelativeAndAdd(threadQuark, InstrumentedCallStackAnalysis.CALL_STACK);
+        ss.pushAttribute(timestamp, functionBeginName, callStackQuark);
+        prepareNextSlice(ss, callStackQuark, timestamp);
     }
 
     private static void prepareNextSlice(ITmfStateSystemBuilder ss, int quark, long timestamp) {
@@ -352,38 +351,36 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
     }
 
     private void handleEnd(@NonNull ITmfEvent event, ITmfStateSystemBuilder ss, long timestamp, String processName) {
-        /* Check if the event is a function exit */
-        Object functionExitName = functionExit(event);
-        if (functionExitName != null) {
-            String pName = processName;
-
-            if (pName == null) {
-                int processId = getProcessId(event);
-                pName = (processId == UNKNOWN_PID) ? UNKNOWN : Integer.toString(processId);
-            }
-            String threadName = getThreadName(event);
-            if (threadName == null) {
-                threadName = Long.toString(getThreadId(event));
-            }
-            int quark = ss.getQuarkAbsoluteAndAdd(PROCESSES, pName, threadName, InstrumentedCallStackAnalysis.CALL_STACK);
-            // The function to end is not necessarily the tip of the stack. Unstack up to function name
-            List<Object> callStack = getCallStack(ss, quark);
-            int indexOf = callStack.indexOf(functionExitName);
-            // Function not found, just unstack the last one?
-            if (indexOf < 0) {
-                // Update the last element of the callstack
-                int stackQuark = ss.optQuarkRelative(quark, String.valueOf(callStack.size() + 1));
-                if (stackQuark >= 0) {
-                    ss.updateOngoingState(functionExitName, stackQuark);
-                    ss.pushAttribute(timestamp, (Object) null, quark);
-                }
-                // Pop the last element
-                indexOf = callStack.size() - 1;
-            }
-            // Pop all the attributes up to the exiting function
-            for (int i = indexOf; i < callStack.size(); i++) {
-                ss.popAttribute(timestamp, quark);
+        /* The phase was checked by the caller, the event is a function exit */
+        Object functionExitName = event.getName();
+        String pName = processName;
+
+        if (pName == null) {
+            int processId = getProcessId(event);
+            pName = (processId == UNKNOWN_PID) ? UNKNOWN : Integer.toString(processId);
+        }
+        String threadName = getThreadName(event);
+        if (threadName == null) {
+            threadName = Long.toString(getThreadId(event));
+        }
+        int quark = ss.getQuarkAbsoluteAndAdd(PROCESSES, pName, threadName, InstrumentedCallStackAnalysis.CALL_STACK);
+        // The function to end is not necessarily the tip of the stack. Unstack up to function name
+        List<Object> callStack = getCallStack(ss, quark);
+        int indexOf = callStack.indexOf(functionExitName);
+        // Function not found, just unstack the last one?
+        if (indexOf < 0) {
+            // Update the last element of the callstack
+            int stackQuark = ss.optQuarkRelative(quark, String.valueOf(callStack.size() + 1));
+            if (stackQuark >= 0) {
+                ss.updateOngoingState(functionExitName, stackQuark);
+                ss.pushAttribute(timestamp, (Object) null, quark);
             }
+            // Pop the last element
+            indexOf = callStack.size() - 1;
+        }
+        // Pop all the attributes up to the exiting function
+        for (int i = indexOf; i < callStack.size(); i++) {
+            ss.popAttribute(timestamp, quark);
         }
     }
 
@@ -410,8 +407,9 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
      * @param event
      * @param ss
      * @param processName
+     * @param duration
      */
-    private void handleComplete(ITmfEvent event, ITmfStateSystemBuilder ss, String processName) {
+    private void handleComplete(ITmfEvent event, ITmfStateSystemBuilder ss, String processName, Number duration) {
 
         ITmfTimestamp timestamp = event.getTimestamp();
         fSafeTime = fSafeTime.compareTo(timestamp) > 0 ? fSafeTime : timestamp;
@@ -422,11 +420,7 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         }
         int processQuark = ss.getQuarkAbsoluteAndAdd(PROCESSES, currentProcessName);
         long startTime = event.getTimestamp().toNanos();
-        long end = startTime;
-        Number duration = event.getContent().getFieldValue(Number.class, ITraceEventConstants.DURATION);
-        if (duration != null) {
-            end += Math.max(duration.longValue() - 1, 0);
-        }
+        long end = startTime + Math.max(duration.longValue() - 1, 0);
         String threadName = getThreadName(event);
         long threadId = getThreadId(event);
         if (threadName == null) {
@@ -437,19 +431,13 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
 
         int callStackQuark = ss.getQuarkRelativeAndAdd(threadQuark, InstrumentedCallStackAnalysis.CALL_STACK);
         ss.pushAttribute(startTime, event.getName(), callStackQuark);
-        Deque<Long> stack = fStack.computeIfAbsent(callStackQuark, ArrayDeque::new);
-        stack.push(end);
+        fStack.push(callStackQuark, end);
     }
 
     @Override
     public void done() {
         ITmfStateSystemBuilder ss = checkNotNull(getStateSystemBuilder());
-        for (Entry<Integer, Deque<Long>> stackEntry : fStack.entrySet()) {
-            Deque<Long> stack = stackEntry.getValue();
-            while (!stack.isEmpty()) {
-                ss.popAttribute(stack.pop(), stackEntry.getKey());
-            }
-        }
+        fStack.popAll(ss);
         super.done();
     }
 
@@ -0,0 +1,534 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.traceevent.core.event;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.Activator;
+import org.eclipse.tracecompass.tmf.core.io.BufferedRandomAccessFile;
+
+/**
+ * Binary columnar cache of the events of a sorted Trace-Event trace. Every
+ * JSON object of the trace is a record, and every well known field of the
+ * records is stored in its own column of fixed size values: the position and
+ * length of the object in the trace, the timestamp, the phase, the name, the
+ * category, the ID, the pid, the tid, the duration and the position of the
+ * "args" object. Strings are stored once in a table and the columns hold their
+ * index. The arguments are not copied, they are read from the trace when
+ * requested. The metadata records, which name the processes and threads, are
+ * listed when the cache is built so they are read without scanning the cache.
+ *
+ * The cache is saved with the size and modification time of the trace it was
+ * built from and of the original trace, it is not opened if they changed or if
+ * its format version is different.
+ *
+ * Records are only cached up to the first object that is not a valid event,
+ * the events after it should be read from the trace.
+ *
+ * The cache must not be read once closed, the reads then throw an
+ * {@link IllegalStateException}. This includes the lazy reads of the arguments
+ * of the fields it returned.
+ */
+@NonNullByDefault
+public final class TraceEventCache implements AutoCloseable {
+
+    private static final int MAGIC = 0x54454348; // "TECH"
+    private static final int VERSION = 2;
+
+    /* Columns, in the order of the file */
+    private static final int START = 0;
+    private static final int LENGTH = 1;
+    private static final int TIMESTAMP = 2;
+    private static final int DURATION = 3;
+    private static final int PID = 4;
+    private static final int TID = 5;
+    private static final int PHASE = 6;
+    private static final int NAME = 7;
+    private static final int CATEGORY = 8;
+    private static final int ID = 9;
+    private static final int ARGS_START = 10;
+    private static final int ARGS_LENGTH = 11;
+    private static final int FLAGS = 12;
+    private static final int[] WIDTHS = { Long.BYTES, Integer.BYTES, Long.BYTES, Long.BYTES, Long.BYTES, Integer.BYTES,
+            Integer.BYTES, Integer.BYTES, Integer.BYTES, Integer.BYTES, Integer.BYTES, Integer.BYTES, Byte.BYTES };
+
+    /** The largest column must fit in a mapped buffer */
+    private static final int MAX_RECORDS = Integer.MAX_VALUE / Long.BYTES;
+    private static final int NO_STRING = -1;
+
+    /* Flags of a record */
+    private static final int HAS_TID = 1;
+    private static final int HAS_DURATION = 1 << 1;
+    private static final int PID_SHIFT = 2;
+    private static final int PID_NONE = 0;
+    private static final int PID_INTEGER = 1;
+    private static final int PID_LONG = 2;
+    private static final int PID_DOUBLE = 3;
+    private static final int PID_STRING = 4;
+
+    private static final int PROGRESS_SCALE = 1024;
+
+    private final FileChannel fTraceChannel;
+    private final int fNbRecords;
+    private final ByteBuffer[] fColumns;
+    private final String[] fStrings;
+    private final int[] fMetadataRecords;
+    private volatile boolean fClosed = false;
+
+    private TraceEventCache(FileChannel traceChannel, int nbRecords, ByteBuffer[] columns, String[] strings, int[] metadataRecords) {
+        fTraceChannel = traceChannel;
+        fNbRecords = nbRecords;
+        fColumns = columns;
+        fStrings = strings;
+        fMetadataRecords = metadataRecords;
+    }
+
+    // ------------------------------------------------------------------------
+    // Build
+    // ------------------------------------------------------------------------
+
+    /**
+     * Build the cache of a sorted trace by reading all its events
+     *
+     * @param trace
+     *            the sorted trace
+     * @param source
+     *            the original trace the sorted trace was made from
+     * @param cacheFile
+     *            the cache file to write
+     * @param monitor
+     *            the progress monitor
+     * @throws IOException
+     *             the trace could not be read or the cache could not be
+     *             written
+     */
+    public static void build(File trace, File source, File cacheFile, IProgressMonitor monitor) throws IOException {
+        File dir = cacheFile.getAbsoluteFile().getParentFile();
+        File[] columnFiles = new File[WIDTHS.length];
+        DataOutputStream[] columns = new DataOutputStream[WIDTHS.length];
+        File tempFile = File.createTempFile(cacheFile.getName(), ".tmp", dir); //$NON-NLS-1$
+        try {
+            for (int i = 0; i < columns.length; i++) {
+                columnFiles[i] = File.createTempFile(cacheFile.getName(), ".col", dir); //$NON-NLS-1$
+                columns[i] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(columnFiles[i])));
+            }
+            Map<String, Integer> stringIds = new HashMap<>();
+            List<String> strings = new ArrayList<>();
+            List<Integer> metadataRecords = new ArrayList<>();
+            int nbRecords = 0;
+            monitor.beginTask(cacheFile.getName(), (int) Math.max(1, trace.length() / PROGRESS_SCALE));
+            try (BufferedRandomAccessFile input = new BufferedRandomAccessFile(trace, "r")) { //$NON-NLS-1$
+                TraceEventTokenizer tokenizer = new TraceEventTokenizer();
+                long reported = 0;
+                while (nbRecords < MAX_RECORDS && tokenizer.readNextEvent(input)) {
+                    TraceEventField field;
+                    try {
+                        field = tokenizer.parse();
+                    } catch (IllegalArgumentException e) {
+                        field = null;
+                    }
+                    if (field == null) {
+                        /* The trace ends here, this is left to the JSON reader */
+                        break;
+                    }
+                    long end = input.getFilePointer();
+                    writeRecord(columns, field, end - tokenizer.getEventLength(), tokenizer, stringIds, strings);
+                    if (field.getPhase() == 'M') {
+                        metadataRecords.add(nbRecords);
+                    }
+                    nbRecords++;
+                    long read = end / PROGRESS_SCALE;
+                    if (read > reported) {
+                        monitor.worked((int) (read - reported));
+                        reported = read;
+                        if (monitor.isCanceled()) {
+                            throw new OperationCanceledException();
+                        }
+                    }
+                }
+            }
+            for (DataOutputStream column : columns) {
+                column.close();
+            }
+            writeCache(tempFile, trace, source, nbRecords, columnFiles, strings, metadataRecords);
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] != null) {
+                    columns[i].close();
+                }
+                if (columnFiles[i] != null) {
+                    Files.deleteIfExists(columnFiles[i].toPath());
+                }
+            }
+            Files.deleteIfExists(tempFile.toPath());
+            monitor.done();
+        }
+    }
+
+    private static void writeRecord(DataOutputStream[] columns, TraceEventField field, long start, TraceEventTokenizer tokenizer, Map<String, Integer> stringIds, List<String> strings) throws IOException {
+        int flags = 0;
+        columns[START].writeLong(start);
+        columns[LENGTH].writeInt(tokenizer.getEventLength());
+        columns[TIMESTAMP].writeLong(field.getTs());
+        Long duration = field.getDuration();
+        if (duration != null) {
+            flags |= HAS_DURATION;
+        }
+        columns[DURATION].writeLong(duration == null ? 0 : duration);
+        Object pid = field.getPid();
+        long pidValue = 0;
+        int pidType = PID_NONE;
+        if (pid instanceof Integer) {
+            pidType = PID_INTEGER;
+            pidValue = (Integer) pid;
+        } else if (pid instanceof Long) {
+            pidType = PID_LONG;
+            pidValue = (Long) pid;
+        } else if (pid instanceof Double) {
+            pidType = PID_DOUBLE;
+            pidValue = Double.doubleToRawLongBits((Double) pid);
+        } else if (pid != null) {
+            pidType = PID_STRING;
+            pidValue = stringId(String.valueOf(pid), stringIds, strings);
+        }
+        flags |= pidType << PID_SHIFT;
+        columns[PID].writeLong(pidValue);
+        Integer tid = field.getTid();
+        if (tid != null) {
+            flags |= HAS_TID;
+        }
+        columns[TID].writeInt(tid == null ? 0 : tid);
+        columns[PHASE].writeInt(stringId(field.getPhaseString(), stringIds, strings));
+        columns[NAME].writeInt(stringId(field.getName(), stringIds, strings));
+        columns[CATEGORY].writeInt(stringId(field.getCategory(), stringIds, strings));
+        columns[ID].writeInt(stringId(field.getId(), stringIds, strings));
+        columns[ARGS_START].writeInt(tokenizer.getArgsStart());
+        columns[ARGS_LENGTH].writeInt(tokenizer.getArgsLength());
+        columns[FLAGS].writeByte(flags);
+    }
+
+    private static int stringId(@Nullable String string, Map<String, Integer> stringIds, List<String> strings) {
+        if (string == null) {
+            return NO_STRING;
+        }
+        Integer id = stringIds.get(string);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(string, id);
+            strings.add(string);
+        }
+        return id;
+    }
+
+    private static void writeCache(File file, File trace, File source, int nbRecords, File[] columnFiles, List<String> strings, List<Integer> metadataRecords) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(trace.length());
+            out.writeLong(trace.lastModified());
+            out.writeLong(source.length());
+            out.writeLong(source.lastModified());
+            out.writeInt(nbRecords);
+            out.writeInt(strings.size());
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(metadataRecords.size());
+            for (int record : metadataRecords) {
+                out.writeInt(record);
+            }
+            out.flush();
+            /* The columns follow, in order */
+            for (File columnFile : columnFiles) {
+                try (FileChannel column = FileChannel.open(columnFile.toPath(), StandardOpenOption.READ)) {
+                    long size = column.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += column.transferTo(position, size - position, channel);
+                    }
+                }
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Open
+    // ------------------------------------------------------------------------
+
+    /**
+     * Check if the original trace changed since a cache was built. The sorted
+     * trace and the cache should then be rebuilt.
+     *
+     * @param cacheFile
+     *            the cache file
+     * @param source
+     *            the original trace
+     * @return true if the cache exists and was built from another version of
+     *         the original trace
+     */
+    public static boolean isSourceChanged(File cacheFile, File source) {
+        if (!cacheFile.exists()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(cacheFile.toPath()))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            in.readLong();
+            in.readLong();
+            return in.readLong() != source.length() || in.readLong() != source.lastModified();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Open the cache of a sorted trace
+     *
+     * @param cacheFile
+     *            the cache file
+     * @param trace
+     *            the sorted trace
+     * @param source
+     *            the original trace the sorted trace was made from
+     * @return the cache, or null if it does not exist, cannot be read, has
+     *         another format version or was built from other traces
+     */
+    public static @Nullable TraceEventCache open(File cacheFile, File trace, File source) {
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION ||
+                    in.readLong() != trace.length() || in.readLong() != trace.lastModified() ||
+                    in.readLong() != source.length() || in.readLong() != source.lastModified()) {
+                return null;
+            }
+            int nbRecords = in.readInt();
+            int nbStrings = in.readInt();
+            if (nbRecords < 0 || nbRecords > MAX_RECORDS || nbStrings < 0) {
+                return null;
+            }
+            long position = Integer.BYTES * 4L + Long.BYTES * 4L;
+            String[] strings = new String[nbStrings];
+            for (int i = 0; i < nbStrings; i++) {
+                int length = in.readInt();
+                if (length < 0 || length > channel.size()) {
+                    return null;
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                /* The strings of the table are unique, they are shared by the fields */
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += Integer.BYTES + length;
+            }
+            int nbMetadata = in.readInt();
+            if (nbMetadata < 0 || nbMetadata > nbRecords) {
+                return null;
+            }
+            int[] metadataRecords = new int[nbMetadata];
+            for (int i = 0; i < nbMetadata; i++) {
+                metadataRecords[i] = in.readInt();
+            }
+            position += Integer.BYTES * (nbMetadata + 1L);
+            ByteBuffer[] columns = new ByteBuffer[WIDTHS.length];
+            for (int i = 0; i < WIDTHS.length; i++) {
+                long size = (long) nbRecords * WIDTHS[i];
+                if (position + size > channel.size()) {
+                    return null;
+                }
+                MappedByteBuffer column = channel.map(MapMode.READ_ONLY, position, size);
+                columns[i] = column;
+                position += size;
+            }
+            FileChannel traceChannel = FileChannel.open(trace.toPath(), StandardOpenOption.READ);
+            return new TraceEventCache(traceChannel, nbRecords, columns, strings, metadataRecords);
+        } catch (IOException e) {
+            Activator.getInstance().logWarning("Cannot read the cache " + cacheFile, e); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        fClosed = true;
+        fTraceChannel.close();
+    }
+
+    // ------------------------------------------------------------------------
+    // Read
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the number of records in the cache
+     *
+     * @return the number of records
+     */
+    public int getNbRecords() {
+        return fNbRecords;
+    }
+
+    /**
+     * Find the record that a reader of the trace would read next from a
+     * position
+     *
+     * @param position
+     *            the position in the trace
+     * @return the record, {@link #getNbRecords()} if the position is after the
+     *         last record, or -1 if the position is inside a record
+     */
+    public int findRecord(long position) {
+        ByteBuffer starts = fColumns[START];
+        int low = 0;
+        int high = fNbRecords - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts.getLong(mid * Long.BYTES) < position) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        /* low is the first record that starts at or after the position */
+        if (low > 0 && position < getEnd(low - 1)) {
+            return -1;
+        }
+        return low;
+    }
+
+    /**
+     * Get the position in the trace right after a record, where a reader of
+     * the trace is left after reading it
+     *
+     * @param record
+     *            the record
+     * @return the position after the closing brace of the record
+     */
+    public long getEnd(int record) {
+        return fColumns[START].getLong(record * Long.BYTES) + fColumns[LENGTH].getInt(record * Integer.BYTES);
+    }
+
+    /**
+     * Get the metadata records, whose phase is 'M', in the order of the trace
+     *
+     * @return the metadata records
+     */
+    public int[] getMetadataRecords() {
+        return fMetadataRecords;
+    }
+
+    /**
+     * Get the event field of a record. Its arguments are read from the trace
+     * when requested.
+     *
+     * @param record
+     *            the record
+     * @return the event field
+     */
+    public TraceEventField getField(int record) {
+        checkOpen();
+        int intPosition = record * Integer.BYTES;
+        int longPosition = record * Long.BYTES;
+        int flags = fColumns[FLAGS].get(record);
+        long pidValue = fColumns[PID].getLong(longPosition);
+        Object pid;
+        switch (flags >>> PID_SHIFT) {
+        case PID_INTEGER:
+            pid = (int) pidValue;
+            break;
+        case PID_LONG:
+            pid = pidValue;
+            break;
+        case PID_DOUBLE:
+            pid = Double.longBitsToDouble(pidValue);
+            break;
+        case PID_STRING:
+            pid = getString((int) pidValue);
+            break;
+        default:
+            pid = null;
+            break;
+        }
+        Integer tid = (flags & HAS_TID) != 0 ? fColumns[TID].getInt(intPosition) : null;
+        Long duration = (flags & HAS_DURATION) != 0 ? fColumns[DURATION].getLong(longPosition) : null;
+        int argsLength = fColumns[ARGS_LENGTH].getInt(intPosition);
+        long argsPosition = fColumns[START].getLong(longPosition) + fColumns[ARGS_START].getInt(intPosition);
+        return new TraceEventField(getString(fColumns[NAME].getInt(intPosition)),
+                fColumns[TIMESTAMP].getLong(longPosition),
+                getString(fColumns[PHASE].getInt(intPosition)),
+                pid,
+                tid,
+                getNullableString(fColumns[CATEGORY].getInt(intPosition)),
+                getNullableString(fColumns[ID].getInt(intPosition)),
+                duration,
+                argsLength < 0 ? null : () -> readArgs(argsPosition, argsLength));
+    }
+
+    private String getString(int id) {
+        return fStrings[id];
+    }
+
+    private @Nullable String getNullableString(int id) {
+        return id == NO_STRING ? null : fStrings[id];
+    }
+
+    private byte @Nullable [] readArgs(long position, int length) {
+        checkOpen();
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (fTraceChannel.read(buffer, position + buffer.position()) < 0) {
+                    Activator.getInstance().logWarning("The trace ends inside the arguments at " + position); //$NON-NLS-1$
+                    return null;
+                }
+            }
+        } catch (ClosedChannelException e) {
+            throw new IllegalStateException("The cache is closed", e); //$NON-NLS-1$
+        } catch (IOException e) {
+            Activator.getInstance().logWarning("Cannot read the arguments at " + position, e); //$NON-NLS-1$
+            return null;
+        }
+        return buffer.array();
+    }
+
+    private void checkOpen() {
+        if (fClosed) {
+            throw new IllegalStateException("The cache is closed"); //$NON-NLS-1$
+        }
+    }
+}
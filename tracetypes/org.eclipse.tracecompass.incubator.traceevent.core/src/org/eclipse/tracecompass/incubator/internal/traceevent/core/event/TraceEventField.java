@@ -9,10 +9,12 @@
 
 package org.eclipse.tracecompass.incubator.internal.traceevent.core.event;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -24,22 +26,25 @@ import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
 
 /**
- * Trace Event fields. Used as a quick wrapper for Trace Event log data.
+ * Trace Event fields. Used as a quick wrapper for Trace Event log data. The
+ * arguments and the event content are built lazily, the first time they are
+ * requested.
  *
  * @author Matthew Khouzam
  */
 @NonNullByDefault
 public class TraceEventField {
-    private static final double MICRO_TO_NANO = 1000.0;
 
     private final long fTs;
     private final char fPhase;
+    private final String fPhaseString;
     private final String fName;
-    private ITmfEventField fContent;
-    private final @Nullable Map<String, Object> fArgs;
+    private @Nullable ITmfEventField fContent;
+    private @Nullable Map<String, Object> fArgs;
+    private byte @Nullable [] fRawArgs;
+    private @Nullable Supplier<byte @Nullable []> fArgsLoader;
     private final @Nullable Integer fTid;
     private final @Nullable String fCategory;
     private final @Nullable String fId;
@@ -49,7 +54,8 @@ public class TraceEventField {
     private static final Gson G_SON = new Gson();
 
     /**
-     * Parse a JSON string
+     * Parse a JSON string. Readers parsing many events should rather keep a
+     * {@link TraceEventTokenizer} instance.
      *
      * @param fieldsString
      *            the string
@@ -58,89 +64,7 @@ public class TraceEventField {
     public static @Nullable TraceEventField parseJson(String fieldsString) {
         // looks like this
         // {"ts":94824347413117,"phase":"B","tid":39,"name":"TimeGraphView:BuildThread","args"={"trace":"django-httpd"}}
-        JsonObject root;
-        Map<@NonNull String, @NonNull Object> argsMap = new HashMap<>();
-        root = G_SON.fromJson(fieldsString, JsonObject.class);
-        long ts = 0;
-
-        Double tso = optDouble(root, ITraceEventConstants.TIMESTAMP);
-        if (tso == Double.NaN) {
-            return null;
-        }
-        if (Double.isFinite(tso)) {
-            ts = (long) (tso * MICRO_TO_NANO);
-        }
-        String phase = optString(root, ITraceEventConstants.PHASE, "I"); //$NON-NLS-1$
-        if (phase == null) {
-            // FIXME: Easy way to avoid null warning
-            phase = "I"; //$NON-NLS-1$
-        }
-        String name = String.valueOf(optString(root, ITraceEventConstants.NAME, TraceEventPhases.DURATION_END.equals(phase) ? "exit" : "unknown")); //$NON-NLS-1$ //$NON-NLS-2$
-        Integer tid = optInt(root, ITraceEventConstants.TID);
-        if (tid == Integer.MIN_VALUE) {
-            tid = null;
-        }
-        JsonElement jsonElement = root.get(ITraceEventConstants.PID);
-        JsonPrimitive primitive = jsonElement == null ? null : jsonElement.isJsonPrimitive() ? jsonElement.getAsJsonPrimitive() : null;
-        Object pid = primitive == null ? null : primitive.isNumber() ? primitive.getAsNumber() : primitive.isString() ? primitive.getAsString() : null;
-        Double duration = optDouble(root, ITraceEventConstants.DURATION);
-        if (Double.isFinite(duration)) {
-            duration = (duration * MICRO_TO_NANO);
-        }
-        String category = optString(root, ITraceEventConstants.CATEGORY);
-        String id = optString(root, ITraceEventConstants.ID);
-        JsonObject args = optJSONObject(root, ITraceEventConstants.ARGS);
-        if (args != null) {
-            for (Entry<String, JsonElement> entry : args.entrySet()) {
-                String key = Objects.requireNonNull(entry.getKey());
-                JsonElement element = Objects.requireNonNull(entry.getValue());
-                String value = String.valueOf(element.isJsonPrimitive() ? element.getAsJsonPrimitive().getAsString() : element.toString());
-                argsMap.put(ITraceEventConstants.ARGS + "/" + key, value); //$NON-NLS-1$
-            }
-        }
-        argsMap.put(ITraceEventConstants.TIMESTAMP, ts);
-        argsMap.put(ITraceEventConstants.PHASE, phase);
-        argsMap.put(ITraceEventConstants.NAME, name);
-        if (tid != null) {
-            argsMap.put(ITraceEventConstants.TID, tid);
-        }
-        if (pid != null) {
-            argsMap.put(ITraceEventConstants.PID, pid);
-        }
-        if (Double.isFinite(duration)) {
-            argsMap.put(ITraceEventConstants.DURATION, duration);
-        }
-        if (category != null) {
-            argsMap.put(ITraceEventConstants.CATEGORY, category);
-        }
-        if (id != null) {
-            argsMap.put(ITraceEventConstants.ID, id);
-        }
-        return new TraceEventField(name, ts, phase, pid, tid, category, id, duration, argsMap);
-    }
-
-    private static double optDouble(JsonObject root, String key) {
-        JsonElement jsonElement = root.get(key);
-        return jsonElement != null ? jsonElement.getAsDouble() : Double.NaN;
-    }
-
-    private static int optInt(JsonObject root, String key) {
-        JsonElement jsonElement = root.get(key);
-        return jsonElement != null ? jsonElement.getAsInt() : Integer.MIN_VALUE;
-    }
-
-    private static @Nullable JsonObject optJSONObject(JsonObject root, String key) {
-        JsonElement jsonElement = root.get(key);
-        return jsonElement != null ? jsonElement.getAsJsonObject() : null;
-    }
-
-    private static @Nullable String optString(JsonObject root, String key, @Nullable String defaultValue) {
-        JsonElement jsonElement = root.get(key);
-        return jsonElement != null ? jsonElement.getAsString() : defaultValue;
-    }
-
-    private static @Nullable String optString(JsonObject root, String key) {
-        return optString(root, key, null);
+        return new TraceEventTokenizer().parse(fieldsString);
     }
 
     /**
@@ -177,6 +101,7 @@ public class TraceEventField {
         fContent = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, fields, array);
         fTs = ts;
         fDuration = duration == null ? null : Double.isFinite(duration) ? duration.longValue() : null;
+        fPhaseString = phase;
         fPhase = phase.charAt(0);
         @SuppressWarnings("null")
         Map<@NonNull String, @NonNull Object> args = fields.entrySet().stream()
@@ -185,7 +110,87 @@ public class TraceEventField {
                 })
                 .collect(Collectors.toMap(entry -> entry.getKey().substring(5), Entry::getValue));
         fArgs = args.isEmpty() ? null : args;
+        fRawArgs = null;
+        fArgsLoader = null;
+    }
+
+    /**
+     * Constructor used by the {@link TraceEventTokenizer}. The arguments and
+     * the content are only built when requested.
+     *
+     * @param name
+     *            event name
+     * @param ts
+     *            the timestamp in ns
+     * @param phase
+     *            the phase of the event
+     * @param pid
+     *            the process id
+     * @param tid
+     *            the threadId
+     * @param category
+     *            the category
+     * @param id
+     *            the ID of the event stream
+     * @param duration
+     *            the duration in ns
+     * @param rawArgs
+     *            the UTF-8 bytes of the "args" JSON object
+     */
+    TraceEventField(String name, long ts, String phase, @Nullable Object pid, @Nullable Integer tid, @Nullable String category, @Nullable String id, @Nullable Long duration, byte @Nullable [] rawArgs) {
+        fName = name;
+        fTs = ts;
+        fPhaseString = phase;
+        fPhase = phase.charAt(0);
+        fPid = pid;
+        fTid = tid;
+        fCategory = category;
+        fId = id;
+        fDuration = duration;
+        fRawArgs = rawArgs;
+        fArgsLoader = null;
+        fContent = null;
+        fArgs = null;
+    }
 
+    /**
+     * Constructor used by the {@link TraceEventCache}. The raw arguments are
+     * only read when requested.
+     *
+     * @param name
+     *            event name
+     * @param ts
+     *            the timestamp in ns
+     * @param phase
+     *            the phase of the event
+     * @param pid
+     *            the process id
+     * @param tid
+     *            the threadId
+     * @param category
+     *            the category
+     * @param id
+     *            the ID of the event stream
+     * @param duration
+     *            the duration in ns
+     * @param argsLoader
+     *            reads the UTF-8 bytes of the "args" JSON object
+     */
+    TraceEventField(String name, long ts, String phase, @Nullable Object pid, @Nullable Integer tid, @Nullable String category, @Nullable String id, @Nullable Long duration, @Nullable Supplier<byte @Nullable []> argsLoader) {
+        this(name, ts, phase, pid, tid, category, id, duration, (byte[]) null);
+        fArgsLoader = argsLoader;
+    }
+
+    private static Map<String, Object> parseArgs(byte[] rawArgs) {
+        Map<String, Object> argsMap = new HashMap<>();
+        JsonObject args = G_SON.fromJson(new String(rawArgs, StandardCharsets.UTF_8), JsonObject.class);
+        for (Entry<String, JsonElement> entry : args.entrySet()) {
+            String key = Objects.requireNonNull(entry.getKey());
+            JsonElement element = Objects.requireNonNull(entry.getValue());
+            String value = String.valueOf(element.isJsonPrimitive() ? element.getAsJsonPrimitive().getAsString() : element.toString());
+            argsMap.put(key, value);
+        }
+        return argsMap;
     }
 
     /**
@@ -203,7 +208,45 @@ public class TraceEventField {
      * @return the event content
      */
     public ITmfEventField getContent() {
-        return fContent;
+        ITmfEventField content = fContent;
+        if (content == null) {
+            Map<String, Object> fields = new HashMap<>();
+            Map<String, Object> args = getArgs();
+            if (args != null) {
+                for (Entry<String, Object> entry : args.entrySet()) {
+                    fields.put(ITraceEventConstants.ARGS + "/" + entry.getKey(), entry.getValue()); //$NON-NLS-1$
+                }
+            }
+            fields.put(ITraceEventConstants.TIMESTAMP, fTs);
+            fields.put(ITraceEventConstants.PHASE, fPhaseString);
+            fields.put(ITraceEventConstants.NAME, fName);
+            Integer tid = fTid;
+            if (tid != null) {
+                fields.put(ITraceEventConstants.TID, tid);
+            }
+            Object pid = fPid;
+            if (pid != null) {
+                fields.put(ITraceEventConstants.PID, pid);
+            }
+            Long duration = fDuration;
+            if (duration != null) {
+                fields.put(ITraceEventConstants.DURATION, duration.doubleValue());
+            }
+            String category = fCategory;
+            if (category != null) {
+                fields.put(ITraceEventConstants.CATEGORY, category);
+            }
+            String id = fId;
+            if (id != null) {
+                fields.put(ITraceEventConstants.ID, id);
+            }
+            ITmfEventField[] array = fields.entrySet().stream()
+                    .map(entry -> new TmfEventField(entry.getKey(), entry.getValue(), null))
+                    .toArray(ITmfEventField[]::new);
+            content = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, fields, array);
+            fContent = content;
+        }
+        return content;
     }
 
     /**
@@ -233,6 +276,15 @@ public class TraceEventField {
         return fPhase;
     }
 
+    /**
+     * Get the phase of the event, as it is written in the trace
+     *
+     * @return the event phase string
+     */
+    public String getPhaseString() {
+        return fPhaseString;
+    }
+
     /**
      * Get the TID of the event
      *
@@ -278,6 +330,19 @@ public class TraceEventField {
      */
     @Nullable
     public Map<String, Object> getArgs() {
-        return fArgs;
+        Map<String, Object> args = fArgs;
+        byte[] rawArgs = fRawArgs;
+        Supplier<byte @Nullable []> argsLoader = fArgsLoader;
+        if (rawArgs == null && argsLoader != null) {
+            rawArgs = argsLoader.get();
+            fRawArgs = rawArgs;
+            fArgsLoader = null;
+        }
+        if (args == null && rawArgs != null) {
+            Map<String, Object> parsed = parseArgs(rawArgs);
+            args = parsed.isEmpty() ? null : parsed;
+            fArgs = args;
+        }
+        return args;
     }
 }
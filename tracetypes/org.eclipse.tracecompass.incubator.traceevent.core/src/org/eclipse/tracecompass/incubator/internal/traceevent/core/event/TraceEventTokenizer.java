@@ -0,0 +1,678 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.traceevent.core.event;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Streaming tokenizer for Trace-Event JSON objects. It reads the bytes of one
+ * event into a reusable buffer and extracts the well known fields ("ph", "ts",
+ * "pid", "tid", "name", "cat", "id" and "dur") directly from the bytes, without
+ * building a JSON tree. The "args" object is only kept as raw bytes and is
+ * parsed when {@link TraceEventField#getArgs()} is called.
+ *
+ * Short strings, like event names and categories, are interned in a small
+ * direct-mapped cache so that repeated values do not allocate new strings.
+ *
+ * The file is read through its channel in large blocks, which are kept to
+ * read the next events without reading the file again.
+ *
+ * This class is not thread-safe, each reader should have its own instance.
+ */
+@NonNullByDefault
+public class TraceEventTokenizer {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int INTERN_TABLE_SIZE = 1024;
+    private static final int MAX_INTERN_LENGTH = 64;
+    private static final long NANOS_PER_MICRO = 1000L;
+    private static final int FRACTION_DIGITS = 3;
+
+    private static final byte[] TIMESTAMP = bytes(ITraceEventConstants.TIMESTAMP);
+    private static final byte[] PHASE = bytes(ITraceEventConstants.PHASE);
+    private static final byte[] PID = bytes(ITraceEventConstants.PID);
+    private static final byte[] TID = bytes(ITraceEventConstants.TID);
+    private static final byte[] NAME = bytes(ITraceEventConstants.NAME);
+    private static final byte[] CATEGORY = bytes(ITraceEventConstants.CATEGORY);
+    private static final byte[] ID = bytes(ITraceEventConstants.ID);
+    private static final byte[] DURATION = bytes(ITraceEventConstants.DURATION);
+    private static final byte[] ARGS = bytes(ITraceEventConstants.ARGS);
+
+    private static final byte[] NULL_LITERAL = bytes("null"); //$NON-NLS-1$
+
+    private byte[] fBuffer = new byte[INITIAL_CAPACITY];
+    private int fLength = 0;
+    private int fPos = 0;
+
+    /*
+     * Block of the file read last, and the position in the file of its first
+     * byte
+     */
+    private final byte[] fInput = new byte[READ_BUFFER_SIZE];
+    private final ByteBuffer fInputBuffer = ByteBuffer.wrap(fInput);
+    private @Nullable FileChannel fInputChannel = null;
+    private long fInputOffset = 0;
+    private int fInputLimit = 0;
+    private int fInputPos = 0;
+
+    private final byte[][] fInternKeys = new byte[INTERN_TABLE_SIZE][];
+    private final String[] fInternValues = new String[INTERN_TABLE_SIZE];
+
+    /*
+     * Values of the event being tokenized
+     */
+    private long fTs;
+    private @Nullable String fPhase;
+    private @Nullable Object fPid;
+    private @Nullable Integer fTid;
+    private @Nullable String fName;
+    private @Nullable String fCategory;
+    private @Nullable String fId;
+    private @Nullable Long fDuration;
+    private int fArgsStart;
+    private int fArgsEnd;
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the next event object of a Trace-Event trace in the internal
+     * buffer, from the current position of a file. The file is left
+     * positioned right after the closing brace of the event.
+     *
+     * @param file
+     *            the file to read
+     * @return <code>true</code> if an event was read, <code>false</code> if the
+     *         end of the event list or of the file was reached
+     * @throws IOException
+     *             exceptions reading the file
+     */
+    public boolean readNextEvent(RandomAccessFile file) throws IOException {
+        boolean read = readNextEvent(file.getChannel(), file.getFilePointer());
+        file.seek(getPosition());
+        return read;
+    }
+
+    /**
+     * Read the next event object of a Trace-Event trace in the internal
+     * buffer, from a position of a file. The position of the channel is not
+     * changed, use {@link #getPosition()} to get the position right after the
+     * closing brace of the event.
+     *
+     * @param channel
+     *            the channel of the file to read
+     * @param position
+     *            the position in the file to read from
+     * @return <code>true</code> if an event was read, <code>false</code> if the
+     *         end of the event list or of the file was reached
+     * @throws IOException
+     *             exceptions reading the file
+     */
+    public boolean readNextEvent(FileChannel channel, long position) throws IOException {
+        if (channel != fInputChannel || position < fInputOffset || position > fInputOffset + fInputLimit) {
+            fInputChannel = channel;
+            fInputOffset = position;
+            fInputLimit = 0;
+        }
+        fInputPos = (int) (position - fInputOffset);
+        fLength = 0;
+        int depth = 0;
+        int arrayDepth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        int val = read(channel);
+        while (val != -1) {
+            if (depth > 0) {
+                append(val);
+            }
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (val == '\\') {
+                    escaped = true;
+                } else if (val == '"') {
+                    inString = false;
+                }
+            } else if (val == '"') {
+                inString = true;
+            } else if (val == '{') {
+                if (depth == 0) {
+                    append(val);
+                }
+                depth++;
+            } else if (val == '}') {
+                if (depth == 1) {
+                    return true;
+                }
+                depth = Math.max(0, depth - 1);
+            } else if (depth == 0 && val == '[') {
+                arrayDepth++;
+            } else if (depth == 0 && val == ']') {
+                if (arrayDepth == 0) {
+                    return false;
+                }
+                arrayDepth--;
+            }
+            val = read(channel);
+        }
+        return false;
+    }
+
+    /**
+     * Get the position in the file right after the last byte read by
+     * {@link #readNextEvent(FileChannel, long)}
+     *
+     * @return the position in bytes
+     */
+    public long getPosition() {
+        return fInputOffset + fInputPos;
+    }
+
+    private int read(FileChannel channel) throws IOException {
+        if (fInputPos == fInputLimit) {
+            fInputOffset += fInputLimit;
+            fInputPos = 0;
+            fInputLimit = 0;
+            fInputBuffer.clear();
+            int read = channel.read(fInputBuffer, fInputOffset);
+            if (read <= 0) {
+                return -1;
+            }
+            fInputLimit = read;
+        }
+        return fInput[fInputPos++] & 0xff;
+    }
+
+    /**
+     * Get the number of bytes of the event last read by
+     * {@link #readNextEvent(FileChannel, long)}, from its opening brace to its
+     * closing brace
+     *
+     * @return the length of the event in bytes
+     */
+    int getEventLength() {
+        return fLength;
+    }
+
+    /**
+     * Get the position of the "args" object of the event last parsed, from the
+     * opening brace of the event
+     *
+     * @return the position in bytes, or -1 if there are no arguments
+     */
+    int getArgsStart() {
+        return fArgsStart;
+    }
+
+    /**
+     * Get the length of the "args" object of the event last parsed
+     *
+     * @return the length in bytes, or -1 if there are no arguments
+     */
+    int getArgsLength() {
+        return fArgsStart < 0 ? -1 : fArgsEnd - fArgsStart;
+    }
+
+    private void append(int val) {
+        if (fLength == fBuffer.length) {
+            fBuffer = Arrays.copyOf(fBuffer, fLength * 2);
+        }
+        fBuffer[fLength++] = (byte) val;
+    }
+
+    /**
+     * Tokenize a JSON string
+     *
+     * @param json
+     *            the event JSON object
+     * @return the event field, or <code>null</code> if the string is not a
+     *         JSON object
+     */
+    public @Nullable TraceEventField parse(String json) {
+        byte[] data = json.getBytes(StandardCharsets.UTF_8);
+        if (data.length > fBuffer.length) {
+            fBuffer = new byte[data.length];
+        }
+        System.arraycopy(data, 0, fBuffer, 0, data.length);
+        fLength = data.length;
+        return parse();
+    }
+
+    /**
+     * Tokenize the event last read by {@link #readNextEvent(FileChannel, long)}
+     *
+     * @return the event field, or <code>null</code> if the buffer does not
+     *         contain a JSON object
+     * @throws IllegalArgumentException
+     *             if the JSON object is malformed
+     */
+    public @Nullable TraceEventField parse() {
+        fPos = 0;
+        fTs = 0;
+        fPhase = null;
+        fPid = null;
+        fTid = null;
+        fName = null;
+        fCategory = null;
+        fId = null;
+        fDuration = null;
+        fArgsStart = -1;
+        fArgsEnd = -1;
+
+        skipWhitespace();
+        if (fPos >= fLength || fBuffer[fPos] != '{') {
+            return null;
+        }
+        fPos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            fPos++;
+        } else {
+            parseMembers();
+        }
+
+        String phase = fPhase;
+        if (phase == null || phase.isEmpty()) {
+            phase = TraceEventPhases.INSTANT;
+        }
+        String name = fName;
+        if (name == null) {
+            name = TraceEventPhases.DURATION_END.equals(phase) ? "exit" : "unknown"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        byte[] rawArgs = fArgsStart < 0 ? null : Arrays.copyOfRange(fBuffer, fArgsStart, fArgsEnd);
+        return new TraceEventField(name, fTs, phase, fPid, fTid, fCategory, fId, fDuration, rawArgs);
+    }
+
+    private void parseMembers() {
+        while (true) {
+            expect('"');
+            int keyStart = fPos;
+            int keyEnd = skipStringContent();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            readMember(keyStart, keyEnd - keyStart);
+            skipWhitespace();
+            byte next = peek();
+            fPos++;
+            if (next == '}') {
+                return;
+            }
+            if (next != ',') {
+                throw error("Expected ',' or '}'"); //$NON-NLS-1$
+            }
+            skipWhitespace();
+        }
+    }
+
+    private void readMember(int keyStart, int keyLength) {
+        if (isNull()) {
+            skipValue();
+        } else if (keyEquals(keyStart, keyLength, TIMESTAMP)) {
+            fTs = readFixedPoint();
+        } else if (keyEquals(keyStart, keyLength, PHASE)) {
+            fPhase = readText();
+        } else if (keyEquals(keyStart, keyLength, NAME)) {
+            fName = readText();
+        } else if (keyEquals(keyStart, keyLength, CATEGORY)) {
+            fCategory = readText();
+        } else if (keyEquals(keyStart, keyLength, ID)) {
+            fId = readText();
+        } else if (keyEquals(keyStart, keyLength, TID)) {
+            fTid = readTid();
+        } else if (keyEquals(keyStart, keyLength, PID)) {
+            fPid = readPid();
+        } else if (keyEquals(keyStart, keyLength, DURATION)) {
+            fDuration = readFixedPoint();
+        } else if (keyEquals(keyStart, keyLength, ARGS) && peek() == '{') {
+            fArgsStart = fPos;
+            skipValue();
+            fArgsEnd = fPos;
+        } else {
+            skipValue();
+        }
+    }
+
+    private boolean keyEquals(int keyStart, int keyLength, byte[] key) {
+        if (keyLength != key.length) {
+            return false;
+        }
+        for (int i = 0; i < keyLength; i++) {
+            if (fBuffer[keyStart + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isNull() {
+        return fLength - fPos >= NULL_LITERAL.length && keyEquals(fPos, NULL_LITERAL.length, NULL_LITERAL);
+    }
+
+    // ------------------------------------------------------------------------
+    // Values
+    // ------------------------------------------------------------------------
+
+    /**
+     * Read a value in microseconds, as a number or a string, and return it in
+     * nanoseconds. The value is parsed as a fixed point number so there is no
+     * floating point rounding for the 3 first decimals. Further decimals are
+     * truncated.
+     */
+    private long readFixedPoint() {
+        boolean quoted = peek() == '"';
+        if (quoted) {
+            fPos++;
+        }
+        int start = fPos;
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            fPos++;
+        }
+        long value = 0;
+        while (fPos < fLength && isDigit(fBuffer[fPos])) {
+            value = value * 10 + (fBuffer[fPos++] - '0');
+        }
+        value *= NANOS_PER_MICRO;
+        if (fPos < fLength && fBuffer[fPos] == '.') {
+            fPos++;
+            long scale = NANOS_PER_MICRO;
+            int digits = 0;
+            while (fPos < fLength && isDigit(fBuffer[fPos])) {
+                if (digits++ < FRACTION_DIGITS) {
+                    scale /= 10;
+                    value += (fBuffer[fPos] - '0') * scale;
+                }
+                fPos++;
+            }
+        }
+        if (fPos < fLength && (fBuffer[fPos] == 'e' || fBuffer[fPos] == 'E')) {
+            /* Exponent notation is rare, let the JDK handle it */
+            fPos++;
+            while (fPos < fLength && isNumberPart(fBuffer[fPos])) {
+                fPos++;
+            }
+            double parsed = Double.parseDouble(new String(fBuffer, start, fPos - start, StandardCharsets.US_ASCII));
+            value = (long) (Math.abs(parsed) * NANOS_PER_MICRO);
+        }
+        if (quoted) {
+            skipStringContent();
+        }
+        return negative ? -value : value;
+    }
+
+    private @Nullable Integer readTid() {
+        if (peek() == '"') {
+            String text = readText();
+            try {
+                return Integer.valueOf(text);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        int start = fPos;
+        long value = readIntegerPart();
+        skipNumber();
+        if (fPos == start) {
+            throw error("Expected a number"); //$NON-NLS-1$
+        }
+        return (int) value;
+    }
+
+    private @Nullable Object readPid() {
+        if (peek() == '"') {
+            return readText();
+        }
+        int start = fPos;
+        long value = readIntegerPart();
+        if (fPos < fLength && isNumberPart(fBuffer[fPos])) {
+            /* Not an integer, keep it as a double */
+            skipNumber();
+            return Double.valueOf(new String(fBuffer, start, fPos - start, StandardCharsets.US_ASCII));
+        }
+        if (fPos == start) {
+            throw error("Expected a number"); //$NON-NLS-1$
+        }
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    private long readIntegerPart() {
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            fPos++;
+        }
+        long value = 0;
+        while (fPos < fLength && isDigit(fBuffer[fPos])) {
+            value = value * 10 + (fBuffer[fPos++] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Read a string value, or the textual representation of any other
+     * primitive value.
+     */
+    private String readText() {
+        if (peek() == '"') {
+            fPos++;
+            return readStringContent();
+        }
+        int start = fPos;
+        skipValue();
+        return intern(start, fPos);
+    }
+
+    private String readStringContent() {
+        int start = fPos;
+        boolean ascii = true;
+        while (fPos < fLength) {
+            byte b = fBuffer[fPos];
+            if (b == '"') {
+                String value = ascii ? intern(start, fPos) : new String(fBuffer, start, fPos - start, StandardCharsets.UTF_8);
+                fPos++;
+                return value;
+            }
+            if (b == '\\') {
+                fPos = start;
+                return readEscapedStringContent();
+            }
+            if (b < 0) {
+                ascii = false;
+            }
+            fPos++;
+        }
+        throw error("Unterminated string"); //$NON-NLS-1$
+    }
+
+    private String readEscapedStringContent() {
+        StringBuilder sb = new StringBuilder();
+        int runStart = fPos;
+        while (fPos < fLength) {
+            byte b = fBuffer[fPos];
+            if (b == '"') {
+                sb.append(new String(fBuffer, runStart, fPos - runStart, StandardCharsets.UTF_8));
+                fPos++;
+                return sb.toString();
+            }
+            if (b != '\\') {
+                fPos++;
+                continue;
+            }
+            sb.append(new String(fBuffer, runStart, fPos - runStart, StandardCharsets.UTF_8));
+            fPos++;
+            byte escape = peek();
+            fPos++;
+            switch (escape) {
+            case 'b':
+                sb.append('\b');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'u':
+                if (fLength - fPos < 4) {
+                    throw error("Invalid unicode escape"); //$NON-NLS-1$
+                }
+                sb.append((char) Integer.parseInt(new String(fBuffer, fPos, 4, StandardCharsets.US_ASCII), 16));
+                fPos += 4;
+                break;
+            default:
+                sb.append((char) escape);
+                break;
+            }
+            runStart = fPos;
+        }
+        throw error("Unterminated string"); //$NON-NLS-1$
+    }
+
+    private String intern(int start, int end) {
+        int length = end - start;
+        if (length > MAX_INTERN_LENGTH) {
+            return new String(fBuffer, start, length, StandardCharsets.UTF_8);
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + fBuffer[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (INTERN_TABLE_SIZE - 1);
+        byte[] key = fInternKeys[slot];
+        if (key != null && key.length == length && keyEquals(start, length, key)) {
+            return fInternValues[slot];
+        }
+        String value = new String(fBuffer, start, length, StandardCharsets.UTF_8);
+        fInternKeys[slot] = Arrays.copyOfRange(fBuffer, start, end);
+        fInternValues[slot] = value;
+        return value;
+    }
+
+    // ------------------------------------------------------------------------
+    // Skipping
+    // ------------------------------------------------------------------------
+
+    /**
+     * Skip the content of a string, the opening quote was already consumed.
+     *
+     * @return the position of the closing quote
+     */
+    private int skipStringContent() {
+        while (fPos < fLength) {
+            byte b = fBuffer[fPos];
+            if (b == '\\') {
+                fPos += 2;
+                continue;
+            }
+            if (b == '"') {
+                return fPos++;
+            }
+            fPos++;
+        }
+        throw error("Unterminated string"); //$NON-NLS-1$
+    }
+
+    private void skipValue() {
+        byte b = peek();
+        if (b == '"') {
+            fPos++;
+            skipStringContent();
+            return;
+        }
+        if (b == '{' || b == '[') {
+            int depth = 0;
+            while (fPos < fLength) {
+                b = fBuffer[fPos++];
+                if (b == '"') {
+                    skipStringContent();
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if ((b == '}' || b == ']') && --depth == 0) {
+                    return;
+                }
+            }
+            throw error("Unterminated value"); //$NON-NLS-1$
+        }
+        int start = fPos;
+        while (fPos < fLength) {
+            b = fBuffer[fPos];
+            if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+                break;
+            }
+            fPos++;
+        }
+        if (fPos == start) {
+            throw error("Expected a value"); //$NON-NLS-1$
+        }
+    }
+
+    private void skipNumber() {
+        while (fPos < fLength && isNumberPart(fBuffer[fPos])) {
+            fPos++;
+        }
+    }
+
+    private void skipWhitespace() {
+        while (fPos < fLength && isWhitespace(fBuffer[fPos])) {
+            fPos++;
+        }
+    }
+
+    private byte peek() {
+        if (fPos >= fLength) {
+            throw error("Unexpected end of event"); //$NON-NLS-1$
+        }
+        return fBuffer[fPos];
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + '\''); //$NON-NLS-1$
+        }
+        fPos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + fPos + " of " + new String(fBuffer, 0, fLength, StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isNumberPart(byte b) {
+        return isDigit(b) || b == '.' || b == 'e' || b == 'E' || b == '-' || b == '+';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
@@ -10,17 +10,32 @@
 package org.eclipse.tracecompass.incubator.internal.traceevent.core.trace;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
-import org.eclipse.tracecompass.internal.jsontrace.core.job.SortingJob;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.trace.ParallelSortingJob;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventTokenizer;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 /**
- * Sorting job particular to trace event traces
+ * Sorting job particular to trace event traces. The metadata events, which
+ * name the processes and threads, are collected while the trace is sorted.
  *
  * @author Katherine Nadeau
  *
  */
-public class TraceEventSortingJob extends SortingJob {
+public class TraceEventSortingJob extends ParallelSortingJob {
+
+    private static final byte[] METADATA_PHASE = "\"M\"".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+
+    private final TraceEventTokenizer fTokenizer = new TraceEventTokenizer();
+    private final List<Entry<Long, TraceEventField>> fMetadata = new ArrayList<>();
 
     /**
      * Constructor
@@ -39,4 +54,46 @@ public class TraceEventSortingJob extends SortingJob {
         // No metadata to be read in trace event traces
     }
 
+    @Override
+    protected void processEvent(long ts, byte[] data) {
+        /* Only the events that can be metadata events are parsed */
+        if (!contains(data, METADATA_PHASE)) {
+            return;
+        }
+        TraceEventField field;
+        try {
+            field = fTokenizer.parse(new String(data, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        if (field != null && field.getPhase() == 'M') {
+            fMetadata.add(new SimpleImmutableEntry<>(ts, field));
+        }
+    }
+
+    private static boolean contains(byte[] data, byte[] key) {
+        outer: for (int i = 0; i <= data.length - key.length; i++) {
+            for (int j = 0; j < key.length; j++) {
+                if (data[i + j] != key[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the metadata events of the trace, once it is sorted
+     *
+     * @return the metadata events, in the order of the sorted trace
+     */
+    public List<TraceEventField> getMetadata() {
+        /* The sort is stable, like the sort of the trace */
+        return fMetadata.stream()
+                .sorted(Comparator.comparingLong(Entry::getKey))
+                .map(Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
 }
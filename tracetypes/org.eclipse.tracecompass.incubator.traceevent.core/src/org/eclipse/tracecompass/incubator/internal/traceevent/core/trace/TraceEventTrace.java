@@ -12,25 +12,31 @@ package org.eclipse.tracecompass.incubator.internal.traceevent.core.trace;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableMap;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.util.LongMap;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventAspects;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventCache;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventEvent;
 import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventTokenizer;
 import org.eclipse.tracecompass.internal.provisional.jsontrace.core.trace.JsonTrace;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
@@ -98,10 +104,47 @@ public class TraceEventTrace extends JsonTrace {
      * Metadata String Thread Sort Index
      */
     private static final String THREAD_SORT_INDEX = "thread_sort_index"; //$NON-NLS-1$
+    /**
+     * Extension of the binary cache of the sorted trace
+     */
+    private static final String CACHE_EXTENSION = ".cache"; //$NON-NLS-1$
 
-    private final @NonNull Map<Object, String> fPidNames = new HashMap<>();
-    private final @NonNull NavigableMap<Integer, String> fTidNames = new TreeMap<>();
+    /**
+     * Names of the processes and threads by integer pid and tid, read without
+     * locking by the aspects
+     */
+    private final @NonNull LongMap<String> fPidNames = new LongMap<>();
+    private final @NonNull LongMap<String> fTidNames = new LongMap<>();
+    /**
+     * Names of the processes whose pid is not an integer
+     */
+    private final @NonNull Map<Object, String> fOtherPidNames = new ConcurrentHashMap<>();
+    /**
+     * Whether all the metadata of the trace was read from the cache or
+     * collected by the sort. The metadata events are then no longer parsed
+     * when they are read, so the names do not depend on which events were
+     * read first.
+     */
+    private volatile boolean fMetadataLoaded = false;
     private final @NonNull Iterable<@NonNull ITmfEventAspect<?>> fEventAspects;
+    /**
+     * Tokenizer used to read the events. It keeps the block of the file read
+     * last, so like the file it is only used with the lock of the trace, see
+     * {@link #parseEvent(ITmfContext)}.
+     */
+    private final @NonNull TraceEventTokenizer fTokenizer = new TraceEventTokenizer();
+    /**
+     * Binary cache of the events, set once it is available
+     */
+    private volatile @Nullable TraceEventCache fCache = null;
+    private @Nullable Job fCacheJob = null;
+    /**
+     * Record of the cache read after the last event returned, and its
+     * location. Both are only read and written with the lock of the trace, by
+     * {@link #parseEvent(ITmfContext)}.
+     */
+    private int fNextRecord = -1;
+    private long fNextLocation = -1;
 
     /**
      * Constructor
@@ -136,10 +179,11 @@ public class TraceEventTrace extends JsonTrace {
             goToCorrectStart(rafile);
             int lineCount = 0;
             int matches = 0;
-            String line = readNextEventString(() -> rafile.read());
-            while ((line != null) && (lineCount++ < MAX_LINES)) {
+            TraceEventTokenizer tokenizer = new TraceEventTokenizer();
+            boolean hasNext = tokenizer.readNextEvent(rafile);
+            while (hasNext && (lineCount++ < MAX_LINES)) {
                 try {
-                    TraceEventField field = TraceEventField.parseJson(line);
+                    TraceEventField field = tokenizer.parse();
                     if (field != null) {
                         matches++;
                     }
@@ -148,7 +192,7 @@ public class TraceEventTrace extends JsonTrace {
                 }
 
                 confidence = MAX_CONFIDENCE * matches / lineCount;
-                line = readNextEventString(() -> rafile.read());
+                hasNext = tokenizer.readNextEvent(rafile);
             }
             if (matches == 0) {
                 return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Most assuredly NOT a Trace-Event trace"); //$NON-NLS-1$
@@ -165,9 +209,21 @@ public class TraceEventTrace extends JsonTrace {
         super.initTrace(resource, path, type);
         fProperties.put("Type", "Trace-Event"); //$NON-NLS-1$ //$NON-NLS-2$
         String dir = TmfTraceManager.getSupplementaryFileDir(this);
-        fFile = new File(dir + new File(path).getName());
+        File source = new File(path);
+        fFile = new File(dir + source.getName());
+        File cacheFile = new File(dir + source.getName() + CACHE_EXTENSION);
+        if (TraceEventCache.isSourceChanged(cacheFile, source)) {
+            /* The sorted trace is out of date too */
+            try {
+                Files.deleteIfExists(fFile.toPath());
+                Files.deleteIfExists(cacheFile.toPath());
+            } catch (IOException e) {
+                throw new TmfTraceException(e.getMessage(), e);
+            }
+        }
+        List<TraceEventField> metadata = null;
         if (!fFile.exists()) {
-            Job sortJob = new TraceEventSortingJob(this, path);
+            TraceEventSortingJob sortJob = new TraceEventSortingJob(this, path);
             sortJob.schedule();
             while (sortJob.getResult() == null) {
                 try {
@@ -180,7 +236,9 @@ public class TraceEventTrace extends JsonTrace {
             if (!result.isOK()) {
                 throw new TmfTraceException("Job failed " + result.getMessage()); //$NON-NLS-1$
             }
+            metadata = sortJob.getMetadata();
         }
+        openCache(cacheFile, source, metadata);
         try {
             fFileInput = new BufferedRandomAccessFile(fFile, "r"); //$NON-NLS-1$
             goToCorrectStart(fFileInput);
@@ -201,6 +259,103 @@ public class TraceEventTrace extends JsonTrace {
         }
     }
 
+    /**
+     * Open the binary cache of the sorted trace, or build it in the background
+     * if it is missing or out of date. The events are read from the JSON
+     * trace until the cache is available, with the metadata collected by the
+     * sort if the trace was just sorted.
+     */
+    private void openCache(File cacheFile, File source, @Nullable List<TraceEventField> sortedMetadata) {
+        File sorted = fFile;
+        TraceEventCache cache = TraceEventCache.open(cacheFile, sorted, source);
+        if (cache != null) {
+            loadMetadata(readMetadata(cache));
+            fCache = cache;
+            return;
+        }
+        if (sortedMetadata != null) {
+            loadMetadata(sortedMetadata);
+        }
+        Job job = new Job(Messages.TraceEventTrace_BuildingCache) {
+            @Override
+            protected IStatus run(@Nullable IProgressMonitor monitor) {
+                try {
+                    TraceEventCache.build(sorted, source, cacheFile, monitor == null ? new NullProgressMonitor() : monitor);
+                } catch (OperationCanceledException e) {
+                    return Status.CANCEL_STATUS;
+                } catch (IOException e) {
+                    Activator.getInstance().logError("Error building the cache of trace " + getPath(), e); //$NON-NLS-1$
+                    return Status.OK_STATUS;
+                }
+                TraceEventCache cache = TraceEventCache.open(cacheFile, sorted, source);
+                if (cache == null) {
+                    return Status.OK_STATUS;
+                }
+                /*
+                 * The metadata is read before taking the lock, and applied
+                 * with the lock like the metadata parsed by the readers
+                 */
+                List<TraceEventField> metadata = readMetadata(cache);
+                synchronized (TraceEventTrace.this) {
+                    if (fCacheJob == this) {
+                        loadMetadata(metadata);
+                        fCache = cache;
+                        return Status.OK_STATUS;
+                    }
+                }
+                closeCache(cache);
+                return Status.OK_STATUS;
+            }
+        };
+        job.setSystem(true);
+        fCacheJob = job;
+        job.schedule();
+    }
+
+    /**
+     * Read all the metadata events of the cache, in the order of the trace, so
+     * the last name of a process or thread is the one kept
+     */
+    private static List<TraceEventField> readMetadata(TraceEventCache cache) {
+        List<TraceEventField> metadata = new ArrayList<>();
+        for (int record : cache.getMetadataRecords()) {
+            metadata.add(cache.getField(record));
+        }
+        return metadata;
+    }
+
+    private void loadMetadata(List<TraceEventField> metadata) {
+        for (TraceEventField field : metadata) {
+            parseMetadata(field);
+        }
+        fMetadataLoaded = true;
+    }
+
+    private void closeCache(TraceEventCache cache) {
+        try {
+            cache.close();
+        } catch (IOException e) {
+            Activator.getInstance().logError("Error closing the cache of trace " + getPath(), e); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    public synchronized void dispose() {
+        Job job = fCacheJob;
+        fCacheJob = null;
+        if (job != null) {
+            job.cancel();
+        }
+        TraceEventCache cache = fCache;
+        fCache = null;
+        fNextRecord = -1;
+        fNextLocation = -1;
+        if (cache != null) {
+            closeCache(cache);
+        }
+        super.dispose();
+    }
+
     /**
      * Update the file position to be at the actual start of events, after the
      * trace event header
@@ -244,8 +399,14 @@ public class TraceEventTrace extends JsonTrace {
         return fEventAspects;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The events are read with the file, the tokenizer and the cache cursor
+     * of the trace, so the reads are serialized with the lock of the trace.
+     */
     @Override
-    public ITmfEvent parseEvent(ITmfContext context) {
+    public synchronized ITmfEvent parseEvent(ITmfContext context) {
         @Nullable
         ITmfLocation location = context.getLocation();
         if (location instanceof TmfLongLocation) {
@@ -256,20 +417,39 @@ public class TraceEventTrace extends JsonTrace {
             }
             if (locationInfo != null) {
                 try {
+                    TraceEventCache cache = fCache;
+                    if (cache != null) {
+                        int record = locationInfo == fNextLocation ? fNextRecord : cache.findRecord(locationInfo);
+                        if (record >= 0) {
+                            while (record < cache.getNbRecords()) {
+                                TraceEventField field = cache.getField(record);
+                                long end = cache.getEnd(record++);
+                                /* Keep the file where the JSON reader would be */
+                                fFileInput.seek(end);
+                                locationInfo = end;
+                                if (field.getPhase() != 'M') {
+                                    fNextRecord = record;
+                                    fNextLocation = end;
+                                    return new TraceEventEvent(this, context.getRank(), field);
+                                }
+                            }
+                        }
+                    }
                     if (!locationInfo.equals(fFileInput.getFilePointer())) {
                         fFileInput.seek(locationInfo);
                     }
-                    String nextJson = readNextEventString(() -> fFileInput.read());
-                    while (nextJson != null) {
-                        TraceEventField field = TraceEventField.parseJson(nextJson);
+                    TraceEventTokenizer tokenizer = fTokenizer;
+                    while (tokenizer.readNextEvent(fFileInput)) {
+                        TraceEventField field = tokenizer.parse();
                         if (field == null) {
                             return null;
                         }
                         if (field.getPhase() != 'M') {
                             return new TraceEventEvent(this, context.getRank(), field);
                         }
-                        parseMetadata(field);
-                        nextJson = readNextEventString(() -> fFileInput.read());
+                        if (!fMetadataLoaded) {
+                            parseMetadata(field);
+                        }
                     }
                 } catch (IOException e) {
                     Activator.getInstance().logError("Error parsing event", e); //$NON-NLS-1$
@@ -288,7 +468,7 @@ public class TraceEventTrace extends JsonTrace {
         switch (name) {
         case PROCESS_NAME:
             String procName = (String) args.get(NAME_ARG);
-            fPidNames.put(field.getPid(), procName);
+            setProcessName(field.getPid(), procName);
             if (procName != null) {
                 fProperties.put(PID_PREFIX + field.getPid(), procName);
             }
@@ -307,7 +487,10 @@ public class TraceEventTrace extends JsonTrace {
             break;
         case THREAD_NAME:
             String threadName = (String) args.get(NAME_ARG);
-            fTidNames.put(field.getTid(), threadName);
+            Integer tid = field.getTid();
+            if (tid != null) {
+                fTidNames.put(tid, threadName);
+            }
             if (threadName != null) {
                 fProperties.put(TID_PREFIX + field.getTid(), threadName);
             }
@@ -325,6 +508,18 @@ public class TraceEventTrace extends JsonTrace {
 
     }
 
+    private void setProcessName(@Nullable Object pid, @Nullable String procName) {
+        if (pid instanceof Integer) {
+            fPidNames.put((Integer) pid, procName);
+        } else if (pid != null) {
+            if (procName != null) {
+                fOtherPidNames.put(pid, procName);
+            } else {
+                fOtherPidNames.remove(pid);
+            }
+        }
+    }
+
     /**
      * Get the Process name
      */
@@ -334,7 +529,11 @@ public class TraceEventTrace extends JsonTrace {
         public @Nullable String resolve(@NonNull ITmfEvent event) {
             if (event instanceof TraceEventEvent) {
                 TraceEventField field = ((TraceEventEvent) event).getField();
-                return fPidNames.get(field.getPid());
+                Object pid = field.getPid();
+                if (pid instanceof Integer) {
+                    return fPidNames.get((Integer) pid);
+                }
+                return pid == null ? null : fOtherPidNames.get(pid);
             }
             return null;
         }
@@ -349,7 +548,8 @@ public class TraceEventTrace extends JsonTrace {
         public @Nullable String resolve(@NonNull ITmfEvent event) {
             if (event instanceof TraceEventEvent) {
                 TraceEventField field = ((TraceEventEvent) event).getField();
-                return fTidNames.get(field.getTid());
+                Integer tid = field.getTid();
+                return tid == null ? null : fTidNames.get(tid);
             }
             return null;
         }
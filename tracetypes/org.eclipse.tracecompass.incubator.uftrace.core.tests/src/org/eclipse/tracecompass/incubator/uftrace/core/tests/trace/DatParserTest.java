@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.uftrace.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatEvent;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatIterator;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatParser;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test the reading of data (.dat) files
+ */
+public class DatParserTest {
+
+    private static final int TID = 1234;
+    /** Entry record at depth 0 with the magic number, the address is added */
+    private static final long PAYLOAD = 0b101 << 3;
+
+    /**
+     * Folder of the data files
+     */
+    @Rule
+    public TemporaryFolder fFolder = new TemporaryFolder();
+
+    /**
+     * Read files of exactly N records, each record must be returned
+     *
+     * @throws IOException
+     *             the file could not be written
+     */
+    @Test
+    public void testRecordCount() throws IOException {
+        for (int n : new int[] { 0, 1, 2, 1000 }) {
+            DatParser parser = new DatParser(write(n));
+            int count = 0;
+            for (DatEvent event : parser) {
+                assertNotNull(event);
+                assertEquals(count, event.getTime());
+                assertEquals(count, event.getAddress());
+                assertEquals(TID, event.getTid());
+                count++;
+            }
+            assertEquals("event count", n, count);
+        }
+    }
+
+    /**
+     * Read a file of exactly N records with a reusable record, then check the
+     * position after the last one
+     *
+     * @throws IOException
+     *             the file could not be written
+     */
+    @Test
+    public void testRecordCountReusable() throws IOException {
+        int n = 100;
+        DatIterator iterator = new DatParser(write(n)).iterator();
+        DatRecord record = new DatRecord();
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next(record);
+            assertEquals(count, record.getTime());
+            count++;
+        }
+        assertEquals("event count", n, count);
+        assertEquals((long) n * DatIterator.RECORD_SIZE, iterator.getPosition());
+        assertFalse(new DatParser(write(n)).iterator(iterator.getPosition()).hasNext());
+    }
+
+    /**
+     * A truncated last record is not returned
+     *
+     * @throws IOException
+     *             the file could not be written
+     */
+    @Test
+    public void testTruncatedRecord() throws IOException {
+        File file = write(3);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+        int count = 0;
+        for (DatEvent event : new DatParser(file)) {
+            assertNotNull(event);
+            count++;
+        }
+        assertEquals("event count", 2, count);
+    }
+
+    private File write(int n) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(n * DatIterator.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (long i = 0; i < n; i++) {
+            buffer.putLong(i);
+            buffer.putLong(PAYLOAD | (i << 16));
+        }
+        File file = new File(fFolder.getRoot(), TID + ".dat");
+        Files.write(file.toPath(), buffer.array());
+        return file;
+    }
+}
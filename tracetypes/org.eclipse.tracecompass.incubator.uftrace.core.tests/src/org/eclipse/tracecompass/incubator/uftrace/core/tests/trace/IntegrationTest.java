@@ -10,11 +10,26 @@
 package org.eclipse.tracecompass.incubator.uftrace.core.tests.trace;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatEvent;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatRecord;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.UfContext;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.UfEvent;
 import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.Uftrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
 import org.junit.Test;
 
 /**
@@ -39,7 +54,82 @@ public class IntegrationTest {
         while (uft.getNext(ctx) != null) {
             cnt++;
         }
-        assertEquals("event count", 113751, cnt);
+        assertEquals("event count", 113752, cnt);
+    }
+
+    /**
+     * Read the trace with a reusable record and check that it gives the same
+     * data as the events
+     *
+     * @throws TmfTraceException
+     *             something went wrong
+     */
+    @Test
+    public void readRecords() throws TmfTraceException {
+        Uftrace uft = new Uftrace();
+        try {
+            uft.initTrace(null, "res/uftrace-ls", TmfEvent.class);
+            ITmfContext ctx = uft.seekEvent(0);
+            UfContext records = (UfContext) uft.seekEvent(0);
+            DatRecord record = new DatRecord();
+            int cnt = 0;
+            ITmfEvent event = uft.getNext(ctx);
+            while (event != null) {
+                assertTrue(records.next(record));
+                assertTrue(event instanceof UfEvent);
+                DatEvent datEvent = (DatEvent) event.getContent().getValue();
+                assertNotNull(datEvent);
+                assertEquals(datEvent.getTime(), record.getTime());
+                assertEquals(datEvent.getTid(), record.getTid());
+                assertEquals(datEvent.getDepth(), record.getDepth());
+                assertEquals(datEvent.getAddress(), record.getAddress());
+                assertEquals(datEvent.getAddress(), ((UfEvent) event).getAddress());
+                assertEquals(datEvent.getType(), DatEvent.typeName(record.getType()));
+                cnt++;
+                event = uft.getNext(ctx);
+            }
+            assertFalse(records.next(record));
+            assertEquals("event count", 113752, cnt);
+        } finally {
+            uft.dispose();
+        }
+    }
+
+    /**
+     * Seek at random locations of the trace, which uses the checkpoint index
+     * once it is built in the background and reads the trace from the start
+     * until then, and check that the same events as a sequential read are
+     * returned
+     *
+     * @throws TmfTraceException
+     *             something went wrong
+     */
+    @Test
+    public void seekTrace() throws TmfTraceException {
+        Uftrace uft = new Uftrace();
+        try {
+            uft.initTrace(null, "res/uftrace-ls", TmfEvent.class);
+            List<ITmfTimestamp> timestamps = new ArrayList<>();
+            ITmfContext ctx = uft.seekEvent(0);
+            ITmfEvent event = uft.getNext(ctx);
+            while (event != null) {
+                timestamps.add(event.getTimestamp());
+                event = uft.getNext(ctx);
+            }
+            Random random = new Random(42);
+            for (int i = 0; i < 100; i++) {
+                int rank = random.nextInt(timestamps.size());
+                ctx = uft.seekEvent(new TmfLongLocation(rank * 16L));
+                assertEquals(rank, ctx.getRank());
+                event = uft.getNext(ctx);
+                assertNotNull(event);
+                assertEquals("event " + rank, timestamps.get(rank), event.getTimestamp());
+            }
+            ctx = uft.seekEvent(new TmfLongLocation(timestamps.size() * 16L));
+            assertNull(uft.getNext(ctx));
+        } finally {
+            uft.dispose();
+        }
     }
 
 }
@@ -14,6 +14,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.os.linux.core.event.aspect.LinuxTidAspect;
 import org.eclipse.tracecompass.incubator.callstack.core.instrumented.statesystem.CallStackStateProvider;
 import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.DatEvent;
+import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.UfEvent;
 import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.UfEventType;
 import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.Uftrace.ExecAspect;
 import org.eclipse.tracecompass.incubator.internal.uftrace.core.trace.Uftrace.PidAspect;
@@ -66,6 +67,10 @@ public class UfCallstackProvider extends CallStackStateProvider {
 
     @Override
     protected @Nullable Object functionEntry(@NonNull ITmfEvent event) {
+        if (event instanceof UfEvent) {
+            UfEvent ufEvent = (UfEvent) event;
+            return ufEvent.getTypeIndex() == DatEvent.TYPE_ENTRY ? ufEvent.getAddress() : null;
+        }
         ITmfEventField content = event.getContent();
         Object payload = content.getValue();
         if (payload instanceof DatEvent) {
@@ -79,6 +84,10 @@ public class UfCallstackProvider extends CallStackStateProvider {
 
     @Override
     protected @Nullable Object functionExit(@NonNull ITmfEvent event) {
+        if (event instanceof UfEvent) {
+            UfEvent ufEvent = (UfEvent) event;
+            return ufEvent.getTypeIndex() == DatEvent.TYPE_EXIT ? ufEvent.getAddress() : null;
+        }
         ITmfEventField content = event.getContent();
         Object payload = content.getValue();
         if (payload instanceof DatEvent) {
@@ -103,6 +112,9 @@ public class UfCallstackProvider extends CallStackStateProvider {
 
     @Override
     protected long getThreadId(@NonNull ITmfEvent event) {
+        if (event instanceof UfEvent) {
+            return ((UfEvent) event).getTid();
+        }
         Integer resolve = fTidAspect.resolve(event);
         return resolve == null ? -1 : resolve.longValue();
     }
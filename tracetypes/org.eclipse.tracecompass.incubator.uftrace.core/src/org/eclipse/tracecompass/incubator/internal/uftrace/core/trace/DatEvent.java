@@ -33,10 +33,6 @@ public class DatEvent {
      * Type mask, first two bits
      */
     private static final long TYPE_MASK = (1L << 0) | (1L << 1);
-    /**
-     * Marker mask, third bit
-     */
-    private static final long MARKER_MASK = (1L << 2);
     /**
      * Magic number mask (4th, 5th and 6th bit)
      */
@@ -52,10 +48,17 @@ public class DatEvent {
 
     private static final String[] TYPES = { "ENTRY", "EXIT", "EVENT", "LOST" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 
+    /** Type index of a function entry, see {@link #typeOf(long)} */
+    public static final int TYPE_ENTRY = 0;
+    /** Type index of a function exit, see {@link #typeOf(long)} */
+    public static final int TYPE_EXIT = 1;
+    /** Type index of an event, see {@link #typeOf(long)} */
+    public static final int TYPE_EVENT = 2;
+    /** Type index of lost events, see {@link #typeOf(long)} */
+    public static final int TYPE_LOST = 3;
+
     private final long fTime;
-    private final String fType;
-    private final int fDepth;
-    private final long fAddress;
+    private final long fPayload;
     private final int fTid;
 
     /**
@@ -111,32 +114,74 @@ public class DatEvent {
      * @return an event
      */
     public static @Nullable DatEvent create(long nanoseconds, long payload, int tid) {
-        String type = TYPES[(int) (payload & TYPE_MASK)];
-        if (type == null) {
-            throw new IllegalStateException("Trace type cannot be null"); //$NON-NLS-1$
-        }
-        boolean moreData = (payload & MARKER_MASK) == MARKER_MASK;
-        int magic = (int) ((payload & MAGIC_MASK) >>> 3);
-        int depth = (int) ((payload & DEPTH_MASK) >>> 6);
-        long address = (payload & ADDRESS_MASK) >>> 16;
-        if (magic != UFTRACE_MAGIC_NUMBER) {
+        if (!isValid(payload)) {
             return null;
         }
-        if (moreData) {
-            // TODO: do something here
-            // it seems undefined at the moment in the spec
-        }
-        return new DatEvent(nanoseconds, type, depth, address, tid);
+        return new DatEvent(nanoseconds, payload, tid);
     }
 
-    private DatEvent(long nanoseconds, String type, int depth, long address, int tid) {
+    private DatEvent(long nanoseconds, long payload, int tid) {
         fTime = nanoseconds;
-        fType = type;
-        fDepth = depth;
-        fAddress = address;
+        fPayload = payload;
         fTid = tid;
     }
 
+    /**
+     * Check the magic number of a record payload
+     *
+     * @param payload
+     *            the second 64 bits of a record
+     * @return true if the payload is a valid record
+     */
+    public static boolean isValid(long payload) {
+        return ((payload & MAGIC_MASK) >>> 3) == UFTRACE_MAGIC_NUMBER;
+    }
+
+    /**
+     * Get the type index of a record payload, one of {@link #TYPE_ENTRY},
+     * {@link #TYPE_EXIT}, {@link #TYPE_EVENT} or {@link #TYPE_LOST}
+     *
+     * @param payload
+     *            the second 64 bits of a record
+     * @return the type index
+     */
+    public static int typeOf(long payload) {
+        return (int) (payload & TYPE_MASK);
+    }
+
+    /**
+     * Get the type name of a type index
+     *
+     * @param type
+     *            the type index, see {@link #typeOf(long)}
+     * @return the type name
+     */
+    public static String typeName(int type) {
+        return TYPES[type];
+    }
+
+    /**
+     * Get the call stack depth of a record payload
+     *
+     * @param payload
+     *            the second 64 bits of a record
+     * @return the depth
+     */
+    public static int depthOf(long payload) {
+        return (int) ((payload & DEPTH_MASK) >>> 6);
+    }
+
+    /**
+     * Get the address of a record payload
+     *
+     * @param payload
+     *            the second 64 bits of a record
+     * @return the address
+     */
+    public static long addressOf(long payload) {
+        return (payload & ADDRESS_MASK) >>> 16;
+    }
+
     /**
      * Get the event time
      *
@@ -152,7 +197,7 @@ public class DatEvent {
      * @return the type
      */
     public String getType() {
-        return fType;
+        return typeName(typeOf(fPayload));
     }
 
     /**
@@ -161,7 +206,7 @@ public class DatEvent {
      * @return the depth
      */
     public int getDepth() {
-        return fDepth;
+        return depthOf(fPayload);
     }
 
     /**
@@ -170,7 +215,7 @@ public class DatEvent {
      * @return the address
      */
     public long getAddress() {
-        return fAddress;
+        return addressOf(fPayload);
     }
 
     /**
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.uftrace.core.trace;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.NoSuchElementException;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.collect.PeekingIterator;
+
+/**
+ * Iterator on the records of a data (.dat) file. The iterator knows the byte
+ * position of the next record it will return, so it can be saved and restored
+ * later.
+ *
+ * The records are read straight from the buffer, {@link #peekTime()} and
+ * {@link #next(DatRecord)} do not allocate anything.
+ */
+public class DatIterator implements PeekingIterator<DatEvent> {
+
+    /**
+     * Size of a record in a data file
+     */
+    public static final int RECORD_SIZE = Long.BYTES * 2;
+
+    private final ByteBuffer fBuffer;
+    private final int fTid;
+    private int fPosition;
+
+    /**
+     * Constructor
+     *
+     * @param buffer
+     *            the buffer containing the whole data file, positioned at the
+     *            next record to read
+     * @param tid
+     *            the thread ID of the data file
+     */
+    public DatIterator(ByteBuffer buffer, int tid) {
+        fBuffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        fTid = tid;
+        fPosition = buffer.position();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return fBuffer.limit() - fPosition >= RECORD_SIZE;
+    }
+
+    /**
+     * Get the time of the next record without reading it
+     *
+     * @return the time of the next record
+     */
+    public long peekTime() {
+        checkNext();
+        return fBuffer.getLong(fPosition);
+    }
+
+    @Override
+    public @Nullable DatEvent peek() {
+        checkNext();
+        return DatEvent.create(fBuffer.getLong(fPosition), fBuffer.getLong(fPosition + Long.BYTES), fTid);
+    }
+
+    @Override
+    public @Nullable DatEvent next() {
+        DatEvent next = peek();
+        fPosition += RECORD_SIZE;
+        return next;
+    }
+
+    /**
+     * Read the next record in a reusable record
+     *
+     * @param record
+     *            the record to fill
+     */
+    public void next(DatRecord record) {
+        checkNext();
+        record.set(fBuffer.getLong(fPosition), fBuffer.getLong(fPosition + Long.BYTES), fTid);
+        fPosition += RECORD_SIZE;
+    }
+
+    /**
+     * Get the position in the file of the next record this iterator will
+     * return
+     *
+     * @return the byte position of the next record
+     */
+    public long getPosition() {
+        return fPosition;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("can't"); //$NON-NLS-1$
+    }
+
+    private void checkNext() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("no more data"); //$NON-NLS-1$
+        }
+    }
+}
@@ -14,12 +14,9 @@ import java.io.IOException;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
-import java.util.NoSuchElementException;
 
 import org.apache.commons.lang3.math.NumberUtils;
 
-import com.google.common.collect.PeekingIterator;
-
 /**
  *
  * The data (.dat) file
@@ -69,46 +66,36 @@ public class DatParser implements Iterable<DatEvent> {
         fStart = start;
     }
 
+    /**
+     * Get the data file
+     *
+     * @return the data file
+     */
+    public File getFile() {
+        return fFile;
+    }
+
     @Override
-    public PeekingIterator<DatEvent> iterator() {
+    public DatIterator iterator() {
+        return iterator(fStart);
+    }
 
+    /**
+     * Get an iterator starting at a given record of the file
+     *
+     * @param position
+     *            the byte position of the record in the file, typically
+     *            obtained from {@link DatIterator#getPosition()}
+     * @return the iterator
+     */
+    public DatIterator iterator(long position) {
         try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
-            MappedByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, fStart, fc.size());
+            MappedByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
             if (bb == null) {
                 throw new IllegalStateException("cannot create a byte buffer!"); //$NON-NLS-1$
             }
-            return new PeekingIterator<DatEvent>() {
-
-                DatEvent fCurrent = null;
-
-                @Override
-                public DatEvent next() {
-                    if (!hasNext()) {
-                        throw new NoSuchElementException("no more data"); //$NON-NLS-1$
-                    }
-                    fCurrent = DatEvent.create(bb,
-                            NumberUtils.toInt(fFile.getName().substring(0, fFile.getName().length() - 4)));
-                    return fCurrent;
-                }
-
-                @Override
-                public boolean hasNext() {
-                    return bb.remaining() > Long.BYTES * 2;
-                }
-
-                @Override
-                public DatEvent peek() {
-                    if (fCurrent == null && hasNext()) {
-                        return next();
-                    }
-                    return fCurrent;
-                }
-
-                @Override
-                public void remove() {
-                    throw new UnsupportedOperationException("can't"); //$NON-NLS-1$
-                }
-            };
+            bb.position((int) Math.min(position, bb.limit()));
+            return new DatIterator(bb, NumberUtils.toInt(fFile.getName().substring(0, fFile.getName().length() - 4)));
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.uftrace.core.trace;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Reusable data (.dat) record. It is filled in place by
+ * {@link DatIterator#next(DatRecord)} and {@link UfContext#next(DatRecord)}, so
+ * records can be read without allocating anything. The values are only valid
+ * until the record is filled again, use {@link #toEvent()} to keep them.
+ */
+@NonNullByDefault
+public class DatRecord {
+
+    private long fTime;
+    private long fPayload;
+    private int fTid;
+
+    void set(long time, long payload, int tid) {
+        fTime = time;
+        fPayload = payload;
+        fTid = tid;
+    }
+
+    /**
+     * Get the record time
+     *
+     * @return the time in nanoseconds
+     */
+    public long getTime() {
+        return fTime;
+    }
+
+    /**
+     * Get the raw payload of the record, the second 64 bits
+     *
+     * @return the payload
+     */
+    public long getPayload() {
+        return fPayload;
+    }
+
+    /**
+     * Get the TID of the data file of the record
+     *
+     * @return the TID
+     */
+    public int getTid() {
+        return fTid;
+    }
+
+    /**
+     * Check that the magic number of the record is valid
+     *
+     * @return true if the record is valid
+     */
+    public boolean isValid() {
+        return DatEvent.isValid(fPayload);
+    }
+
+    /**
+     * Get the type index of the record
+     *
+     * @return the type index, see {@link DatEvent#typeOf(long)}
+     */
+    public int getType() {
+        return DatEvent.typeOf(fPayload);
+    }
+
+    /**
+     * Get the record call stack depth
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return DatEvent.depthOf(fPayload);
+    }
+
+    /**
+     * Get the record address
+     *
+     * @return the address
+     */
+    public long getAddress() {
+        return DatEvent.addressOf(fPayload);
+    }
+
+    /**
+     * Copy the record to an immutable event
+     *
+     * @return the event, or null if the record is not valid
+     */
+    public @Nullable DatEvent toEvent() {
+        return DatEvent.create(fTime, fPayload, fTid);
+    }
+}
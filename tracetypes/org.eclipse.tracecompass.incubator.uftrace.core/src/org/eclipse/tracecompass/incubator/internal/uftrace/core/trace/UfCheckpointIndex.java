@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.uftrace.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
+
+/**
+ * Sparse checkpoint index of a uftrace. Every {@link #getInterval()} records,
+ * the frontier of the merge (the position of the next record in every data
+ * file) is saved, so a seek only restores the closest checkpoint and replays
+ * less than an interval of records.
+ *
+ * The index is saved along with the description of the data files it was
+ * built from, it is not loaded back if they changed. It is built in the
+ * background, the trace is read from the start until it is available.
+ */
+@NonNullByDefault
+public class UfCheckpointIndex {
+
+    /**
+     * Default number of records between checkpoints
+     */
+    public static final int DEFAULT_INTERVAL = 4096;
+
+    private static final int MAGIC = 0x55464958; // "UFIX"
+    private static final int VERSION = 1;
+
+    private final int fInterval;
+    private final List<long[]> fCheckpoints;
+
+    private UfCheckpointIndex(int interval, List<long[]> checkpoints) {
+        fInterval = interval;
+        fCheckpoints = checkpoints;
+    }
+
+    /**
+     * Build the index by reading all the records of the data files
+     *
+     * @param dats
+     *            the data files, in the order of the trace
+     * @param trace
+     *            the trace
+     * @param interval
+     *            number of records between checkpoints
+     * @param monitor
+     *            the progress monitor, checked for cancellation at every
+     *            checkpoint
+     * @return the index
+     * @throws OperationCanceledException
+     *             if the monitor was cancelled
+     */
+    public static UfCheckpointIndex build(List<DatParser> dats, ITmfTrace trace, int interval, IProgressMonitor monitor) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval); //$NON-NLS-1$
+        }
+        List<long[]> checkpoints = new ArrayList<>();
+        UfContext context = new UfContext(dats, trace);
+        long rank = 0;
+        do {
+            if (rank % interval == 0) {
+                if (monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                checkpoints.add(context.getPositions());
+            }
+            rank++;
+        } while (context.skip());
+        return new UfCheckpointIndex(interval, checkpoints);
+    }
+
+    /**
+     * Load an index from a file
+     *
+     * @param file
+     *            the index file
+     * @param dats
+     *            the data files, in the order of the trace
+     * @return the index, or null if the file does not exist, cannot be read or
+     *         was built from other data files
+     */
+    public static @Nullable UfCheckpointIndex load(File file, List<DatParser> dats) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != dats.size()) {
+                return null;
+            }
+            for (DatParser dat : dats) {
+                File datFile = dat.getFile();
+                if (!datFile.getName().equals(in.readUTF()) || datFile.length() != in.readLong() || datFile.lastModified() != in.readLong()) {
+                    return null;
+                }
+            }
+            int interval = in.readInt();
+            int nbCheckpoints = in.readInt();
+            if (interval <= 0 || nbCheckpoints <= 0) {
+                return null;
+            }
+            List<long[]> checkpoints = new ArrayList<>(nbCheckpoints);
+            for (int i = 0; i < nbCheckpoints; i++) {
+                long[] positions = new long[dats.size()];
+                for (int j = 0; j < positions.length; j++) {
+                    positions[j] = in.readLong();
+                }
+                checkpoints.add(positions);
+            }
+            return new UfCheckpointIndex(interval, checkpoints);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Save the index to a file
+     *
+     * @param file
+     *            the index file
+     * @param dats
+     *            the data files the index was built from
+     * @throws IOException
+     *             the file could not be written
+     */
+    public void save(File file, List<DatParser> dats) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dats.size());
+            for (DatParser dat : dats) {
+                File datFile = dat.getFile();
+                out.writeUTF(datFile.getName());
+                out.writeLong(datFile.length());
+                out.writeLong(datFile.lastModified());
+            }
+            out.writeInt(fInterval);
+            out.writeInt(fCheckpoints.size());
+            for (long[] positions : fCheckpoints) {
+                for (long position : positions) {
+                    out.writeLong(position);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of records between checkpoints
+     *
+     * @return the interval
+     */
+    public int getInterval() {
+        return fInterval;
+    }
+
+    /**
+     * Get a context positioned before a given record. The closest checkpoint is
+     * restored and the remaining records are skipped.
+     *
+     * @param dats
+     *            the data files, in the order of the trace
+     * @param trace
+     *            the trace
+     * @param rank
+     *            the number of records to read before the context
+     * @return the context, at the end of the trace if the rank is past it
+     */
+    public UfContext seek(List<DatParser> dats, ITmfTrace trace, long rank) {
+        int checkpoint = (int) Math.min(Math.max(rank, 0) / fInterval, fCheckpoints.size() - 1L);
+        long current = (long) checkpoint * fInterval;
+        return skip(new UfContext(dats, trace, fCheckpoints.get(checkpoint), current), current, rank);
+    }
+
+    /**
+     * Skip records of a context until it is positioned before a given record
+     *
+     * @param context
+     *            the context
+     * @param start
+     *            the rank of the context
+     * @param rank
+     *            the number of records to read before the context
+     * @return the context, at the end of the trace if the rank is past it
+     */
+    public static UfContext skip(UfContext context, long start, long rank) {
+        long current = start;
+        while (current < rank && context.skip()) {
+            current++;
+        }
+        context.setRank(current);
+        context.setLocation(new TmfLongLocation(current * DatIterator.RECORD_SIZE));
+        return context;
+    }
+}
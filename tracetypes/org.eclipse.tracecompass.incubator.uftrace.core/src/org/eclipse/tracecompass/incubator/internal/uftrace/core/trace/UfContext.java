@@ -9,29 +9,36 @@
 
 package org.eclipse.tracecompass.incubator.internal.uftrace.core.trace;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.PriorityQueue;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
-import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
-import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
-import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
 
-import com.google.common.collect.PeekingIterator;
-
 /**
- * Naive context
+ * Context merging the data files by time. Its location is the number of records
+ * read times the size of a record.
  *
  * @author Matthew Khouzam
  *
  */
 public class UfContext extends TmfContext {
 
-    private PriorityQueue<PeekingIterator<DatEvent>> fQueue = new PriorityQueue<>(
-            (o1, o2) -> Long.compare(o1.peek().getTime(), o2.peek().getTime()));
+    /*
+     * Ties are broken by stream so that a context restored from a saved
+     * frontier reads the records in the same order as a sequential read
+     */
+    private PriorityQueue<Stream> fQueue = new PriorityQueue<>(
+            (o1, o2) -> {
+                int cmp = Long.compare(o1.fIterator.peekTime(), o2.fIterator.peekTime());
+                return cmp != 0 ? cmp : Integer.compare(o1.fIndex, o2.fIndex);
+            });
+    private final List<DatIterator> fIterators = new ArrayList<>();
+    private final DatRecord fRecord = new DatRecord();
     private ITmfTrace fTrace;
 
     /**
@@ -43,12 +50,32 @@ public class UfContext extends TmfContext {
      *            trace
      */
     public UfContext(Iterable<DatParser> dats, ITmfTrace trace) {
+        this(dats, trace, null, 0);
+    }
+
+    /**
+     * Constructor restoring a saved frontier
+     *
+     * @param dats
+     *            data streams
+     * @param trace
+     *            trace
+     * @param positions
+     *            the position of the next record to read in every data stream,
+     *            as returned by {@link #getPositions()}, or null to start at
+     *            the beginning
+     * @param rank
+     *            the number of records read before these positions
+     */
+    public UfContext(Iterable<DatParser> dats, ITmfTrace trace, long @Nullable [] positions, long rank) {
+        super(new TmfLongLocation(rank * DatIterator.RECORD_SIZE), rank);
         fTrace = trace;
         for (DatParser dp : dats) {
-            PeekingIterator<DatEvent> iterator = dp.iterator();
+            DatIterator iterator = positions == null ? dp.iterator() : dp.iterator(positions[fIterators.size()]);
             if (iterator.hasNext()) {
-                fQueue.add(iterator);
+                fQueue.add(new Stream(iterator, fIterators.size()));
             }
+            fIterators.add(iterator);
         }
     }
 
@@ -58,29 +85,70 @@ public class UfContext extends TmfContext {
     }
 
     /**
-     * Get next event, like an iterator
+     * Get the frontier of this context, the position of the next record to
+     * read in every data stream
+     *
+     * @return the positions, in the order of the data streams
+     */
+    public long[] getPositions() {
+        long[] positions = new long[fIterators.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = fIterators.get(i).getPosition();
+        }
+        return positions;
+    }
+
+    /**
+     * Get next event, like an iterator. The location of the context is not
+     * updated, the trace does it.
      *
      * @return the next event or null
      */
-    public ITmfEvent getNext() {
-        PeekingIterator<DatEvent> eventSource = fQueue.poll();
-        if (eventSource != null) {
-            DatEvent event = eventSource.next();
-            if (eventSource.hasNext()) {
-                fQueue.add(eventSource);
-            }
-            TmfEvent tmfEvent = new TmfEvent(fTrace, getRank(), fTrace.createTimestamp(event.getTime()),
-                    UfEventType.lookup(event.getType()),
-                    new TmfEventField(ITmfEventField.ROOT_FIELD_ID, event, null));
-            TmfLongLocation location = getLocation();
-            if (location != null) {
-                setLocation(new TmfLongLocation(location.getLocationInfo() + Long.BYTES * 2));
-            } else {
-                setLocation(new TmfLongLocation(Long.BYTES * 2));
-            }
-            return tmfEvent;
+    public @Nullable ITmfEvent getNext() {
+        DatRecord record = fRecord;
+        if (!next(record) || !record.isValid()) {
+            return null;
+        }
+        return new UfEvent(fTrace, getRank(), record);
+    }
+
+    /**
+     * Read the next record, in time order, in a reusable record. Nothing is
+     * allocated and the location of the context is not updated.
+     *
+     * @param record
+     *            the record to fill
+     * @return true if a record was read, false at the end of the streams
+     */
+    public boolean next(DatRecord record) {
+        Stream eventSource = fQueue.poll();
+        if (eventSource == null) {
+            return false;
+        }
+        eventSource.fIterator.next(record);
+        if (eventSource.fIterator.hasNext()) {
+            fQueue.add(eventSource);
+        }
+        return true;
+    }
+
+    /**
+     * Skip the next record without creating an event
+     *
+     * @return true if a record was skipped, false at the end of the streams
+     */
+    public boolean skip() {
+        return next(fRecord);
+    }
+
+    private static final class Stream {
+        private final DatIterator fIterator;
+        private final int fIndex;
+
+        public Stream(DatIterator iterator, int index) {
+            fIterator = iterator;
+            fIndex = index;
         }
-        return null;
     }
 
 }
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.uftrace.core.trace;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+/**
+ * UFTrace event. It keeps the raw record and only builds its content, a
+ * {@link DatEvent} field, when it is asked for. Analyses can use the getters
+ * of this class to avoid building the content.
+ */
+public class UfEvent extends TmfEvent {
+
+    private final long fTime;
+    private final long fPayload;
+    private final int fTid;
+    private @Nullable ITmfEventField fContent = null;
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            the trace
+     * @param rank
+     *            the rank of the event
+     * @param record
+     *            the record of the event, it is copied
+     */
+    public UfEvent(ITmfTrace trace, long rank, DatRecord record) {
+        /* The content is built lazily, see getContent() */
+        super(trace, rank, trace.createTimestamp(record.getTime()), UfEventType.lookup(record.getType()), null);
+        fTime = record.getTime();
+        fPayload = record.getPayload();
+        fTid = record.getTid();
+    }
+
+    @Override
+    public ITmfEventField getContent() {
+        ITmfEventField content = fContent;
+        if (content == null) {
+            content = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, DatEvent.create(fTime, fPayload, fTid), null);
+            fContent = content;
+        }
+        return content;
+    }
+
+    /**
+     * Get the type index of the event
+     *
+     * @return the type index, see {@link DatEvent#typeOf(long)}
+     */
+    public int getTypeIndex() {
+        return DatEvent.typeOf(fPayload);
+    }
+
+    /**
+     * Get the event call stack depth
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return DatEvent.depthOf(fPayload);
+    }
+
+    /**
+     * Get the event address
+     *
+     * @return the address
+     */
+    public long getAddress() {
+        return DatEvent.addressOf(fPayload);
+    }
+
+    /**
+     * Get the event TID
+     *
+     * @return the TID
+     */
+    public int getTid() {
+        return fTid;
+    }
+}
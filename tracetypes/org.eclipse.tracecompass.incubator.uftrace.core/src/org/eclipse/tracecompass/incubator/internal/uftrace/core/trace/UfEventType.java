@@ -42,6 +42,8 @@ public class UfEventType extends TmfEventType {
     /** The event types */
     public static final Set<? extends ITmfEventType> TYPES = ImmutableSet.of(UfEventType.ENTRY, UfEventType.EXIT, UfEventType.EVENT, UfEventType.LOST);
 
+    private static final UfEventType[] BY_INDEX = { ENTRY, EXIT, EVENT, LOST };
+
     private UfEventType(String name) {
         super(name, ROOT);
     }
@@ -68,4 +70,15 @@ public class UfEventType extends TmfEventType {
         }
     }
 
+    /**
+     * Lookup the event type from the type index of a record
+     *
+     * @param type
+     *            the type index, see {@link DatEvent#typeOf(long)}
+     * @return the event type
+     */
+    public static ITmfEventType lookup(int type) {
+        return BY_INDEX[type];
+    }
+
 }
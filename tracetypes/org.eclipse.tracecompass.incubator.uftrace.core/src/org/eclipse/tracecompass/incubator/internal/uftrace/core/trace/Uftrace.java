@@ -14,14 +14,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
 import java.util.Set;
 
 import org.apache.commons.io.FilenameUtils;
@@ -29,9 +28,13 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.tracecompass.analysis.os.linux.core.event.aspect.LinuxPidAspect;
 import org.eclipse.tracecompass.analysis.os.linux.core.event.aspect.LinuxTidAspect;
 import org.eclipse.tracecompass.incubator.analysis.core.aspects.ThreadNameAspect;
@@ -51,6 +54,7 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceKnownSize;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceWithPreDefinedEvents;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
 import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
@@ -77,7 +81,9 @@ import com.google.common.collect.Iterables;
 public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
         ITmfTraceKnownSize, ITmfTraceWithPreDefinedEvents {
 
-    private Collection<DatParser> fDats = new ArrayList<>();
+    private static final String CHECKPOINT_FILE_NAME = "uftrace.checkpoints"; //$NON-NLS-1$
+
+    private List<DatParser> fDats = new ArrayList<>();
     private Map<Long, MapParser> fMap = new HashMap<>();
     private Map<String, SymParser> fSyms = new HashMap<>();
     private TaskParser fTasks;
@@ -92,6 +98,11 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
     private final @NonNull PidAspect fPidAspect = new PidAspect();
     private final @NonNull ExecAspect fExecAspect = new ExecAspect();
     private @Nullable String fHostId = null;
+    /**
+     * Checkpoint index, set once it is loaded or built in the background
+     */
+    private volatile @Nullable UfCheckpointIndex fCheckpointIndex = null;
+    private @Nullable Job fCheckpointJob = null;
 
     @Override
     public Iterable<ITmfEventAspect<?>> getEventAspects() {
@@ -110,6 +121,9 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
 
                     @Override
                     public @Nullable Integer resolve(ITmfEvent event) {
+                        if (event instanceof UfEvent) {
+                            return ((UfEvent) event).getDepth();
+                        }
                         Object fieldValue = event.getContent().getValue();
                         if (fieldValue instanceof DatEvent) {
                             return ((DatEvent) fieldValue).getDepth();
@@ -130,12 +144,16 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
 
                     @Override
                     public @Nullable String resolve(ITmfEvent event) {
-                        if (event.getContent().getValue() instanceof DatEvent) {
+                        TmfResolvedSymbol symbol = null;
+                        if (event instanceof UfEvent) {
+                            UfEvent ufEvent = (UfEvent) event;
+                            symbol = fSymbolProvider.getSymbol(ufEvent.getTid(), 0, ufEvent.getAddress());
+                        } else if (event.getContent().getValue() instanceof DatEvent) {
                             DatEvent datEvent = (DatEvent) event.getContent().getValue();
-                            TmfResolvedSymbol symbol = fSymbolProvider.getSymbol(datEvent.getTid(), 0, datEvent.getAddress());
-                            if (symbol != null) {
-                                return symbol.getSymbolName();
-                            }
+                            symbol = fSymbolProvider.getSymbol(datEvent.getTid(), 0, datEvent.getAddress());
+                        }
+                        if (symbol != null) {
+                            return symbol.getSymbolName();
                         }
                         return null;
                     }
@@ -243,6 +261,54 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
                 throw new TmfTraceException(e.getMessage(), e);
             }
         }
+        // The checkpoints depend on the order of the data files
+        fDats.sort(Comparator.comparing(dat -> dat.getFile().getName()));
+        openCheckpointIndex();
+    }
+
+    /**
+     * Read the checkpoint index from the supplementary files, or build it in
+     * the background if it does not exist or is out of date. The seeks read
+     * the trace from the start until it is available.
+     */
+    private void openCheckpointIndex() {
+        File file = new File(TmfTraceManager.getSupplementaryFileDir(this), CHECKPOINT_FILE_NAME);
+        UfCheckpointIndex index = UfCheckpointIndex.load(file, fDats);
+        if (index != null) {
+            fCheckpointIndex = index;
+            return;
+        }
+        Job job = new Job(NLS.bind(Messages.Uftrace_Indexing, getName())) {
+            @Override
+            protected IStatus run(@Nullable IProgressMonitor monitor) {
+                UfCheckpointIndex built;
+                try {
+                    built = UfCheckpointIndex.build(fDats, Uftrace.this, UfCheckpointIndex.DEFAULT_INTERVAL, monitor == null ? new NullProgressMonitor() : monitor);
+                } catch (OperationCanceledException e) {
+                    return Status.CANCEL_STATUS;
+                }
+                try {
+                    built.save(file, fDats);
+                } catch (IOException e) {
+                    Activator.getInstance().logWarning("Cannot save the checkpoint index of " + getName(), e); //$NON-NLS-1$
+                }
+                fCheckpointIndex = built;
+                return Status.OK_STATUS;
+            }
+        };
+        job.setSystem(true);
+        fCheckpointJob = job;
+        job.schedule();
+    }
+
+    @Override
+    public synchronized void dispose() {
+        Job job = fCheckpointJob;
+        fCheckpointJob = null;
+        if (job != null) {
+            job.cancel();
+        }
+        super.dispose();
     }
 
     @Override
@@ -252,32 +318,22 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
 
     @Override
     public double getLocationRatio(ITmfLocation location) {
-        return (long) location.getLocationInfo() / fSize;
+        return (double) (long) location.getLocationInfo() / fSize;
     }
 
     @Override
     public ITmfContext seekEvent(ITmfLocation location) {
-        UfContext context = new UfContext(fDats, this);
-        if (location == null) {
-            return context;
-        }
         if (location instanceof TmfLongLocation) {
-            TmfLongLocation longLocation = (TmfLongLocation) location;
-            if (longLocation.getLocationInfo().longValue() == 0) {
-                return context;
-            }
-            while (context.getLocation() != null && Long.compare(longLocation.getLocationInfo(), Objects.requireNonNull(context.getLocation()).getLocationInfo()) >= 0) {
-                ITmfEvent next = context.getNext();
-                if (next == null) {
-                    break;
-                }
-                updateAttributes(context, next);
-                if (context.getLocation() == null) {
-                    return context;
+            long rank = ((TmfLongLocation) location).getLocationInfo() / DatIterator.RECORD_SIZE;
+            if (rank > 0) {
+                UfCheckpointIndex index = fCheckpointIndex;
+                if (index != null) {
+                    return index.seek(fDats, this, rank);
                 }
+                return UfCheckpointIndex.skip(new UfContext(fDats, this), 0, rank);
             }
         }
-        return context;
+        return new UfContext(fDats, this);
     }
 
     @Override
@@ -287,17 +343,14 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
 
     @Override
     public ITmfEvent parseEvent(@Nullable ITmfContext ctx) {
-        ITmfContext context = ctx;
-        if (context == null) {
-            context = seekEvent(0);
-        }
         if (ctx instanceof UfContext) {
             UfContext ufContext = (UfContext) ctx;
+            TmfLongLocation location = ufContext.getLocation();
+            long previous = location == null ? 0L : location.getLocationInfo();
             ITmfEvent tmfEvent = ufContext.getNext();
             if (tmfEvent != null) {
-                fCurrentLoc = new TmfLongLocation(fCurrentLoc.getLocationInfo() + Long.BYTES * 2);
-                ctx.setLocation(fCurrentLoc);
-                updateAttributes(context, tmfEvent);
+                // TmfTrace.getNext() moves the context to the current location
+                fCurrentLoc = new TmfLongLocation(previous + DatIterator.RECORD_SIZE);
                 return tmfEvent;
             }
         }
@@ -336,6 +389,24 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
         return fSymbolProvider;
     }
 
+    /**
+     * Get the TID of an event without building its content when possible
+     *
+     * @param event
+     *            the event
+     * @return the TID or -1 if the event is not a uftrace event
+     */
+    private static int getTid(ITmfEvent event) {
+        if (event instanceof UfEvent) {
+            return ((UfEvent) event).getTid();
+        }
+        Object value = event.getContent().getValue();
+        if (value instanceof DatEvent) {
+            return ((DatEvent) value).getTid();
+        }
+        return -1;
+    }
+
     /**
      * TID aspect for UFTrace
      *
@@ -344,11 +415,8 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
     public final class TidAspect extends LinuxTidAspect {
         @Override
         public @Nullable Integer resolve(ITmfEvent event) {
-            if (event.getContent().getValue() instanceof DatEvent) {
-                DatEvent datEvent = (DatEvent) event.getContent().getValue();
-                return datEvent.getTid();
-            }
-            return null;
+            int tid = getTid(event);
+            return tid == -1 ? null : tid;
         }
     }
 
@@ -360,12 +428,8 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
     public final class PidAspect extends LinuxPidAspect {
         @Override
         public @Nullable Integer resolve(ITmfEvent event) {
-            if (event.getContent().getValue() instanceof DatEvent) {
-                DatEvent datEvent = (DatEvent) event.getContent().getValue();
-                int tid = datEvent.getTid();
-                return fTasks.getPid(tid);
-            }
-            return null;
+            int tid = getTid(event);
+            return tid == -1 ? null : fTasks.getPid(tid);
         }
     }
 
@@ -378,12 +442,8 @@ public class Uftrace extends TmfTrace implements ITmfPropertiesProvider,
 
         @Override
         public @Nullable String resolve(@NonNull ITmfEvent event) {
-            if (event.getContent().getValue() instanceof DatEvent) {
-                DatEvent datEvent = (DatEvent) event.getContent().getValue();
-                int tid = datEvent.getTid();
-                return fTasks.getExecName(tid);
-            }
-            return null;
+            int tid = getTid(event);
+            return tid == -1 ? null : fTasks.getExecName(tid);
         }
     }
 